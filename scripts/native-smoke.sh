@@ -0,0 +1,104 @@
+#!/bin/bash
+# 네이티브 실행 파일 스모크 테스트
+# 표준입출력으로 대표 요청을 보내 응답을 확인하고, 같은 요청을 JAR로도 실행하여
+# 첫 initialize 응답까지의 시간과 최대 RSS를 비교합니다.
+#
+# 사용법: scripts/native-smoke.sh [네이티브 실행 파일] [JAR 파일]
+#   mvn -Pnative verify 의 integration-test 단계에서도 실행됩니다.
+
+# 스크립트가 있는 디렉토리의 상위 디렉토리로 이동
+cd "$(dirname "$0")/.."
+
+NATIVE=${1:-target/mcp-server}
+JAR=${2:-target/mcp-server-example-1.0.0.jar}
+
+# 요청과 응답에 포함되어야 하는 문자열 (응답이 없는 알림은 기대값을 비움)
+REQUESTS=(
+    '{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"native-smoke","version":"1.0.0"}}}'
+    '{"jsonrpc":"2.0","method":"notifications/initialized"}'
+    '{"jsonrpc":"2.0","id":2,"method":"tools/list"}'
+    '{"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"calculator","arguments":{"a":2,"b":3,"operation":"add"}}}'
+    '{"jsonrpc":"2.0","id":4,"method":"tools/call","params":{"name":"calculator","arguments":{"expression":"a * x + b","variables":{"a":2,"b":1,"x":[1,2]}}}}'
+    '{"jsonrpc":"2.0","id":5,"method":"tools/call","params":{"name":"greeting","arguments":{"name":"홍길동","language":"korean"}}}'
+    '{"jsonrpc":"2.0","id":6,"method":"resources/read","params":{"uri":"server://status"}}'
+    '{"jsonrpc":"2.0","id":7,"method":"resources/read","params":{"uri":"metrics://server"}}'
+    '{"jsonrpc":"2.0","id":8,"method":"prompts/get","params":{"name":"code_review","arguments":{"code":"int x = 1;","language":"java"}}}'
+    '{"jsonrpc":"2.0","id":9,"method":"unknown/method"}'
+    '{"jsonrpc":"2.0","id":10,"method":'
+)
+EXPECTED=(
+    '"serverInfo"'
+    ''
+    '"calculator"'
+    '5.00'
+    '"isError":false'
+    '"isError":false'
+    'uptime_ms'
+    'jvm_to_first_initialize_ms'
+    '"messages"'
+    '-32601'
+    '-32700'
+)
+
+FAILED=0
+
+# smoke <이름> <명령...>: 요청을 순서대로 보내 응답을 확인하고 "기동 ms, 최대 RSS KB"를 출력
+smoke() {
+    local label=$1
+    shift
+
+    local start end startup rss line i
+    start=$(date +%s%N)
+    coproc SERVER { exec "$@" 2>/dev/null; }
+    local pid=$SERVER_PID
+
+    for i in "${!REQUESTS[@]}"; do
+        printf '%s\n' "${REQUESTS[$i]}" >&"${SERVER[1]}"
+        if [ -z "${EXPECTED[$i]}" ]; then
+            continue
+        fi
+        if ! IFS= read -r -t 30 line <&"${SERVER[0]}"; then
+            echo "[$label] 응답 없음: ${REQUESTS[$i]}" >&2
+            FAILED=1
+            break
+        fi
+        if [ "$i" -eq 0 ]; then
+            end=$(date +%s%N)
+            startup=$(( (end - start) / 1000000 ))
+        fi
+        if [[ "$line" != *"${EXPECTED[$i]}"* ]]; then
+            echo "[$label] 예상과 다른 응답: ${REQUESTS[$i]}" >&2
+            echo "    기대: ${EXPECTED[$i]}" >&2
+            echo "    응답: $line" >&2
+            FAILED=1
+        fi
+    done
+
+    # 최대 RSS (Linux는 VmHWM, 그 외에는 현재 RSS)
+    if [ -r "/proc/$pid/status" ]; then
+        rss=$(awk '/^VmHWM/ {print $2}' "/proc/$pid/status")
+    else
+        rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    fi
+
+    exec {SERVER[1]}>&-
+    wait "$pid" 2>/dev/null
+
+    printf '%-8s 첫 initialize %6s ms   최대 RSS %8s KB\n' "$label" "${startup:--}" "${rss:--}"
+}
+
+if [ ! -x "$NATIVE" ]; then
+    echo "네이티브 실행 파일이 없습니다: $NATIVE (mvn -Pnative package)" >&2
+    exit 1
+fi
+
+smoke native "$NATIVE"
+if [ -f "$JAR" ]; then
+    smoke jar java -Dfile.encoding=UTF-8 -jar "$JAR"
+fi
+
+if [ "$FAILED" -ne 0 ]; then
+    echo "스모크 테스트 실패" >&2
+    exit 1
+fi
+echo "스모크 테스트 통과"
@@ -0,0 +1,99 @@
+package org.devlion.mcp.server;
+
+import org.devlion.mcp.server.schedule.SessionScheduler;
+import org.devlion.mcp.server.schema.McpMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 처리 경로의 단계별 벤치마크
+ *
+ * parse, dispatch, serialize를 각각 따로 측정하고, 세 단계를 이어서 end-to-end로도 측정합니다.
+ * 표준출력 쓰기는 제외하며 직렬화 결과는 버립니다. 오류 응답이나 isError 결과가 나오는 케이스는 시작하지 않습니다.
+ * 할당량은 {@code -prof gc}의 gc.alloc.rate.norm (B/op)으로 확인합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractRequestBenchmark {
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private McpServerMain server;
+    private SessionScheduler scheduler;
+    private String line;
+    private McpMessage request;
+    private McpMessage response;
+
+    protected abstract String benchmarkCase();
+
+    protected abstract int payloadSize();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkRequests.prepare(benchmarkCase(), payloadSize());
+        server = new McpServerMain();
+        if (BenchmarkRequests.needsScheduler(benchmarkCase())) {
+            scheduler = SessionScheduler.fromSystemProperties();
+            server.useScheduler(scheduler);
+        }
+        line = BenchmarkRequests.line(benchmarkCase(), payloadSize());
+        request = server.parseRequest(line);
+        response = server.dispatch(request);
+        if (response == null || response.getError() != null || isToolError(response)) {
+            throw new IllegalStateException("벤치마크 요청이 실패했습니다: " + benchmarkCase()
+                + (response == null ? "" : " " + (response.getError() != null ? response.getError().getMessage() : response.getResult())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    private static boolean isToolError(McpMessage response) {
+        Object result = response.getResult();
+        return result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("isError"));
+    }
+
+    @Benchmark
+    public McpMessage parse() throws IOException {
+        return server.parseRequest(line);
+    }
+
+    @Benchmark
+    public McpMessage dispatch() {
+        return server.dispatch(request);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        server.serializeResponse(response, sink);
+    }
+
+    @Benchmark
+    public void endToEnd(Blackhole blackhole) throws IOException {
+        McpMessage parsed = server.parseRequest(line);
+        McpMessage result = server.dispatch(parsed);
+        server.serializeResponse(result, sink);
+        blackhole.consume(result);
+    }
+}
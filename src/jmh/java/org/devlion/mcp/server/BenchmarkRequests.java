@@ -0,0 +1,162 @@
+package org.devlion.mcp.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 벤치마크에 사용할 요청 JSON을 만드는 클래스
+ *
+ * 케이스 이름은 메서드 이름이며, tools/call, resources/read, prompts/get은 ':' 뒤에 대상 이름을 붙입니다.
+ * payloadSize는 케이스마다 의미가 다릅니다 (문자열 길이, 수식 행 수, batch 항목 수, 파일 크기).
+ * {@code resources/read:file://이름}은 리소스 루트 아래의 파일을 읽으며, 이름이 없으면 루트 디렉터리 목록을 읽습니다.
+ */
+final class BenchmarkRequests {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** file:// 리소스 루트와 결과 캐시를 두는 디렉터리 */
+    private static final Path FIXTURES = Paths.get("target", "jmh-fixtures");
+    private static final String FILE_SCHEME = "file://";
+
+    private BenchmarkRequests() {
+    }
+
+    /**
+     * 서버를 만들기 전에 케이스에 필요한 파일과 시스템 속성을 준비합니다.
+     * file:// 케이스는 payloadSize 크기의 텍스트 파일을 만들어 리소스 루트로, cache://persistent 케이스는 결과 캐시 디렉터리를 지정합니다.
+     */
+    static void prepare(String benchmarkCase, int payloadSize) throws IOException {
+        if (benchmarkCase.startsWith("resources/read:" + FILE_SCHEME)) {
+            Path root = Files.createDirectories(FIXTURES.resolve("files"));
+            Files.writeString(root.resolve("sample.txt"), text(payloadSize));
+            System.setProperty("mcp.resource.roots", root.toRealPath().toString());
+        } else if (benchmarkCase.equals("resources/read:cache://persistent")) {
+            System.setProperty("mcp.cache.dir", FIXTURES.resolve("cache").toAbsolutePath().toString());
+        }
+    }
+
+    /**
+     * 세션 스케줄러가 있어야 하는 케이스인지 여부
+     */
+    static boolean needsScheduler(String benchmarkCase) {
+        return benchmarkCase.equals("resources/read:sessions://usage");
+    }
+
+    static String line(String benchmarkCase, int payloadSize) throws JsonProcessingException {
+        String method = benchmarkCase;
+        String target = null;
+        int colon = benchmarkCase.indexOf(':');
+        if (colon > 0) {
+            method = benchmarkCase.substring(0, colon);
+            target = benchmarkCase.substring(colon + 1);
+        }
+
+        Map<String, Object> params;
+        switch (method) {
+            case "initialize":
+                params = Map.of(
+                    "protocolVersion", "2024-11-05",
+                    "capabilities", Map.of(),
+                    "clientInfo", Map.of("name", "jmh", "version", "1.0.0")
+                );
+                break;
+            case "tools/call":
+                params = Map.of("name", toolName(target), "arguments", toolArguments(target, payloadSize));
+                break;
+            case "resources/read":
+                params = Map.of("uri", resourceUri(target));
+                break;
+            case "prompts/get":
+                params = Map.of("name", target, "arguments", promptArguments(target, payloadSize));
+                break;
+            default:
+                params = null;
+        }
+
+        Map<String, Object> request = new HashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("id", 1);
+        request.put("method", method);
+        if (params != null) {
+            request.put("params", params);
+        }
+        return objectMapper.writeValueAsString(request);
+    }
+
+    private static String resourceUri(String target) {
+        if (!target.startsWith(FILE_SCHEME)) {
+            return target;
+        }
+        try {
+            return FIXTURES.resolve("files").resolve(target.substring(FILE_SCHEME.length())).toRealPath().toUri().toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("벤치마크 파일이 없습니다. prepare를 먼저 호출해야 합니다: " + target, e);
+        }
+    }
+
+    private static String toolName(String target) {
+        return "calculator_expression".equals(target) ? "calculator" : target;
+    }
+
+    private static Map<String, Object> toolArguments(String target, int payloadSize) {
+        switch (target) {
+            case "current_time":
+                return Map.of("format", "yyyy-MM-dd HH:mm:ss");
+            case "calculator":
+                return Map.of("a", 12.5, "b", 3, "operation", "multiply");
+            case "calculator_expression": {
+                int rows = Math.max(1, payloadSize / 8);
+                List<Double> x = new ArrayList<>(rows);
+                for (int i = 0; i < rows; i++) {
+                    x.add((double) i);
+                }
+                return Map.of("expression", "a * x^2 + sqrt(x) - b", "variables", Map.of("a", 2, "b", 1, "x", x));
+            }
+            case "greeting":
+                return Map.of("name", text(payloadSize), "language", "english");
+            case "batch": {
+                int items = Math.max(1, payloadSize / 64);
+                List<Map<String, Object>> list = new ArrayList<>(items);
+                for (int i = 0; i < items; i++) {
+                    list.add(Map.of("a", i, "b", 2, "operation", "add"));
+                }
+                return Map.of("tool", "calculator", "arguments_list", list);
+            }
+            default:
+                throw new IllegalArgumentException("알 수 없는 도구 케이스: " + target);
+        }
+    }
+
+    private static Map<String, Object> promptArguments(String target, int payloadSize) {
+        switch (target) {
+            case "code_review":
+                return Map.of("code", text(payloadSize), "language", "java", "focus_areas", "performance");
+            case "document_summary":
+                return Map.of("document", text(payloadSize), "summary_length", "short");
+            case "tech_question":
+                return Map.of("question", text(payloadSize), "domain", "backend");
+            default:
+                throw new IllegalArgumentException("알 수 없는 프롬프트 케이스: " + target);
+        }
+    }
+
+    /**
+     * 한글과 ASCII가 섞인 길이 length의 문자열
+     */
+    private static String text(int length) {
+        String unit = "int value = 42; // 값을 계산합니다\n";
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(unit, 0, Math.min(unit.length(), length - sb.length()));
+        }
+        return sb.toString();
+    }
+}
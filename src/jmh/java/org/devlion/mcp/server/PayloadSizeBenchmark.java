@@ -0,0 +1,37 @@
+package org.devlion.mcp.server;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 인수 크기에 따라 비용이 달라지는 요청의 벤치마크
+ *
+ * 프롬프트 결과 캐시가 켜져 있으면 dispatch는 캐시 적중 경로를 측정합니다.
+ * 렌더링 비용을 보려면 {@code -jvmArgsAppend -Dmcp.prompt.cacheMaxBytes=0}으로 캐시를 끄세요.
+ */
+@State(Scope.Benchmark)
+public class PayloadSizeBenchmark extends AbstractRequestBenchmark {
+
+    @Param({
+        "tools/call:calculator_expression",
+        "tools/call:greeting",
+        "tools/call:batch",
+        "prompts/get:code_review",
+        "prompts/get:document_summary"
+    })
+    public String method;
+
+    @Param({"1024", "65536", "1048576"})
+    public int payloadSize;
+
+    @Override
+    protected String benchmarkCase() {
+        return method;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
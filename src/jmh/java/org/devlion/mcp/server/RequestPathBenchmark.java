@@ -0,0 +1,50 @@
+package org.devlion.mcp.server;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 모든 메서드, 도구, 리소스, 프롬프트에 대한 작은 요청 벤치마크
+ */
+@State(Scope.Benchmark)
+public class RequestPathBenchmark extends AbstractRequestBenchmark {
+
+    @Param({
+        "initialize",
+        "tools/list",
+        "resources/list",
+        "prompts/list",
+        "tools/call:current_time",
+        "tools/call:calculator",
+        "tools/call:calculator_expression",
+        "tools/call:greeting",
+        "tools/call:batch",
+        "resources/read:system://info",
+        "resources/read:server://status",
+        "resources/read:config://settings",
+        "resources/read:cache://prompts",
+        "resources/read:cache://persistent",
+        "resources/read:metrics://server",
+        "resources/read:sessions://usage",
+        "resources/read:file://",
+        "resources/read:file://sample.txt",
+        "prompts/get:code_review",
+        "prompts/get:document_summary",
+        "prompts/get:tech_question"
+    })
+    public String method;
+
+    @Param({"64"})
+    public int payloadSize;
+
+    @Override
+    protected String benchmarkCase() {
+        return method;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
@@ -0,0 +1,168 @@
+package org.devlion.mcp.server;
+
+import org.devlion.mcp.server.transport.ChannelStreams;
+import org.devlion.mcp.server.transport.SharedMemoryConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전송 방식별 요청 왕복 지연 시간 벤치마크
+ *
+ * 서버를 별도 프로세스로 띄우고 요청 한 줄을 보낸 뒤 응답 한 줄을 받을 때까지를 잽니다.
+ * <ul>
+ *   <li>stdio: 표준입출력 파이프</li>
+ *   <li>socket: 유닉스 도메인 소켓 상주 서버 ({@code --listen}, 세션 스케줄러를 거침)</li>
+ *   <li>shm: 매핑된 파일의 링 버퍼 ({@code --shm})</li>
+ * </ul>
+ * 요청 처리 비용은 같으므로 차이는 전송 방식의 복사, 시스템 호출, 깨우기 비용입니다. SampleTime 모드라 백분위도 함께 출력합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportLatencyBenchmark {
+
+    private static final long START_TIMEOUT_MILLIS = 30_000;
+
+    @Param({"stdio", "socket", "shm"})
+    public String transport;
+
+    @Param({"tools/call:calculator"})
+    public String method;
+
+    private Path directory;
+    private Process server;
+    private AutoCloseable connection;
+    private OutputStream requests;
+    private BufferedReader responses;
+    private byte[] line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("mcp-transport-");
+        line = (BenchmarkRequests.line(method, 64) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        switch (transport) {
+            case "stdio":
+                server = start();
+                requests = server.getOutputStream();
+                responses = reader(server.getInputStream());
+                break;
+            case "socket": {
+                Path socket = directory.resolve("mcp.sock");
+                server = start("--listen", socket.toString());
+                SocketChannel channel = awaitStarted(() -> SocketChannel.open(UnixDomainSocketAddress.of(socket)));
+                connection = channel;
+                requests = ChannelStreams.out(channel);
+                responses = reader(ChannelStreams.in(channel));
+                break;
+            }
+            case "shm": {
+                Path file = directory.resolve("mcp.shm");
+                server = start("--shm", file.toString());
+                SharedMemoryConnection shm = awaitStarted(() -> SharedMemoryConnection.connect(file, START_TIMEOUT_MILLIS));
+                connection = shm;
+                requests = shm.getOutputStream();
+                responses = reader(shm.getInputStream());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("알 수 없는 전송 방식: " + transport);
+        }
+
+        String response = roundTrip();
+        if (response == null || response.contains("\"error\"")) {
+            throw new IllegalStateException("벤치마크 요청이 실패했습니다: " + response);
+        }
+    }
+
+    private Process start(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(McpServerMain.class.getName());
+        command.addAll(List.of(args));
+        ProcessBuilder builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+        if (args.length > 0) {
+            builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        }
+        return builder.start();
+    }
+
+    @FunctionalInterface
+    private interface Connector<T> {
+        T connect() throws IOException;
+    }
+
+    private <T> T awaitStarted(Connector<T> connector) throws Exception {
+        long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+        while (true) {
+            try {
+                return connector.connect();
+            } catch (IOException e) {
+                if (!server.isAlive() || System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String roundTrip() throws IOException {
+        requests.write(line);
+        requests.flush();
+        return responses.readLine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        requests.close();
+        if (connection != null) {
+            connection.close();
+        }
+        server.destroy();
+        if (!server.waitFor(10, TimeUnit.SECONDS)) {
+            server.destroyForcibly();
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+}
@@ -1,49 +1,88 @@
 package org.devlion.mcp.server;
 
+import org.devlion.mcp.server.cache.PersistentCache;
+import org.devlion.mcp.server.gateway.Gateway;
+import org.devlion.mcp.server.jfr.HandlerCompletedEvent;
+import org.devlion.mcp.server.jfr.RejectionEvent;
+import org.devlion.mcp.server.jfr.RequestDispatchedEvent;
+import org.devlion.mcp.server.jfr.RequestReceivedEvent;
+import org.devlion.mcp.server.jfr.ResponseWrittenEvent;
+import org.devlion.mcp.server.logging.LogPreview;
+import org.devlion.mcp.server.logging.LogStats;
+import org.devlion.mcp.server.logging.LoggingBootstrap;
+import org.devlion.mcp.server.metrics.OperationMetrics;
+import org.devlion.mcp.server.metrics.ServerMetrics;
 import org.devlion.mcp.server.prompt.PromptRegistry;
+import org.devlion.mcp.server.resource.FileIndex;
 import org.devlion.mcp.server.resource.ResourceRegistry;
+import org.devlion.mcp.server.schedule.SessionQueue;
+import org.devlion.mcp.server.schedule.SessionScheduler;
+import org.devlion.mcp.server.tool.Bulkhead;
+import org.devlion.mcp.server.tool.RateLimits;
+import org.devlion.mcp.server.tool.ToolContext;
 import org.devlion.mcp.server.tool.ToolRegistry;
+import org.devlion.mcp.server.trace.RequestTracer;
+import org.devlion.mcp.server.trace.TraceSpan;
+import org.devlion.mcp.server.transport.SharedMemoryListener;
+import org.devlion.mcp.server.transport.StdioBridge;
+import org.devlion.mcp.server.transport.UnixSocketListener;
 import org.devlion.mcp.server.schema.McpError;
 import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.schema.Resource;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * MCP 서버의 메인 진입점
  * STDIO 전송을 사용하여 클라이언트와 통신합니다.
  */
 public class McpServerMain {
+    static {
+        // 로거를 처음 얻기 전에 시작해야 하므로 logger 필드보다 앞에 둠
+        LoggingBootstrap.startInBackground();
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(McpServerMain.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String CANCELLED = "notifications/cancelled";
+    private static final String RESOURCES_LIST_CHANGED = "notifications/resources/list_changed";
+    /** 세션 스케줄러를 거치지 않은 요청의 자리 반납 콜백 */
+    private static final Runnable NO_SLOT = () -> { };
     
-    private final ToolRegistry toolRegistry;
-    private final ResourceRegistry resourceRegistry;
-    private final PromptRegistry promptRegistry;
-    private final ExecutorService executor;
+    private final CompletableFuture<Registries> registries;
+    private final ServerMetrics metrics;
+    private final RequestTracer tracer;
+
+    /** 상주 서버 모드에서만 사용. 표준입출력 모드는 요청을 읽은 스레드에서 바로 처리 */
+    private volatile SessionScheduler scheduler;
     
     private final Map<String, Object> serverInfo;
     private final Map<String, Object> serverCapabilities;
 
+    /** 열려 있는 세션. 목록 변경 알림을 보낼 때 사용 */
+    private final Set<McpSession> sessions = ConcurrentHashMap.newKeySet();
+
     public McpServerMain() {
         // ObjectMapper UTF-8 설정 - ASCII 이스케이프 활성화로 한글 문제 방지
         this.objectMapper.configure(com.fasterxml.jackson.core.JsonGenerator.Feature.ESCAPE_NON_ASCII, true);
+        // 응답을 세션의 출력 스트림에 바로 직렬화하므로 직렬화 후 스트림을 닫지 않도록 설정
+        this.objectMapper.configure(com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
         
-        this.toolRegistry = new ToolRegistry();
-        this.resourceRegistry = new ResourceRegistry();
-        this.promptRegistry = new PromptRegistry();
-        this.executor = Executors.newCachedThreadPool();
-        
-        // 로그 디렉토리 생성
-        File logDir = new File("logs");
-        if (!logDir.exists()) {
-            logDir.mkdirs();
-        }
+        this.metrics = new ServerMetrics();
+        this.tracer = RequestTracer.fromSystemProperties();
         
         // 서버 정보 설정
         this.serverInfo = Map.of(
@@ -54,50 +93,529 @@ public class McpServerMain {
         // 서버 역량 설정
         this.serverCapabilities = Map.of(
             "tools", Map.of("listChanged", false),
-            "resources", Map.of("listChanged", false),
+            "resources", Map.of("listChanged", FileIndex.isEnabled()),
             "prompts", Map.of("listChanged", false),
             "logging", Map.of()
         );
+
+        // initialize 응답에는 레지스트리가 필요 없으므로, 첫 요청을 기다리는 동안 백그라운드에서 준비
+        if (Boolean.parseBoolean(System.getProperty("mcp.startup.deferInit", "true"))) {
+            this.registries = CompletableFuture.supplyAsync(this::createRegistries, task -> {
+                Thread thread = new Thread(task, "mcp-init");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        } else {
+            this.registries = CompletableFuture.completedFuture(createRegistries());
+        }
     }
 
+    /**
+     * 도구/리소스/프롬프트 레지스트리
+     */
+    private static final class Registries {
+        final ToolRegistry tools;
+        final ResourceRegistry resources;
+        final PromptRegistry prompts;
+
+        Registries(ToolRegistry tools, ResourceRegistry resources, PromptRegistry prompts) {
+            this.tools = tools;
+            this.resources = resources;
+            this.prompts = prompts;
+        }
+    }
+
+    /**
+     * 레지스트리를 만들고 지표 리소스를 등록합니다. 첫 요청 파싱이 빨라지도록 ObjectMapper도 미리 데워 둡니다.
+     */
+    private Registries createRegistries() {
+        PersistentCache persistentCache = PersistentCache.fromSystemProperties();
+        ToolRegistry toolRegistry = new ToolRegistry(objectMapper, persistentCache);
+        ResourceRegistry resourceRegistry = new ResourceRegistry(metrics, objectMapper);
+        PromptRegistry promptRegistry = new PromptRegistry(objectMapper, persistentCache);
+
+        // 프롬프트 결과 캐시 통계 리소스
+        resourceRegistry.registerResource(
+            new Resource("cache://prompts", "프롬프트 캐시", "렌더링된 프롬프트 캐시의 적중률과 사용량을 제공합니다", "application/json"),
+            promptRegistry.getResultCache()::stats
+        );
+
+        // 재시작해도 남는 결과 캐시 통계 리소스
+        if (persistentCache != null) {
+            resourceRegistry.registerResource(
+                new Resource("cache://persistent", "결과 캐시", "순수 도구와 프롬프트의 디스크 결과 캐시의 적중률과 사용량을 제공합니다", "application/json"),
+                persistentCache::stats
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    persistentCache.close();
+                } catch (IOException e) {
+                    logger.debug("결과 캐시를 닫는 중 오류", e);
+                }
+            }, "mcp-cache-shutdown"));
+        }
+
+        // 서버 지표 리소스
+        metrics.registerQueue("batch", toolRegistry::getBatchQueueDepth);
+        metrics.registerQueue("bulkheads", toolRegistry::getBulkheadQueueDepth);
+        metrics.registerSection("bulkheads", toolRegistry::getBulkheadStats);
+        metrics.registerSection("rate_limits", toolRegistry::getRateLimitStats);
+        metrics.registerQueue("log", LogStats::queueDepth);
+        metrics.registerSection("logging", LogStats::snapshot);
+        metrics.registerSection("file_index", resourceRegistry::getFileIndexStats);
+        metrics.registerSection("single_flight", () -> Map.of(
+            "resources", resourceRegistry.getSingleFlightStats(),
+            "tools", toolRegistry.getSingleFlightStats()
+        ));
+        resourceRegistry.onListChanged(this::notifyResourceListChanged);
+        resourceRegistry.registerResource(
+            new Resource("metrics://server", "서버 지표", "메서드/도구별 요청 수, 오류 수, 지연 시간 분포와 입출력 바이트를 제공합니다", "application/json"),
+            metrics::snapshot
+        );
+
+        try {
+            McpMessage warmup = parseRequest("{\"jsonrpc\":\"2.0\",\"id\":0,\"method\":\"tools/list\",\"params\":{}}");
+            serializeResponse(McpMessage.response(warmup.getId(), Map.of("tools", toolRegistry.getToolList())), OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            logger.debug("ObjectMapper 준비 중 오류", e);
+        }
+        logger.debug("레지스트리 준비 완료");
+        return new Registries(toolRegistry, resourceRegistry, promptRegistry);
+    }
+
+    /**
+     * 레지스트리가 준비될 때까지 기다린 뒤 반환합니다.
+     */
+    private Registries registries() {
+        return registries.join();
+    }
+
+    /**
+     * 실행 방법
+     * <ul>
+     *   <li>인수 없음: 표준입출력으로 클라이언트 하나와 통신</li>
+     *   <li>{@code --listen <소켓 경로>}: 유닉스 도메인 소켓에서 여러 세션을 받는 상주 서버</li>
+     *   <li>{@code --connect <소켓 경로>}: 표준입출력을 상주 서버로 전달. 연결할 수 없으면 직접 처리</li>
+     *   <li>{@code --shm <파일 경로>}: 매핑된 파일의 링 버퍼로 같은 호스트의 클라이언트를 하나씩 받음</li>
+     *   <li>{@code --gateway <프로세스 수>}: 작업 프로세스를 여러 개 띄우고 세션과 요청을 나누어 전달.
+     *       {@code --listen}과 함께 쓰면 소켓에서, 아니면 표준입출력으로 클라이언트를 받음</li>
+     * </ul>
+     */
     public static void main(String[] args) {
+        String listen = null;
+        String connect = null;
+        String shm = null;
+        Integer gateway = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--listen":
+                    listen = argument(args, ++i);
+                    break;
+                case "--connect":
+                    connect = argument(args, ++i);
+                    break;
+                case "--shm":
+                    shm = argument(args, ++i);
+                    break;
+                case "--gateway":
+                    gateway = Integer.valueOf(argument(args, ++i));
+                    break;
+                default:
+                    System.err.println("알 수 없는 옵션: " + args[i]);
+                    System.exit(2);
+            }
+        }
 
-        McpServerMain server = new McpServerMain();
         try {
-            server.start();
+            if (connect != null && StdioBridge.forward(Paths.get(connect))) {
+                return;
+            }
+            if (gateway != null) {
+                Gateway router = new Gateway(gateway);
+                if (listen != null) {
+                    router.listen(Paths.get(listen));
+                } else {
+                    router.start();
+                }
+                return;
+            }
+            McpServerMain server = new McpServerMain();
+            if (shm != null) {
+                server.listenSharedMemory(Paths.get(shm));
+            } else if (listen != null) {
+                server.listen(Paths.get(listen));
+            } else {
+                server.start();
+            }
         } catch (Exception e) {
             logger.error("서버 시작 중 오류가 발생했습니다", e);
             System.exit(1);
         }
     }
+
+    private static String argument(String[] args, int index) {
+        if (index >= args.length) {
+            System.err.println("옵션 값이 없습니다: " + args[index - 1]);
+            System.exit(2);
+        }
+        return args[index];
+    }
     
     public void start() throws IOException {
         // 시작 메시지도 로그 파일에만 기록
         logger.info("MCP 서버가 시작되었습니다. 클라이언트 연결을 기다리는 중...");
 
         // 표준입출력
-        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
-        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out, "UTF-8"), true); // 자동 플러시 활성화
+        try {
+            serve(System.in, System.out);
+        } finally {
+            tracer.close();
+        }
+    }
+
+    /**
+     * 유닉스 도메인 소켓에서 여러 클라이언트 세션을 받습니다. 종료될 때까지 반환하지 않습니다.
+     */
+    public void listen(Path socketPath) throws IOException {
+        try (SessionScheduler scheduler = SessionScheduler.fromSystemProperties();
+             UnixSocketListener listener = new UnixSocketListener(this::serve, socketPath)) {
+            useScheduler(scheduler);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(listener::close, "mcp-listener-shutdown"));
+            // 게이트웨이가 띄운 작업 프로세스는 게이트웨이가 강제 종료되어도 남지 않도록 함께 종료
+            Long parentPid = Long.getLong("mcp.worker.parentPid");
+            if (parentPid != null) {
+                ProcessHandle.of(parentPid).ifPresentOrElse(
+                    parent -> parent.onExit().thenRun(() -> System.exit(0)),
+                    () -> System.exit(0));
+            }
+            logger.info("MCP 상주 서버가 시작되었습니다: {}", socketPath);
+            listener.run();
+        } finally {
+            tracer.close();
+        }
+    }
+
+    /**
+     * 세션 요청을 스케줄러로 처리하도록 하고 세션 사용량 리소스를 등록합니다. 스케줄러를 닫는 것은 호출한 쪽의 몫입니다.
+     */
+    void useScheduler(SessionScheduler scheduler) {
+        this.scheduler = scheduler;
+        metrics.registerQueue("sessions", scheduler::queuedTasks);
+        registries().resources.registerResource(
+            new Resource("sessions://usage", "세션 사용량", "세션별 요청 수, 대기/실행 시간, 한도 적용 횟수와 현재 한도를 제공합니다", "application/json"),
+            scheduler::usage
+        );
+    }
+
+    /**
+     * 매핑된 파일의 링 버퍼로 같은 호스트의 클라이언트를 받습니다. 종료될 때까지 반환하지 않습니다.
+     */
+    public void listenSharedMemory(Path path) throws IOException {
+        try (SharedMemoryListener listener = new SharedMemoryListener(this::serve, path)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(listener::close, "mcp-shm-shutdown"));
+            logger.info("MCP 공유 메모리 서버가 시작되었습니다: {}", path);
+            listener.run();
+        } finally {
+            tracer.close();
+        }
+    }
+
+    /**
+     * 주어진 입출력 스트림으로 한 클라이언트와 통신합니다. 입력이 끝나면 반환합니다.
+     * 테스트나 부하 생성기에서 파이프로 연결한 서버 인스턴스를 띄울 때도 사용합니다.
+     * 상주 서버 모드에서는 요청을 세션 큐에 넣어 작업 스레드가 처리하고, 입력이 끝나면 남은 요청을 마칠 때까지 기다립니다.
+     * tools/call은 어느 모드든 도구의 격벽에서 실행되어 그 스레드가 응답을 쓰며, 읽는 스레드는 실행 중에도 다음 요청과
+     * 취소 알림을 읽습니다. 취소 알림은 대기열을 거치지 않고 읽은 스레드에서 바로 처리합니다.
+     * 스케줄러 없이 연결 하나만 처리할 때 격벽이 가득 차면 읽는 스레드가 자리가 날 때까지 기다립니다.
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(metrics.countInput(in), "UTF-8"));
         
-        String line;
-        while ((line = reader.readLine()) != null) {
-            line = line.trim(); // 공백 문자 제거
-            if (line.isEmpty()) {
-                continue; // 빈 줄 무시
+        // 추적 구간은 추적이 켜져 있으면 연결마다 하나를 만들어 요청마다 재사용.
+        // 스케줄러를 쓰면 요청이 동시에 처리되므로 요청마다 새로 만듦
+        McpSession session = new McpSession(metrics.countOutput(out), tracer.newSpan());
+        SessionScheduler scheduler = this.scheduler;
+        SessionQueue queue = scheduler != null ? scheduler.open(session.getId()) : null;
+
+        sessions.add(session);
+        metrics.connectionOpened();
+        logger.debug("세션 {} 시작", session.getId());
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim(); // 공백 문자 제거
+                if (line.isEmpty()) {
+                    continue; // 빈 줄 무시
+                }
+                
+                TraceSpan span = queue != null ? tracer.newSpan() : session.getSpan();
+                if (span != null) {
+                    span.begin(line.length());
+                }
+                RequestReceivedEvent received = new RequestReceivedEvent();
+                received.begin();
+                McpMessage request;
+                try {
+                    request = parseRequest(line);
+                } catch (Exception e) {
+                    logger.error("요청 처리 중 오류 발생: {}", LogPreview.of(line), e);
+                    if (span != null) {
+                        span.parseFailed();
+                    }
+                    if (received.shouldCommit()) {
+                        received.requestChars = line.length();
+                        received.parseFailed = true;
+                        received.commit();
+                    }
+                    McpMessage errorResponse = McpMessage.error(null, McpError.parseError());
+                    sendResponse(errorResponse, session, span, null);
+                    tracer.record(span);
+                    continue;
+                }
+                if (span != null) {
+                    span.parsed();
+                }
+                if (received.shouldCommit()) {
+                    received.method = request.getMethod();
+                    received.requestChars = line.length();
+                    received.commit();
+                }
+                // 실행을 기다리는 동안 온 취소 알림도 찾을 수 있도록 읽은 스레드에서 등록
+                ToolContext context = callContext(request, session);
+                if (queue == null || CANCELLED.equals(request.getMethod())) {
+                    // 도구 호출은 격벽 스레드에서 끝나므로 연결마다 재사용하는 구간 대신 복사본을 넘김
+                    TraceSpan own = queue == null && context != ToolContext.NONE && span != null ? span.copy() : span;
+                    handleRequest(request, session, queue, own, context, NO_SLOT);
+                    continue;
+                }
+                try {
+                    scheduler.submitHeld(queue, slot -> handleRequest(request, session, queue, span, context, slot));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            if (queue != null) {
+                try {
+                    scheduler.close(queue);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
-            
             try {
-                McpMessage request = objectMapper.readValue(line, McpMessage.class);
-                handleRequest(request, writer); // 동기 처리로 변경
-            } catch (Exception e) {
-                logger.error("요청 처리 중 오류 발생: {}", line, e);
-                McpMessage errorResponse = McpMessage.error(null, McpError.parseError());
-                sendResponse(errorResponse, writer);
+                session.awaitCalls();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            sessions.remove(session);
+            metrics.connectionClosed();
+            logger.debug("세션 {} 종료 (클라이언트: {})", session.getId(), session.getClientName());
         }
     }
     
-    private void handleRequest(McpMessage request, PrintWriter writer) {
+    /**
+     * 요청 한 줄을 메시지로 파싱합니다.
+     */
+    McpMessage parseRequest(String line) throws IOException {
+        return objectMapper.readValue(line, McpMessage.class);
+    }
+
+    /**
+     * 도구 호출이면 취소할 수 있도록 세션에 등록한 실행 문맥을 만듭니다. progressToken이 있으면 진행 알림을 세션에 씁니다.
+     * 도구 호출이 아니면 {@link ToolContext#NONE}
+     */
+    private ToolContext callContext(McpMessage request, McpSession session) {
+        if (!"tools/call".equals(request.getMethod()) || request.getId() == null) {
+            return ToolContext.NONE;
+        }
+        Object progressToken = ToolContext.progressToken(request.getParams());
+        ToolContext context = new ToolContext(progressToken, progressToken == null ? null
+            : notification -> sendResponse(notification, session, null, "notifications/progress"));
+        session.register(request.getId(), context);
+        return context;
+    }
+
+    /**
+     * 요청을 처리하고 응답을 쓴 뒤 추적 구간을 기록합니다. 도구 호출은 격벽에 넘기고 바로 반환합니다.
+     * slot은 응답을 쓴 뒤 부르는 세션 스케줄러의 자리 반납 콜백으로, 격벽에서 끝나는 호출도 끝날 때까지 세션의 몫으로 셉니다.
+     * 스케줄러 없이 연결 하나를 처리할 때(queue가 null)는 격벽이 가득 차면 거부하지 않고 읽는 스레드가 기다립니다.
+     */
+    private void handleRequest(McpMessage request, McpSession session, SessionQueue queue, TraceSpan span,
+                               ToolContext context, Runnable slot) {
+        if ("initialize".equals(request.getMethod())) {
+            session.initialize(request.getParams());
+            if (queue != null) {
+                scheduler.identify(queue, session.getClientName());
+            }
+        } else if (CANCELLED.equals(request.getMethod())) {
+            cancel(request.getParams(), session);
+        }
+
+        if (context != ToolContext.NONE) {
+            String tool = toolName(request.getParams());
+            ToolRegistry tools;
+            try {
+                tools = registries().tools;
+            } catch (CompletionException e) {
+                // 레지스트리 준비가 실패했으면 읽기 루프까지 예외를 올리지 않고 이 요청만 오류로 끝냄
+                logger.error("레지스트리를 준비하지 못해 요청을 처리할 수 없습니다", e);
+                finish(request, session, span, context, McpMessage.error(request.getId(), McpError.internalError()), slot);
+                return;
+            }
+            // 한도를 넘은 호출은 격벽 자리를 차지하지 않도록 먼저 거부.
+            // 토큰을 기다려야 하는 호출은 읽는 스레드나 작업 스레드가 아니라 격벽 스레드에서 기다림
+            long admitted = System.nanoTime();
+            long[] wait = {0};
+            McpMessage limited = tools.acquireRateLimit(request.getId(), request.getParams(), session.getRateBuckets(), wait);
+            if (limited != null) {
+                recordRejected(request, tool);
+                finish(request, session, span, context, limited, slot);
+                return;
+            }
+            Bulkhead bulkhead = tools.bulkheadFor(tool);
+            long delay = wait[0];
+            Runnable call = () -> {
+                RateLimits.awaitAdmission(admitted, delay);
+                complete(request, session, span, context, slot);
+            };
+            try {
+                if (queue == null) {
+                    bulkhead.executeBlocking(call);
+                } else {
+                    bulkhead.execute(call);
+                }
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(request, session, span, context, McpMessage.error(request.getId(), McpError.internalError()), slot);
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.warn("도구 격벽이 가득 차 요청을 거부합니다: {} (격벽 {})", LogPreview.of(tool), bulkhead.getName());
+                RejectionEvent.emit(HandlerCompletedEvent.TOOL, tool, "bulkhead_full", bulkhead.queued(), bulkhead.getQueueCapacity());
+                recordRejected(request, tool);
+                McpMessage busy = McpMessage.error(request.getId(), McpError.serverBusy(
+                    "도구 격벽이 가득 찼습니다. 잠시 뒤 다시 시도하세요", Map.of("bulkhead", bulkhead.getName())));
+                finish(request, session, span, context, busy, slot);
+                return;
+            }
+        }
+        complete(request, session, span, context, slot);
+    }
+
+    /**
+     * 핸들러를 거치지 않고 거부한 도구 호출을 오류 한 건으로 기록합니다.
+     */
+    private void recordRejected(McpMessage request, String tool) {
+        for (OperationMetrics rejected : new OperationMetrics[] {metrics.method(request.getMethod()), toolMetrics(tool)}) {
+            rejected.end(rejected.start(), true);
+        }
+    }
+
+    private void complete(McpMessage request, McpSession session, TraceSpan span, ToolContext context, Runnable slot) {
+        if (span != null) {
+            span.dispatched();
+        }
+        RequestDispatchedEvent dispatched = new RequestDispatchedEvent();
+        if (dispatched.isEnabled()) {
+            dispatched.method = request.getMethod();
+            dispatched.tool = "tools/call".equals(request.getMethod()) ? toolName(request.getParams()) : null;
+            dispatched.commit();
+        }
+        McpMessage response = null;
+        try {
+            response = dispatch(request, context);
+        } catch (Throwable t) {
+            // 핸들러 밖으로 나온 예외도 응답해야 요청이 끝나지 않은 채 남지 않음
+            logger.error("요청 처리 중 예상하지 못한 오류: {}", request.getMethod(), t);
+            if (request.getId() != null) {
+                response = McpMessage.error(request.getId(), McpError.internalError());
+            }
+        } finally {
+            finish(request, session, span, context, response, slot);
+        }
+    }
+
+    private void finish(McpMessage request, McpSession session, TraceSpan span, ToolContext context, McpMessage response,
+                        Runnable slot) {
+        try {
+            if (span != null) {
+                byte status = response == null ? TraceSpan.STATUS_NOTIFICATION
+                    : isError(response) ? TraceSpan.STATUS_ERROR : TraceSpan.STATUS_OK;
+                String tool = "tools/call".equals(request.getMethod()) ? toolName(request.getParams()) : null;
+                span.handled(request.getMethod(), tool, status);
+            }
+            if (response != null) {
+                if (context.isCancelled()) {
+                    // 취소된 요청에는 응답하지 않음
+                    logger.debug("취소된 요청의 응답을 버립니다: id={}", request.getId());
+                } else {
+                    sendResponse(response, session, span, request.getMethod());
+                }
+            }
+        } finally {
+            // 응답을 쓴 뒤에 풀어야 세션이 닫히기 전에 응답이 나감
+            if (context != ToolContext.NONE) {
+                session.unregister(request.getId());
+            }
+            tracer.record(span);
+            slot.run();
+        }
+    }
+
+    private static void cancel(Object params, McpSession session) {
+        Object requestId = params instanceof Map ? ((Map<?, ?>) params).get("requestId") : null;
+        if (requestId != null && session.cancel(requestId)) {
+            logger.debug("요청을 취소했습니다: id={}", requestId);
+        }
+    }
+
+    /**
+     * 요청을 메서드별 핸들러로 전달하고 응답을 반환합니다. 알림처럼 응답이 없는 요청은 null을 반환합니다.
+     * 메서드별, tools/call이면 도구별 지표도 함께 기록합니다.
+     */
+    McpMessage dispatch(McpMessage request) {
+        return dispatch(request, ToolContext.NONE);
+    }
+
+    /**
+     * tools/call이면 context로 진행 알림을 보내고 취소를 확인합니다.
+     */
+    McpMessage dispatch(McpMessage request, ToolContext context) {
+        OperationMetrics methodMetrics = metrics.method(request.getMethod());
+        OperationMetrics toolMetrics = "tools/call".equals(request.getMethod())
+            ? toolMetrics(toolName(request.getParams()))
+            : null;
+
+        // 도구/리소스/프롬프트 핸들러는 각 레지스트리에서 기록
+        HandlerCompletedEvent handled = isServerHandled(request.getMethod()) ? new HandlerCompletedEvent() : null;
+        if (handled != null) {
+            handled.begin();
+        }
+
+        long start = methodMetrics.start();
+        long toolStart = toolMetrics != null ? toolMetrics.start() : 0;
+        McpMessage response = null;
+        try {
+            response = route(request, context);
+            return response;
+        } finally {
+            boolean error = isError(response);
+            if (toolMetrics != null) {
+                toolMetrics.end(toolStart, error);
+            }
+            methodMetrics.end(start, error);
+            if (handled != null && handled.shouldCommit()) {
+                handled.component = HandlerCompletedEvent.SERVER;
+                handled.method = request.getMethod();
+                handled.error = error;
+                handled.commit();
+            }
+        }
+    }
+
+    private McpMessage route(McpMessage request, ToolContext context) {
         try {
             String method = request.getMethod();
             Object id = request.getId();
@@ -112,12 +630,15 @@ public class McpServerMain {
                     break;
                 case "notifications/initialized":
                     // 초기화 완료 알림은 응답하지 않음
-                    return;
+                    return null;
+                case CANCELLED:
+                    // 취소는 handleRequest에서 세션의 실행 중인 호출에 적용
+                    return null;
                 case "tools/list":
                     response = handleListTools(id);
                     break;
                 case "tools/call":
-                    response = handleToolCall(id, request.getParams());
+                    response = handleToolCall(id, request.getParams(), context);
                     break;
                 case "resources/list":
                     response = handleListResources(id);
@@ -132,21 +653,67 @@ public class McpServerMain {
                     response = handlePromptGet(id, request.getParams());
                     break;
                 default:
-                    logger.warn("알 수 없는 메서드: {}", method);
+                    logger.warn("알 수 없는 메서드: {}", LogPreview.of(method));
                     response = McpMessage.error(id, McpError.methodNotFound());
             }
             
-            sendResponse(response, writer);
+            return response;
             
         } catch (Exception e) {
             logger.error("요청 핸들링 중 오류 발생", e);
-            McpMessage errorResponse = McpMessage.error(request.getId(), McpError.internalError());
-            sendResponse(errorResponse, writer);
+            return McpMessage.error(request.getId(), McpError.internalError());
         }
     }
     
+    private static boolean isServerHandled(String method) {
+        return !"tools/call".equals(method) && !"resources/read".equals(method) && !"prompts/get".equals(method);
+    }
+
+    /**
+     * 도구 지표. 등록되지 않은 도구 이름은 클라이언트가 보낸 이름으로 항목을 만들지 않고 한 항목으로 모읍니다.
+     */
+    private OperationMetrics toolMetrics(String tool) {
+        boolean registered;
+        try {
+            registered = registries().tools.isRegistered(tool);
+        } catch (CompletionException e) {
+            // 레지스트리 준비 실패는 route에서 오류 응답으로 바뀜
+            registered = false;
+        }
+        return metrics.tool(registered ? tool : ServerMetrics.OTHER);
+    }
+
+    private static String toolName(Object params) {
+        if (params instanceof Map) {
+            Object name = ((Map<?, ?>) params).get("name");
+            if (name instanceof String) {
+                return (String) name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 오류 응답 또는 isError가 설정된 도구 결과인지 확인합니다.
+     */
+    private static boolean isError(McpMessage response) {
+        if (response == null) {
+            return false;
+        }
+        if (response.getError() != null) {
+            return true;
+        }
+        Object result = response.getResult();
+        return result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("isError"));
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
     private McpMessage handleInitialize(Object id, Object params) {
         logger.info("클라이언트 초기화 요청을 받았습니다");
+        metrics.initialized();
         
         Map<String, Object> result = Map.of(
             "protocolVersion", "2024-11-05",
@@ -159,50 +726,113 @@ public class McpServerMain {
     
     private McpMessage handleListTools(Object id) {
         Map<String, Object> result = Map.of(
-            "tools", toolRegistry.getToolList()
+            "tools", registries().tools.getToolList()
         );
         return McpMessage.response(id, result);
     }
     
-    private McpMessage handleToolCall(Object id, Object params) {
-        return toolRegistry.handleToolCall(id, params);
+    private McpMessage handleToolCall(Object id, Object params, ToolContext context) {
+        return registries().tools.handleToolCall(id, params, context);
     }
     
     private McpMessage handleListResources(Object id) {
         Map<String, Object> result = Map.of(
-            "resources", resourceRegistry.getResourceList()
+            "resources", registries().resources.getResourceList()
         );
         return McpMessage.response(id, result);
     }
     
     private McpMessage handleResourceRead(Object id, Object params) {
-        return resourceRegistry.handleResourceRead(id, params);
+        return registries().resources.handleResourceRead(id, params);
     }
     
     private McpMessage handleListPrompts(Object id) {
         Map<String, Object> result = Map.of(
-            "prompts", promptRegistry.getPromptList()
+            "prompts", registries().prompts.getPromptList()
         );
         return McpMessage.response(id, result);
     }
     
     private McpMessage handlePromptGet(Object id, Object params) {
-        return promptRegistry.handlePromptGet(id, params);
+        return registries().prompts.handlePromptGet(id, params);
     }
     
-    private synchronized void sendResponse(McpMessage response, PrintWriter writer) {
+    /**
+     * 초기화를 마친 모든 세션에 리소스 목록이 바뀌었다고 알립니다.
+     */
+    private void notifyResourceListChanged() {
+        McpMessage notification = McpMessage.notification(RESOURCES_LIST_CHANGED, null);
+        for (McpSession session : sessions) {
+            if (session.isInitialized()) {
+                sendResponse(notification, session, null, RESOURCES_LIST_CHANGED);
+            }
+        }
+    }
+
+    /**
+     * 응답 한 줄을 세션의 출력 스트림에 씁니다. 세션마다 따로 잠그므로 다른 세션의 출력을 기다리지 않습니다.
+     */
+    void sendResponse(McpMessage response, McpSession session, TraceSpan span, String method) {
+        synchronized (session) {
+            writeResponse(response, session, span, method);
+        }
+    }
+
+    /**
+     * 응답을 세션의 출력 스트림에 바로 직렬화해 한 줄로 출력합니다. 큰 응답도 전체를 메모리에 모으지 않습니다.
+     * 직렬화가 도중에 실패하면 작은 응답은 아무것도 내보내지 않고, 앞부분이 이미 나간 큰 응답은 그 줄을 끝냅니다.
+     * 요청에 대한 응답이었으면 그다음 줄에 내부 오류 응답을 보냅니다.
+     */
+    private void writeResponse(McpMessage response, McpSession session, TraceSpan span, String method) {
+        ResponseWrittenEvent written = new ResponseWrittenEvent();
+        boolean recording = written.isEnabled();
+        long bytesBefore = recording ? session.getBytesOut() : 0;
+        long serializeStart = recording ? System.nanoTime() : 0;
+        written.begin();
         try {
-            String json = objectMapper.writeValueAsString(response);
+            try {
+                serializeResponse(response, session.beginLine());
+            } catch (JsonProcessingException | RuntimeException e) {
+                boolean clean = session.abandonLine();
+                if (response.getMethod() != null) {
+                    // 서버가 보내는 알림은 답할 요청이 없으므로 버림
+                    logger.error("알림 직렬화 중 오류 발생: {} (앞부분 전송: {})", response.getMethod(), !clean, e);
+                    return;
+                }
+                logger.error("응답 직렬화 중 오류 발생: id={} (앞부분 전송: {})", response.getId(), !clean, e);
+                response = McpMessage.error(response.getId(), McpError.internalError());
+                serializeResponse(response, session.beginLine());
+            }
+            if (span != null) {
+                span.serialized();
+            }
+            if (recording) {
+                written.serializeNanos = System.nanoTime() - serializeStart;
+            }
             
-            // 디버그를 위해 JSON 길이 확인
-            logger.debug("응답 전송 (길이: {}): {}", json.length(), json.substring(0, Math.min(100, json.length())));
+            logger.debug("응답 전송: id={}", response.getId());
             
-            // JSON 메시지를 한 줄로 출력하고 즉시 플러시
-            writer.println(json); // println 사용으로 개행 문자 확실히 추가
-            writer.flush(); // 명시적 플러시
+            // 개행으로 JSON 메시지 한 줄을 끝내고 즉시 플러시
+            session.endLine();
+            if (span != null) {
+                span.written();
+            }
+            if (written.shouldCommit()) {
+                written.method = method;
+                written.responseBytes = session.getBytesOut() - bytesBefore;
+                written.error = response.getError() != null;
+                written.commit();
+            }
             
         } catch (Exception e) {
             logger.error("응답 전송 중 오류 발생", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 응답을 UTF-8 바이트로 직렬화합니다. 비 ASCII 문자는 이스케이프되므로 한 줄이 그대로 출력 바이트가 됩니다.
+     */
+    void serializeResponse(McpMessage response, OutputStream out) throws IOException {
+        objectMapper.writeValue(out, response);
+    }
+}
@@ -0,0 +1,224 @@
+package org.devlion.mcp.server;
+
+import org.devlion.mcp.server.tool.TokenBucket;
+import org.devlion.mcp.server.tool.ToolContext;
+import org.devlion.mcp.server.trace.TraceSpan;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 클라이언트 연결 하나의 상태
+ *
+ * 응답 출력 스트림, 추적 구간, initialize로 받은 클라이언트 정보, 실행 중인 도구 호출처럼 연결마다 따로 가져야 하는 상태를 담습니다.
+ * 레지스트리, 캐시, 지표는 서버의 모든 세션이 공유합니다.
+ */
+final class McpSession {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    /** 응답 앞부분을 모아 두는 버퍼 크기. 이보다 큰 응답은 넘친 뒤부터 출력 스트림으로 바로 흘려보냄 */
+    private static final int LINE_BUFFER_BYTES = 64 * 1024;
+
+    private final long id = NEXT_ID.getAndIncrement();
+    private final OutputStream out;
+    private final TraceSpan span;
+
+    /** 응답 한 줄을 쓰는 스트림. 세션 잠금 안에서만 쓰며 응답마다 재사용 */
+    private final LineOutput line = new LineOutput();
+
+    /** 이 세션에 쓴 바이트 수. 응답은 세션 잠금 안에서만 쓰므로 원자적 연산이 필요 없음 */
+    private long bytesOut;
+
+    private volatile String protocolVersion;
+    private volatile Map<?, ?> clientInfo;
+    private volatile boolean initialized;
+
+    /** 실행 중인 도구 호출의 문맥. 요청 id의 문자열 표현으로 찾음 */
+    private final Map<String, ToolContext> activeCalls = new ConcurrentHashMap<>();
+    /** 도구별 호출 한도 버킷. 처음 호출할 때 만듦 */
+    private final Map<String, TokenBucket> rateBuckets = new ConcurrentHashMap<>();
+
+    McpSession(OutputStream out, TraceSpan span) {
+        OutputStream counting = new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesOut++;
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                bytesOut += length;
+            }
+        };
+        this.out = counting;
+        this.span = span;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * 응답 한 줄을 쓸 스트림을 반환합니다. 세션 잠금 안에서 호출해야 합니다.
+     * 앞부분 {@value #LINE_BUFFER_BYTES}바이트까지는 모아 두고, 넘치면 그때부터 세션의 출력 스트림으로 바로 씁니다.
+     */
+    OutputStream beginLine() {
+        line.count = 0;
+        line.spilled = false;
+        return line;
+    }
+
+    /**
+     * 개행을 붙여 줄을 끝내고 플러시합니다. 세션 잠금 안에서 호출해야 합니다.
+     */
+    void endLine() throws IOException {
+        line.write('\n');
+        line.spill();
+        out.flush();
+    }
+
+    /**
+     * 직렬화가 실패한 줄을 버립니다. 아직 내보낸 것이 없으면 true를 반환하고,
+     * 앞부분이 이미 나갔으면 다음 줄과 섞이지 않도록 개행으로 끊긴 줄을 끝낸 뒤 false를 반환합니다.
+     */
+    boolean abandonLine() throws IOException {
+        line.count = 0;
+        if (!line.spilled) {
+            return true;
+        }
+        endLine();
+        return false;
+    }
+
+    long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * 추적이 꺼져 있으면 null
+     */
+    TraceSpan getSpan() {
+        return span;
+    }
+
+    /**
+     * initialize 요청의 프로토콜 버전과 클라이언트 정보를 기록합니다.
+     */
+    void initialize(Object params) {
+        if (params instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) params;
+            Object version = map.get("protocolVersion");
+            this.protocolVersion = version instanceof String ? (String) version : null;
+            Object info = map.get("clientInfo");
+            this.clientInfo = info instanceof Map ? (Map<?, ?>) info : null;
+        }
+        this.initialized = true;
+    }
+
+    /**
+     * initialize 요청을 받았는지 여부. 받기 전에는 서버가 먼저 알림을 보내지 않습니다.
+     */
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    void register(Object requestId, ToolContext context) {
+        activeCalls.put(String.valueOf(requestId), context);
+    }
+
+    void unregister(Object requestId) {
+        synchronized (activeCalls) {
+            activeCalls.remove(String.valueOf(requestId));
+            if (activeCalls.isEmpty()) {
+                activeCalls.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 격벽에서 실행 중인 도구 호출이 모두 응답을 쓸 때까지 기다립니다.
+     */
+    void awaitCalls() throws InterruptedException {
+        synchronized (activeCalls) {
+            while (!activeCalls.isEmpty()) {
+                activeCalls.wait();
+            }
+        }
+    }
+
+    /**
+     * notifications/cancelled를 받은 요청을 취소로 표시합니다. 이미 끝났거나 모르는 요청이면 false
+     */
+    boolean cancel(Object requestId) {
+        ToolContext context = activeCalls.get(String.valueOf(requestId));
+        if (context == null) {
+            return false;
+        }
+        context.cancel();
+        return true;
+    }
+
+    Map<String, TokenBucket> getRateBuckets() {
+        return rateBuckets;
+    }
+
+    String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    /**
+     * 클라이언트 이름. initialize 전이거나 알 수 없으면 null
+     */
+    String getClientName() {
+        Map<?, ?> info = clientInfo;
+        Object name = info == null ? null : info.get("name");
+        return name instanceof String ? (String) name : null;
+    }
+
+    /**
+     * 작은 응답은 한 줄을 다 모아 한 번에 쓰고, 큰 응답은 버퍼가 넘칠 때마다 흘려보내는 출력 스트림.
+     * flush는 무시하므로 직렬화 도중에는 버퍼를 넘친 만큼만 나갑니다.
+     */
+    private final class LineOutput extends OutputStream {
+        private final byte[] buffer = new byte[LINE_BUFFER_BYTES];
+        private int count;
+        private boolean spilled;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                spill();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > buffer.length - count) {
+                spill();
+                if (length >= buffer.length) {
+                    spilled = true;
+                    out.write(bytes, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        void spill() throws IOException {
+            if (count > 0) {
+                spilled = true;
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package org.devlion.mcp.server.cache;
+
+import org.devlion.mcp.server.jfr.CacheHitEvent;
+import org.devlion.mcp.server.jfr.CacheMissEvent;
+import org.devlion.mcp.server.text.Rope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * 프로세스를 다시 시작해도 남는 결과 캐시
+ *
+ * {@code mcp.cache.dir} 아래의 로그 파일 하나에 항목을 덧붙이기만 하며, 파일은 용량({@code mcp.cache.maxBytes}, 기본값 64MB)
+ * 전체를 메모리에 매핑해 씁니다. 키 → 위치 색인은 메모리의 해시 맵에 두고, 열 때 로그를 처음부터 읽어 다시 만듭니다.
+ * 같은 키를 다시 쓰면 예전 기록은 쓰레기가 되며, 로그가 가득 차면 살아 있는 항목만 새 파일로 옮겨 압축합니다.
+ * 살아 있는 항목이 용량의 절반을 넘으면 가장 오래 쓰이지 않은 항목부터 버립니다.
+ *
+ * 기록은 CRC32로 검사하므로 쓰는 도중에 프로세스가 죽어도 끊긴 기록부터 버리고 이어 씁니다.
+ * 서버 빌드가 바뀌면 예전 결과와 맞지 않을 수 있으므로 파일 머리에 빌드 표식을 두고, 다르면 비우고 시작합니다.
+ * 한 디렉터리는 한 프로세스만 쓸 수 있으며, 다른 프로세스가 쓰고 있으면 캐시 없이 동작합니다.
+ *
+ * 읽은 값은 매핑을 그대로 감싼 {@link Rope}이므로 복사 없이 응답에 쓰입니다.
+ */
+public final class PersistentCache implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentCache.class);
+
+    /** JFR 이벤트에 기록하는 캐시 이름 */
+    private static final String CACHE_NAME = "persistent";
+
+    private static final String LOG_FILE = "results.log";
+    private static final String LOCK_FILE = "results.lock";
+
+    /** 파일 머리: 매직(8) + 형식 버전(4) + 예약(4) + 빌드 표식(8) */
+    private static final long FILE_MAGIC = 0x4D43505245534C54L; // "MCPRESLT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER = 24;
+
+    /** 기록 머리: 매직(4) + 키 길이(4) + 값 길이(4) + CRC32(4) */
+    private static final int RECORD_MAGIC = 0x52454331; // "REC1"
+    private static final int RECORD_HEADER = 16;
+
+    /** 색인 항목. 값의 위치와 마지막으로 쓰인 순서 */
+    private static final class Entry {
+        final Segment segment;
+        final int recordOffset;
+        final int keyLength;
+        final int valueLength;
+        volatile long lastUsed;
+
+        Entry(Segment segment, int recordOffset, int keyLength, int valueLength, long lastUsed) {
+            this.segment = segment;
+            this.recordOffset = recordOffset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+            this.lastUsed = lastUsed;
+        }
+
+        int recordLength() {
+            return RECORD_HEADER + keyLength + valueLength;
+        }
+
+        ByteBuffer value() {
+            int start = recordOffset + RECORD_HEADER + keyLength;
+            return segment.readOnly.duplicate().position(start).limit(start + valueLength).slice();
+        }
+    }
+
+    /** 매핑된 로그 파일 하나. 압축하면 새 파일로 바뀌고, 예전 매핑은 그 값을 쓰는 Rope가 남아 있는 동안 유효함 */
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final ByteBuffer readOnly;
+
+        Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.readOnly = buffer.asReadOnlyBuffer();
+        }
+    }
+
+    private final Path directory;
+    private final int capacity;
+    private final int maxEntryBytes;
+    private final long buildStamp;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    /** 아래 필드는 this로 보호 */
+    private Segment segment;
+    private int writePosition;
+    private long liveBytes;
+    /** 압축과 새 파일 만들기가 모두 실패하면 true. 이후 저장하지 않음 */
+    private boolean failed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final int recovered;
+    private final long discardedRecords;
+
+    private PersistentCache(Path directory, int capacity, FileChannel lockChannel, FileLock lock) throws IOException {
+        this.directory = directory;
+        this.capacity = capacity;
+        // 항목 하나가 캐시 대부분을 차지하지 않도록 제한
+        this.maxEntryBytes = capacity / 4;
+        this.buildStamp = buildStamp();
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+
+        this.segment = new Segment(map(directory.resolve(LOG_FILE)));
+        this.discardedRecords = recover();
+        this.recovered = index.size();
+    }
+
+    /**
+     * 시스템 속성으로 엽니다. {@code mcp.cache.dir}이 없거나 다른 프로세스가 쓰고 있으면 null
+     */
+    public static PersistentCache fromSystemProperties() {
+        String dir = System.getProperty("mcp.cache.dir");
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        long maxBytes = Long.getLong("mcp.cache.maxBytes", 64L << 20);
+        try {
+            return open(Paths.get(dir), maxBytes);
+        } catch (IOException e) {
+            logger.warn("결과 캐시를 열 수 없어 캐시 없이 동작합니다: {}", dir, e);
+            return null;
+        }
+    }
+
+    /**
+     * 디렉터리의 캐시를 엽니다. 다른 프로세스가 쓰고 있으면 null
+     *
+     * @param maxBytes 로그 파일 크기 (1MB 이상, 1GB 이하)
+     */
+    public static PersistentCache open(Path directory, long maxBytes) throws IOException {
+        if (maxBytes < (1 << 20) || maxBytes > (1 << 30)) {
+            throw new IllegalArgumentException("결과 캐시 크기는 1MB 이상 1GB 이하여야 합니다: " + maxBytes);
+        }
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 같은 프로세스에서 이미 열었음
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            logger.info("다른 프로세스가 결과 캐시를 쓰고 있어 캐시 없이 동작합니다: {}", directory);
+            return null;
+        }
+        try {
+            return new PersistentCache(directory, (int) maxBytes, lockChannel, lock);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // 용량만큼 늘려 두고 전체를 매핑. 쓰지 않은 부분은 디스크를 차지하지 않음
+            if (channel.size() != capacity) {
+                channel.truncate(Math.min(channel.size(), capacity));
+                channel.write(ByteBuffer.allocate(1), capacity - 1);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    /**
+     * 로그를 처음부터 읽어 색인을 만듭니다. 머리가 맞지 않으면 비우고, 끊긴 기록 뒤는 버립니다.
+     *
+     * @return 버린 기록 수 (0 또는 1)
+     */
+    private long recover() {
+        MappedByteBuffer buffer = segment.buffer;
+        if (buffer.getLong(0) != FILE_MAGIC || buffer.getInt(8) != FORMAT_VERSION || buffer.getLong(16) != buildStamp) {
+            boolean existed = buffer.getLong(0) != 0;
+            writeFileHeader(buffer);
+            writePosition = FILE_HEADER;
+            buffer.putInt(writePosition, 0);
+            if (existed) {
+                logger.info("결과 캐시 형식이나 서버 빌드가 달라 비우고 시작합니다: {}", directory);
+            }
+            return 0;
+        }
+
+        int position = FILE_HEADER;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER <= capacity && buffer.getInt(position) == RECORD_MAGIC) {
+            int keyLength = buffer.getInt(position + 4);
+            int valueLength = buffer.getInt(position + 8);
+            if (keyLength <= 0 || valueLength < 0
+                || (long) position + RECORD_HEADER + keyLength + valueLength > capacity) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.duplicate().position(position + RECORD_HEADER)
+                .limit(position + RECORD_HEADER + keyLength + valueLength));
+            if ((int) crc.getValue() != buffer.getInt(position + 12)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.get(position + RECORD_HEADER, key);
+            Entry entry = new Entry(segment, position, keyLength, valueLength, clock.incrementAndGet());
+            Entry previous = index.put(new String(key, StandardCharsets.UTF_8), entry);
+            if (previous != null) {
+                liveBytes -= previous.recordLength();
+            }
+            liveBytes += entry.recordLength();
+            position += entry.recordLength();
+        }
+
+        // 끊긴 기록이 있으면 그 자리부터 다시 씀
+        long discarded = 0;
+        if (position + RECORD_HEADER <= capacity && buffer.getInt(position) != 0) {
+            discarded = 1;
+            logger.warn("결과 캐시의 끊긴 기록을 버립니다: {} (위치 {})", directory, position);
+        }
+        writePosition = position;
+        if (position + 4 <= capacity) {
+            buffer.putInt(position, 0);
+        }
+        logger.info("결과 캐시를 열었습니다: {} (항목 {}개, {} bytes)", directory, index.size(), position);
+        return discarded;
+    }
+
+    private void writeFileHeader(ByteBuffer buffer) {
+        buffer.putLong(0, FILE_MAGIC);
+        buffer.putInt(8, FORMAT_VERSION);
+        buffer.putInt(12, 0);
+        buffer.putLong(16, buildStamp);
+    }
+
+    /**
+     * 서버 클래스가 들어 있는 jar(또는 디렉터리)의 크기와 수정 시각으로 만든 표식
+     */
+    private static long buildStamp() {
+        try {
+            CodeSource source = PersistentCache.class.getProtectionDomain().getCodeSource();
+            if (source != null) {
+                Path path = Paths.get(source.getLocation().toURI());
+                return Files.getLastModifiedTime(path).toMillis() * 31 + Files.size(path);
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.debug("서버 빌드 표식을 만들 수 없습니다", e);
+        }
+        return 0;
+    }
+
+    /**
+     * 키의 값을 반환합니다. 없으면 null
+     */
+    public Rope get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            misses.increment();
+            CacheMissEvent miss = new CacheMissEvent();
+            if (miss.isEnabled()) {
+                miss.cache = CACHE_NAME;
+                miss.commit();
+            }
+            return null;
+        }
+        entry.lastUsed = clock.incrementAndGet();
+        hits.increment();
+        CacheHitEvent hit = new CacheHitEvent();
+        if (hit.isEnabled()) {
+            hit.cache = CACHE_NAME;
+            hit.entryBytes = entry.valueLength;
+            hit.commit();
+        }
+        return Rope.builder().appendEncoded(entry.value()).build();
+    }
+
+    /**
+     * 값을 로그에 덧붙입니다. 자리가 모자라면 압축하며, 항목 하나가 용량의 1/4을 넘으면 저장하지 않습니다.
+     */
+    public void put(String key, Rope value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long length = RECORD_HEADER + keyBytes.length + value.byteLength();
+        if (length > maxEntryBytes || value.isOverLimit()) {
+            rejected.increment();
+            return;
+        }
+        synchronized (this) {
+            if (!failed && writePosition + length + 4 > capacity) {
+                compact();
+            }
+            if (failed) {
+                return;
+            }
+            Entry entry = append(segment, writePosition, keyBytes, value);
+            writePosition += entry.recordLength();
+            segment.buffer.putInt(writePosition, 0);
+
+            Entry previous = index.put(key, entry);
+            if (previous != null) {
+                liveBytes -= previous.recordLength();
+            }
+            liveBytes += entry.recordLength();
+            writes.increment();
+        }
+    }
+
+    /**
+     * 기록 하나를 씁니다. CRC를 마지막에 써서 끊긴 기록은 열 때 걸러지도록 합니다.
+     */
+    private Entry append(Segment target, int position, byte[] key, Rope value) {
+        ByteBuffer buffer = target.buffer.duplicate();
+        int valueLength = (int) value.byteLength();
+        buffer.position(position + RECORD_HEADER);
+        buffer.put(key);
+        value.copyTo(buffer);
+        return seal(target, position, key.length, valueLength);
+    }
+
+    private Entry seal(Segment target, int position, int keyLength, int valueLength) {
+        MappedByteBuffer buffer = target.buffer;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(position + RECORD_HEADER)
+            .limit(position + RECORD_HEADER + keyLength + valueLength));
+        buffer.putInt(position + 4, keyLength);
+        buffer.putInt(position + 8, valueLength);
+        buffer.putInt(position + 12, (int) crc.getValue());
+        buffer.putInt(position, RECORD_MAGIC);
+        return new Entry(target, position, keyLength, valueLength, clock.incrementAndGet());
+    }
+
+    /**
+     * 살아 있는 항목만 새 파일로 옮깁니다. 최근에 쓰인 항목부터 용량의 절반까지만 남기고 나머지는 버립니다.
+     */
+    private void compact() {
+        long started = System.nanoTime();
+        List<Map.Entry<String, Entry>> live = new ArrayList<>(index.entrySet());
+        live.sort((a, b) -> Long.compare(b.getValue().lastUsed, a.getValue().lastUsed));
+        long budget = capacity / 2;
+
+        Path file = directory.resolve(LOG_FILE);
+        Path temporary = directory.resolve(LOG_FILE + ".compact");
+        try {
+            Files.deleteIfExists(temporary);
+            Segment compacted = new Segment(map(temporary));
+            writeFileHeader(compacted.buffer);
+            int position = FILE_HEADER;
+            long kept = 0;
+            Map<String, Entry> moved = new LinkedHashMap<>();
+            for (Map.Entry<String, Entry> item : live) {
+                Entry entry = item.getValue();
+                if (kept + entry.recordLength() > budget - FILE_HEADER) {
+                    continue;
+                }
+                ByteBuffer record = entry.segment.readOnly.duplicate()
+                    .position(entry.recordOffset + RECORD_HEADER)
+                    .limit(entry.recordOffset + entry.recordLength());
+                compacted.buffer.put(position + RECORD_HEADER, record, record.position(), record.remaining());
+                Entry copy = seal(compacted, position, entry.keyLength, entry.valueLength);
+                copy.lastUsed = entry.lastUsed;
+                moved.put(item.getKey(), copy);
+                position += copy.recordLength();
+                kept += copy.recordLength();
+            }
+            compacted.buffer.putInt(position, 0);
+            compacted.buffer.force();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            int evicted = index.size() - moved.size();
+            index.keySet().retainAll(moved.keySet());
+            index.putAll(moved);
+            segment = compacted;
+            writePosition = position;
+            liveBytes = kept;
+            compactions.increment();
+            evictions.add(evicted);
+            logger.info("결과 캐시를 압축했습니다: 항목 {}개 유지, {}개 제거, {}ms", moved.size(), evicted,
+                (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            // 압축하지 못하면 처음부터 다시 채움. 예전 매핑은 읽어 간 Rope가 아직 쓰고 있을 수 있으므로 새 파일을 매핑
+            logger.warn("결과 캐시를 압축하지 못해 비웁니다: {}", directory, e);
+            evictions.add(index.size());
+            index.clear();
+            liveBytes = 0;
+            try {
+                Files.deleteIfExists(temporary);
+                Files.deleteIfExists(file);
+                Segment fresh = new Segment(map(file));
+                writeFileHeader(fresh.buffer);
+                fresh.buffer.putInt(FILE_HEADER, 0);
+                segment = fresh;
+                writePosition = FILE_HEADER;
+            } catch (IOException retry) {
+                logger.warn("결과 캐시 파일을 새로 만들 수 없어 더 이상 저장하지 않습니다: {}", directory, retry);
+                failed = true;
+            }
+        }
+    }
+
+    /**
+     * 캐시 통계 (적중률, 용량 등)
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int logBytes;
+        long live;
+        boolean writable;
+        synchronized (this) {
+            logBytes = writePosition;
+            live = liveBytes;
+            writable = !failed;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("entries", index.size());
+        stats.put("live_bytes", live);
+        stats.put("log_bytes", logBytes);
+        stats.put("max_bytes", capacity);
+        stats.put("writable", writable);
+        stats.put("recovered_entries", recovered);
+        stats.put("discarded_torn_records", discardedRecords);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hit_rate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("writes", writes.sum());
+        stats.put("compactions", compactions.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("rejected_oversized", rejected.sum());
+        return stats;
+    }
+
+    /**
+     * 매핑한 내용을 디스크에 내리고 잠금을 풉니다.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            segment.buffer.force();
+        }
+        try {
+            lock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+}
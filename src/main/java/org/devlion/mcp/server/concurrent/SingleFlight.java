@@ -0,0 +1,78 @@
+package org.devlion.mcp.server.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 계산이 진행 중이면 새로 계산하지 않고 그 결과를 함께 받는 중복 제거기
+ *
+ * 결과를 저장해 두는 캐시가 아니라, 계산이 끝나면 바로 잊으므로 끝난 뒤에 온 요청은 다시 계산합니다.
+ * 계산이 예외로 끝나면 기다리던 호출에도 같은 예외가 전달됩니다.
+ *
+ * @param <K> 계산을 구분하는 키
+ * @param <V> 계산 결과. 여러 스레드가 함께 읽으므로 바꾸지 않는 값이어야 함
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * 같은 키의 계산이 진행 중이면 끝날 때까지 기다려 그 결과를 반환하고, 아니면 call을 실행합니다.
+     */
+    public V run(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            shared.increment();
+            return await(leader);
+        }
+
+        executions.increment();
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 실제 계산 수, 다른 계산의 결과를 함께 받아 줄인 계산 수, 진행 중인 계산 수
+     */
+    public Map<String, Object> stats() {
+        long executed = executions.sum();
+        long saved = shared.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executions", executed);
+        stats.put("shared", saved);
+        stats.put("shared_ratio", executed + saved == 0 ? 0.0 : (double) saved / (executed + saved));
+        stats.put("in_flight", inFlight.size());
+        return stats;
+    }
+}
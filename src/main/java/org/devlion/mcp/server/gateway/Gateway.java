@@ -0,0 +1,245 @@
+package org.devlion.mcp.server.gateway;
+
+import org.devlion.mcp.server.McpServerMain;
+import org.devlion.mcp.server.transport.UnixSocketListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 여러 서버 프로세스에 세션을 나누어 주는 로컬 게이트웨이
+ *
+ * 작업 프로세스 N개를 띄우고, 클라이언트 세션마다 가장 한가한 프로세스를 기본으로 정해 요청을 전달합니다.
+ * tools/call은 요청마다 처리 중인 요청이 가장 적은 프로세스로 보내고({@code mcp.gateway.routeCalls}, 기본값 true),
+ * 목록 메서드는 모든 프로세스에 보내 결과를 합칩니다. 프로세스마다 힙과 GC가 따로 있으므로 CPU를 많이 쓰는 도구가
+ * 코어 수만큼 나뉘어 실행됩니다. 죽은 프로세스는 다시 띄우고, 그 프로세스를 쓰던 세션은 다른 프로세스로 옮깁니다.
+ *
+ * 작업 프로세스에는 {@code mcp.gateway.*}, {@code mcp.trace.file}을 제외한 {@code mcp.*} 시스템 속성과
+ * {@code mcp.gateway.workerJvmArgs}(공백으로 구분)를 넘깁니다. 작업 프로세스는 게이트웨이가 종료되면 함께 종료합니다.
+ */
+public class Gateway implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Gateway.class);
+
+    private final List<Worker> workers = new ArrayList<>();
+    private final Path socketDirectory;
+    private final boolean routeCalls;
+    private final long startTimeoutMillis;
+
+    public Gateway(int workerCount) throws IOException {
+        this(workerCount, Gateway::workerCommand);
+    }
+
+    /**
+     * 소켓 경로를 받아 작업 프로세스 명령을 만드는 함수를 지정합니다. 테스트에서 가짜 작업 프로세스를 띄울 때 사용합니다.
+     */
+    Gateway(int workerCount, Function<Path, List<String>> commands) throws IOException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("작업 프로세스 수는 1 이상이어야 합니다: " + workerCount);
+        }
+        this.routeCalls = Boolean.parseBoolean(System.getProperty("mcp.gateway.routeCalls", "true"));
+        this.startTimeoutMillis = Long.getLong("mcp.gateway.startTimeoutMs", 30_000L);
+        this.socketDirectory = Files.createTempDirectory("mcp-gateway-");
+
+        for (int i = 0; i < workerCount; i++) {
+            Path socket = socketDirectory.resolve("worker-" + (i + 1) + ".sock");
+            workers.add(new Worker(i + 1, socket, commands.apply(socket), startTimeoutMillis));
+        }
+
+        // 프로세스마다 JVM 기동 시간이 걸리므로 동시에 띄움
+        List<CompletableFuture<Void>> started = new ArrayList<>();
+        for (Worker worker : workers) {
+            started.add(CompletableFuture.runAsync(() -> {
+                try {
+                    worker.start();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, task -> {
+                Thread thread = new Thread(task, "mcp-gateway-start-" + worker.index);
+                thread.setDaemon(true);
+                thread.start();
+            }));
+        }
+        try {
+            CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            close();
+            throw new IOException("작업 프로세스를 시작하지 못했습니다", e.getCause());
+        }
+        logger.info("게이트웨이가 작업 프로세스 {}개를 시작했습니다", workerCount);
+    }
+
+    /**
+     * 현재 프로세스와 같은 실행 파일과 클래스패스로 작업 프로세스 명령을 만듭니다.
+     */
+    private static List<String> workerCommand(Path socket) {
+        List<String> command = new ArrayList<>();
+        String classPath = System.getProperty("java.class.path", "");
+        if (classPath.isEmpty()) {
+            // 네이티브 이미지는 실행 파일 자체가 서버
+            command.add(ProcessHandle.current().info().command()
+                .orElseThrow(() -> new IllegalStateException("현재 실행 파일 경로를 알 수 없습니다")));
+        } else {
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        }
+
+        String jvmArgs = System.getProperty("mcp.gateway.workerJvmArgs", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("mcp.") && !name.startsWith("mcp.gateway.") && !name.startsWith("mcp.worker.")
+                && !name.equals("mcp.trace.file")) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+
+        command.add("-Dmcp.worker.parentPid=" + ProcessHandle.current().pid());
+
+        if (!classPath.isEmpty()) {
+            command.add("-cp");
+            command.add(classPath);
+            command.add(McpServerMain.class.getName());
+        }
+        command.add("--listen");
+        command.add(socket.toString());
+        return command;
+    }
+
+    /**
+     * 표준입출력으로 클라이언트 하나를 받습니다.
+     */
+    public void start() throws IOException {
+        try {
+            serve(System.in, System.out);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * 유닉스 도메인 소켓에서 여러 클라이언트 세션을 받습니다. 종료될 때까지 반환하지 않습니다.
+     */
+    public void listen(Path socketPath) throws IOException {
+        UnixSocketListener listener = new UnixSocketListener(this::serve, socketPath);
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                listener.close();
+                close();
+            }, "mcp-gateway-shutdown"));
+            logger.info("MCP 게이트웨이가 시작되었습니다: {}", socketPath);
+            listener.run();
+        } finally {
+            listener.close();
+            close();
+        }
+    }
+
+    /**
+     * 클라이언트 세션 하나를 작업 프로세스들로 중계합니다. 입력이 끝나면 남은 응답을 모두 보낸 뒤 반환합니다.
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        new GatewaySession(this, out).run(in);
+    }
+
+    boolean isRouteCalls() {
+        return routeCalls;
+    }
+
+    /**
+     * 새 세션의 기본 프로세스. 세션 수가 가장 적고, 같으면 처리 중인 요청이 적은 프로세스를 고릅니다.
+     */
+    Worker pickHome() throws IOException {
+        return pick(Comparator.comparingInt((Worker worker) -> worker.sessions.get())
+            .thenComparingInt(worker -> worker.inFlight.get()));
+    }
+
+    /**
+     * 처리 중인 요청이 가장 적은 프로세스
+     */
+    Worker pickLeastLoaded() throws IOException {
+        return pick(Comparator.comparingInt((Worker worker) -> worker.inFlight.get())
+            .thenComparingInt(worker -> worker.sessions.get()));
+    }
+
+    /**
+     * 살아 있는 프로세스 중에서 고릅니다. 모두 재시작 중이면 시작 제한 시간까지 기다립니다.
+     */
+    private Worker pick(Comparator<Worker> order) throws IOException {
+        long deadline = System.currentTimeMillis() + startTimeoutMillis;
+        while (true) {
+            Worker best = null;
+            for (Worker worker : workers) {
+                if (worker.isLive() && (best == null || order.compare(worker, best) < 0)) {
+                    best = worker;
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("사용할 수 있는 작업 프로세스가 없습니다");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("작업 프로세스를 기다리다 중단되었습니다", e);
+            }
+        }
+    }
+
+    List<Worker> liveWorkers() {
+        List<Worker> live = new ArrayList<>();
+        for (Worker worker : workers) {
+            if (worker.isLive()) {
+                live.add(worker);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * gateway://workers 리소스 내용
+     */
+    Map<String, Object> stats() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Worker worker : workers) {
+            list.add(worker.stats());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("route_calls", routeCalls);
+        stats.put("workers", list);
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+        try {
+            for (Worker worker : workers) {
+                Files.deleteIfExists(worker.socketPath);
+            }
+            Files.deleteIfExists(socketDirectory);
+        } catch (IOException e) {
+            logger.debug("게이트웨이 소켓 디렉터리를 지우지 못했습니다: {}", socketDirectory, e);
+        }
+    }
+}
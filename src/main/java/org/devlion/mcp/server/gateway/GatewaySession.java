@@ -0,0 +1,469 @@
+package org.devlion.mcp.server.gateway;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.devlion.mcp.server.schema.McpError;
+import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.transport.ChannelStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 게이트웨이의 클라이언트 세션 하나
+ *
+ * 작업 프로세스마다 필요할 때 연결을 하나씩 열고, 요청 id로 응답을 짝지어 클라이언트에 돌려줍니다.
+ * 처음 연결하는 프로세스에는 클라이언트의 initialize 요청을 다시 보내 클라이언트 정보를 맞춥니다(응답은 버림).
+ * 요청을 보낸 프로세스가 죽으면 그 요청에는 오류로 응답하고, 다음 요청부터 다른 프로세스로 보냅니다.
+ * 도구 호출의 취소 알림은 그 호출을 실행 중인 프로세스로 보냅니다.
+ */
+final class GatewaySession {
+    private static final Logger logger = LoggerFactory.getLogger(GatewaySession.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper(JsonFactory.builder()
+        .enable(JsonWriteFeature.ESCAPE_NON_ASCII)
+        .build());
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private static final String WORKERS_URI = "gateway://workers";
+
+    private final long id = NEXT_ID.getAndIncrement();
+    private final Gateway gateway;
+    private final OutputStream out;
+    private final Map<Worker, Upstream> upstreams = new ConcurrentHashMap<>();
+    private final AtomicLong replayIds = new AtomicLong();
+
+    /** 응답을 기다리는 도구 호출을 보낸 프로세스. 요청 id의 JSON 표현으로 찾음 */
+    private final Map<String, Worker> calls = new ConcurrentHashMap<>();
+
+    /** 세션 스레드에서만 사용 */
+    private Worker home;
+    private ObjectNode initialize;
+
+    GatewaySession(Gateway gateway, OutputStream out) {
+        this.gateway = gateway;
+        this.out = out;
+    }
+
+    /**
+     * 응답 한 줄을 받았을 때 호출됩니다. 프로세스 연결이 끊겨 응답을 받지 못하면 line과 response가 null입니다.
+     */
+    @FunctionalInterface
+    private interface ResponseHandler {
+        void accept(String line, JsonNode response);
+    }
+
+    void run(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        logger.debug("게이트웨이 세션 {} 시작", id);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    route(line);
+                }
+            }
+        } finally {
+            // 요청 방향만 닫고, 작업 프로세스가 남은 응답을 모두 보낼 때까지 기다림
+            List<Upstream> open = new ArrayList<>(upstreams.values());
+            for (Upstream upstream : open) {
+                upstream.finish();
+            }
+            for (Upstream upstream : open) {
+                upstream.await();
+            }
+            if (home != null) {
+                home.sessions.decrementAndGet();
+            }
+            logger.debug("게이트웨이 세션 {} 종료", id);
+        }
+    }
+
+    private void route(String line) throws IOException {
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(line);
+        } catch (IOException e) {
+            request = null;
+        }
+        if (request == null || !request.isObject()) {
+            // 파싱 오류 응답은 기본 프로세스가 만듦
+            send(home(), line, null);
+            return;
+        }
+
+        String method = request.path("method").textValue();
+        JsonNode requestId = request.get("id");
+        if ("notifications/cancelled".equals(method)) {
+            cancel(line, request.path("params").path("requestId").toString());
+            return;
+        }
+        if (method == null || requestId == null || requestId.isNull()) {
+            send(home(), line, null);
+            return;
+        }
+
+        switch (method) {
+            case "initialize":
+                send(home(), line, requestId);
+                this.initialize = ((ObjectNode) request).deepCopy();
+                break;
+            case "tools/list":
+                fanOut(line, requestId, "tools", "name");
+                break;
+            case "resources/list":
+                fanOut(line, requestId, "resources", "uri");
+                break;
+            case "prompts/list":
+                fanOut(line, requestId, "prompts", "name");
+                break;
+            case "resources/read":
+                if (WORKERS_URI.equals(request.path("params").path("uri").textValue())) {
+                    writeResource(requestId);
+                } else {
+                    send(home(), line, requestId);
+                }
+                break;
+            case "tools/call": {
+                Worker worker = gateway.isRouteCalls() ? gateway.pickLeastLoaded() : home();
+                calls.put(requestId.toString(), worker);
+                send(worker, line, requestId);
+                break;
+            }
+            default:
+                send(home(), line, requestId);
+        }
+    }
+
+    /**
+     * 취소 알림을 호출을 실행 중인 프로세스로 보냅니다. 취소된 요청에는 응답하지 않으므로 더 기다리지 않습니다.
+     */
+    private void cancel(String line, String requestKey) throws IOException {
+        Worker owner = calls.remove(requestKey);
+        if (owner == null) {
+            send(home(), line, null);
+            return;
+        }
+        Upstream upstream = upstreams.get(owner);
+        if (upstream != null) {
+            upstream.forget(requestKey);
+        }
+        send(owner, line, null);
+    }
+
+    /**
+     * 세션의 기본 프로세스. 죽었으면 다른 프로세스로 옮깁니다.
+     */
+    private Worker home() throws IOException {
+        if (home == null || !home.isLive()) {
+            Worker next = gateway.pickHome();
+            next.sessions.incrementAndGet();
+            if (home != null) {
+                home.sessions.decrementAndGet();
+                logger.info("세션 {}을 작업 프로세스 {}에서 {}로 옮깁니다", id, home.index, next.index);
+            }
+            home = next;
+        }
+        return home;
+    }
+
+    /**
+     * 요청을 프로세스에 보내고 응답을 그대로 클라이언트에 돌려줍니다. requestId가 null이면 응답을 기다리지 않습니다.
+     */
+    private void send(Worker worker, String line, JsonNode requestId) {
+        ResponseHandler handler = requestId == null ? null : (response, parsed) -> {
+            calls.remove(requestId.toString());
+            if (response != null) {
+                writeClient(response);
+            } else {
+                writeError(requestId, "작업 프로세스 " + worker.index + "와의 연결이 끊어졌습니다");
+            }
+        };
+        try {
+            upstream(worker).send(line, requestId, handler);
+        } catch (IOException e) {
+            logger.warn("세션 {}: 작업 프로세스 {}에 요청을 보내지 못했습니다", id, worker.index, e);
+            if (requestId != null) {
+                writeError(requestId, "작업 프로세스 " + worker.index + "에 요청을 보내지 못했습니다");
+            }
+        }
+    }
+
+    /**
+     * 목록 요청을 살아 있는 모든 프로세스에 보내고, 항목을 key 기준으로 중복 없이 합쳐 한 번만 응답합니다.
+     */
+    private void fanOut(String line, JsonNode requestId, String field, String key) throws IOException {
+        List<Worker> targets = gateway.liveWorkers();
+        if (targets.isEmpty()) {
+            targets = List.of(home());
+        }
+        JsonNode[] responses = new JsonNode[targets.size()];
+        AtomicInteger remaining = new AtomicInteger(targets.size());
+
+        for (int i = 0; i < targets.size(); i++) {
+            int slot = i;
+            ResponseHandler handler = (response, parsed) -> {
+                responses[slot] = parsed;
+                if (remaining.decrementAndGet() == 0) {
+                    writeMerged(requestId, responses, field, key);
+                }
+            };
+            try {
+                upstream(targets.get(i)).send(line, requestId, handler);
+            } catch (IOException e) {
+                logger.warn("세션 {}: 작업 프로세스 {}에 목록 요청을 보내지 못했습니다", id, targets.get(i).index, e);
+                handler.accept(null, null);
+            }
+        }
+    }
+
+    private void writeMerged(JsonNode requestId, JsonNode[] responses, String field, String key) {
+        ObjectNode result = null;
+        ArrayNode items = objectMapper.createArrayNode();
+        Set<String> seen = new HashSet<>();
+        JsonNode firstError = null;
+
+        for (JsonNode response : responses) {
+            if (response == null) {
+                continue;
+            }
+            JsonNode partial = response.get("result");
+            if (partial == null || !partial.isObject()) {
+                if (firstError == null) {
+                    firstError = response;
+                }
+                continue;
+            }
+            if (result == null) {
+                result = ((ObjectNode) partial).deepCopy();
+            }
+            for (JsonNode item : partial.path(field)) {
+                if (seen.add(item.path(key).asText())) {
+                    items.add(item);
+                }
+            }
+        }
+
+        if (result == null) {
+            if (firstError != null) {
+                writeClient(firstError.toString());
+            } else {
+                writeError(requestId, "목록을 받을 수 있는 작업 프로세스가 없습니다");
+            }
+            return;
+        }
+        if ("resources".equals(field) && seen.add(WORKERS_URI)) {
+            ObjectNode resource = items.addObject();
+            resource.put("uri", WORKERS_URI);
+            resource.put("name", "게이트웨이 작업 프로세스");
+            resource.put("description", "작업 프로세스별 상태, 세션 수, 처리 중인 요청 수, 재시작 횟수를 제공합니다");
+            resource.put("mimeType", "application/json");
+        }
+        result.set(field, items);
+
+        ObjectNode merged = objectMapper.createObjectNode();
+        merged.put("jsonrpc", "2.0");
+        merged.set("id", requestId);
+        merged.set("result", result);
+        try {
+            // 서버 응답과 같이 ASCII 이외 문자를 이스케이프
+            writeClient(objectMapper.writeValueAsString(merged));
+        } catch (IOException e) {
+            logger.error("목록 응답을 만들지 못했습니다", e);
+            writeError(requestId, "목록 응답을 만들지 못했습니다");
+        }
+    }
+
+    private void writeResource(JsonNode requestId) {
+        try {
+            String json = objectMapper.writeValueAsString(gateway.stats());
+            Object result = Map.of("contents", List.of(Map.of("type", "text", "text", json)));
+            writeClient(objectMapper.writeValueAsString(McpMessage.response(objectMapper.treeToValue(requestId, Object.class), result)));
+        } catch (IOException e) {
+            logger.error("게이트웨이 상태 응답을 만들지 못했습니다", e);
+            writeError(requestId, "게이트웨이 상태를 만들지 못했습니다");
+        }
+    }
+
+    private void writeError(JsonNode requestId, String message) {
+        try {
+            Object id = objectMapper.treeToValue(requestId, Object.class);
+            writeClient(objectMapper.writeValueAsString(McpMessage.error(id, new McpError(McpError.INTERNAL_ERROR, message))));
+        } catch (IOException e) {
+            logger.error("오류 응답을 만들지 못했습니다", e);
+        }
+    }
+
+    /**
+     * 응답 한 줄을 클라이언트에 씁니다. 여러 프로세스 연결의 읽기 스레드가 함께 쓰므로 줄 단위로 잠급니다.
+     */
+    private void writeClient(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (out) {
+            try {
+                out.write(bytes);
+                out.flush();
+            } catch (IOException e) {
+                logger.debug("세션 {}: 클라이언트 연결이 끊어졌습니다", id, e);
+            }
+        }
+    }
+
+    /**
+     * 작업 프로세스 연결. 없거나 끊어졌으면 새로 엽니다.
+     */
+    private Upstream upstream(Worker worker) throws IOException {
+        Upstream upstream = upstreams.get(worker);
+        if (upstream != null && !upstream.closed) {
+            return upstream;
+        }
+        upstream = new Upstream(worker, SocketChannel.open(UnixDomainSocketAddress.of(worker.socketPath)));
+        upstreams.put(worker, upstream);
+        upstream.start();
+
+        if (initialize != null) {
+            ObjectNode replay = initialize.deepCopy();
+            JsonNode replayId = replay.textNode("gateway-init-" + replayIds.incrementAndGet());
+            replay.set("id", replayId);
+            upstream.send(replay.toString(), replayId, (response, parsed) -> { });
+        }
+        return upstream;
+    }
+
+    /**
+     * 작업 프로세스 하나와의 연결
+     */
+    private final class Upstream {
+        final Worker worker;
+        final SocketChannel channel;
+        final OutputStream requests;
+        final Map<String, ResponseHandler> pending = new ConcurrentHashMap<>();
+        final Thread reader;
+        volatile boolean closed;
+
+        Upstream(Worker worker, SocketChannel channel) {
+            this.worker = worker;
+            this.channel = channel;
+            this.requests = ChannelStreams.out(channel);
+            this.reader = new Thread(this::readResponses, "mcp-gateway-" + id + "-worker-" + worker.index);
+            reader.setDaemon(true);
+        }
+
+        void start() {
+            reader.start();
+        }
+
+        void send(String line, JsonNode requestId, ResponseHandler handler) throws IOException {
+            String pendingKey = requestId == null ? null : requestId.toString();
+            if (handler != null) {
+                pending.put(pendingKey, handler);
+                worker.inFlight.incrementAndGet();
+            }
+            try {
+                byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+                synchronized (this) {
+                    requests.write(bytes);
+                }
+                worker.forwarded.incrementAndGet();
+            } catch (IOException e) {
+                if (handler != null && pending.remove(pendingKey) != null) {
+                    worker.inFlight.decrementAndGet();
+                }
+                throw e;
+            }
+            // 읽기 스레드가 이미 끝났으면 직접 실패 처리
+            if (closed && handler != null && pending.remove(pendingKey) != null) {
+                worker.inFlight.decrementAndGet();
+                handler.accept(null, null);
+            }
+        }
+
+        /**
+         * 응답을 기다리지 않습니다. 나중에 응답이 오면 id 없는 메시지처럼 그대로 전달됩니다.
+         */
+        void forget(String pendingKey) {
+            if (pending.remove(pendingKey) != null) {
+                worker.inFlight.decrementAndGet();
+            }
+        }
+
+        private void readResponses() {
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(ChannelStreams.in(channel), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JsonNode response;
+                    try {
+                        response = objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        writeClient(line);
+                        continue;
+                    }
+                    JsonNode responseId = response.get("id");
+                    ResponseHandler handler = responseId == null ? null : pending.remove(responseId.toString());
+                    if (handler == null) {
+                        // id 없는 오류 응답이나 알림은 그대로 전달
+                        writeClient(line);
+                        continue;
+                    }
+                    worker.inFlight.decrementAndGet();
+                    handler.accept(line, response);
+                }
+            } catch (IOException e) {
+                logger.debug("세션 {}: 작업 프로세스 {} 연결이 끊어졌습니다", id, worker.index, e);
+            } finally {
+                closed = true;
+                upstreams.remove(worker, this);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // 이미 닫힌 연결
+                }
+                for (String key : pending.keySet()) {
+                    ResponseHandler handler = pending.remove(key);
+                    if (handler != null) {
+                        worker.inFlight.decrementAndGet();
+                        handler.accept(null, null);
+                    }
+                }
+            }
+        }
+
+        void finish() {
+            try {
+                channel.shutdownOutput();
+            } catch (IOException e) {
+                // 이미 닫힌 연결
+            }
+        }
+
+        void await() {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
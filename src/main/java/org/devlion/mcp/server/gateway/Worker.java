@@ -0,0 +1,166 @@
+package org.devlion.mcp.server.gateway;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 게이트웨이가 띄운 서버 프로세스 하나
+ *
+ * 프로세스가 죽으면 다시 띄웁니다. 시작 직후 연달아 죽으면 재시작 간격을 최대 10초까지 늘립니다.
+ * 부하는 게이트웨이가 보낸 뒤 아직 응답받지 못한 요청 수와 이 프로세스를 기본으로 쓰는 세션 수로 판단합니다.
+ */
+final class Worker {
+    private static final Logger logger = LoggerFactory.getLogger(Worker.class);
+
+    private static final long MIN_RESTART_DELAY_MILLIS = 100;
+    private static final long MAX_RESTART_DELAY_MILLIS = 10_000;
+    /** 이보다 오래 살아 있었으면 정상 실행으로 보고 재시작 간격을 되돌림 */
+    private static final long STABLE_MILLIS = 5_000;
+
+    final int index;
+    final Path socketPath;
+    private final List<String> command;
+    private final long startTimeoutMillis;
+
+    final AtomicInteger sessions = new AtomicInteger();
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicLong forwarded = new AtomicLong();
+    final AtomicLong restarts = new AtomicLong();
+
+    private volatile Process process;
+    private volatile boolean live;
+    private volatile boolean stopped;
+    private long restartDelayMillis = MIN_RESTART_DELAY_MILLIS;
+
+    Worker(int index, Path socketPath, List<String> command, long startTimeoutMillis) {
+        this.index = index;
+        this.socketPath = socketPath;
+        this.command = command;
+        this.startTimeoutMillis = startTimeoutMillis;
+    }
+
+    boolean isLive() {
+        return live;
+    }
+
+    /**
+     * 프로세스를 띄우고 소켓에 연결할 수 있을 때까지 기다립니다. 종료를 감시하는 스레드도 시작합니다.
+     */
+    synchronized void start() throws IOException {
+        if (stopped) {
+            return;
+        }
+        Process started = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        this.process = started;
+        long startedAt = System.currentTimeMillis();
+
+        awaitSocket(started);
+        live = true;
+        logger.info("작업 프로세스 {} 시작 (pid {})", index, started.pid());
+
+        Thread supervisor = new Thread(() -> supervise(started, startedAt), "mcp-gateway-supervisor-" + index);
+        supervisor.setDaemon(true);
+        supervisor.start();
+    }
+
+    private void awaitSocket(Process started) throws IOException {
+        long deadline = System.currentTimeMillis() + startTimeoutMillis;
+        while (true) {
+            if (!started.isAlive()) {
+                throw new IOException("작업 프로세스 " + index + "가 시작 중에 종료되었습니다 (종료 코드 " + started.exitValue() + ")");
+            }
+            try {
+                SocketChannel.open(UnixDomainSocketAddress.of(socketPath)).close();
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    started.destroyForcibly();
+                    throw new IOException("작업 프로세스 " + index + "가 " + startTimeoutMillis + "ms 안에 준비되지 않았습니다", e);
+                }
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                started.destroyForcibly();
+                throw new IOException("작업 프로세스 시작을 기다리다 중단되었습니다", e);
+            }
+        }
+    }
+
+    private void supervise(Process watched, long startedAt) {
+        try {
+            int exit = watched.waitFor();
+            live = false;
+            if (stopped) {
+                return;
+            }
+            logger.warn("작업 프로세스 {}가 종료되었습니다 (종료 코드 {}). 다시 시작합니다", index, exit);
+            restartDelayMillis = System.currentTimeMillis() - startedAt > STABLE_MILLIS
+                ? MIN_RESTART_DELAY_MILLIS
+                : Math.min(MAX_RESTART_DELAY_MILLIS, restartDelayMillis * 2);
+
+            while (!stopped) {
+                Thread.sleep(restartDelayMillis);
+                try {
+                    restarts.incrementAndGet();
+                    start();
+                    return;
+                } catch (IOException e) {
+                    logger.error("작업 프로세스 {}를 다시 시작하지 못했습니다", index, e);
+                    restartDelayMillis = Math.min(MAX_RESTART_DELAY_MILLIS, restartDelayMillis * 2);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 프로세스를 종료하고 다시 띄우지 않습니다.
+     */
+    void stop() {
+        stopped = true;
+        live = false;
+        Process current = process;
+        if (current == null) {
+            return;
+        }
+        current.destroy();
+        try {
+            if (!current.waitFor(5, TimeUnit.SECONDS)) {
+                current.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            current.destroyForcibly();
+        }
+    }
+
+    Map<String, Object> stats() {
+        Process current = process;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("index", index);
+        stats.put("pid", current == null ? null : current.pid());
+        stats.put("live", live);
+        stats.put("sessions", sessions.get());
+        stats.put("in_flight", inFlight.get());
+        stats.put("forwarded", forwarded.get());
+        stats.put("restarts", restarts.get());
+        return stats;
+    }
+}
@@ -0,0 +1,25 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 캐시 적중
+ */
+@Name("org.devlion.mcp.CacheHit")
+@Label("MCP Cache Hit")
+@Category({"MCP", "Cache"})
+@StackTrace(false)
+public class CacheHitEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Entry Size")
+    @DataAmount
+    public long entryBytes;
+}
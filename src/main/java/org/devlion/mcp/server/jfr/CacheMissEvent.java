@@ -0,0 +1,20 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 캐시 부재
+ */
+@Name("org.devlion.mcp.CacheMiss")
+@Label("MCP Cache Miss")
+@Category({"MCP", "Cache"})
+@StackTrace(false)
+public class CacheMissEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+}
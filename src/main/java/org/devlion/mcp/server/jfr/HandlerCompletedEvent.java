@@ -0,0 +1,59 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.devlion.mcp.server.schema.McpMessage;
+
+import java.util.Map;
+
+/**
+ * 핸들러 실행 구간
+ *
+ * 도구, 리소스, 프롬프트 핸들러와 서버가 직접 처리하는 메서드(initialize, 목록 조회)에서 기록합니다.
+ */
+@Name("org.devlion.mcp.HandlerCompleted")
+@Label("MCP Handler Completed")
+@Category({"MCP", "Handler"})
+@Description("메서드 핸들러 실행 시간")
+@StackTrace(false)
+public class HandlerCompletedEvent extends Event {
+
+    /** 서버가 직접 처리한 메서드 */
+    public static final String SERVER = "server";
+    public static final String TOOL = "tool";
+    public static final String RESOURCE = "resource";
+    public static final String PROMPT = "prompt";
+
+    @Label("Component")
+    @Description("server, tool, resource, prompt")
+    public String component;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Name")
+    @Description("도구 이름, 리소스 URI 또는 프롬프트 이름")
+    public String name;
+
+    @Label("Error")
+    public boolean error;
+
+    /**
+     * 핸들러 결과로 필드를 채우고 기록합니다. 기록 중이 아니거나 임계값보다 짧으면 아무것도 하지 않습니다.
+     */
+    public void complete(String component, String method, String name, McpMessage response) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.component = component;
+        this.method = method;
+        this.name = name;
+        this.error = response == null || response.getError() != null
+            || (response.getResult() instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) response.getResult()).get("isError")));
+        commit();
+    }
+}
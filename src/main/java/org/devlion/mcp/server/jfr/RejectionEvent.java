@@ -0,0 +1,50 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 한도 초과 등으로 요청을 처리하지 않고 거부한 시점
+ */
+@Name("org.devlion.mcp.Rejection")
+@Label("MCP Rejection")
+@Category({"MCP", "Request"})
+@Description("크기, 개수 등의 한도를 넘어 거부한 요청")
+public class RejectionEvent extends Event {
+
+    @Label("Component")
+    public String component;
+
+    @Label("Name")
+    @Description("도구, 리소스 또는 프롬프트 이름")
+    public String name;
+
+    @Label("Reason")
+    @Description("거부 사유. 인수 하나가 원인이면 사유:인수 이름")
+    public String reason;
+
+    @Label("Size")
+    @Description("요청된 크기 또는 개수")
+    public long size;
+
+    @Label("Limit")
+    public long limit;
+
+    /**
+     * 거부 이벤트를 기록합니다. JFR 기록 중이 아니면 아무것도 하지 않습니다.
+     */
+    public static void emit(String component, String name, String reason, long size, long limit) {
+        RejectionEvent event = new RejectionEvent();
+        if (event.isEnabled()) {
+            event.component = component;
+            event.name = name;
+            event.reason = reason;
+            event.size = size;
+            event.limit = limit;
+            event.commit();
+        }
+    }
+}
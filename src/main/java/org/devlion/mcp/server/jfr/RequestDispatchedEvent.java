@@ -0,0 +1,31 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 파싱된 요청이 핸들러로 전달된 시점
+ */
+@Name("org.devlion.mcp.RequestDispatched")
+@Label("MCP Request Dispatched")
+@Category({"MCP", "Request"})
+@Description("파싱된 요청을 메서드별 핸들러로 전달한 시점")
+@StackTrace(false)
+public class RequestDispatchedEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Queue Time")
+    @Description("파싱 완료부터 핸들러 전달까지 기다린 시간")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueNanos;
+}
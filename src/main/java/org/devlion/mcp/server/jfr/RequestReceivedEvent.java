@@ -0,0 +1,29 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 요청 한 줄을 받아 파싱한 구간
+ */
+@Name("org.devlion.mcp.RequestReceived")
+@Label("MCP Request Received")
+@Category({"MCP", "Request"})
+@Description("요청 한 줄을 받은 시점부터 파싱이 끝날 때까지")
+@StackTrace(false)
+public class RequestReceivedEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Request Size")
+    @Description("요청 줄 길이 (문자 수). 바이트 수가 아니므로 데이터 양 단위를 붙이지 않음")
+    public long requestChars;
+
+    @Label("Parse Failed")
+    public boolean parseFailed;
+}
@@ -0,0 +1,36 @@
+package org.devlion.mcp.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 응답 직렬화와 출력 구간
+ */
+@Name("org.devlion.mcp.ResponseWritten")
+@Label("MCP Response Written")
+@Category({"MCP", "Request"})
+@Description("응답 직렬화부터 출력 스트림 플러시까지")
+@StackTrace(false)
+public class ResponseWrittenEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Response Size")
+    @Description("출력한 바이트 수 (개행 포함)")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Serialize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializeNanos;
+
+    @Label("Error Response")
+    public boolean error;
+}
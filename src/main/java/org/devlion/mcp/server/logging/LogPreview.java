@@ -0,0 +1,53 @@
+package org.devlion.mcp.server.logging;
+
+/**
+ * 로그 인수로 넘기는 큰 문자열의 앞부분만 보여 주는 래퍼
+ *
+ * 로그가 실제로 기록될 때만 {@link #toString()}이 호출되므로, 레벨이 꺼져 있거나 샘플링으로 생략되면
+ * 잘라낸 문자열도 만들지 않습니다.
+ */
+public final class LogPreview {
+
+    /** 기본 미리보기 길이 (문자 수) */
+    public static final int DEFAULT_MAX_CHARS = Integer.getInteger("mcp.log.previewChars", 256);
+
+    private final CharSequence text;
+    private final int maxChars;
+
+    private LogPreview(CharSequence text, int maxChars) {
+        this.text = text;
+        this.maxChars = maxChars;
+    }
+
+    public static LogPreview of(CharSequence text) {
+        return new LogPreview(text, DEFAULT_MAX_CHARS);
+    }
+
+    public static LogPreview of(CharSequence text, int maxChars) {
+        return new LogPreview(text, maxChars);
+    }
+
+    /**
+     * 최대 길이를 넘는 부분을 잘라내고 원래 길이를 덧붙입니다.
+     */
+    static String truncate(CharSequence text, int maxChars) {
+        if (text == null) {
+            return "null";
+        }
+        int length = text.length();
+        if (length <= maxChars) {
+            return text.toString();
+        }
+        int end = maxChars;
+        // 서로게이트 쌍 중간에서 자르지 않도록 조정
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.subSequence(0, end) + "...(총 " + length + "자)";
+    }
+
+    @Override
+    public String toString() {
+        return truncate(text, maxChars);
+    }
+}
@@ -0,0 +1,62 @@
+package org.devlion.mcp.server.logging;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로깅 파이프라인 통계 (비동기 큐 길이, 큐가 넘쳐 버린 이벤트 수, 샘플링으로 생략한 이벤트 수)
+ */
+public final class LogStats {
+
+    private static final Set<OverflowAsyncAppender> appenders = new CopyOnWriteArraySet<>();
+    private static final LongAdder dropped = new LongAdder();
+    private static final LongAdder sampledOut = new LongAdder();
+
+    private LogStats() {
+    }
+
+    static void register(OverflowAsyncAppender appender) {
+        appenders.add(appender);
+    }
+
+    static void unregister(OverflowAsyncAppender appender) {
+        appenders.remove(appender);
+    }
+
+    static void dropped() {
+        dropped.increment();
+    }
+
+    static void sampledOut() {
+        sampledOut.increment();
+    }
+
+    /**
+     * 비동기 어펜더 큐에 쌓여 있는 이벤트 수
+     */
+    public static long queueDepth() {
+        long depth = 0;
+        for (OverflowAsyncAppender appender : appenders) {
+            depth += appender.getNumberOfElementsInQueue();
+        }
+        return depth;
+    }
+
+    public static long droppedEvents() {
+        return dropped.sum();
+    }
+
+    public static long sampledOutEvents() {
+        return sampledOut.sum();
+    }
+
+    public static Map<String, Object> snapshot() {
+        return Map.of(
+            "queue_depth", queueDepth(),
+            "dropped_events", droppedEvents(),
+            "sampled_out_events", sampledOutEvents()
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package org.devlion.mcp.server.logging;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로깅 초기화(logback.xml 해석과 어펜더 생성)를 백그라운드 스레드에서 시작합니다.
+ *
+ * 초기화가 진행되는 동안 다른 스레드가 얻는 로거는 SLF4J의 대리 로거이며, 그 사이의 로그 호출은 기록해 두었다가
+ * 초기화가 끝나면 실제 로거로 다시 전달됩니다. 따라서 첫 요청 처리가 로깅 설정을 기다리지 않습니다.
+ * 다시 전달된 로그의 스레드 이름은 초기화 스레드로 표시됩니다.
+ * 로거를 처음 얻기 전에 호출해야 하며, {@code -Dmcp.startup.deferLogging=false}로 끌 수 있습니다.
+ */
+public final class LoggingBootstrap {
+
+    private static boolean started;
+
+    private LoggingBootstrap() {
+    }
+
+    public static synchronized void startInBackground() {
+        if (started || !Boolean.parseBoolean(System.getProperty("mcp.startup.deferLogging", "true"))) {
+            return;
+        }
+        started = true;
+
+        // 다시 전달한다는 SLF4J 내부 경고가 기동마다 표준 오류에 찍히지 않도록 함 (직접 지정한 값은 유지)
+        if (System.getProperty("slf4j.internal.verbosity") == null) {
+            System.setProperty("slf4j.internal.verbosity", "ERROR");
+        }
+
+        CountDownLatch running = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            running.countDown();
+            LoggerFactory.getILoggerFactory();
+        }, "mcp-log-init");
+        thread.setDaemon(true);
+        thread.start();
+
+        // 초기화 스레드가 먼저 시작하도록 잠시 기다림. 호출한 스레드가 먼저 시작하더라도 기존처럼 동기 초기화될 뿐임
+        try {
+            running.await(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
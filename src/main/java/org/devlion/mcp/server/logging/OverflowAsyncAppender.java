@@ -0,0 +1,81 @@
+package org.devlion.mcp.server.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 큐가 찼을 때의 동작을 명시적으로 고를 수 있는 비동기 어펜더
+ *
+ * 요청 처리 스레드는 이벤트를 고정 크기 큐에 넣기만 하고, 파일 쓰기는 어펜더 작업 스레드가 합니다.
+ * 큐가 밀릴 때의 동작은 {@link OverflowPolicy}로 지정하며, 버린 이벤트 수는 {@link LogStats}에 집계됩니다.
+ *
+ * <pre>
+ * &lt;appender name="ASYNC" class="org.devlion.mcp.server.logging.OverflowAsyncAppender"&gt;
+ *     &lt;queueSize&gt;8192&lt;/queueSize&gt;
+ *     &lt;overflowPolicy&gt;DISCARD_BELOW_WARN&lt;/overflowPolicy&gt;
+ *     &lt;appender-ref ref="FILE" /&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class OverflowAsyncAppender extends AsyncAppender {
+
+    /**
+     * 큐가 밀릴 때의 동작
+     */
+    public enum OverflowPolicy {
+        /** 큐가 비워질 때까지 로그를 남기는 스레드가 기다립니다. 로그를 잃지 않지만 처리량이 로그 쓰기 속도에 묶입니다 */
+        BLOCK,
+        /** 큐가 가득 차면 새 이벤트를 버립니다 */
+        DROP,
+        /** 큐가 80% 이상 차면 INFO 이하를 버리고, 가득 차면 WARN/ERROR도 버립니다 */
+        DISCARD_BELOW_WARN
+    }
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DISCARD_BELOW_WARN;
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public void start() {
+        switch (overflowPolicy) {
+            case BLOCK:
+                setNeverBlock(false);
+                setDiscardingThreshold(0);
+                break;
+            case DROP:
+                setNeverBlock(true);
+                setDiscardingThreshold(0);
+                break;
+            case DISCARD_BELOW_WARN:
+                setNeverBlock(true);
+                setDiscardingThreshold(getQueueSize() / 5);
+                break;
+        }
+        super.start();
+        LogStats.register(this);
+    }
+
+    @Override
+    public void stop() {
+        LogStats.unregister(this);
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            int remaining = getRemainingCapacity();
+            if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+                LogStats.dropped();
+                return;
+            }
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,92 @@
+package org.devlion.mcp.server.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청마다 반복되는 로그를 메시지별로 샘플링하는 필터
+ *
+ * 지정한 로거(이름 접두어)에서 지정한 레벨 이하로 남기는 로그를 메시지 형식 문자열별로 세어
+ * 처음 한 번과 이후 {@code every}번마다 한 번만 통과시킵니다. 레벨이 꺼져 있는 로그는 세지 않습니다.
+ * 필터를 여러 개 두면 로그 하나가 모든 필터를 차례로 거치므로, 로거 범위가 겹치는 필터는 {@code minLevel}로
+ * 레벨 범위가 겹치지 않게 해야 샘플링이 곱해지지 않습니다.
+ *
+ * <pre>
+ * &lt;turboFilter class="org.devlion.mcp.server.logging.SamplingTurboFilter"&gt;
+ *     &lt;logger&gt;org.devlion.mcp.server&lt;/logger&gt;
+ *     &lt;level&gt;INFO&lt;/level&gt;
+ *     &lt;every&gt;100&lt;/every&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    /** 메시지 형식 문자열 종류가 이보다 많아지면 샘플링 없이 통과시킵니다 */
+    private static final int MAX_TRACKED_MESSAGES = 1024;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private String logger = "";
+    private Level level = Level.INFO;
+    private Level minLevel = Level.ALL;
+    private int every = 100;
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    /**
+     * 이 레벨보다 낮은 로그는 샘플링하지 않습니다. 기본값은 모든 레벨
+     */
+    public void setMinLevel(String minLevel) {
+        this.minLevel = Level.toLevel(minLevel, Level.ALL);
+    }
+
+    public void setEvery(int every) {
+        this.every = every;
+    }
+
+    @Override
+    public void start() {
+        if (every < 1) {
+            addError("every는 1 이상이어야 합니다: " + every);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger target, Level eventLevel, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() 같은 레벨 확인 호출은 세지 않음
+        if (format == null || every == 1 || eventLevel.levelInt > level.levelInt || eventLevel.levelInt < minLevel.levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!target.getName().startsWith(logger) || !target.isEnabledFor(eventLevel)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        AtomicLong counter = counters.get(format);
+        if (counter == null) {
+            if (counters.size() >= MAX_TRACKED_MESSAGES) {
+                return FilterReply.NEUTRAL;
+            }
+            counter = counters.computeIfAbsent(format, k -> new AtomicLong());
+        }
+        if (counter.getAndIncrement() % every == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        LogStats.sampledOut();
+        return FilterReply.DENY;
+    }
+}
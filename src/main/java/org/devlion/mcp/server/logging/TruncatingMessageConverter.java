@@ -0,0 +1,34 @@
+package org.devlion.mcp.server.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 너무 긴 로그 메시지를 잘라서 출력하는 변환기
+ *
+ * 패턴에서 {@code %tmsg{최대 문자 수}}로 사용합니다. 기본 최대 길이는 2048자입니다.
+ */
+public class TruncatingMessageConverter extends MessageConverter {
+
+    private static final int DEFAULT_MAX_CHARS = 2048;
+
+    private int maxChars = DEFAULT_MAX_CHARS;
+
+    @Override
+    public void start() {
+        String option = getFirstOption();
+        if (option != null) {
+            try {
+                maxChars = Integer.parseInt(option.trim());
+            } catch (NumberFormatException e) {
+                addError("잘못된 최대 길이입니다: " + option);
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return LogPreview.truncate(event.getFormattedMessage(), maxChars);
+    }
+}
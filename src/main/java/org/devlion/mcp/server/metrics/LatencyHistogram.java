@@ -0,0 +1,124 @@
+package org.devlion.mcp.server.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 잠금 없이 기록하는 지연 시간 히스토그램 (나노초)
+ *
+ * 2의 거듭제곱 구간마다 16개의 선형 버킷을 두는 로그-선형 구조로, 상대 오차는 약 6% 이내입니다.
+ * 기록은 버킷 하나의 원자적 증가와 LongAdder 갱신뿐이며 객체를 할당하지 않습니다.
+ * 서버 시작 이후의 누적 분포를 보관합니다.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 백분위 값(나노초)을 반환합니다. 해당 버킷의 상한이며 최대값을 넘지 않습니다.
+     *
+     * @param percentile 0 ~ 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = snapshotBuckets();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        return valueAtPercentile(snapshot, total, percentile);
+    }
+
+    /**
+     * 요약 통계 (건수, 평균, p50/p90/p99/p999, 최대, 마이크로초 단위)
+     */
+    public Map<String, Object> summary() {
+        long[] snapshot = snapshotBuckets();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("mean_us", total == 0 ? 0.0 : micros(sum.sum() / (double) count.sum()));
+        summary.put("p50_us", micros(valueAtPercentile(snapshot, total, 50)));
+        summary.put("p90_us", micros(valueAtPercentile(snapshot, total, 90)));
+        summary.put("p99_us", micros(valueAtPercentile(snapshot, total, 99)));
+        summary.put("p999_us", micros(valueAtPercentile(snapshot, total, 99.9)));
+        summary.put("max_us", micros(max.get()));
+        return summary;
+    }
+
+    private long[] snapshotBuckets() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+
+    private long valueAtPercentile(long[] snapshot, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long sub = index % SUB_BUCKET_COUNT;
+        long lower = (SUB_BUCKET_COUNT + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+}
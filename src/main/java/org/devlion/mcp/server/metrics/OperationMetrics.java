@@ -0,0 +1,64 @@
+package org.devlion.mcp.server.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메서드 또는 도구 하나의 요청 수, 오류 수, 처리 중인 요청 수, 지연 시간 분포
+ */
+public final class OperationMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * 요청 처리 시작을 기록하고 시작 시각(나노초)을 반환합니다.
+     */
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 요청 처리 종료를 기록합니다.
+     *
+     * @param startNanos {@link #start()}가 반환한 시각
+     * @param error      오류 응답 여부
+     */
+    public void end(long startNanos, boolean error) {
+        latency.record(System.nanoTime() - startNanos);
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        inFlight.decrement();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("requests", getRequests());
+        snapshot.put("errors", getErrors());
+        snapshot.put("in_flight", getInFlight());
+        snapshot.put("latency", latency.summary());
+        return snapshot;
+    }
+}
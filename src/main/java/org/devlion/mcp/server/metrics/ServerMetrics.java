@@ -0,0 +1,225 @@
+package org.devlion.mcp.server.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 서버 전체 지표
+ *
+ * 메서드별/도구별 요청 수와 지연 시간 분포, 처리 중인 요청 수, 연결 수, 입출력 바이트, 작업 큐 길이를 모읍니다.
+ * 요청 처리 경로에서의 기록은 모두 LongAdder와 원자적 증가만 사용하며, 집계는 조회할 때 합니다.
+ */
+public class ServerMetrics {
+
+    /** 메서드/도구 이름별로 따로 집계하는 최대 개수. 넘으면 {@link #OTHER}로 합칩니다 */
+    private static final int MAX_TRACKED_NAMES = 128;
+
+    /** 집계 한도를 넘은 이름을 합치는 항목 */
+    public static final String OTHER = "(other)";
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final long startedAtNanos = System.nanoTime();
+
+    private final Map<String, OperationMetrics> methods = new ConcurrentHashMap<>();
+    private final Map<String, OperationMetrics> tools = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> queues = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<Map<String, Object>>> sections = new ConcurrentHashMap<>();
+
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder activeConnections = new LongAdder();
+    private final LongAdder totalConnections = new LongAdder();
+    private final AtomicLong firstInitializeMillis = new AtomicLong();
+
+    /**
+     * 메서드 지표. 처음 보는 메서드면 새로 만듭니다.
+     */
+    public OperationMetrics method(String name) {
+        return lookup(methods, name);
+    }
+
+    /**
+     * 도구 지표. 처음 보는 도구면 새로 만듭니다.
+     */
+    public OperationMetrics tool(String name) {
+        return lookup(tools, name);
+    }
+
+    /**
+     * 큐 길이를 조회하는 함수를 등록합니다. 지표를 조회할 때만 호출됩니다.
+     */
+    public void registerQueue(String name, LongSupplier depth) {
+        queues.put(name, depth);
+    }
+
+    /**
+     * 다른 컴포넌트의 통계를 지표에 추가합니다. 지표를 조회할 때만 호출됩니다.
+     */
+    public void registerSection(String name, Supplier<Map<String, Object>> section) {
+        sections.put(name, section);
+    }
+
+    public void connectionOpened() {
+        activeConnections.increment();
+        totalConnections.increment();
+    }
+
+    public void connectionClosed() {
+        activeConnections.decrement();
+    }
+
+    /**
+     * initialize 요청을 처리했음을 기록합니다. 기동 시간 지표에는 처음 한 번만 반영됩니다.
+     */
+    public void initialized() {
+        if (firstInitializeMillis.get() == 0) {
+            firstInitializeMillis.compareAndSet(0, System.currentTimeMillis());
+        }
+    }
+
+    public long getActiveConnections() {
+        return activeConnections.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public long getUptimeMillis() {
+        return (System.nanoTime() - startedAtNanos) / 1_000_000;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * 읽은 바이트 수를 집계하는 입력 스트림을 반환합니다.
+     */
+    public InputStream countInput(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesIn.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = in.read(buffer, offset, length);
+                if (read > 0) {
+                    bytesIn.add(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * 쓴 바이트 수를 집계하는 출력 스트림을 반환합니다.
+     */
+    public OutputStream countOutput(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesOut.increment();
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                bytesOut.add(length);
+            }
+        };
+    }
+
+    /**
+     * metrics://server 리소스 내용
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("started_at", Instant.ofEpochMilli(startedAtMillis).toString());
+        snapshot.put("uptime_ms", getUptimeMillis());
+        snapshot.put("connections", Map.of(
+            "active", getActiveConnections(),
+            "total", totalConnections.sum()
+        ));
+
+        long requests = 0;
+        long errors = 0;
+        long inFlight = 0;
+        for (OperationMetrics metrics : methods.values()) {
+            requests += metrics.getRequests();
+            errors += metrics.getErrors();
+            inFlight += metrics.getInFlight();
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("total", requests);
+        totals.put("errors", errors);
+        totals.put("in_flight", inFlight);
+        snapshot.put("requests", totals);
+
+        snapshot.put("bytes", Map.of(
+            "in", bytesIn.sum(),
+            "out", bytesOut.sum()
+        ));
+
+        Map<String, Object> queueDepths = new TreeMap<>();
+        queues.forEach((name, depth) -> queueDepths.put(name, depth.getAsLong()));
+        snapshot.put("queues", queueDepths);
+
+        snapshot.put("methods", snapshotOf(methods));
+        snapshot.put("tools", snapshotOf(tools));
+        snapshot.put("startup", startupSnapshot());
+        new TreeMap<>(sections).forEach((name, section) -> snapshot.put(name, section.get()));
+        return snapshot;
+    }
+
+    /**
+     * JVM 시작부터 서버 준비, 첫 initialize 처리까지의 시간. 관리 API는 기동 경로에서 로드하지 않도록 조회할 때만 씁니다.
+     */
+    private Map<String, Object> startupSnapshot() {
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        Map<String, Object> startup = new LinkedHashMap<>();
+        startup.put("jvm_to_server_ms", startedAtMillis - jvmStartMillis);
+        long initialize = firstInitializeMillis.get();
+        // 아직 initialize를 받지 않았으면 항목을 넣지 않음
+        if (initialize != 0) {
+            startup.put("jvm_to_first_initialize_ms", initialize - jvmStartMillis);
+        }
+        return startup;
+    }
+
+    private static OperationMetrics lookup(Map<String, OperationMetrics> map, String name) {
+        OperationMetrics metrics = map.get(name == null ? OTHER : name);
+        if (metrics != null) {
+            return metrics;
+        }
+        // 클라이언트가 보낸 임의의 이름으로 항목이 끝없이 늘어나지 않도록 제한
+        String key = name == null || map.size() >= MAX_TRACKED_NAMES ? OTHER : name;
+        return map.computeIfAbsent(key, k -> new OperationMetrics());
+    }
+
+    private static Map<String, Object> snapshotOf(Map<String, OperationMetrics> map) {
+        Map<String, Object> snapshot = new TreeMap<>();
+        map.forEach((name, metrics) -> snapshot.put(name, metrics.snapshot()));
+        return snapshot;
+    }
+}
@@ -1,8 +1,16 @@
 package org.devlion.mcp.server.prompt;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.cache.PersistentCache;
+import org.devlion.mcp.server.prompt.template.PromptTemplate;
+import org.devlion.mcp.server.jfr.HandlerCompletedEvent;
+import org.devlion.mcp.server.jfr.RejectionEvent;
 import org.devlion.mcp.server.schema.McpError;
 import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.schema.ParamsDeserializer;
 import org.devlion.mcp.server.schema.Prompt;
+import org.devlion.mcp.server.schema.RawJson;
+import org.devlion.mcp.server.text.Rope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,11 +25,83 @@ import java.util.Map;
 public class PromptRegistry {
     private static final Logger logger = LoggerFactory.getLogger(PromptRegistry.class);
     
+    private static final String CODE_REVIEW_TEMPLATE =
+            "다음 {{language}} 코드를 리뷰해주세요:\n\n" +
+            "```{{language}}\n{{code}}\n```\n\n" +
+            "리뷰 중점 사항: {{focus_areas}}\n\n" +
+            "다음 형식으로 리뷰를 제공해주세요:\n\n" +
+            "## 코드 리뷰 결과\n\n" +
+            "### 긍정적인 부분\n- [좋은 점들을 나열]\n\n" +
+            "### 개선이 필요한 부분\n- [문제점과 개선 방안]\n\n" +
+            "### 보안 검토\n- [보안 관련 이슈 및 권장사항]\n\n" +
+            "### 성능 검토\n- [성능 최적화 제안]\n\n" +
+            "### 가독성 및 유지보수성\n- [코드 구조 및 명명 개선 제안]\n\n" +
+            "### 전체 평가\n- 점수: __/10\n- 주요 권장사항: [핵심 개선 포인트]";
+
+    private static final String DOCUMENT_SUMMARY_TEMPLATE =
+            "다음 문서를 요약해주세요:\n\n" +
+            "---\n{{document}}\n---\n\n" +
+            "요약 길이: {{summary_length}}\n" +
+            "핵심 포인트 수: {{key_points}}개\n\n" +
+            "다음 형식으로 요약을 제공해주세요:\n\n" +
+            "## 문서 요약\n\n" +
+            "### 한 줄 요약\n- [문서 전체를 대표하는 한 문장]\n\n" +
+            "### 핵심 포인트\n- [중요도 순으로 {{key_points}}개 나열]\n\n" +
+            "### 결론 및 시사점\n- [문서가 전달하는 결론과 후속 조치]";
+
+    private static final String TECH_QUESTION_TEMPLATE =
+            "다음 {{domain}} 분야의 기술 질문에 답변해주세요:\n\n" +
+            "{{question}}\n\n" +
+            "질문자의 경험 수준: {{experience_level}}\n\n" +
+            "다음 형식으로 답변을 제공해주세요:\n\n" +
+            "## 답변\n\n" +
+            "### 핵심 요약\n- [질문에 대한 직접적인 답]\n\n" +
+            "### 상세 설명\n- [경험 수준에 맞춘 원리와 배경 설명]\n\n" +
+            "### 예제\n- [코드 또는 구체적인 사례]\n\n" +
+            "### 주의사항 및 모범 사례\n- [흔한 실수와 권장 방식]\n\n" +
+            "### 참고 자료\n- [추가로 살펴볼 문서나 키워드]";
+
+    /** 렌더링 결과 캐시 용량 (바이트, 0이면 비활성화) */
+    private static final long RESULT_CACHE_MAX_BYTES = Long.getLong("mcp.prompt.cacheMaxBytes", 32L * 1024 * 1024);
+
+    /** 재시작해도 남는 캐시에서 도구 결과와 구분하기 위한 키 접두어 */
+    private static final String PERSISTENT_KEY_PREFIX = "prompt:";
+
     private final List<Prompt> prompts;
+    private final ObjectMapper objectMapper;
+    private final PromptResultCache resultCache;
+    /** 재시작해도 남는 결과 캐시. 없으면 null */
+    private final PersistentCache persistentCache;
+
+    private final PromptTemplate codeReviewTemplate;
+    private final PromptTemplate documentSummaryTemplate;
+    private final PromptTemplate techQuestionTemplate;
+
+    /**
+     * @param objectMapper 캐시할 결과를 직렬화할 때 사용할 매퍼 (응답 직렬화와 같은 설정이어야 함)
+     */
+    public PromptRegistry(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
 
-    public PromptRegistry() {
+    /**
+     * @param objectMapper    캐시할 결과를 직렬화할 때 사용할 매퍼 (응답 직렬화와 같은 설정이어야 함)
+     * @param persistentCache 메모리 캐시에 없을 때 찾아보고 결과를 저장할 캐시. null이면 쓰지 않음
+     */
+    public PromptRegistry(ObjectMapper objectMapper, PersistentCache persistentCache) {
         this.prompts = new ArrayList<>();
+        this.objectMapper = objectMapper;
+        this.resultCache = new PromptResultCache(RESULT_CACHE_MAX_BYTES);
+        this.persistentCache = persistentCache;
         registerPrompts();
+
+        // 템플릿은 등록 시점에 한 번만 파싱합니다
+        this.codeReviewTemplate = PromptTemplate.compile(CODE_REVIEW_TEMPLATE,
+            Map.of("focus_areas", "전반적인 코드 품질"));
+        this.documentSummaryTemplate = PromptTemplate.compile(DOCUMENT_SUMMARY_TEMPLATE,
+            Map.of("summary_length", "medium", "key_points", "3"));
+        this.techQuestionTemplate = PromptTemplate.compile(TECH_QUESTION_TEMPLATE,
+            Map.of("experience_level", "intermediate"));
     }
 
     /**
@@ -71,8 +151,28 @@ public class PromptRegistry {
         return new ArrayList<>(prompts);
     }
 
-    @SuppressWarnings("unchecked")
+    public PromptResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * 프롬프트 조회 요청을 처리합니다.
+     */
     public McpMessage handlePromptGet(Object id, Object params) {
+        HandlerCompletedEvent event = new HandlerCompletedEvent();
+        event.begin();
+        McpMessage response = getPrompt(id, params);
+        event.complete(HandlerCompletedEvent.PROMPT, "prompts/get", nameOf(params), response);
+        return response;
+    }
+
+    private static String nameOf(Object params) {
+        Object name = params instanceof Map ? ((Map<?, ?>) params).get("name") : null;
+        return name instanceof String ? (String) name : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private McpMessage getPrompt(Object id, Object params) {
         try {
             Map<String, Object> paramsMap = (Map<String, Object>) params;
             String promptName = (String) paramsMap.get("name");
@@ -82,13 +182,28 @@ public class PromptRegistry {
                 arguments = new HashMap<>();
             }
 
+            McpError sizeError = checkArgumentSizes(promptName, arguments);
+            if (sizeError != null) {
+                return McpMessage.error(id, sizeError);
+            }
+
+            String cacheKey = null;
+            if (resultCache.isEnabled() || persistentCache != null) {
+                cacheKey = PromptResultCache.key(promptName, arguments);
+                Rope cached = cachedResult(cacheKey);
+                if (cached != null) {
+                    logger.debug("캐시된 프롬프트 결과를 사용합니다: {}", promptName);
+                    return McpMessage.response(id, new RawJson(cached));
+                }
+            }
+
             switch (promptName) {
                 case "code_review":
-                    return handleCodeReviewPrompt(id, arguments);
+                    return handleCodeReviewPrompt(id, arguments, cacheKey);
                 case "document_summary":
-                    return handleDocumentSummaryPrompt(id, arguments);
+                    return handleDocumentSummaryPrompt(id, arguments, cacheKey);
                 case "tech_question":
-                    return handleTechQuestionPrompt(id, arguments);
+                    return handleTechQuestionPrompt(id, arguments, cacheKey);
                 default:
                     return McpMessage.error(id, new McpError(-1, "알 수 없는 프롬프트: " + promptName));
             }
@@ -102,92 +217,130 @@ public class PromptRegistry {
     /**
      * 코드 리뷰 프롬프트 핸들러
      */
-    private McpMessage handleCodeReviewPrompt(Object id, Map<String, Object> arguments) {
+    private McpMessage handleCodeReviewPrompt(Object id, Map<String, Object> arguments, String cacheKey) {
         try {
-            String code = (String) arguments.get("code");
-            String language = (String) arguments.get("language");
-            String focusAreas = (String) arguments.getOrDefault("focus_areas", "전반적인 코드 품질");
-
-            String promptContent = "다음 " + language + " 코드를 리뷰해주세요:\n\n" +
-                    "```" + language + "\n" + code + "\n```\n\n" +
-                    "리뷰 중점 사항: " + focusAreas + "\n\n" +
-                    "다음 형식으로 리뷰를 제공해주세요:\n\n" +
-                    "## 코드 리뷰 결과\n\n" +
-                    "### 긍정적인 부분\n- [좋은 점들을 나열]\n\n" +
-                    "### 개선이 필요한 부분\n- [문제점과 개선 방안]\n\n" +
-                    "### 보안 검토\n- [보안 관련 이슈 및 권장사항]\n\n" +
-                    "### 성능 검토\n- [성능 최적화 제안]\n\n" +
-                    "### 가독성 및 유지보수성\n- [코드 구조 및 명명 개선 제안]\n\n" +
-                    "### 전체 평가\n- 점수: __/10\n- 주요 권장사항: [핵심 개선 포인트]";
-
-            logger.info("코드 리뷰 프롬프트를 생성했습니다 (언어: {})", language);
-
-            Map<String, Object> result = Map.of(
-                "description", "코드 리뷰를 위한 구조화된 프롬프트",
-                "messages", List.of(Map.of(
-                    "role", "user",
-                    "content", Map.of(
-                        "type", "text",
-                        "text", promptContent
-                    )
-                ))
-            );
-
-            return McpMessage.response(id, result);
+            Object promptContent = render(codeReviewTemplate, arguments);
+
+            logger.debug("코드 리뷰 프롬프트를 생성했습니다 (언어: {})", arguments.get("language"));
+
+            return promptResponse(id, "코드 리뷰를 위한 구조화된 프롬프트", promptContent, cacheKey);
 
         } catch (Exception e) {
             logger.error("코드 리뷰 프롬프트 생성 중 오류 발생", e);
-            Map<String, Object> result = Map.of(
-                "description", "오류가 발생했습니다",
-                "messages", List.of(Map.of(
-                    "role", "user",
-                    "content", Map.of(
-                        "type", "text",
-                        "text", "코드 리뷰 프롬프트 생성 중 오류가 발생했습니다: " + e.getMessage()
-                    )
-                ))
-            );
-            return McpMessage.response(id, result);
+            return promptResponse(id, "오류가 발생했습니다", "코드 리뷰 프롬프트 생성 중 오류가 발생했습니다: " + e.getMessage(), null);
         }
     }
 
     /**
-     * 문서 요약 프롬프트 핸들러 (간단한 구현)
+     * 문서 요약 프롬프트 핸들러
      */
-    private McpMessage handleDocumentSummaryPrompt(Object id, Map<String, Object> arguments) {
-        logger.info("문서 요약 프롬프트를 생성했습니다");
-        
-        Map<String, Object> result = Map.of(
-            "description", "문서 요약을 위한 구조화된 프롬프트",
-            "messages", List.of(Map.of(
-                "role", "user",
-                "content", Map.of(
-                    "type", "text",
-                    "text", "문서 요약 프롬프트가 생성되었습니다."
-                )
-            ))
-        );
-        
-        return McpMessage.response(id, result);
+    private McpMessage handleDocumentSummaryPrompt(Object id, Map<String, Object> arguments, String cacheKey) {
+        try {
+            Object promptContent = render(documentSummaryTemplate, arguments);
+
+            logger.debug("문서 요약 프롬프트를 생성했습니다");
+
+            return promptResponse(id, "문서 요약을 위한 구조화된 프롬프트", promptContent, cacheKey);
+
+        } catch (Exception e) {
+            logger.error("문서 요약 프롬프트 생성 중 오류 발생", e);
+            return promptResponse(id, "오류가 발생했습니다", "문서 요약 프롬프트 생성 중 오류가 발생했습니다: " + e.getMessage(), null);
+        }
     }
 
     /**
-     * 기술 질문 프롬프트 핸들러 (간단한 구현)
+     * 기술 질문 프롬프트 핸들러
      */
-    private McpMessage handleTechQuestionPrompt(Object id, Map<String, Object> arguments) {
-        logger.info("기술 질문 프롬프트를 생성했습니다");
-        
+    private McpMessage handleTechQuestionPrompt(Object id, Map<String, Object> arguments, String cacheKey) {
+        try {
+            Object promptContent = render(techQuestionTemplate, arguments);
+
+            logger.debug("기술 질문 프롬프트를 생성했습니다 (도메인: {})", arguments.get("domain"));
+
+            return promptResponse(id, "기술 질문에 대한 구조화된 답변을 위한 프롬프트", promptContent, cacheKey);
+
+        } catch (Exception e) {
+            logger.error("기술 질문 프롬프트 생성 중 오류 발생", e);
+            return promptResponse(id, "오류가 발생했습니다", "기술 질문 프롬프트 생성 중 오류가 발생했습니다: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * 크기 제한을 넘은 인수가 있으면 오류를 반환합니다.
+     */
+    private McpError checkArgumentSizes(String promptName, Map<String, Object> arguments) {
+        for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+            if (entry.getValue() instanceof Rope && ((Rope) entry.getValue()).isOverLimit()) {
+                Rope rope = (Rope) entry.getValue();
+                logger.warn("프롬프트 인수 크기 제한 초과: {} ({} bytes)", entry.getKey(), rope.byteLength());
+                RejectionEvent.emit(HandlerCompletedEvent.PROMPT, promptName, "argument_too_large:" + entry.getKey(),
+                    rope.byteLength(), ParamsDeserializer.MAX_ARGUMENT_BYTES);
+                return new McpError(McpError.INVALID_PARAMS,
+                    "인수 크기가 제한을 초과했습니다: " + entry.getKey(),
+                    Map.of(
+                        "argument", entry.getKey(),
+                        "size_bytes", rope.byteLength(),
+                        "max_argument_bytes", ParamsDeserializer.MAX_ARGUMENT_BYTES
+                    ));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 큰 인수가 있으면 Rope로, 없으면 미리 크기를 잡은 문자열로 렌더링합니다.
+     */
+    private static Object render(PromptTemplate template, Map<String, Object> arguments) {
+        return Rope.containsRope(arguments) ? template.renderRope(arguments) : template.render(arguments);
+    }
+
+    /**
+     * 메모리 캐시에서 먼저 찾고, 없으면 재시작해도 남는 캐시에서 찾아 메모리 캐시에 채웁니다.
+     */
+    private Rope cachedResult(String cacheKey) {
+        Rope cached = resultCache.isEnabled() ? resultCache.get(cacheKey) : null;
+        if (cached == null && persistentCache != null) {
+            cached = persistentCache.get(PERSISTENT_KEY_PREFIX + cacheKey);
+            if (cached != null && resultCache.isEnabled()) {
+                resultCache.put(cacheKey, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 단일 사용자 메시지로 구성된 prompts/get 응답을 만듭니다.
+     * 캐시 키가 주어지면 결과를 한 번 직렬화하여 캐시에 넣고, 이번 응답에도 그 직렬화 결과를 사용합니다.
+     */
+    private McpMessage promptResponse(Object id, String description, Object text, String cacheKey) {
         Map<String, Object> result = Map.of(
-            "description", "기술 질문에 대한 구조화된 답변을 위한 프롬프트",
+            "description", description,
             "messages", List.of(Map.of(
                 "role", "user",
                 "content", Map.of(
                     "type", "text",
-                    "text", "기술 질문 프롬프트가 생성되었습니다."
+                    "text", text
                 )
             ))
         );
-        
+
+        if (cacheKey != null) {
+            try {
+                Rope.Builder serialized = Rope.builder();
+                objectMapper.writeValue(serialized, result);
+                Rope json = serialized.build();
+                if (resultCache.isEnabled()) {
+                    resultCache.put(cacheKey, json);
+                }
+                if (persistentCache != null) {
+                    persistentCache.put(PERSISTENT_KEY_PREFIX + cacheKey, json);
+                }
+                return McpMessage.response(id, new RawJson(json));
+            } catch (Exception e) {
+                logger.warn("프롬프트 결과 캐시 저장 실패", e);
+            }
+        }
+
         return McpMessage.response(id, result);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,196 @@
+package org.devlion.mcp.server.prompt;
+
+import org.devlion.mcp.server.jfr.CacheHitEvent;
+import org.devlion.mcp.server.jfr.CacheMissEvent;
+import org.devlion.mcp.server.text.Rope;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 렌더링 및 직렬화가 끝난 prompts/get 결과를 보관하는 캐시
+ *
+ * 키는 프롬프트 이름과 인수 내용의 SHA-256 다이제스트이며, 값은 직렬화된 JSON({@link Rope})입니다.
+ * 항목 수가 아니라 보관 중인 바이트 합계로 용량을 제한하고, 넘치면 가장 오래 사용되지 않은 항목부터 제거합니다.
+ */
+public class PromptResultCache {
+
+    /** JFR 이벤트에 기록하는 캐시 이름 */
+    private static final String CACHE_NAME = "prompts";
+
+    /** 항목당 키와 맵 노드 등 부가 비용 추정치 */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<String, Rope> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param maxBytes 전체 용량 (0이면 캐시 비활성화)
+     */
+    public PromptResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        // 항목 하나가 캐시 대부분을 차지하지 않도록 제한
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * 프롬프트 이름과 인수로 캐시 키를 만듭니다. 인수 순서에 영향을 받지 않습니다.
+     * 인수 이름과 값은 각각 바이트 길이를 앞에 붙여 다이제스트에 넣으므로, 값에 어떤 바이트가 들어 있어도 경계가 섞이지 않습니다.
+     * 값 앞에는 종류 표시도 넣어 3과 "3", true와 "true"처럼 문자열로는 같은 값이 같은 키가 되지 않게 합니다.
+     * Rope는 큰 문자열을 담는 방식일 뿐이므로 같은 내용의 문자열과 같은 키입니다.
+     */
+    public static String key(String promptName, Map<String, Object> arguments) {
+        MessageDigest digest = newDigest();
+        byte[] length = new byte[Long.BYTES];
+        for (Map.Entry<String, Object> entry : new TreeMap<>(arguments).entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            updateLength(digest, length, name.length);
+            digest.update(name);
+            Object value = entry.getValue();
+            digest.update(typeOf(value));
+            if (value instanceof Rope) {
+                Rope rope = (Rope) value;
+                updateLength(digest, length, rope.byteLength());
+                rope.updateDigest(digest);
+            } else {
+                byte[] text = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+                updateLength(digest, length, text.length);
+                digest.update(text);
+            }
+        }
+
+        StringBuilder key = new StringBuilder(promptName.length() + 65).append(promptName).append(':');
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    public Rope get(String key) {
+        Rope value;
+        synchronized (this) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            CacheHitEvent hit = new CacheHitEvent();
+            if (hit.isEnabled()) {
+                hit.cache = CACHE_NAME;
+                hit.entryBytes = value.byteLength();
+                hit.commit();
+            }
+        } else {
+            misses.increment();
+            CacheMissEvent miss = new CacheMissEvent();
+            if (miss.isEnabled()) {
+                miss.cache = CACHE_NAME;
+                miss.commit();
+            }
+        }
+        return value;
+    }
+
+    public void put(String key, Rope value) {
+        long weight = weigh(key, value);
+        if (weight > maxEntryBytes) {
+            rejected.increment();
+            return;
+        }
+
+        synchronized (this) {
+            Rope previous = entries.put(key, value);
+            if (previous != null) {
+                weightBytes -= weigh(key, previous);
+            }
+            weightBytes += weight;
+
+            Iterator<Map.Entry<String, Rope>> it = entries.entrySet().iterator();
+            while (weightBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Rope> eldest = it.next();
+                weightBytes -= weigh(eldest.getKey(), eldest.getValue());
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 캐시 통계 (적중률, 용량 등)
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        int entryCount;
+        long weight;
+        synchronized (this) {
+            entryCount = entries.size();
+            weight = weightBytes;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("entries", entryCount);
+        stats.put("weight_bytes", weight);
+        stats.put("max_bytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hit_rate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("rejected_oversized", rejected.sum());
+        return stats;
+    }
+
+    private static long weigh(String key, Rope value) {
+        return value.byteLength() + key.length() + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static byte typeOf(Object value) {
+        if (value instanceof String || value instanceof Rope) {
+            return 's';
+        }
+        if (value instanceof Number) {
+            return 'n';
+        }
+        if (value instanceof Boolean) {
+            return 'b';
+        }
+        if (value == null) {
+            return 'z';
+        }
+        return 'o';
+    }
+
+    private static void updateLength(MessageDigest digest, byte[] buffer, long length) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer[i] = (byte) (length >>> (56 - 8 * i));
+        }
+        digest.update(buffer);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.devlion.mcp.server.prompt.template;
+
+import org.devlion.mcp.server.text.Rope;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 미리 컴파일된 프롬프트 템플릿
+ *
+ * 템플릿 본문의 {@code {{name}}} 자리표시자를 등록 시점에 한 번만 파싱하여
+ * 리터럴 조각과 자리표시자 조각으로 나누어 보관합니다.
+ * 렌더링은 결과 길이를 먼저 계산한 뒤 한 번에 채우므로 인수 크기에 선형으로 비례합니다.
+ * 인수가 {@link Rope}인 경우에는 {@link #renderRope(Map)}로 리터럴과 인수 조각을 복사 없이 이어 붙입니다.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    /** 리터럴 조각 (자리표시자 수 + 1개) */
+    private final String[] literals;
+    /** UTF-8로 미리 인코딩한 리터럴 조각 (Rope 렌더링용) */
+    private final ByteBuffer[] encodedLiterals;
+    /** 자리표시자 이름 */
+    private final String[] placeholders;
+    /** 인수가 주어지지 않았을 때 사용할 기본값 */
+    private final Map<String, String> defaults;
+    private final int literalLength;
+
+    private PromptTemplate(String[] literals, String[] placeholders, Map<String, String> defaults) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.defaults = defaults;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+
+        this.encodedLiterals = new ByteBuffer[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            encodedLiterals[i] = ByteBuffer.wrap(literals[i].getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        }
+    }
+
+    public static PromptTemplate compile(String text) {
+        return compile(text, Map.of());
+    }
+
+    /**
+     * 템플릿 본문을 파싱합니다.
+     *
+     * @param text     {@code {{name}}} 형식의 자리표시자를 포함한 본문
+     * @param defaults 선택 인수의 기본값
+     * @throws IllegalArgumentException 자리표시자가 닫히지 않은 경우
+     */
+    public static PromptTemplate compile(String text, Map<String, String> defaults) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = text.indexOf(OPEN, pos);
+            if (open < 0) {
+                literals.add(text.substring(pos));
+                break;
+            }
+            int close = text.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("닫히지 않은 자리표시자가 있습니다 (위치: " + open + ")");
+            }
+            literals.add(text.substring(pos, open));
+            placeholders.add(text.substring(open + OPEN.length(), close).trim());
+            pos = close + CLOSE.length();
+        }
+
+        return new PromptTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]), Map.copyOf(defaults));
+    }
+
+    public List<String> getPlaceholders() {
+        return List.of(placeholders);
+    }
+
+    /**
+     * 인수 값을 채워 넣은 프롬프트를 생성합니다.
+     * 결과 길이만큼 미리 할당한 버퍼에 한 번씩만 복사합니다.
+     * {@link Rope} 인수는 문자열로 변환되므로 큰 인수에는 {@link #renderRope(Map)}를 사용하세요.
+     *
+     * @throws IllegalArgumentException 기본값이 없는 인수가 누락된 경우
+     */
+    public String render(Map<String, ?> arguments) {
+        Object[] values = resolve(arguments);
+
+        int length = literalLength;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Rope) {
+                values[i] = values[i].toString();
+            }
+            length += ((CharSequence) values[i]).length();
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < values.length; i++) {
+            sb.append(literals[i]).append((CharSequence) values[i]);
+        }
+        sb.append(literals[values.length]);
+        return sb.toString();
+    }
+
+    /**
+     * 인수 값을 채워 넣은 프롬프트를 Rope로 생성합니다.
+     * 리터럴은 미리 인코딩된 조각을, Rope 인수는 기존 조각을 그대로 공유하므로 큰 인수도 복사하지 않습니다.
+     *
+     * @throws IllegalArgumentException 기본값이 없는 인수가 누락된 경우
+     */
+    public Rope renderRope(Map<String, ?> arguments) {
+        Object[] values = resolve(arguments);
+
+        Rope.Builder builder = Rope.builder();
+        for (int i = 0; i < values.length; i++) {
+            builder.appendEncoded(encodedLiterals[i]);
+            if (values[i] instanceof Rope) {
+                builder.append((Rope) values[i]);
+            } else {
+                builder.append((CharSequence) values[i]);
+            }
+        }
+        builder.appendEncoded(encodedLiterals[values.length]);
+        return builder.build();
+    }
+
+    /**
+     * 자리표시자 순서대로 인수 값을 찾습니다. 값은 CharSequence 또는 Rope입니다.
+     */
+    private Object[] resolve(Map<String, ?> arguments) {
+        Object[] values = new Object[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            Object value = arguments.get(placeholders[i]);
+            if (value == null) {
+                value = defaults.get(placeholders[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("필수 인수가 없습니다: " + placeholders[i]);
+                }
+            }
+            values[i] = value instanceof CharSequence || value instanceof Rope ? value : String.valueOf(value);
+        }
+        return values;
+    }
+}
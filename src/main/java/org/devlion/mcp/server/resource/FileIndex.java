@@ -0,0 +1,357 @@
+package org.devlion.mcp.server.resource;
+
+import org.devlion.mcp.server.schema.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 파일 리소스 루트 아래의 파일 목록을 메모리에 유지하는 색인
+ *
+ * 시작할 때 디렉터리마다 작업을 나누어 병렬로 한 번 훑고, 그 뒤로는 {@link WatchService}의 생성/삭제/수정 이벤트로
+ * 바뀐 파일만 고칩니다. 이벤트는 {@code mcp.resource.watchDebounceMillis}(기본값 200) 동안 모아 한 번에 반영하며,
+ * 반영할 때마다 정렬된 목록을 새로 만들어 두므로 resources/list는 트리 크기와 상관없이 만들어 둔 목록을 그대로 씁니다.
+ * 목록이 바뀌면 등록한 리스너를 호출합니다. 이벤트가 넘쳐 유실되면 그 디렉터리를 다시 훑습니다.
+ *
+ * 심볼릭 링크는 따라가지 않으며, 색인하는 파일 수는 {@code mcp.resource.maxIndexedFiles}(기본값 10000)로 제한합니다.
+ */
+public final class FileIndex implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(FileIndex.class);
+
+    private static final Comparator<Resource> BY_URI = Comparator.comparing(Resource::getUri);
+
+    private final List<Path> roots;
+    private final int maxFiles;
+    private final long debounceMillis;
+    private final ForkJoinPool pool;
+    private final WatchService watcher;
+    private final Thread thread;
+
+    /** 파일 경로 → 리소스 */
+    private final Map<Path, Resource> files = new ConcurrentHashMap<>();
+    /** 감시 중인 디렉터리 */
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<Resource> snapshot = List.of();
+
+    private final AtomicBoolean full = new AtomicBoolean();
+    private final AtomicBoolean watchLimitWarned = new AtomicBoolean();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong rescans = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private volatile long buildMillis = -1;
+    private volatile long lastUpdated;
+    private volatile boolean closed;
+
+    /**
+     * @param roots          색인할 디렉터리 (실제 경로)
+     * @param maxFiles       색인하는 최대 파일 수
+     * @param debounceMillis 이벤트를 모으는 시간
+     * @param parallelism    처음 훑을 때 쓰는 스레드 수
+     */
+    public FileIndex(List<Path> roots, int maxFiles, long debounceMillis, int parallelism) throws IOException {
+        if (maxFiles < 1 || debounceMillis < 0 || parallelism < 1) {
+            throw new IllegalArgumentException("파일 색인 설정이 올바르지 않습니다");
+        }
+        this.roots = List.copyOf(roots);
+        this.maxFiles = maxFiles;
+        this.debounceMillis = debounceMillis;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("mcp-file-index-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.watcher = roots.isEmpty() ? null : roots.get(0).getFileSystem().newWatchService();
+        this.thread = new Thread(this::run, "mcp-file-watch");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 시스템 속성으로 만듭니다. {@code mcp.resource.index=false}이면 null
+     */
+    public static FileIndex fromSystemProperties(List<Path> roots) throws IOException {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new FileIndex(roots,
+            Integer.getInteger("mcp.resource.maxIndexedFiles", 10_000),
+            Long.getLong("mcp.resource.watchDebounceMillis", 200L),
+            Integer.getInteger("mcp.resource.indexThreads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * 파일 리소스 루트가 있고 색인을 끄지 않았는지 여부. 서버 역량의 {@code resources.listChanged}에 씁니다.
+     */
+    public static boolean isEnabled() {
+        return !System.getProperty("mcp.resource.roots", "").isBlank()
+            && Boolean.parseBoolean(System.getProperty("mcp.resource.index", "true"));
+    }
+
+    /**
+     * 백그라운드에서 처음 훑기와 감시를 시작합니다. 훑기가 끝나면 리스너가 호출됩니다.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * 목록이 바뀔 때마다 감시 스레드에서 호출할 함수를 등록합니다.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * URI 순으로 정렬된 파일 리소스 목록. 바뀔 때마다 새로 만들어 두므로 복사 없이 반환합니다.
+     */
+    public List<Resource> getResources() {
+        return snapshot;
+    }
+
+    private void run() {
+        long started = System.nanoTime();
+        for (Path root : roots) {
+            pool.invoke(new Scan(root));
+        }
+        buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        logger.info("파일 색인 완료: 파일 {}개, 디렉터리 {}개, {}ms", files.size(), directories.size(), buildMillis);
+        publish();
+
+        try {
+            while (!closed) {
+                boolean changed = process(watcher.take());
+                // 잇따라 오는 이벤트를 모아 한 번에 반영
+                WatchKey next;
+                while ((next = watcher.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= process(next);
+                }
+                if (changed) {
+                    publish();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close()로 종료
+        }
+    }
+
+    /**
+     * 디렉터리 하나의 이벤트를 반영합니다. 목록이 바뀌었으면 true
+     */
+    private boolean process(WatchKey key) {
+        Path directory = directories.get(key);
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            events.incrementAndGet();
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescans.incrementAndGet();
+                removeUnder(directory);
+                pool.invoke(new Scan(directory));
+                changed = true;
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                changed |= files.remove(child) != null;
+                changed |= removeUnder(child);
+            } else {
+                changed |= index(child, event.kind() == StandardWatchEventKinds.ENTRY_CREATE);
+            }
+        }
+        if (!key.reset()) {
+            // 디렉터리가 지워짐
+            directories.remove(key);
+        }
+        return changed;
+    }
+
+    /**
+     * 새로 생겼거나 바뀐 경로를 색인합니다. 새로 생긴 디렉터리면 그 아래를 모두 훑습니다.
+     */
+    private boolean index(Path path, boolean created) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            // 이벤트를 처리하기 전에 지워짐
+            return false;
+        }
+        if (attributes.isDirectory()) {
+            // 디렉터리의 수정 이벤트는 속성 변경이며, 안의 변경은 그 디렉터리의 감시로 따로 옴
+            if (created) {
+                pool.invoke(new Scan(path));
+            }
+            return created;
+        }
+        if (attributes.isRegularFile()) {
+            Resource previous = files.get(path);
+            if (previous != null && previous.getSize() == attributes.size()) {
+                return false;
+            }
+            return add(path, attributes);
+        }
+        return false;
+    }
+
+    private boolean add(Path path, BasicFileAttributes attributes) {
+        if (!files.containsKey(path) && files.size() >= maxFiles) {
+            if (full.compareAndSet(false, true)) {
+                logger.warn("색인한 파일이 {}개에 이르러 더 이상 색인하지 않습니다 (mcp.resource.maxIndexedFiles)", maxFiles);
+            }
+            return false;
+        }
+        files.put(path, toResource(path, attributes.size()));
+        return true;
+    }
+
+    private Resource toResource(Path path, long size) {
+        String mimeType;
+        try {
+            mimeType = Files.probeContentType(path);
+        } catch (IOException e) {
+            mimeType = null;
+        }
+        Resource resource = new Resource(path.toUri().toString(), relativeName(path), null,
+            mimeType != null ? mimeType : "application/octet-stream");
+        resource.setSize(size);
+        return resource;
+    }
+
+    private String relativeName(Path path) {
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                return root.getFileName() + "/" + root.relativize(path);
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * path 아래의 파일을 색인에서 뺍니다. 뺀 파일이 있으면 true
+     */
+    private boolean removeUnder(Path path) {
+        return files.keySet().removeIf(file -> file.startsWith(path) && !file.equals(path));
+    }
+
+    private void watch(Path directory) {
+        try {
+            WatchKey key = directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, directory);
+        } catch (IOException e) {
+            // inotify 감시 수 한도 등. 색인은 유지하되 그 디렉터리의 변경은 반영하지 못함
+            if (watchLimitWarned.compareAndSet(false, true)) {
+                logger.warn("디렉터리를 감시할 수 없습니다: {}", directory, e);
+            }
+        }
+    }
+
+    /**
+     * 정렬된 목록을 새로 만들고 리스너에 알립니다.
+     */
+    private void publish() {
+        List<Resource> sorted = new ArrayList<>(files.values());
+        sorted.sort(BY_URI);
+        snapshot = List.copyOf(sorted);
+        updates.incrementAndGet();
+        lastUpdated = System.currentTimeMillis();
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error("파일 색인 리스너 오류", e);
+            }
+        }
+    }
+
+    /**
+     * 색인 크기와 감시 지표
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("files", snapshot.size());
+        stats.put("watched_directories", directories.size());
+        stats.put("max_files", maxFiles);
+        stats.put("full", full.get());
+        stats.put("build_ms", buildMillis);
+        stats.put("events", events.get());
+        stats.put("rescans", rescans.get());
+        stats.put("updates", updates.get());
+        stats.put("last_updated", lastUpdated);
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (watcher != null) {
+            watcher.close();
+        }
+        pool.shutdownNow();
+    }
+
+    /**
+     * 디렉터리 하나를 훑는 작업. 하위 디렉터리마다 작업을 나누어 병렬로 실행합니다.
+     */
+    private final class Scan extends RecursiveAction {
+        private final Path directory;
+
+        Scan(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            // 훑는 도중에 생긴 파일도 놓치지 않도록 먼저 감시를 등록
+            watch(directory);
+            List<Scan> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path child : stream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        children.add(new Scan(child));
+                    } else if (attributes.isRegularFile()) {
+                        add(child, attributes);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("디렉터리를 읽을 수 없습니다: {}", directory, e);
+            }
+            invokeAll(children);
+        }
+    }
+}
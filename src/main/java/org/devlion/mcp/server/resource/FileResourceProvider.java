@@ -0,0 +1,386 @@
+package org.devlion.mcp.server.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.schema.Resource;
+import org.devlion.mcp.server.text.Rope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 설정한 디렉터리 아래의 파일을 {@code file://} 리소스로 제공하는 클래스
+ *
+ * 루트 디렉터리는 {@code mcp.resource.roots}(경로 구분자로 여러 개)로 정하며, 심볼릭 링크를 따라간 실제 경로가
+ * 루트 밖이면 읽지 않습니다. 파일은 읽을 범위만 메모리에 매핑하고, 텍스트는 매핑을 그대로 담은 {@link Rope}로,
+ * 바이너리는 매핑에서 바로 인코딩하는 base64 {@code blob}으로 응답하므로 큰 로그나 소스 트리도 파일 전체를 힙에 올리지 않습니다.
+ *
+ * 읽을 범위는 URI의 쿼리로 지정합니다.
+ * <ul>
+ *   <li>{@code ?bytes=시작-끝}: 0부터 세는 바이트 범위 (끝 포함, 끝 생략 시 파일 끝까지). {@code ?bytes=-N}은 마지막 N바이트</li>
+ *   <li>{@code ?lines=시작-끝}: 1부터 세는 줄 범위 (끝 포함, 끝 생략 시 파일 끝까지). {@code ?lines=-N}은 마지막 N줄</li>
+ * </ul>
+ * 한 번에 읽는 양은 {@code mcp.resource.maxReadBytes}(기본값 8MB)로 제한하며, 넘으면 잘라서 응답하고 {@code _meta}에 표시합니다.
+ * 텍스트 범위는 UTF-8 문자 경계에 맞춥니다. 디렉터리를 읽으면 항목 목록을 JSON으로 반환합니다.
+ */
+public final class FileResourceProvider {
+    private static final Logger logger = LoggerFactory.getLogger(FileResourceProvider.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** 줄을 찾을 때 한 번에 매핑하는 크기 */
+    private static final long SCAN_WINDOW = 64L << 20;
+    /** 바이너리 여부를 판단할 때 살펴보는 앞부분 크기 */
+    private static final int SNIFF_BYTES = 8192;
+    /** 디렉터리 목록에 담는 최대 항목 수 */
+    private static final int MAX_LIST_ENTRIES = 10_000;
+
+    private final List<Path> roots;
+    private final long maxReadBytes;
+
+    /**
+     * @param roots        읽기를 허용할 디렉터리
+     * @param maxReadBytes 한 번에 읽는 최대 바이트 수
+     */
+    public FileResourceProvider(List<Path> roots, long maxReadBytes) throws IOException {
+        if (maxReadBytes < 1 || maxReadBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("한 번에 읽는 최대 크기가 올바르지 않습니다: " + maxReadBytes);
+        }
+        List<Path> realRoots = new ArrayList<>(roots.size());
+        for (Path root : roots) {
+            Path real = root.toRealPath();
+            if (!Files.isDirectory(real)) {
+                throw new IllegalArgumentException("리소스 루트는 디렉터리여야 합니다: " + root);
+            }
+            realRoots.add(real);
+        }
+        this.roots = List.copyOf(realRoots);
+        this.maxReadBytes = maxReadBytes;
+    }
+
+    /**
+     * 시스템 속성으로 만듭니다. 루트가 없으면 null
+     */
+    public static FileResourceProvider fromSystemProperties() {
+        String spec = System.getProperty("mcp.resource.roots", "");
+        List<Path> roots = new ArrayList<>();
+        for (String entry : spec.split(File.pathSeparator)) {
+            if (!entry.isBlank()) {
+                roots.add(Paths.get(entry.trim()));
+            }
+        }
+        if (roots.isEmpty()) {
+            return null;
+        }
+        try {
+            return new FileResourceProvider(roots, Long.getLong("mcp.resource.maxReadBytes", 8L << 20));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("리소스 루트를 열 수 없습니다: " + spec, e);
+        }
+    }
+
+    public List<Path> getRoots() {
+        return roots;
+    }
+
+    /**
+     * 루트 디렉터리마다 리소스 하나
+     */
+    public List<Resource> getRootResources() {
+        List<Resource> resources = new ArrayList<>(roots.size());
+        for (Path root : roots) {
+            resources.add(new Resource(root.toUri().toString(), root.getFileName() + "/",
+                "파일 리소스 루트 디렉터리. 읽으면 항목 목록을 반환합니다", "application/json"));
+        }
+        return resources;
+    }
+
+    public static boolean handles(String uri) {
+        return uri.startsWith("file:");
+    }
+
+    /**
+     * 리소스 하나를 읽어 resources/read 결과의 contents 항목으로 반환합니다.
+     *
+     * @throws IllegalArgumentException URI나 범위가 올바르지 않거나 루트 밖일 때
+     * @throws NoSuchFileException      파일이 없을 때
+     */
+    public Map<String, Object> read(String uri) throws IOException {
+        int query = uri.indexOf('?');
+        Path path = resolve(query < 0 ? uri : uri.substring(0, query));
+        Range range = Range.parse(query < 0 ? null : uri.substring(query + 1));
+        String canonicalUri = path.toUri().toString();
+
+        if (Files.isDirectory(path)) {
+            if (range != null) {
+                throw new IllegalArgumentException("디렉터리에는 범위를 지정할 수 없습니다: " + uri);
+            }
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("uri", canonicalUri);
+            content.put("mimeType", "application/json");
+            content.put("text", objectMapper.writeValueAsString(list(path)));
+            return content;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = range == null ? new long[] {0, size} : range.resolve(channel, size);
+            long start = bounds[0];
+            long end = bounds[1];
+
+            // 텍스트인지는 범위와 상관없이 파일 앞부분으로 판단
+            ByteBuffer head = map(channel, 0, Math.min(size, SNIFF_BYTES));
+            String mimeType = Files.probeContentType(path);
+            boolean binary = isBinary(mimeType, head);
+
+            boolean truncated = end - start > maxReadBytes;
+            if (truncated) {
+                end = start + maxReadBytes;
+            }
+            if (!binary && (range != null || truncated)) {
+                // 텍스트는 문자 중간에서 자르지 않음
+                start = alignToCharacter(channel, start, size);
+                end = Math.max(start, alignToCharacter(channel, end, size));
+            }
+            MappedByteBuffer region = map(channel, start, end - start);
+
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("uri", canonicalUri);
+            if (binary) {
+                content.put("mimeType", mimeType != null ? mimeType : "application/octet-stream");
+                content.put("blob", new MappedBlob(region));
+            } else {
+                content.put("mimeType", mimeType != null ? mimeType : "text/plain");
+                content.put("text", Rope.builder().appendEncoded(region).build());
+            }
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("size", size);
+            meta.put("start", start);
+            meta.put("end", end);
+            meta.put("truncated", truncated);
+            content.put("_meta", meta);
+
+            logger.debug("파일 리소스를 읽었습니다: {} [{}, {}) / {}", path, start, end, size);
+            return content;
+        }
+    }
+
+    /**
+     * URI를 루트 안의 실제 경로로 바꿉니다.
+     */
+    private Path resolve(String uri) throws IOException {
+        Path path;
+        try {
+            path = Paths.get(URI.create(uri)).toRealPath();
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            throw new IllegalArgumentException("파일 URI가 올바르지 않습니다: " + uri, e);
+        }
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                return path;
+            }
+        }
+        throw new IllegalArgumentException("리소스 루트 밖의 파일입니다: " + uri);
+    }
+
+    private static List<Map<String, Object>> list(Path directory) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                if (entries.size() >= MAX_LIST_ENTRIES) {
+                    break;
+                }
+                boolean isDirectory = Files.isDirectory(child);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", child.getFileName().toString());
+                entry.put("uri", child.toUri().toString());
+                entry.put("type", isDirectory ? "directory" : "file");
+                if (!isDirectory) {
+                    entry.put("size", Files.size(child));
+                }
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> ((String) a.get("name")).compareTo((String) b.get("name")));
+        return entries;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * 이미지/오디오/동영상/글꼴 형식이거나, 앞부분에 NUL 바이트나 올바르지 않은 UTF-8이 있으면 바이너리로 봅니다.
+     */
+    private static boolean isBinary(String mimeType, ByteBuffer head) {
+        if (mimeType != null && (mimeType.startsWith("image/") || mimeType.startsWith("audio/")
+            || mimeType.startsWith("video/") || mimeType.startsWith("font/"))) {
+            return true;
+        }
+        for (int i = head.position(); i < head.limit(); i++) {
+            if (head.get(i) == 0) {
+                return true;
+            }
+        }
+        // 앞부분 끝에서 잘린 문자는 오류로 보지 않음
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer chars = CharBuffer.allocate(head.remaining());
+        return decoder.decode(head.duplicate(), chars, false).isError();
+    }
+
+    /**
+     * position이 UTF-8 문자 중간이면 그 문자의 시작으로 옮깁니다.
+     */
+    private static long alignToCharacter(FileChannel channel, long position, long size) throws IOException {
+        if (position <= 0 || position >= size) {
+            return position;
+        }
+        // UTF-8 문자는 최대 4바이트이므로 앞의 3바이트까지만 보면 됨
+        long from = Math.max(0, position - 3);
+        ByteBuffer window = ByteBuffer.allocate((int) (position - from + 1));
+        while (window.hasRemaining() && channel.read(window, from + window.position()) > 0) {
+            // 다 읽을 때까지 반복
+        }
+        long p = position;
+        while (p > from && (window.get((int) (p - from)) & 0xC0) == 0x80) {
+            p--;
+        }
+        return p;
+    }
+
+    /**
+     * URI 쿼리로 지정한 범위
+     */
+    static final class Range {
+        final boolean lines;
+        /** 마지막 N개를 뜻하면 음수 */
+        final long first;
+        final long last;
+
+        private Range(boolean lines, long first, long last) {
+            this.lines = lines;
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * "bytes=..." 또는 "lines=..."를 읽습니다. 쿼리가 없으면 null
+         */
+        static Range parse(String query) {
+            if (query == null || query.isEmpty()) {
+                return null;
+            }
+            int eq = query.indexOf('=');
+            String unit = eq < 0 ? query : query.substring(0, eq);
+            if (eq < 0 || (!"bytes".equals(unit) && !"lines".equals(unit))) {
+                throw new IllegalArgumentException("범위는 bytes=시작-끝 또는 lines=시작-끝 형식이어야 합니다: " + query);
+            }
+            boolean lines = "lines".equals(unit);
+            String spec = query.substring(eq + 1);
+            int dash = spec.indexOf('-');
+            try {
+                if (dash < 0) {
+                    throw new NumberFormatException();
+                }
+                if (dash == 0) {
+                    long count = Long.parseLong(spec.substring(1));
+                    if (count < 1) {
+                        throw new NumberFormatException();
+                    }
+                    return new Range(lines, -count, Long.MAX_VALUE);
+                }
+                long first = Long.parseLong(spec.substring(0, dash));
+                long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                if (first < (lines ? 1 : 0) || last < first) {
+                    throw new NumberFormatException();
+                }
+                return new Range(lines, first, last);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("범위가 올바르지 않습니다: " + query);
+            }
+        }
+
+        /**
+         * 파일에서의 바이트 범위 [시작, 끝)
+         */
+        long[] resolve(FileChannel channel, long size) throws IOException {
+            if (!lines) {
+                if (first < 0) {
+                    return new long[] {Math.max(0, size + first), size};
+                }
+                long start = Math.min(first, size);
+                long end = last == Long.MAX_VALUE ? size : Math.min(size, last + 1);
+                return new long[] {start, end};
+            }
+            return first < 0 ? lastLines(channel, size, -first) : lineRange(channel, size, first, last);
+        }
+
+        /**
+         * first번째 줄의 시작부터 last번째 줄의 끝(줄바꿈 포함)까지. 매핑한 창을 차례로 훑으며 줄바꿈을 셉니다.
+         */
+        private static long[] lineRange(FileChannel channel, long size, long first, long last) throws IOException {
+            long line = 1;
+            long start = first == 1 ? 0 : -1;
+            for (long position = 0; position < size; position += SCAN_WINDOW) {
+                MappedByteBuffer window = map(channel, position, Math.min(SCAN_WINDOW, size - position));
+                for (int i = 0, n = window.limit(); i < n; i++) {
+                    if (window.get(i) != '\n') {
+                        continue;
+                    }
+                    line++;
+                    long next = position + i + 1;
+                    if (line == first) {
+                        start = next;
+                    }
+                    if (last != Long.MAX_VALUE && line == last + 1) {
+                        return new long[] {start, next};
+                    }
+                }
+            }
+            return start < 0 ? new long[] {size, size} : new long[] {start, size};
+        }
+
+        /**
+         * 마지막 count줄. 끝에서부터 거꾸로 줄바꿈을 셉니다. 파일 끝의 줄바꿈은 마지막 줄에 속합니다.
+         */
+        private static long[] lastLines(FileChannel channel, long size, long count) throws IOException {
+            long newlines = 0;
+            for (long windowEnd = size; windowEnd > 0; windowEnd -= SCAN_WINDOW) {
+                long position = Math.max(0, windowEnd - SCAN_WINDOW);
+                MappedByteBuffer window = map(channel, position, windowEnd - position);
+                for (int i = window.limit() - 1; i >= 0; i--) {
+                    long offset = position + i;
+                    if (window.get(i) != '\n' || offset == size - 1) {
+                        continue;
+                    }
+                    if (++newlines == count) {
+                        return new long[] {offset + 1, size};
+                    }
+                }
+            }
+            return new long[] {0, size};
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.devlion.mcp.server.resource;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 매핑된 파일 영역을 base64 문자열로 직렬화하는 값
+ *
+ * 직렬화할 때 매핑에서 조금씩 읽어 생성기에 바로 인코딩하므로 바이트 배열이나 base64 문자열 전체를 힙에 만들지 않습니다.
+ */
+final class MappedBlob implements JsonSerializable {
+
+    private final ByteBuffer bytes;
+
+    MappedBlob(ByteBuffer bytes) {
+        this.bytes = bytes.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        ByteBuffer source = bytes.duplicate();
+        gen.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, new InputStream() {
+            @Override
+            public int read() {
+                return source.hasRemaining() ? source.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, source.remaining());
+                source.get(buffer, offset, count);
+                return count;
+            }
+        }, source.remaining());
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
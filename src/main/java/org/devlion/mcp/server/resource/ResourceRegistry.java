@@ -1,15 +1,28 @@
 package org.devlion.mcp.server.resource;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.concurrent.SingleFlight;
+import org.devlion.mcp.server.metrics.ServerMetrics;
+import org.devlion.mcp.server.jfr.HandlerCompletedEvent;
 import org.devlion.mcp.server.schema.McpError;
 import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.schema.ParamsDeserializer;
 import org.devlion.mcp.server.schema.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * MCP 서버에서 사용할 리소스들을 등록하고 관리하는 클래스
@@ -18,10 +31,48 @@ public class ResourceRegistry {
     private static final Logger logger = LoggerFactory.getLogger(ResourceRegistry.class);
     
     private final List<Resource> resources;
+    private final Map<String, Supplier<Map<String, Object>>> providers;
+    private final ServerMetrics metrics;
+    private final ObjectMapper objectMapper;
+    /** 파일 리소스 루트를 설정하지 않았으면 null */
+    private final FileResourceProvider files;
+    /** 루트 아래 파일 색인. 루트가 없거나 색인을 껐으면 null */
+    private final FileIndex index;
+    /** resources/list 응답에 쓰는 목록. 등록된 리소스나 색인이 바뀔 때만 새로 만듦 */
+    private volatile List<Resource> listing = List.of();
+    private final List<Runnable> listChangedListeners = new CopyOnWriteArrayList<>();
+    /** 같은 URI를 동시에 읽으면 한 번만 읽음 */
+    private final SingleFlight<String, McpMessage> reads = new SingleFlight<>();
 
     public ResourceRegistry() {
+        this(new ServerMetrics(), new ObjectMapper());
+    }
+
+    /**
+     * @param metrics      서버 상태 리소스에 사용할 서버 지표
+     * @param objectMapper 리소스 내용(JSON 텍스트)을 직렬화할 매퍼
+     */
+    public ResourceRegistry(ServerMetrics metrics, ObjectMapper objectMapper) {
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
         this.resources = new ArrayList<>();
+        this.providers = new ConcurrentHashMap<>();
+        this.files = FileResourceProvider.fromSystemProperties();
+        this.index = files == null ? null : createIndex(files);
         registerResources();
+        if (index != null) {
+            index.addListener(this::fileIndexChanged);
+            index.start();
+        }
+    }
+
+    private static FileIndex createIndex(FileResourceProvider files) {
+        try {
+            return FileIndex.fromSystemProperties(files.getRoots());
+        } catch (IOException e) {
+            logger.warn("파일 색인을 만들 수 없어 루트만 목록에 표시합니다", e);
+            return null;
+        }
     }
 
     /**
@@ -55,15 +106,92 @@ public class ResourceRegistry {
         );
         resources.add(config);
 
+        // 파일 리소스 루트
+        if (files != null) {
+            resources.addAll(files.getRootResources());
+        }
+
+        rebuildListing();
         logger.info("모든 리소스가 등록되었습니다. 총 {}개", resources.size());
     }
 
+    /**
+     * 다른 컴포넌트가 제공하는 JSON 리소스를 등록합니다.
+     *
+     * @param resource 리소스 정의
+     * @param provider 읽기 요청마다 호출되어 리소스 내용을 반환하는 함수
+     */
+    public synchronized void registerResource(Resource resource, Supplier<Map<String, Object>> provider) {
+        providers.put(resource.getUri(), provider);
+        resources.add(resource);
+        rebuildListing();
+        logger.info("리소스가 등록되었습니다: {}", resource.getUri());
+    }
+
+    /**
+     * 등록된 리소스와 색인된 파일 리소스 목록. 미리 만들어 둔 읽기 전용 목록을 그대로 반환합니다.
+     */
     public List<Resource> getResourceList() {
-        return new ArrayList<>(resources);
+        return listing;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * 리소스 목록이 바뀔 때 호출할 함수를 등록합니다. 파일 색인이 바뀌면 감시 스레드에서 호출됩니다.
+     */
+    public void onListChanged(Runnable listener) {
+        listChangedListeners.add(listener);
+    }
+
+    /**
+     * 동시에 온 같은 읽기를 합친 지표
+     */
+    public Map<String, Object> getSingleFlightStats() {
+        return reads.stats();
+    }
+
+    /**
+     * 파일 색인 지표. 색인이 없으면 빈 맵
+     */
+    public Map<String, Object> getFileIndexStats() {
+        return index == null ? Map.of() : index.stats();
+    }
+
+    private synchronized void rebuildListing() {
+        List<Resource> files = index == null ? List.of() : index.getResources();
+        List<Resource> combined = new ArrayList<>(resources.size() + files.size());
+        combined.addAll(resources);
+        combined.addAll(files);
+        listing = Collections.unmodifiableList(combined);
+    }
+
+    private void fileIndexChanged() {
+        rebuildListing();
+        for (Runnable listener : listChangedListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * 리소스 읽기 요청을 처리합니다. 같은 URI를 읽는 중에 온 요청은 다시 읽지 않고 그 결과를 함께 받습니다.
+     */
     public McpMessage handleResourceRead(Object id, Object params) {
+        HandlerCompletedEvent event = new HandlerCompletedEvent();
+        event.begin();
+        String uri = nameOf(params);
+        McpMessage response = uri == null
+            ? readResource(id, params)
+            : reads.run(uri, () -> readResource(null, params)).withId(id);
+        event.complete(HandlerCompletedEvent.RESOURCE, "resources/read", nameOf(params), response);
+        return response;
+    }
+
+    private static String nameOf(Object params) {
+        Object name = params instanceof Map ? ((Map<?, ?>) params).get("uri") : null;
+        return name instanceof String ? (String) name : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private McpMessage readResource(Object id, Object params) {
         try {
             Map<String, Object> paramsMap = (Map<String, Object>) params;
             String uri = (String) paramsMap.get("uri");
@@ -76,6 +204,13 @@ public class ResourceRegistry {
                 case "config://settings":
                     return handleConfig(id);
                 default:
+                    Supplier<Map<String, Object>> provider = providers.get(uri);
+                    if (provider != null) {
+                        return handleProvidedResource(id, uri, provider);
+                    }
+                    if (files != null && FileResourceProvider.handles(uri)) {
+                        return handleFileResource(id, uri);
+                    }
                     return McpMessage.error(id, new McpError(-1, "알 수 없는 리소스: " + uri));
             }
 
@@ -106,7 +241,7 @@ public class ResourceRegistry {
 
             String jsonContent = convertToJson(systemInfo);
 
-            logger.info("시스템 정보를 조회했습니다");
+            logger.debug("시스템 정보를 조회했습니다");
 
             Map<String, Object> result = Map.of(
                 "contents", List.of(Map.of(
@@ -138,15 +273,16 @@ public class ResourceRegistry {
                 "server_name", "example-mcp-server",
                 "version", "1.0.0",
                 "status", "running",
-                "uptime_ms", System.currentTimeMillis(),
-                "active_connections", 1,
+                "started_at", Instant.ofEpochMilli(metrics.getStartedAtMillis()).toString(),
+                "uptime_ms", metrics.getUptimeMillis(),
+                "active_connections", metrics.getActiveConnections(),
                 "supported_capabilities", List.of("tools", "resources", "prompts", "logging"),
                 "timestamp", LocalDateTime.now().toString()
             );
 
             String jsonContent = convertToJson(serverStatus);
 
-            logger.info("서버 상태를 조회했습니다");
+            logger.debug("서버 상태를 조회했습니다");
 
             Map<String, Object> result = Map.of(
                 "contents", List.of(Map.of(
@@ -182,19 +318,23 @@ public class ResourceRegistry {
                     "enable_debug", false
                 ),
                 "tools_config", Map.of(
-                    "enabled_tools", List.of("current_time", "calculator", "greeting"),
+                    "enabled_tools", List.of("current_time", "calculator", "greeting", "batch"),
                     "max_tool_execution_time_ms", 10000
                 ),
                 "resources_config", Map.of(
                     "max_resource_size_bytes", 1048576,
                     "cache_enabled", true
                 ),
+                "prompts_config", Map.of(
+                    "large_argument_threshold_chars", ParamsDeserializer.LARGE_ARGUMENT_THRESHOLD_CHARS,
+                    "max_prompt_argument_bytes", ParamsDeserializer.MAX_ARGUMENT_BYTES
+                ),
                 "timestamp", LocalDateTime.now().toString()
             );
 
             String jsonContent = convertToJson(config);
 
-            logger.info("설정 정보를 조회했습니다");
+            logger.debug("설정 정보를 조회했습니다");
 
             Map<String, Object> result = Map.of(
                 "contents", List.of(Map.of(
@@ -218,45 +358,59 @@ public class ResourceRegistry {
     }
 
     /**
-     * 객체를 JSON 문자열로 변환합니다 (간단한 구현)
+     * 등록된 제공자 리소스 핸들러
      */
-    private String convertToJson(Map<String, Object> data) {
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
-        
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            if (!first) {
-                json.append(",");
-            }
-            json.append("\"").append(entry.getKey()).append("\":");
-            
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                json.append("\"").append(value).append("\"");
-            } else if (value instanceof Number || value instanceof Boolean) {
-                json.append(value);
-            } else if (value instanceof List) {
-                json.append("[");
-                List<?> list = (List<?>) value;
-                for (int i = 0; i < list.size(); i++) {
-                    if (i > 0) json.append(",");
-                    Object item = list.get(i);
-                    if (item instanceof String) {
-                        json.append("\"").append(item).append("\"");
-                    } else {
-                        json.append(item);
-                    }
-                }
-                json.append("]");
-            } else if (value instanceof Map) {
-                json.append(convertToJson((Map<String, Object>) value));
-            } else {
-                json.append("\"").append(value.toString()).append("\"");
-            }
-            first = false;
+    private McpMessage handleProvidedResource(Object id, String uri, Supplier<Map<String, Object>> provider) {
+        try {
+            String jsonContent = convertToJson(provider.get());
+
+            logger.debug("리소스를 조회했습니다: {}", uri);
+
+            Map<String, Object> result = Map.of(
+                "contents", List.of(Map.of(
+                    "type", "text",
+                    "text", jsonContent
+                ))
+            );
+
+            return McpMessage.response(id, result);
+
+        } catch (Exception e) {
+            logger.error("리소스 조회 중 오류 발생: {}", uri, e);
+            Map<String, Object> result = Map.of(
+                "contents", List.of(Map.of(
+                    "type", "text",
+                    "text", "{\"error\": \"리소스 조회 중 오류가 발생했습니다: " + e.getMessage() + "\"}"
+                ))
+            );
+            return McpMessage.response(id, result);
+        }
+    }
+
+    /**
+     * 파일 리소스 핸들러. 내용은 매핑된 파일에서 직렬화할 때 바로 읽습니다.
+     */
+    private McpMessage handleFileResource(Object id, String uri) {
+        try {
+            Map<String, Object> result = Map.of(
+                "contents", List.of(files.read(uri))
+            );
+            return McpMessage.response(id, result);
+
+        } catch (IllegalArgumentException e) {
+            return McpMessage.error(id, new McpError(McpError.INVALID_PARAMS, e.getMessage()));
+        } catch (NoSuchFileException e) {
+            return McpMessage.error(id, new McpError(-1, "알 수 없는 리소스: " + uri));
+        } catch (IOException e) {
+            logger.error("파일 리소스 읽기 중 오류 발생: {}", uri, e);
+            return McpMessage.error(id, new McpError(-1, "파일을 읽는 중 오류가 발생했습니다: " + e.getMessage()));
         }
-        
-        json.append("}");
-        return json.toString();
+    }
+
+    /**
+     * 객체를 JSON 문자열로 변환합니다. 지표의 도구 이름처럼 클라이언트가 보낸 문자열과 null 값도 들어 있으므로 매퍼로 직렬화합니다.
+     */
+    private String convertToJson(Map<String, Object> data) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(data);
     }
 }
\ No newline at end of file
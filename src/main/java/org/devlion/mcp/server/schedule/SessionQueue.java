@@ -0,0 +1,109 @@
+package org.devlion.mcp.server.schedule;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.function.Consumer;
+
+/**
+ * 세션 하나의 작업 큐와 사용량
+ *
+ * 모든 필드는 {@link SessionScheduler}의 잠금 안에서만 읽고 씁니다. 클라이언트 이름과 가중치만 예외적으로 volatile입니다.
+ */
+public final class SessionQueue {
+
+    /**
+     * 대기 중인 요청 하나. 실행할 때 차지한 동시 실행 자리를 반납하는 콜백을 받습니다.
+     */
+    static final class Task {
+        final Consumer<Runnable> body;
+        final long enqueuedNanos;
+
+        Task(Consumer<Runnable> body, long enqueuedNanos) {
+            this.body = body;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    final long id;
+    final ArrayDeque<Task> tasks = new ArrayDeque<>();
+    final Condition changed;
+
+    volatile String clientName;
+    volatile int weight = 1;
+
+    /** 공정 스케줄링 상태 */
+    boolean ready;
+    int deficit;
+    int inFlight;
+    boolean closing;
+
+    /** 요청 빈도 제한 (토큰 버킷) */
+    double tokens;
+    long refilledNanos;
+
+    /** 사용량 */
+    long submitted;
+    long completed;
+    long failed;
+    long throttled;
+    long blockedSubmits;
+    long peakQueued;
+    long queueWaitNanos;
+    long maxQueueWaitNanos;
+    long busyNanos;
+
+    SessionQueue(long id, Condition changed, double burst, long now) {
+        this.id = id;
+        this.changed = changed;
+        this.tokens = burst;
+        this.refilledNanos = now;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * 토큰을 보충하고 하나를 쓸 수 있으면 씁니다. rate가 0 이하면 제한하지 않습니다.
+     */
+    boolean tryAcquireToken(long now, double rate, double burst) {
+        if (rate <= 0) {
+            return true;
+        }
+        tokens = Math.min(burst, tokens + (now - refilledNanos) * rate / 1_000_000_000.0);
+        refilledNanos = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 다음 토큰이 생길 때까지 남은 시간
+     */
+    long nanosUntilToken(double rate) {
+        return (long) Math.ceil((1 - tokens) * 1_000_000_000.0 / rate);
+    }
+
+    Map<String, Object> usage() {
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("id", id);
+        usage.put("client", clientName);
+        usage.put("weight", weight);
+        usage.put("queued", tasks.size());
+        usage.put("in_flight", inFlight);
+        usage.put("submitted", submitted);
+        usage.put("completed", completed);
+        usage.put("failed", failed);
+        usage.put("throttled", throttled);
+        usage.put("blocked_submits", blockedSubmits);
+        usage.put("peak_queued", peakQueued);
+        usage.put("queue_wait_ms_total", queueWaitNanos / 1_000_000);
+        usage.put("queue_wait_ms_max", maxQueueWaitNanos / 1_000_000.0);
+        usage.put("busy_ms", busyNanos / 1_000_000);
+        return usage;
+    }
+}
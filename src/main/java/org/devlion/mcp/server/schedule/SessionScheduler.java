@@ -0,0 +1,373 @@
+package org.devlion.mcp.server.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 세션 간 가중치 공정 스케줄러
+ *
+ * 세션마다 작업 큐를 두고, 공유 작업 스레드들이 결손 라운드 로빈(DRR)으로 세션을 돌아가며 요청을 꺼내 실행합니다.
+ * 가중치가 w인 세션은 한 바퀴에 요청 w개를 실행할 수 있습니다. 세션마다 다음 한도를 둡니다.
+ * <ul>
+ *   <li>동시 실행 수 ({@code mcp.session.maxConcurrency}, 기본값 4)</li>
+ *   <li>대기 요청 수 ({@code mcp.session.maxQueued}, 기본값 64). 가득 차면 그 세션의 읽기 스레드가 기다리므로
+ *       요청을 많이 보내는 세션은 자기 연결에서만 밀립니다</li>
+ *   <li>초당 요청 수 ({@code mcp.session.rateLimit}, 기본값 0은 무제한)와 순간 허용량 ({@code mcp.session.burst}).
+ *       한도를 넘은 요청은 거부하지 않고 토큰이 생길 때까지 큐에서 기다립니다</li>
+ * </ul>
+ * 요청이 다른 스레드에 일을 넘기고 바로 반환하는 경우({@link #submitHeld})에는 넘겨받은 쪽이 반납할 때까지
+ * 동시 실행 자리와 실행 시간을 그 요청의 몫으로 셉니다.
+ * 작업 스레드 수는 {@code mcp.scheduler.workers}(기본값 CPU 수, 최소 2), 가중치는
+ * {@code mcp.session.weights=클라이언트이름=가중치,...}로 initialize의 clientInfo.name에 따라 정합니다.
+ */
+public class SessionScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SessionScheduler.class);
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final double rate;
+    private final double burst;
+    private final Map<String, Integer> weights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final ArrayDeque<SessionQueue> ready = new ArrayDeque<>();
+    private final Map<Long, SessionQueue> sessions = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private boolean running = true;
+    private long closedSessions;
+    private long closedCompleted;
+
+    public SessionScheduler(int workerCount, int maxConcurrency, int maxQueued, double rate, double burst, Map<String, Integer> weights) {
+        if (workerCount < 1 || maxConcurrency < 1 || maxQueued < 1) {
+            throw new IllegalArgumentException("작업 스레드 수, 동시 실행 수, 대기 요청 수는 1 이상이어야 합니다");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+        this.rate = rate;
+        this.burst = rate > 0 ? Math.max(1, burst) : 0;
+        this.weights = Map.copyOf(weights);
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "mcp-worker-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * 시스템 속성으로 스케줄러를 만듭니다.
+     */
+    public static SessionScheduler fromSystemProperties() {
+        int workers = Integer.getInteger("mcp.scheduler.workers", Math.max(2, Runtime.getRuntime().availableProcessors()));
+        double rate = Double.parseDouble(System.getProperty("mcp.session.rateLimit", "0"));
+        double burst = Double.parseDouble(System.getProperty("mcp.session.burst", String.valueOf(Math.max(1, rate))));
+        return new SessionScheduler(
+            workers,
+            Integer.getInteger("mcp.session.maxConcurrency", 4),
+            Integer.getInteger("mcp.session.maxQueued", 64),
+            rate,
+            burst,
+            parseWeights(System.getProperty("mcp.session.weights", ""))
+        );
+    }
+
+    static Map<String, Integer> parseWeights(String spec) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("가중치 형식이 올바르지 않습니다 (이름=가중치): " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(eq + 1).trim());
+            if (weight < 1) {
+                throw new IllegalArgumentException("가중치는 1 이상이어야 합니다: " + entry);
+            }
+            weights.put(entry.substring(0, eq).trim(), weight);
+        }
+        return weights;
+    }
+
+    /**
+     * 새 세션의 큐를 만듭니다.
+     */
+    public SessionQueue open(long sessionId) {
+        lock.lock();
+        try {
+            SessionQueue queue = new SessionQueue(sessionId, lock.newCondition(), burst, System.nanoTime());
+            sessions.put(sessionId, queue);
+            return queue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * initialize로 알게 된 클라이언트 이름을 기록하고 설정된 가중치를 적용합니다.
+     */
+    public void identify(SessionQueue queue, String clientName) {
+        queue.clientName = clientName;
+        queue.weight = clientName == null ? 1 : weights.getOrDefault(clientName, 1);
+    }
+
+    /**
+     * 요청을 세션 큐에 넣습니다. 큐가 가득 차 있으면 자리가 날 때까지 기다립니다.
+     * 실행이 끝나면 동시 실행 자리를 반납합니다.
+     */
+    public void submit(SessionQueue queue, Runnable task) throws InterruptedException {
+        submitHeld(queue, release -> {
+            task.run();
+            release.run();
+        });
+    }
+
+    /**
+     * 요청을 세션 큐에 넣습니다. 실행할 때 반납 콜백을 넘기며, 요청이 반환한 뒤에도 콜백을 부를 때까지
+     * 동시 실행 자리를 차지합니다. 도구 호출처럼 다른 스레드에서 끝나는 요청에 씁니다.
+     * 요청이 예외를 던지면 콜백을 부르지 않았어도 자리를 반납합니다. 콜백은 두 번째부터 무시합니다.
+     */
+    public void submitHeld(SessionQueue queue, Consumer<Runnable> task) throws InterruptedException {
+        lock.lock();
+        try {
+            if (queue.tasks.size() >= maxQueued) {
+                queue.blockedSubmits++;
+                while (queue.tasks.size() >= maxQueued && running) {
+                    queue.changed.await();
+                }
+            }
+            if (!running) {
+                throw new IllegalStateException("스케줄러가 종료되었습니다");
+            }
+            queue.tasks.add(new SessionQueue.Task(task, System.nanoTime()));
+            queue.submitted++;
+            queue.peakQueued = Math.max(queue.peakQueued, queue.tasks.size());
+            if (!queue.ready) {
+                queue.ready = true;
+                ready.addLast(queue);
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 세션의 남은 요청이 모두 끝날 때까지 기다린 뒤 큐를 제거합니다.
+     */
+    public void close(SessionQueue queue) throws InterruptedException {
+        lock.lock();
+        try {
+            queue.closing = true;
+            while ((!queue.tasks.isEmpty() || queue.inFlight > 0) && running) {
+                queue.changed.await();
+            }
+            sessions.remove(queue.id);
+            closedSessions++;
+            closedCompleted += queue.completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 모든 세션의 대기 요청 수
+     */
+    public long queuedTasks() {
+        lock.lock();
+        try {
+            long queued = 0;
+            for (SessionQueue queue : sessions.values()) {
+                queued += queue.tasks.size();
+            }
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * sessions://usage 리소스 내용
+     */
+    public Map<String, Object> usage() {
+        lock.lock();
+        try {
+            Map<String, Object> limits = new LinkedHashMap<>();
+            limits.put("workers", workers.size());
+            limits.put("max_concurrency", maxConcurrency);
+            limits.put("max_queued", maxQueued);
+            limits.put("rate_per_second", rate);
+            limits.put("burst", burst);
+
+            List<Map<String, Object>> active = new ArrayList<>();
+            for (SessionQueue queue : sessions.values()) {
+                active.add(queue.usage());
+            }
+
+            Map<String, Object> usage = new LinkedHashMap<>();
+            usage.put("limits", limits);
+            usage.put("weights", new HashMap<>(weights));
+            usage.put("active_sessions", active.size());
+            usage.put("closed_sessions", closedSessions);
+            usage.put("closed_sessions_completed", closedCompleted);
+            usage.put("sessions", active);
+            return usage;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        lock.lock();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                long[] wait = {Long.MAX_VALUE};
+                SessionQueue queue = next(now, wait);
+                if (queue == null) {
+                    if (wait[0] == Long.MAX_VALUE) {
+                        workAvailable.await();
+                    } else {
+                        workAvailable.awaitNanos(wait[0]);
+                    }
+                    continue;
+                }
+
+                SessionQueue.Task task = queue.tasks.poll();
+                queue.inFlight++;
+                long waited = now - task.enqueuedNanos;
+                queue.queueWaitNanos += waited;
+                queue.maxQueueWaitNanos = Math.max(queue.maxQueueWaitNanos, waited);
+                queue.changed.signalAll();
+
+                Slot slot = new Slot(queue, now);
+                boolean failed = true;
+                lock.unlock();
+                try {
+                    task.body.accept(slot);
+                    failed = false;
+                } catch (RuntimeException e) {
+                    logger.error("세션 {} 요청 실행 중 오류가 발생했습니다", queue.id, e);
+                } finally {
+                    if (failed) {
+                        slot.release(true);
+                    }
+                    lock.lock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 실행 중인 요청 하나가 차지한 동시 실행 자리. 처음 반납할 때만 사용량에 반영합니다.
+     */
+    private final class Slot implements Runnable {
+        private final SessionQueue queue;
+        private final long startedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Slot(SessionQueue queue, long startedNanos) {
+            this.queue = queue;
+            this.startedNanos = startedNanos;
+        }
+
+        @Override
+        public void run() {
+            release(false);
+        }
+
+        void release(boolean failed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long busy = System.nanoTime() - startedNanos;
+            lock.lock();
+            try {
+                queue.inFlight--;
+                queue.busyNanos += busy;
+                queue.completed++;
+                if (failed) {
+                    queue.failed++;
+                }
+                queue.changed.signalAll();
+                if (!queue.tasks.isEmpty()) {
+                    // 동시 실행 한도로 쉬던 세션이 다시 실행될 수 있음
+                    workAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 다음에 실행할 세션을 고릅니다 (잠금 안에서 호출). 없으면 null을 반환하고, 토큰을 기다리는 세션이 있으면
+     * 가장 빠른 토큰 보충까지의 시간을 wait[0]에 기록합니다.
+     */
+    private SessionQueue next(long now, long[] wait) {
+        for (int n = ready.size(); n > 0; n--) {
+            SessionQueue queue = ready.pollFirst();
+            if (queue.tasks.isEmpty()) {
+                queue.ready = false;
+                queue.deficit = 0;
+                continue;
+            }
+            if (queue.inFlight >= maxConcurrency) {
+                ready.addLast(queue);
+                continue;
+            }
+            if (!queue.tryAcquireToken(now, rate, burst)) {
+                queue.throttled++;
+                wait[0] = Math.min(wait[0], queue.nanosUntilToken(rate));
+                ready.addLast(queue);
+                continue;
+            }
+
+            if (queue.deficit <= 0) {
+                queue.deficit += queue.weight;
+            }
+            queue.deficit--;
+            // 이번 차례의 몫을 다 쓰면 다음 세션으로 넘어감
+            if (queue.deficit > 0) {
+                ready.addFirst(queue);
+            } else {
+                ready.addLast(queue);
+            }
+            return queue;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+            for (SessionQueue queue : sessions.values()) {
+                queue.changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
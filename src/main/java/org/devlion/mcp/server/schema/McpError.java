@@ -59,6 +59,10 @@ public class McpError {
     public static final int METHOD_NOT_FOUND = -32601;
     public static final int INVALID_PARAMS = -32602;
     public static final int INTERNAL_ERROR = -32603;
+    /** 서버 정의 오류: 한도가 차서 요청을 처리하지 않음. 잠시 뒤 다시 보내면 됨 */
+    public static final int SERVER_BUSY = -32001;
+    /** 서버 정의 오류: 호출 한도를 넘음. data.retryAfterMs 뒤에 다시 보내면 됨 */
+    public static final int RATE_LIMITED = -32002;
     
     // 팩토리 메서드들
     public static McpError parseError() {
@@ -80,4 +84,12 @@ public class McpError {
     public static McpError internalError() {
         return new McpError(INTERNAL_ERROR, "Internal error");
     }
+
+    public static McpError serverBusy(String message, Object data) {
+        return new McpError(SERVER_BUSY, message, data);
+    }
+
+    public static McpError rateLimited(String message, Object data) {
+        return new McpError(RATE_LIMITED, message, data);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.devlion.mcp.server.schema;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * MCP JSON-RPC 메시지의 기본 클래스
@@ -18,6 +19,7 @@ public class McpMessage {
     private String method;
     
     @JsonProperty("params")
+    @JsonDeserialize(using = ParamsDeserializer.class)
     private Object params;
     
     @JsonProperty("result")
@@ -94,10 +96,28 @@ public class McpMessage {
         return new McpMessage(id, method, params);
     }
     
+    /**
+     * 응답을 기다리지 않는 알림 (id 없음)
+     */
+    public static McpMessage notification(String method, Object params) {
+        return new McpMessage(null, method, params);
+    }
+    
     public static McpMessage response(Object id, Object result) {
         return new McpMessage(id, result);
     }
     
+    /**
+     * 같은 결과나 오류를 다른 요청 id로 담은 응답. 여러 요청이 계산 하나를 함께 쓸 때 사용합니다.
+     */
+    public McpMessage withId(Object id) {
+        McpMessage message = new McpMessage();
+        message.setId(id);
+        message.setResult(result);
+        message.setError(error);
+        return message;
+    }
+
     public static McpMessage error(Object id, McpError error) {
         McpMessage message = new McpMessage();
         message.setId(id);
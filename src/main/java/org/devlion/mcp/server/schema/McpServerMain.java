@@ -35,7 +35,7 @@ public class McpServerMain {
         
         this.toolRegistry = new ToolRegistry();
         this.resourceRegistry = new ResourceRegistry();
-        this.promptRegistry = new PromptRegistry();
+        this.promptRegistry = new PromptRegistry(objectMapper);
         this.executor = Executors.newCachedThreadPool();
         
         // 로그 디렉토리 생성
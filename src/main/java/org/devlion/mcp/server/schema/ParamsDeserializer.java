@@ -0,0 +1,100 @@
+package org.devlion.mcp.server.schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.devlion.mcp.server.text.Rope;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON-RPC params 역직렬화기
+ *
+ * 기본 동작은 Jackson의 Map/List 역직렬화와 같지만, {@code params.arguments}의 문자열 값 중
+ * 임계값보다 긴 값은 String을 만들지 않고 파서 버퍼에서 바로 {@link Rope}로 옮깁니다.
+ * 최대 크기를 넘은 인수는 내용을 버리고 크기만 기록하여 핸들러가 거부할 수 있게 합니다.
+ * 파싱할 때는 메서드를 알 수 없으므로 모든 메서드에 적용되며, Rope를 그대로 쓰는 것은 prompts/get이고
+ * tools/call은 도구에 넘기기 전에 문자열로 바꿉니다.
+ */
+public class ParamsDeserializer extends JsonDeserializer<Object> {
+
+    /** 이 길이(문자 수) 이상인 인수 문자열은 Rope로 보관합니다 */
+    public static final int LARGE_ARGUMENT_THRESHOLD_CHARS =
+        Integer.getInteger("mcp.prompt.largeArgumentThresholdChars", 64 * 1024);
+
+    /** 인수 하나의 최대 크기 (UTF-8 바이트) */
+    public static final long MAX_ARGUMENT_BYTES =
+        Long.getLong("mcp.prompt.maxArgumentBytes", 16L * 1024 * 1024);
+
+    private static final String ARGUMENTS = "arguments";
+
+    /** 값의 위치: params 자체, params.arguments 객체, 인수 값, 그 밖의 값 */
+    private enum Position { PARAMS, ARGUMENTS, ARGUMENT_VALUE, OTHER }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return read(p, ctxt, Position.PARAMS);
+    }
+
+    private Object read(JsonParser p, DeserializationContext ctxt, Position position) throws IOException {
+        JsonToken token = p.currentToken();
+        switch (token) {
+            case START_OBJECT:
+                p.nextToken();
+                return readObject(p, ctxt, position);
+            case FIELD_NAME:
+                return readObject(p, ctxt, position);
+            case START_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(read(p, ctxt, Position.OTHER));
+                }
+                return list;
+            }
+            case VALUE_STRING:
+                if (position == Position.ARGUMENT_VALUE && p.getTextLength() >= LARGE_ARGUMENT_THRESHOLD_CHARS) {
+                    Rope.Builder builder = Rope.builder(MAX_ARGUMENT_BYTES);
+                    p.getText(builder);
+                    return builder.build();
+                }
+                return p.getText();
+            case VALUE_NUMBER_INT:
+                return p.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return p.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return ctxt.handleUnexpectedToken(Object.class, p);
+        }
+    }
+
+    /**
+     * 현재 토큰이 FIELD_NAME 또는 END_OBJECT인 상태에서 객체를 읽습니다.
+     */
+    private Map<String, Object> readObject(JsonParser p, DeserializationContext ctxt, Position position) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (JsonToken t = p.currentToken(); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+            String name = p.currentName();
+            p.nextToken();
+
+            Position child = Position.OTHER;
+            if (position == Position.PARAMS && ARGUMENTS.equals(name)) {
+                child = Position.ARGUMENTS;
+            } else if (position == Position.ARGUMENTS) {
+                child = Position.ARGUMENT_VALUE;
+            }
+            map.put(name, read(p, ctxt, child));
+        }
+        return map;
+    }
+}
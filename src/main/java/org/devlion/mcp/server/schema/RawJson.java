@@ -0,0 +1,54 @@
+package org.devlion.mcp.server.schema;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.devlion.mcp.server.text.Rope;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 이미 직렬화된 JSON 값
+ *
+ * 캐시에 보관된 직렬화 결과를 다시 인코딩하지 않고 응답에 그대로 끼워 넣을 때 사용합니다.
+ * 내용은 {@link Rope}로 보관되며 조각 단위로 출력됩니다.
+ */
+public final class RawJson implements JsonSerializable {
+
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+
+    private final Rope json;
+
+    public RawJson(Rope json) {
+        this.json = json;
+    }
+
+    public Rope getJson() {
+        return json;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        // UTF-8 바이트 수가 문자 수 이상이므로 작은 값은 크기에 맞춘 버퍼 하나로 충분
+        char[] buffer = new char[(int) Math.max(1, Math.min(COPY_BUFFER_SIZE, json.byteLength()))];
+        try (Reader reader = json.openReader()) {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                gen.writeNull();
+                return;
+            }
+            // 첫 조각은 값으로 기록하여 생성기의 구분자 처리를 맞추고, 나머지는 그대로 이어 씁니다
+            gen.writeRawValue(buffer, 0, read);
+            while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                gen.writeRaw(buffer, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -1,10 +1,12 @@
 package org.devlion.mcp.server.schema;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * MCP 리소스 정의
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Resource {
     @JsonProperty("uri")
     private String uri;
@@ -18,6 +20,10 @@ public class Resource {
     @JsonProperty("mimeType")
     private String mimeType;
 
+    /** 바이트 단위 크기. 모르면 생략 */
+    @JsonProperty("size")
+    private Long size;
+
     public Resource() {}
     
     public Resource(String uri, String name, String description, String mimeType) {
@@ -59,4 +65,12 @@ public class Resource {
     public void setMimeType(String mimeType) {
         this.mimeType = mimeType;
     }
-}
\ No newline at end of file
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,36 @@
+package org.devlion.mcp.server.startup;
+
+import org.devlion.mcp.server.McpServerMain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * AppCDS 아카이브를 만들기 위한 학습 실행
+ *
+ * 대표 요청({@code startup/training-requests.jsonl})을 실제 서버 처리 경로로 한 번씩 보내
+ * 기동과 요청 처리에 쓰이는 클래스를 모두 로드한 뒤 종료합니다. 응답은 버립니다.
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=target/mcp-server-example-1.0.0.jsa \
+ *     -cp target/mcp-server-example-1.0.0.jar org.devlion.mcp.server.startup.StartupTraining
+ * </pre>
+ *
+ * 보통은 {@code mvn -Pcds package}로 실행합니다.
+ */
+public class StartupTraining {
+
+    static final String TRAINING_REQUESTS = "/startup/training-requests.jsonl";
+
+    public static void main(String[] args) throws IOException {
+        // 실제 기동과 같은 경로(지연 초기화 포함)를 거치도록 기본 설정 그대로 실행
+        McpServerMain server = new McpServerMain();
+        try (InputStream in = StartupTraining.class.getResourceAsStream(TRAINING_REQUESTS)) {
+            if (in == null) {
+                throw new IOException("학습 요청 파일이 없습니다: " + TRAINING_REQUESTS);
+            }
+            server.serve(in, OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package org.devlion.mcp.server.text;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 크기가 큰 문자열을 UTF-8 바이트 조각 목록으로 보관하는 불변 문자열
+ *
+ * 조각은 코드 포인트 경계에서만 나뉘며 생성 후 변경되지 않으므로,
+ * 여러 Rope가 같은 조각을 복사 없이 공유할 수 있습니다.
+ * JSON으로 직렬화할 때는 조각을 순서대로 디코딩하여 생성기에 바로 흘려 보내므로
+ * 전체 문자열이 힙에 한 번에 만들어지지 않습니다.
+ */
+public final class Rope implements JsonSerializable {
+
+    /** 조각 하나의 최대 바이트 수 */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final List<ByteBuffer> segments;
+    private final long byteLength;
+    private final long maxBytes;
+
+    private Rope(List<ByteBuffer> segments, long byteLength, long maxBytes) {
+        this.segments = segments;
+        this.byteLength = byteLength;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 크기 제한이 없는 빌더를 생성합니다.
+     */
+    public static Builder builder() {
+        return new Builder(Long.MAX_VALUE);
+    }
+
+    /**
+     * 크기 제한이 있는 빌더를 생성합니다.
+     * 제한을 넘는 내용은 보관하지 않고 크기만 계산하며, 결과는 {@link #isOverLimit()}로 확인합니다.
+     */
+    public static Builder builder(long maxBytes) {
+        return new Builder(maxBytes);
+    }
+
+    /**
+     * 인수 맵에 Rope 값이 하나라도 있는지 확인합니다.
+     */
+    public static boolean containsRope(Map<String, ?> arguments) {
+        for (Object value : arguments.values()) {
+            if (value instanceof Rope) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * UTF-8 기준 전체 바이트 수 (제한을 넘은 경우에도 실제 입력 크기)
+     */
+    public long byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * 생성 시 크기 제한을 넘었는지 여부. 제한을 넘은 Rope는 내용을 보관하지 않습니다.
+     */
+    public boolean isOverLimit() {
+        return byteLength > maxBytes;
+    }
+
+    /**
+     * 내용을 복사 없이 다이제스트에 반영합니다.
+     */
+    public void updateDigest(MessageDigest digest) {
+        for (ByteBuffer segment : segments) {
+            digest.update(segment.duplicate());
+        }
+    }
+
+    /**
+     * UTF-8 내용을 target의 현재 위치부터 복사합니다. target에 byteLength만큼 남아 있어야 합니다.
+     */
+    public void copyTo(ByteBuffer target) {
+        for (ByteBuffer segment : segments) {
+            target.put(segment.duplicate());
+        }
+    }
+
+    /**
+     * 내용을 순서대로 디코딩하는 Reader를 엽니다.
+     */
+    public Reader openReader() {
+        return new RopeReader();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        try (Reader reader = openReader()) {
+            gen.writeString(reader, -1);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    /**
+     * 전체 내용을 하나의 문자열로 만듭니다. 큰 Rope에서는 힙 사용량이 커지므로 꼭 필요한 경우에만 사용하세요.
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[(int) Math.min(byteLength, Integer.MAX_VALUE - 8)];
+        int pos = 0;
+        for (ByteBuffer segment : segments) {
+            ByteBuffer source = segment.duplicate();
+            int len = Math.min(source.remaining(), bytes.length - pos);
+            source.get(bytes, pos, len);
+            pos += len;
+        }
+        return new String(bytes, 0, pos, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rope 빌더
+     *
+     * {@link Writer}로 동작하므로 JSON 파서의 {@code getText(Writer)}가 문자열을 직접 써 넣을 수 있습니다.
+     */
+    public static final class Builder extends Writer {
+        private final long maxBytes;
+        private final List<ByteBuffer> segments = new ArrayList<>();
+
+        private byte[] chunk;
+        private int chunkPos;
+        private char pendingHighSurrogate;
+        private long byteLength;
+
+        private Builder(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * 다른 Rope의 조각을 복사 없이 이어 붙입니다.
+         */
+        public Builder append(Rope rope) {
+            flushPendingSurrogate();
+            sealChunk();
+            byteLength += rope.byteLength;
+            if (byteLength <= maxBytes) {
+                segments.addAll(rope.segments);
+            } else {
+                segments.clear();
+            }
+            return this;
+        }
+
+        /**
+         * 미리 인코딩된 UTF-8 조각을 복사 없이 이어 붙입니다. 조각은 이후 변경되면 안 됩니다.
+         */
+        public Builder appendEncoded(ByteBuffer utf8) {
+            if (!utf8.hasRemaining()) {
+                return this;
+            }
+            flushPendingSurrogate();
+            sealChunk();
+            byteLength += utf8.remaining();
+            if (byteLength <= maxBytes) {
+                segments.add(utf8.asReadOnlyBuffer());
+            } else {
+                segments.clear();
+            }
+            return this;
+        }
+
+        @Override
+        public Builder append(CharSequence csq) {
+            for (int i = 0; i < csq.length(); i++) {
+                encode(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                encode(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                encode(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void write(int c) {
+            encode((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        public Rope build() {
+            flushPendingSurrogate();
+            sealChunk();
+            List<ByteBuffer> result = byteLength <= maxBytes
+                ? Collections.unmodifiableList(new ArrayList<>(segments))
+                : List.of();
+            return new Rope(result, byteLength, maxBytes);
+        }
+
+        private void encode(char c) {
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int cp = Character.toCodePoint(high, c);
+                    put4((byte) (0xF0 | (cp >> 18)), (byte) (0x80 | ((cp >> 12) & 0x3F)),
+                        (byte) (0x80 | ((cp >> 6) & 0x3F)), (byte) (0x80 | (cp & 0x3F)));
+                    return;
+                }
+                putReplacement();
+            }
+
+            if (c < 0x80) {
+                ensure(1);
+                if (chunk != null) {
+                    chunk[chunkPos++] = (byte) c;
+                }
+                byteLength++;
+            } else if (c < 0x800) {
+                ensure(2);
+                if (chunk != null) {
+                    chunk[chunkPos++] = (byte) (0xC0 | (c >> 6));
+                    chunk[chunkPos++] = (byte) (0x80 | (c & 0x3F));
+                }
+                byteLength += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                putReplacement();
+            } else {
+                put3((byte) (0xE0 | (c >> 12)), (byte) (0x80 | ((c >> 6) & 0x3F)), (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        private void flushPendingSurrogate() {
+            if (pendingHighSurrogate != 0) {
+                pendingHighSurrogate = 0;
+                putReplacement();
+            }
+        }
+
+        private void putReplacement() {
+            put3((byte) 0xEF, (byte) 0xBF, (byte) 0xBD);
+        }
+
+        private void put3(byte b0, byte b1, byte b2) {
+            ensure(3);
+            if (chunk != null) {
+                chunk[chunkPos++] = b0;
+                chunk[chunkPos++] = b1;
+                chunk[chunkPos++] = b2;
+            }
+            byteLength += 3;
+        }
+
+        private void put4(byte b0, byte b1, byte b2, byte b3) {
+            ensure(4);
+            if (chunk != null) {
+                chunk[chunkPos++] = b0;
+                chunk[chunkPos++] = b1;
+                chunk[chunkPos++] = b2;
+                chunk[chunkPos++] = b3;
+            }
+            byteLength += 4;
+        }
+
+        /**
+         * 코드 포인트 하나를 쓸 공간을 확보합니다. 제한을 넘으면 보관 중인 내용을 버립니다.
+         */
+        private void ensure(int bytes) {
+            if (byteLength + bytes > maxBytes) {
+                if (chunk != null || !segments.isEmpty()) {
+                    chunk = null;
+                    chunkPos = 0;
+                    segments.clear();
+                }
+                return;
+            }
+            if (chunk == null) {
+                chunk = new byte[CHUNK_SIZE];
+                chunkPos = 0;
+            } else if (chunkPos + bytes > chunk.length) {
+                sealChunk();
+                chunk = new byte[CHUNK_SIZE];
+            }
+        }
+
+        private void sealChunk() {
+            if (chunk != null && chunkPos > 0) {
+                segments.add(ByteBuffer.wrap(chunk, 0, chunkPos).slice().asReadOnlyBuffer());
+            }
+            chunk = null;
+            chunkPos = 0;
+        }
+    }
+
+    /**
+     * 조각을 순서대로 디코딩하는 Reader. 각 조각은 코드 포인트 경계에서 끝나므로 조각별로 독립 디코딩합니다.
+     */
+    private final class RopeReader extends Reader {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private int nextSegment;
+        private ByteBuffer current;
+        /** 앞 읽기에서 한 칸만 남아 넘기지 못한 서로게이트 쌍의 뒷부분 (없으면 0) */
+        private char pendingLowSurrogate;
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            if (pendingLowSurrogate != 0 && out.hasRemaining()) {
+                out.put(pendingLowSurrogate);
+                pendingLowSurrogate = 0;
+            }
+            while (out.hasRemaining()) {
+                if (current == null || !current.hasRemaining()) {
+                    if (nextSegment >= segments.size()) {
+                        break;
+                    }
+                    current = segments.get(nextSegment++).duplicate();
+                    decoder.reset();
+                }
+                if (decoder.decode(current, out, true).isOverflow()) {
+                    if (out.position() == off) {
+                        // 남은 한 칸에 서로게이트 쌍이 들어가지 않으면 앞부분만 주고 뒷부분은 다음 읽기로 넘김
+                        CharBuffer pair = CharBuffer.allocate(2);
+                        decoder.decode(current, pair, true);
+                        out.put(pair.get(0));
+                        pendingLowSurrogate = pair.get(1);
+                    }
+                    break;
+                }
+            }
+            int read = out.position() - off;
+            return read == 0 && len > 0 ? -1 : read;
+        }
+
+        @Override
+        public void close() {
+            current = null;
+            nextSegment = segments.size();
+            pendingLowSurrogate = 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.devlion.mcp.server.tool;
+
+import org.devlion.mcp.server.schema.McpMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 하나의 도구를 여러 인수 묶음에 대해 병렬로 실행하는 클래스
+ *
+ * 전용 ForkJoinPool 위에서 동작하며, 요청마다 지정된 병렬도만큼의 작업자가
+ * 공유 인덱스에서 다음 항목을 가져가는 방식으로 부하를 나눕니다.
+ * 항목 실행은 일반 도구 호출과 같은 디스패치 경로를 사용합니다.
+ * 중단 조건이 참이 되면 작업자는 다음 항목을 가져가지 않으며, 이미 끝난 항목만 반환합니다.
+ */
+class BatchExecutor {
+
+    private final ForkJoinPool pool;
+
+    BatchExecutor(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 풀에서 실행을 기다리는 작업 수
+     */
+    long queuedTasks() {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    /**
+     * 항목 실행 결과
+     */
+    static final class Item {
+        final int index;
+        final McpMessage response;
+
+        Item(int index, McpMessage response) {
+            this.index = index;
+            this.response = response;
+        }
+    }
+
+    /**
+     * 항목들을 병렬로 실행합니다.
+     *
+     * @param size        항목 수
+     * @param parallelism 이 요청에서 동시에 실행할 최대 항목 수
+     * @param ordered     true면 입력 순서대로, false면 완료 순서대로 결과를 반환
+     * @param call        항목 인덱스를 받아 실행 결과 응답을 반환하는 함수
+     * @param stopped     참이 되면 남은 항목을 실행하지 않음
+     * @param completed   항목이 끝날 때마다 작업자 스레드에서 호출됨
+     */
+    List<Item> execute(int size, int parallelism, boolean ordered, IntFunction<McpMessage> call,
+                       BooleanSupplier stopped, Consumer<Item> completed) {
+        int workers = Math.max(1, Math.min(Math.min(parallelism, pool.getParallelism()), size));
+
+        Item[] byIndex = ordered ? new Item[size] : null;
+        ConcurrentLinkedQueue<Item> byCompletion = ordered ? null : new ConcurrentLinkedQueue<>();
+        AtomicInteger next = new AtomicInteger();
+
+        Runnable worker = () -> {
+            int index;
+            while (!stopped.getAsBoolean() && (index = next.getAndIncrement()) < size) {
+                Item item = new Item(index, call.apply(index));
+                if (ordered) {
+                    byIndex[index] = item;
+                } else {
+                    byCompletion.add(item);
+                }
+                completed.accept(item);
+            }
+        };
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(pool.submit(worker));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        if (!ordered) {
+            return new ArrayList<>(byCompletion);
+        }
+        List<Item> items = new ArrayList<>(size);
+        for (Item item : byIndex) {
+            // 중단되면 실행하지 않은 자리가 비어 있음
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,191 @@
+package org.devlion.mcp.server.tool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 도구(또는 도구 묶음) 하나의 격벽
+ *
+ * 스레드 수와 대기열 길이가 정해진 전용 풀에서 도구 호출을 실행합니다. 느리거나 막힌 도구는 자기 격벽의 스레드만 차지하며,
+ * 격벽이 가득 차면 다른 도구의 스레드를 빌리지 않고 호출을 바로 거부하거나({@link #execute}) 자리가 날 때까지
+ * 기다립니다({@link #executeBlocking}). 쉬는 스레드는 1분 뒤 정리됩니다.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor pool;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    /** 가득 찬 격벽에 자리가 나기를 기다린 뒤 들어간 호출 수 */
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    /** 모든 스레드가 일하는 중에 들어와 대기열에서 기다린 호출 수 */
+    private final LongAdder saturated = new LongAdder();
+
+    /**
+     * @param threads       동시에 실행할 최대 호출 수 (1 이상)
+     * @param queueCapacity 스레드를 기다릴 수 있는 최대 호출 수 (0이면 대기 없이 거부)
+     */
+    public Bulkhead(String name, int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("격벽 스레드 수는 1 이상, 대기열 길이는 0 이상이어야 합니다: " + name);
+        }
+        this.name = name;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+
+        BlockingQueue<Runnable> queue = queueCapacity == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, task -> {
+            Thread thread = new Thread(task, "mcp-tool-" + name + "-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 호출을 격벽에서 실행합니다.
+     *
+     * @throws RejectedExecutionException 스레드와 대기열이 모두 차 있을 때
+     */
+    public void execute(Runnable call) {
+        long enqueued = System.nanoTime();
+        boolean busy = active.get() >= threads;
+        try {
+            pool.execute(() -> run(call, enqueued));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        accepted(busy);
+    }
+
+    /**
+     * 호출을 격벽에서 실행합니다. 스레드와 대기열이 모두 차 있으면 거부하지 않고 대기열에 자리가 날 때까지 기다립니다.
+     * 표준입출력처럼 연결 하나가 격벽을 혼자 쓰는 경우, 거부하는 대신 읽기를 멈춰 클라이언트가 보내는 속도를 늦출 때 씁니다.
+     */
+    public void executeBlocking(Runnable call) throws InterruptedException {
+        long enqueued = System.nanoTime();
+        boolean busy = active.get() >= threads;
+        Runnable task = () -> run(call, enqueued);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 스레드 수가 최대이므로 대기열에 넣으면 일하던 스레드가 꺼내 실행함
+            blocked.increment();
+            pool.getQueue().put(task);
+        }
+        accepted(busy);
+    }
+
+    private void accepted(boolean busy) {
+        submitted.increment();
+        if (busy) {
+            saturated.increment();
+        }
+        peakQueued.accumulateAndGet(pool.getQueue().size(), Math::max);
+    }
+
+    /**
+     * 호출을 격벽에서 실행하고 끝날 때까지 기다립니다. batch 항목처럼 다른 풀에서 도구를 부를 때도 도구의 격벽을 거치게 합니다.
+     *
+     * @throws RejectedExecutionException 스레드와 대기열이 모두 차 있을 때
+     */
+    public <T> T call(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run(Runnable call, long enqueued) {
+        long waited = System.nanoTime() - enqueued;
+        started.increment();
+        queueWaitNanos.add(waited);
+        maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            call.run();
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+        }
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 대기열에서 스레드를 기다리는 호출 수
+     */
+    public int queued() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * 격벽 설정과 포화 지표
+     */
+    public Map<String, Object> stats() {
+        long begun = started.sum();
+        int running = active.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("queue_capacity", queueCapacity);
+        stats.put("active", running);
+        stats.put("queued", queued());
+        stats.put("utilization", (double) running / threads);
+        stats.put("peak_active", peakActive.get());
+        stats.put("peak_queued", peakQueued.get());
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", completed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("blocked", blocked.sum());
+        stats.put("saturated", saturated.sum());
+        stats.put("queue_wait_avg_ms", begun == 0 ? 0.0 : queueWaitNanos.sum() / 1e6 / begun);
+        stats.put("queue_wait_max_ms", maxQueueWaitNanos.get() / 1e6);
+        return stats;
+    }
+}
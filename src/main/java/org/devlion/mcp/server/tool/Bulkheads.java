@@ -0,0 +1,131 @@
+package org.devlion.mcp.server.tool;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 도구별 격벽 모음
+ *
+ * 등록된 도구마다 {@link Bulkhead}를 하나씩 두며, {@code mcp.bulkhead.groups=도구=묶음,...}으로 여러 도구가 격벽 하나를 함께 쓸 수 있습니다.
+ * 격벽 크기는 {@code mcp.bulkhead.<격벽 이름>=스레드 수:대기열 길이}로 정하고, 지정하지 않은 격벽은
+ * {@code mcp.bulkhead.default}(기본값 CPU 수:64)를 따릅니다. 등록되지 않은 도구 이름은 격벽 하나({@value #OTHER})로 모아
+ * 클라이언트가 보낸 이름마다 풀이 생기지 않도록 합니다.
+ */
+public final class Bulkheads {
+
+    /** 등록되지 않은 도구의 격벽 이름 */
+    public static final String OTHER = "(other)";
+
+    private final Map<String, Bulkhead> byTool = new HashMap<>();
+    private final Map<String, Bulkhead> byName = new LinkedHashMap<>();
+    private final Bulkhead other;
+
+    /**
+     * @param tools  등록된 도구 이름
+     * @param groups 도구 이름 → 격벽 이름. 없는 도구는 자기 이름의 격벽을 씀
+     * @param limits 격벽 이름 → {스레드 수, 대기열 길이}. 없는 격벽은 defaults를 씀
+     */
+    public Bulkheads(Collection<String> tools, Map<String, String> groups, Map<String, int[]> limits, int[] defaults) {
+        for (String tool : tools) {
+            byTool.put(tool, bulkhead(groups.getOrDefault(tool, tool), limits, defaults));
+        }
+        this.other = bulkhead(OTHER, limits, defaults);
+    }
+
+    private Bulkhead bulkhead(String name, Map<String, int[]> limits, int[] defaults) {
+        return byName.computeIfAbsent(name, key -> {
+            int[] limit = limits.getOrDefault(key, defaults);
+            return new Bulkhead(key, limit[0], limit[1]);
+        });
+    }
+
+    /**
+     * 시스템 속성으로 격벽을 만듭니다.
+     */
+    public static Bulkheads fromSystemProperties(Collection<String> tools) {
+        int[] defaults = parseLimit(System.getProperty("mcp.bulkhead.default",
+            Runtime.getRuntime().availableProcessors() + ":64"));
+        Map<String, String> groups = parseGroups(System.getProperty("mcp.bulkhead.groups", ""));
+
+        Map<String, int[]> limits = new HashMap<>();
+        for (String name : tools) {
+            String group = groups.getOrDefault(name, name);
+            String spec = System.getProperty("mcp.bulkhead." + group);
+            if (spec != null) {
+                limits.put(group, parseLimit(spec));
+            }
+        }
+        String otherSpec = System.getProperty("mcp.bulkhead." + OTHER);
+        if (otherSpec != null) {
+            limits.put(OTHER, parseLimit(otherSpec));
+        }
+        return new Bulkheads(tools, groups, limits, defaults);
+    }
+
+    /**
+     * "스레드 수:대기열 길이"를 읽습니다.
+     */
+    static int[] parseLimit(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("격벽 설정 형식이 올바르지 않습니다 (스레드 수:대기열 길이): " + spec);
+        }
+        return new int[] {
+            Integer.parseInt(spec.substring(0, colon).trim()),
+            Integer.parseInt(spec.substring(colon + 1).trim())
+        };
+    }
+
+    static Map<String, String> parseGroups(String spec) {
+        Map<String, String> groups = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0 || eq == entry.length() - 1) {
+                throw new IllegalArgumentException("격벽 묶음 형식이 올바르지 않습니다 (도구=묶음): " + entry);
+            }
+            groups.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+        }
+        return groups;
+    }
+
+    /**
+     * 도구의 격벽. 등록되지 않은 도구는 {@value #OTHER} 격벽
+     */
+    public Bulkhead forTool(String tool) {
+        Bulkhead bulkhead = tool == null ? null : byTool.get(tool);
+        return bulkhead != null ? bulkhead : other;
+    }
+
+    /**
+     * 모든 격벽의 대기열 길이 합
+     */
+    public long queued() {
+        long queued = 0;
+        for (Bulkhead bulkhead : byName.values()) {
+            queued += bulkhead.queued();
+        }
+        return queued;
+    }
+
+    /**
+     * 격벽 이름 → 설정과 포화 지표. 격벽을 함께 쓰는 도구 목록도 담습니다.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Bulkhead bulkhead : byName.values()) {
+            Map<String, Object> entry = bulkhead.stats();
+            entry.put("tools", byTool.entrySet().stream()
+                .filter(e -> e.getValue() == bulkhead)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList());
+            stats.put(bulkhead.getName(), entry);
+        }
+        return stats;
+    }
+}
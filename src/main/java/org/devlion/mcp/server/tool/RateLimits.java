@@ -0,0 +1,250 @@
+package org.devlion.mcp.server.tool;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 도구별 호출 한도
+ *
+ * 도구마다 모든 세션이 함께 쓰는 버킷({@code mcp.ratelimit.tool.<도구>})과 세션마다 따로 두는 버킷
+ * ({@code mcp.ratelimit.session.<도구>})을 {@code 초당 호출 수[:순간 허용량]}으로 정합니다. 도구 이름 대신 {@code *}를 쓰면
+ * 따로 정하지 않은 모든 도구에 적용되며, 이때도 버킷은 도구마다 하나씩입니다. 한도를 정하지 않은 도구는 검사하지 않습니다.
+ *
+ * 토큰이 모자라면 {@code mcp.ratelimit.maxWaitMillis}(기본값 0) 안에 채워지는 경우에만 허용하되 그만큼 늦춰 실행하고,
+ * 아니면 다시 시도할 수 있는 시간을 담아 거부합니다. 확인은 {@link TokenBucket}의 CAS와 맵 조회뿐이라 잠그지 않으며,
+ * 늦춰야 하는 시간은 돌려주기만 하므로 요청을 읽거나 나누어 주는 스레드는 기다리지 않습니다.
+ * 기다리는 일은 호출을 실행할 격벽 스레드가 {@link #awaitAdmission}으로 합니다.
+ */
+public final class RateLimits {
+
+    /** 모든 도구에 적용하는 설정의 이름 */
+    public static final String ALL = "*";
+
+    /** 거부된 호출. 어느 버킷에서 거부됐는지와 다시 시도할 수 있을 때까지의 시간 */
+    public static final class Rejection {
+        public final String tool;
+        /** "tool" 또는 "session" */
+        public final String scope;
+        public final TokenBucket bucket;
+        /** 다시 시도할 수 있을 때까지 남은 시간. 기다려도 안 되면 -1 */
+        public final long retryAfterNanos;
+
+        Rejection(String tool, String scope, TokenBucket bucket, long retryAfterNanos) {
+            this.tool = tool;
+            this.scope = scope;
+            this.bucket = bucket;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder admitted = new LongAdder();
+        final LongAdder delayed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+    }
+
+    private final Map<String, TokenBucket> shared = new HashMap<>();
+    private final Map<String, double[]> perSession = new HashMap<>();
+    private final Map<String, Counters> counters = new LinkedHashMap<>();
+    private final long maxWaitNanos;
+
+    /**
+     * @param tools        등록된 도구 이름
+     * @param toolLimits   도구 이름(또는 {@value #ALL}) → {초당 호출 수, 순간 허용량}. 모든 세션이 함께 씀
+     * @param sessionLimits 도구 이름(또는 {@value #ALL}) → {초당 호출 수, 순간 허용량}. 세션마다 따로
+     * @param maxWaitMillis 토큰이 채워지기를 기다릴 수 있는 최대 시간
+     */
+    public RateLimits(Collection<String> tools, Map<String, double[]> toolLimits, Map<String, double[]> sessionLimits,
+                      long maxWaitMillis) {
+        for (String tool : tools) {
+            double[] limit = toolLimits.getOrDefault(tool, toolLimits.get(ALL));
+            if (limit != null) {
+                shared.put(tool, new TokenBucket(limit[0], limit[1]));
+            }
+            double[] sessionLimit = sessionLimits.getOrDefault(tool, sessionLimits.get(ALL));
+            if (sessionLimit != null) {
+                // 잘못된 설정은 세션이 열릴 때가 아니라 지금 알림
+                new TokenBucket(sessionLimit[0], sessionLimit[1]);
+                perSession.put(tool, sessionLimit);
+            }
+            if (limit != null || sessionLimit != null) {
+                counters.put(tool, new Counters());
+            }
+        }
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * 시스템 속성으로 만듭니다.
+     */
+    public static RateLimits fromSystemProperties(Collection<String> tools) {
+        return new RateLimits(tools,
+            limits("mcp.ratelimit.tool.", tools),
+            limits("mcp.ratelimit.session.", tools),
+            Long.getLong("mcp.ratelimit.maxWaitMillis", 0L));
+    }
+
+    private static Map<String, double[]> limits(String prefix, Collection<String> tools) {
+        Map<String, double[]> limits = new HashMap<>();
+        String all = System.getProperty(prefix + ALL);
+        if (all != null) {
+            limits.put(ALL, parseLimit(all));
+        }
+        for (String tool : tools) {
+            String spec = System.getProperty(prefix + tool);
+            if (spec != null) {
+                limits.put(tool, parseLimit(spec));
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * "초당 호출 수[:순간 허용량]"을 읽습니다. 순간 허용량을 생략하면 초당 호출 수(최소 1)
+     */
+    static double[] parseLimit(String spec) {
+        int colon = spec.indexOf(':');
+        try {
+            double rate = Double.parseDouble((colon < 0 ? spec : spec.substring(0, colon)).trim());
+            double burst = colon < 0 ? Math.max(1, rate) : Double.parseDouble(spec.substring(colon + 1).trim());
+            return new double[] {rate, burst};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("호출 한도 형식이 올바르지 않습니다 (초당 호출 수[:순간 허용량]): " + spec, e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    /**
+     * 한도를 정한 도구인지 여부
+     */
+    public boolean isLimited(String tool) {
+        return tool != null && counters.containsKey(tool);
+    }
+
+    /**
+     * 도구 호출 cost번에 해당하는 토큰을 세션 버킷과 공유 버킷에서 가져옵니다. 기다리지 않고 바로 반환합니다.
+     *
+     * @param sessionBuckets 세션의 버킷 (도구 이름 → 버킷). 처음 호출한 도구의 버킷은 여기에 만들어 둠
+     * @param wait           토큰이 곧 채워져 허용했으면 실행 전에 기다려야 하는 시간을 wait[0]에 기록 (기존 값보다 클 때만)
+     * @return 실행해도 되면 null, 아니면 거부 사유
+     */
+    public Rejection acquire(String tool, int cost, Map<String, TokenBucket> sessionBuckets, long[] wait) {
+        Counters counter = tool == null ? null : counters.get(tool);
+        if (counter == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+
+        TokenBucket session = sessionBucket(tool, sessionBuckets);
+        long sessionWait = 0;
+        if (session != null) {
+            sessionWait = session.acquire(cost, now, maxWaitNanos);
+            if (sessionWait < 0) {
+                return reject(counter, tool, "session", session, sessionWait);
+            }
+        }
+        TokenBucket bucket = shared.get(tool);
+        long sharedWait = 0;
+        if (bucket != null) {
+            sharedWait = bucket.acquire(cost, now, maxWaitNanos);
+            if (sharedWait < 0) {
+                if (session != null) {
+                    session.release(cost);
+                }
+                return reject(counter, tool, "tool", bucket, sharedWait);
+            }
+        }
+
+        long delay = Math.max(sharedWait, sessionWait);
+        if (delay > 0) {
+            counter.delayed.increment();
+            wait[0] = Math.max(wait[0], delay);
+        }
+        counter.admitted.increment();
+        return null;
+    }
+
+    /**
+     * {@link #acquire}가 기록한 시간만큼 기다립니다. 호출을 실행할 스레드에서 부릅니다.
+     *
+     * @param admittedNanos acquire를 부른 시각 ({@link System#nanoTime()})
+     * @param waitNanos     acquire가 wait[0]에 기록한 시간. 0 이하면 바로 반환
+     */
+    public static void awaitAdmission(long admittedNanos, long waitNanos) {
+        if (waitNanos <= 0) {
+            return;
+        }
+        long deadline = admittedNanos + waitNanos;
+        for (long left = deadline - System.nanoTime(); left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    /**
+     * 실행하지 않게 된 호출의 토큰을 돌려놓습니다.
+     */
+    public void release(String tool, int cost, Map<String, TokenBucket> sessionBuckets) {
+        TokenBucket session = sessionBuckets.get(tool);
+        if (session != null) {
+            session.release(cost);
+        }
+        TokenBucket bucket = shared.get(tool);
+        if (bucket != null) {
+            bucket.release(cost);
+        }
+    }
+
+    private TokenBucket sessionBucket(String tool, Map<String, TokenBucket> sessionBuckets) {
+        TokenBucket bucket = sessionBuckets.get(tool);
+        if (bucket == null) {
+            double[] limit = perSession.get(tool);
+            if (limit == null) {
+                return null;
+            }
+            bucket = sessionBuckets.computeIfAbsent(tool, key -> new TokenBucket(limit[0], limit[1]));
+        }
+        return bucket;
+    }
+
+    private static Rejection reject(Counters counter, String tool, String scope, TokenBucket bucket, long result) {
+        counter.rejected.increment();
+        return new Rejection(tool, scope, bucket, result == TokenBucket.NEVER ? -1 : -result);
+    }
+
+    /**
+     * 도구별 한도와 허용/지연/거부 수
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            String tool = entry.getKey();
+            Counters counter = entry.getValue();
+            Map<String, Object> item = new LinkedHashMap<>();
+            TokenBucket bucket = shared.get(tool);
+            if (bucket != null) {
+                item.put("rate", bucket.getRate());
+                item.put("burst", bucket.getBurst());
+                item.put("available", bucket.available(now));
+            }
+            double[] sessionLimit = perSession.get(tool);
+            if (sessionLimit != null) {
+                item.put("session_rate", sessionLimit[0]);
+                item.put("session_burst", sessionLimit[1]);
+            }
+            item.put("admitted", counter.admitted.sum());
+            item.put("delayed", counter.delayed.sum());
+            item.put("rejected", counter.rejected.sum());
+            stats.put(tool, item);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,89 @@
+package org.devlion.mcp.server.tool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금 없는 토큰 버킷
+ *
+ * 남은 토큰 수 대신 "버킷이 다시 가득 차는 시각" 하나만 {@link AtomicLong}에 두고 CAS로 옮기므로(GCRA),
+ * 여러 스레드가 동시에 가져가도 잠그거나 객체를 만들지 않습니다. 토큰은 초당 rate개씩 채워지고 최대 burst개까지 쌓입니다.
+ */
+public final class TokenBucket {
+
+    /** cost가 순간 허용량보다 커서 기다려도 가져갈 수 없음 */
+    public static final long NEVER = Long.MIN_VALUE;
+
+    private final double rate;
+    private final double burst;
+    /** 토큰 하나가 채워지는 시간 */
+    private final long intervalNanos;
+    /** 가득 찬 버킷을 비우는 데 해당하는 시간 (burst × interval) */
+    private final long capacityNanos;
+    /** 지금까지 가져간 토큰이 모두 다시 채워지는 시각 */
+    private final AtomicLong fullAt;
+
+    /**
+     * @param rate  초당 채워지는 토큰 수 (0보다 큼)
+     * @param burst 최대로 쌓이는 토큰 수 (1 이상)
+     */
+    public TokenBucket(double rate, double burst) {
+        if (!(rate > 0) || burst < 1) {
+            throw new IllegalArgumentException("초당 호출 수는 0보다, 순간 허용량은 1 이상이어야 합니다: " + rate + ":" + burst);
+        }
+        this.rate = rate;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000.0 / rate));
+        this.capacityNanos = (long) (burst * intervalNanos);
+        // 가득 찬 상태로 시작. 만들기 직전에 읽은 시각으로 가져가도 가득 찬 것으로 보이도록 한 번 채울 시간만큼 앞당김
+        this.fullAt = new AtomicLong(System.nanoTime() - capacityNanos);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getBurst() {
+        return burst;
+    }
+
+    /**
+     * 토큰 cost개를 가져갑니다.
+     *
+     * @param now          현재 시각 ({@link System#nanoTime()})
+     * @param maxWaitNanos 토큰이 모자랄 때 채워지기를 기다릴 수 있는 최대 시간
+     * @return 가져갔으면 토큰이 채워질 때까지 기다려야 하는 시간(0이면 바로). 가져가지 못했으면 다시 시도할 수 있을 때까지
+     *         남은 시간의 음수. cost가 순간 허용량보다 크면 {@link #NEVER}
+     */
+    public long acquire(int cost, long now, long maxWaitNanos) {
+        long need = cost * intervalNanos;
+        if (need > capacityNanos) {
+            return NEVER;
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + need;
+            long wait = next - now - capacityNanos;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * 가져간 토큰을 돌려놓습니다. 다른 버킷에서 거부되어 호출을 실행하지 않을 때 사용합니다.
+     */
+    public void release(int cost) {
+        fullAt.addAndGet(-cost * intervalNanos);
+    }
+
+    /**
+     * 지금 남아 있는 토큰 수 (대략)
+     */
+    public double available(long now) {
+        long used = Math.max(0, fullAt.get() - now);
+        return Math.max(0, burst - (double) used / intervalNanos);
+    }
+}
@@ -0,0 +1,147 @@
+package org.devlion.mcp.server.tool;
+
+import org.devlion.mcp.server.schema.McpMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 도구 호출 하나의 실행 문맥
+ *
+ * 요청의 {@code params._meta.progressToken}이 있으면 진행 상황과 부분 결과를 {@code notifications/progress}로 보냅니다.
+ * 부분 결과는 알림의 {@code content} 필드에 담으며(이 서버의 확장), 최종 응답에도 모든 결과가 들어 있습니다.
+ * 알림은 {@code mcp.tool.progressIntervalMillis}(기본값 100)마다 한 번으로 모으되, 첫 알림과 완료 알림은 바로 보냅니다.
+ * 클라이언트가 {@code notifications/cancelled}를 보내면 {@link #isCancelled()}가 true가 되며, 도구는 이를 확인해 일찍 멈춥니다.
+ */
+public final class ToolContext {
+
+    /** 진행 알림도 취소도 없는 문맥 */
+    public static final ToolContext NONE = new ToolContext(null, null);
+
+    private static final long INTERVAL_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("mcp.tool.progressIntervalMillis", 100L));
+
+    private final Object progressToken;
+    private final Consumer<McpMessage> notifier;
+    private volatile boolean cancelled;
+
+    /** 아직 보내지 않은 진행 상황 (this로 보호) */
+    private final List<Map<String, Object>> pendingContent = new ArrayList<>();
+    private double progress;
+    private Double total;
+    private String message;
+    private boolean dirty;
+    private boolean sentAny;
+    private long lastSentNanos;
+
+    /**
+     * @param progressToken 요청의 progressToken. 없으면 알림을 보내지 않음
+     * @param notifier      알림을 세션에 쓰는 함수
+     */
+    public ToolContext(Object progressToken, Consumer<McpMessage> notifier) {
+        this.progressToken = progressToken;
+        this.notifier = notifier;
+    }
+
+    /**
+     * 요청 params의 {@code _meta.progressToken}을 꺼냅니다. 없으면 null
+     */
+    public static Object progressToken(Object params) {
+        if (params instanceof Map) {
+            Object meta = ((Map<?, ?>) params).get("_meta");
+            if (meta instanceof Map) {
+                return ((Map<?, ?>) meta).get("progressToken");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 진행 알림을 보낼 대상이 있는지 여부. false면 진행 상황과 부분 결과를 만들 필요가 없습니다.
+     */
+    public boolean isReporting() {
+        return progressToken != null && notifier != null;
+    }
+
+    /**
+     * 진행 상황을 알립니다. total이 있고 progress가 total에 닿으면 바로 보냅니다.
+     */
+    public void progress(double progress, Double total, String message) {
+        if (!isReporting()) {
+            return;
+        }
+        synchronized (this) {
+            // 진행 값은 줄어들지 않아야 함
+            this.progress = Math.max(this.progress, progress);
+            this.total = total;
+            this.message = message;
+            this.dirty = true;
+            boolean finished = total != null && progress >= total;
+            sendIfDue(finished);
+        }
+    }
+
+    /**
+     * 부분 결과 조각 하나를 더합니다. 다음 진행 알림이나 {@link #flush()}에 함께 담깁니다.
+     */
+    public void partial(Map<String, Object> content) {
+        if (!isReporting()) {
+            return;
+        }
+        synchronized (this) {
+            pendingContent.add(content);
+            dirty = true;
+        }
+    }
+
+    /**
+     * 모아 둔 진행 상황과 부분 결과를 바로 보냅니다. 도구가 끝나면 최종 응답 전에 호출합니다.
+     */
+    public void flush() {
+        if (!isReporting()) {
+            return;
+        }
+        synchronized (this) {
+            sendIfDue(true);
+        }
+    }
+
+    private void sendIfDue(boolean force) {
+        long now = System.nanoTime();
+        if (!dirty || (!force && sentAny && now - lastSentNanos < INTERVAL_NANOS)) {
+            return;
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("progressToken", progressToken);
+        params.put("progress", progress);
+        if (total != null) {
+            params.put("total", total);
+        }
+        if (message != null) {
+            params.put("message", message);
+        }
+        if (!pendingContent.isEmpty()) {
+            params.put("content", new ArrayList<>(pendingContent));
+            pendingContent.clear();
+        }
+        dirty = false;
+        sentAny = true;
+        lastSentNanos = now;
+        notifier.accept(McpMessage.notification("notifications/progress", params));
+    }
+
+    /**
+     * 클라이언트가 요청을 취소했음을 표시합니다.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
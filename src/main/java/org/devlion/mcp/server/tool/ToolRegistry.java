@@ -1,14 +1,34 @@
 package org.devlion.mcp.server.tool;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.devlion.mcp.server.cache.PersistentCache;
+import org.devlion.mcp.server.concurrent.SingleFlight;
+import org.devlion.mcp.server.logging.LogPreview;
+import org.devlion.mcp.server.jfr.HandlerCompletedEvent;
+import org.devlion.mcp.server.jfr.RejectionEvent;
 import org.devlion.mcp.server.schema.McpError;
 import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.schema.ParamsDeserializer;
+import org.devlion.mcp.server.schema.RawJson;
 import org.devlion.mcp.server.schema.Tool;
+import org.devlion.mcp.server.text.Rope;
+import org.devlion.mcp.server.tool.expression.CompiledExpression;
+import org.devlion.mcp.server.tool.expression.ExpressionCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * MCP 서버에서 사용할 도구들을 등록하고 관리하는 클래스
@@ -16,11 +36,66 @@ import java.util.*;
 public class ToolRegistry {
     private static final Logger logger = LoggerFactory.getLogger(ToolRegistry.class);
     
+    private static final int EXPRESSION_CACHE_SIZE = 256;
+
+    /** batch 도구 이름 */
+    public static final String BATCH_TOOL = "batch";
+
+    /** batch 도구 전용 풀의 병렬도 */
+    private static final int BATCH_PARALLELISM =
+        Integer.getInteger("mcp.tool.batchParallelism", Runtime.getRuntime().availableProcessors());
+
+    /** batch 도구 한 번에 처리할 수 있는 최대 항목 수 */
+    private static final int BATCH_MAX_ITEMS = Integer.getInteger("mcp.tool.batchMaxItems", 10_000);
+
+    /**
+     * 결과가 인수에만 달려 있고 부수 효과가 없는 도구. 같은 인수로 동시에 호출하면 한 번만 실행하고, 결과 캐시를 켜면 저장해 둠
+     * (current_time은 호출 시각에, batch는 진행 알림과 취소에 달려 있어 제외. batch의 항목은 각 도구 기준으로 합쳐짐)
+     */
+    private static final Set<String> PURE_TOOLS = Set.of("calculator", "greeting");
+
     private final List<Tool> tools;
+    private final Set<String> toolNames;
+    private final ExpressionCache expressionCache;
+    private final BatchExecutor batchExecutor;
+    private final Bulkheads bulkheads;
+    private final RateLimits rateLimits;
+    /** 도구 이름과 인수 맵을 키로 씀. 맵은 순서와 상관없이 값과 타입이 모두 같아야 같은 키 */
+    private final SingleFlight<Map.Entry<String, Object>, McpMessage> calls = new SingleFlight<>();
+    /** 재시작해도 남는 결과 캐시. 없으면 null */
+    private final PersistentCache resultCache;
+    private final ObjectMapper objectMapper;
 
     public ToolRegistry() {
+        this(null, null);
+    }
+
+    /**
+     * @param objectMapper 캐시할 결과를 직렬화할 때 사용할 매퍼 (응답 직렬화와 같은 설정이어야 함)
+     * @param resultCache  순수 도구의 결과를 저장할 캐시. null이면 저장하지 않음
+     */
+    public ToolRegistry(ObjectMapper objectMapper, PersistentCache resultCache) {
+        this.objectMapper = objectMapper;
+        this.resultCache = objectMapper != null ? resultCache : null;
         this.tools = new ArrayList<>();
+        this.expressionCache = new ExpressionCache(EXPRESSION_CACHE_SIZE);
+        this.batchExecutor = new BatchExecutor(BATCH_PARALLELISM);
         registerTools();
+
+        List<String> names = new ArrayList<>(tools.size());
+        for (Tool tool : tools) {
+            names.add(tool.getName());
+        }
+        this.toolNames = Set.copyOf(names);
+        this.bulkheads = Bulkheads.fromSystemProperties(names);
+        this.rateLimits = RateLimits.fromSystemProperties(names);
+    }
+
+    /**
+     * 등록된 도구 이름인지 여부
+     */
+    public boolean isRegistered(String name) {
+        return name != null && toolNames.contains(name);
     }
 
     /**
@@ -46,10 +121,25 @@ public class ToolRegistry {
         // 간단한 계산기 도구
         Tool calculatorTool = new Tool(
             "calculator",
-            "간단한 수학 계산을 수행합니다 (덧셈, 뺄셈, 곱셈, 나눗셈)",
+            "간단한 수학 계산을 수행합니다 (덧셈, 뺄셈, 곱셈, 나눗셈). "
+                + "expression을 지정하면 수식 모드로 동작하며, variables에 배열을 넘기면 행 단위로 일괄 계산합니다",
             Map.of(
                 "type", "object",
                 "properties", Map.of(
+                    "expression", Map.of(
+                        "type", "string",
+                        "description", "계산할 수식 (예: a * x^2 + sqrt(b)). 지정하면 a, b, operation 대신 사용됩니다"
+                    ),
+                    "variables", Map.of(
+                        "type", "object",
+                        "description", "수식 변수 값. 숫자 또는 같은 길이의 숫자 배열 (배열이면 행별 결과 배열을 반환)",
+                        "additionalProperties", Map.of(
+                            "oneOf", List.of(
+                                Map.of("type", "number"),
+                                Map.of("type", "array", "items", Map.of("type", "number"))
+                            )
+                        )
+                    ),
                     "a", Map.of(
                         "type", "number",
                         "description", "첫 번째 숫자"
@@ -63,8 +153,7 @@ public class ToolRegistry {
                         "description", "수행할 연산 (add, subtract, multiply, divide)",
                         "enum", Arrays.asList("add", "subtract", "multiply", "divide")
                     )
-                ),
-                "required", Arrays.asList("a", "b", "operation")
+                )
             )
         );
         tools.add(calculatorTool);
@@ -91,6 +180,36 @@ public class ToolRegistry {
         );
         tools.add(greetingTool);
 
+        // 다른 도구를 여러 인수 묶음에 대해 병렬 실행하는 도구
+        Tool batchTool = new Tool(
+            BATCH_TOOL,
+            "등록된 도구 하나를 여러 인수 묶음에 대해 병렬로 실행하고 결과를 모아 반환합니다",
+            Map.of(
+                "type", "object",
+                "properties", Map.of(
+                    "tool", Map.of(
+                        "type", "string",
+                        "description", "실행할 도구 이름"
+                    ),
+                    "arguments_list", Map.of(
+                        "type", "array",
+                        "description", "항목별 도구 인수 목록 (최대 " + BATCH_MAX_ITEMS + "개)",
+                        "items", Map.of("type", "object")
+                    ),
+                    "max_parallelism", Map.of(
+                        "type", "integer",
+                        "description", "동시에 실행할 최대 항목 수 (기본값: " + BATCH_PARALLELISM + ")"
+                    ),
+                    "ordered", Map.of(
+                        "type", "boolean",
+                        "description", "true면 입력 순서대로, false면 완료 순서대로 결과를 반환 (기본값: true)"
+                    )
+                ),
+                "required", Arrays.asList("tool", "arguments_list")
+            )
+        );
+        tools.add(batchTool);
+
         logger.info("모든 도구가 등록되었습니다. 총 {}개", tools.size());
     }
 
@@ -98,8 +217,238 @@ public class ToolRegistry {
         return new ArrayList<>(tools);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * batch 도구 전용 풀에서 실행을 기다리는 작업 수
+     */
+    public long getBatchQueueDepth() {
+        return batchExecutor.queuedTasks();
+    }
+
+    /**
+     * 도구 호출을 실행할 격벽
+     */
+    public Bulkhead bulkheadFor(String toolName) {
+        return bulkheads.forTool(toolName);
+    }
+
+    /**
+     * 도구 격벽에서 스레드를 기다리는 호출 수
+     */
+    public long getBulkheadQueueDepth() {
+        return bulkheads.queued();
+    }
+
+    /**
+     * 격벽별 설정과 포화 지표
+     */
+    public Map<String, Object> getBulkheadStats() {
+        return bulkheads.stats();
+    }
+
+    /**
+     * 도구 호출 한도를 확인하고 토큰을 가져갑니다. batch 호출은 batch 자체 한 번에 더해 대상 도구를 항목 수만큼 셉니다.
+     *
+     * 토큰이 곧 채워져 허용한 호출은 기다리지 않고, 실행 전에 기다려야 하는 시간을 wait[0]에 기록합니다
+     * ({@link RateLimits#awaitAdmission}).
+     *
+     * @param sessionBuckets 호출한 세션의 버킷
+     * @return 실행해도 되면 null, 한도를 넘었으면 오류 응답
+     */
+    public McpMessage acquireRateLimit(Object id, Object params, Map<String, TokenBucket> sessionBuckets, long[] wait) {
+        if (rateLimits.isEmpty()) {
+            return null;
+        }
+        String name = nameOf(params);
+        RateLimits.Rejection rejection = rateLimits.acquire(name, 1, sessionBuckets, wait);
+        if (rejection == null && BATCH_TOOL.equals(name)) {
+            Object arguments = ((Map<?, ?>) params).get("arguments");
+            Object target = arguments instanceof Map ? ((Map<?, ?>) arguments).get("tool") : null;
+            Object items = arguments instanceof Map ? ((Map<?, ?>) arguments).get("arguments_list") : null;
+            if (target instanceof String && items instanceof List && !((List<?>) items).isEmpty()) {
+                rejection = rateLimits.acquire((String) target, ((List<?>) items).size(), sessionBuckets, wait);
+                if (rejection != null) {
+                    rateLimits.release(name, 1, sessionBuckets);
+                }
+            }
+        }
+        if (rejection == null) {
+            return null;
+        }
+
+        String scope = "session".equals(rejection.scope) ? "session_rate_limited" : "rate_limited";
+        RejectionEvent.emit(HandlerCompletedEvent.TOOL, rejection.tool, scope, 1, (long) rejection.bucket.getBurst());
+        logger.debug("도구 호출 한도를 넘어 거부합니다: {} ({})", rejection.tool, rejection.scope);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("tool", rejection.tool);
+        data.put("scope", rejection.scope);
+        data.put("rate", rejection.bucket.getRate());
+        data.put("burst", rejection.bucket.getBurst());
+        if (rejection.retryAfterNanos < 0) {
+            return McpMessage.error(id, new McpError(McpError.INVALID_PARAMS,
+                "batch 항목 수가 도구 " + rejection.tool + "의 순간 허용량(" + (long) rejection.bucket.getBurst() + ")보다 많습니다", data));
+        }
+        long retryAfterMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(rejection.retryAfterNanos));
+        data.put("retryAfterMs", retryAfterMillis);
+        return McpMessage.error(id, McpError.rateLimited(
+            "도구 " + rejection.tool + "의 호출 한도를 넘었습니다. " + retryAfterMillis + "ms 뒤 다시 시도하세요", data));
+    }
+
+    /**
+     * 도구별 호출 한도와 허용/지연/거부 수
+     */
+    public Map<String, Object> getRateLimitStats() {
+        return rateLimits.stats();
+    }
+
+    /**
+     * 도구 호출 요청을 처리합니다.
+     */
     public McpMessage handleToolCall(Object id, Object params) {
+        return handleToolCall(id, params, ToolContext.NONE);
+    }
+
+    /**
+     * 진행 알림과 취소를 지원하는 도구 호출. 긴 작업을 하는 도구는 context로 진행 상황과 부분 결과를 보내고,
+     * {@link ToolContext#isCancelled()}가 참이 되면 남은 작업을 멈춥니다.
+     */
+    public McpMessage handleToolCall(Object id, Object params, ToolContext context) {
+        HandlerCompletedEvent event = new HandlerCompletedEvent();
+        event.begin();
+        McpMessage response = textArgumentsError(id, params);
+        if (response == null) {
+            Object call = withTextArguments(params);
+            Map.Entry<String, Object> key = singleFlightKey(call);
+            response = key == null
+                ? callTool(id, call, context)
+                : calls.run(key, () -> callCached(key, call)).withId(id);
+        }
+        context.flush();
+        event.complete(HandlerCompletedEvent.TOOL, "tools/call", nameOf(params), response);
+        return response;
+    }
+
+    /**
+     * 크기 제한을 넘어 내용 없이 파싱된 인수가 있으면 오류 응답, 없으면 null
+     */
+    private static McpMessage textArgumentsError(Object id, Object params) {
+        Map<String, Object> arguments = argumentsOf(params);
+        if (arguments == null || !Rope.containsRope(arguments)) {
+            return null;
+        }
+        for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+            if (entry.getValue() instanceof Rope && ((Rope) entry.getValue()).isOverLimit()) {
+                Rope rope = (Rope) entry.getValue();
+                RejectionEvent.emit(HandlerCompletedEvent.TOOL, nameOf(params), "argument_too_large:" + entry.getKey(),
+                    rope.byteLength(), ParamsDeserializer.MAX_ARGUMENT_BYTES);
+                return McpMessage.error(id, new McpError(McpError.INVALID_PARAMS,
+                    "인수 크기가 제한을 초과했습니다: " + entry.getKey(),
+                    Map.of(
+                        "argument", entry.getKey(),
+                        "size_bytes", rope.byteLength(),
+                        "max_argument_bytes", ParamsDeserializer.MAX_ARGUMENT_BYTES
+                    )));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 큰 인수 문자열은 파싱할 때 {@link Rope}로 보관되지만 도구는 문자열을 받으므로, Rope 인수가 있으면 문자열로 바꾼 params를 반환합니다.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object withTextArguments(Object params) {
+        Map<String, Object> arguments = argumentsOf(params);
+        if (arguments == null || !Rope.containsRope(arguments)) {
+            return params;
+        }
+        Map<String, Object> text = new LinkedHashMap<>(arguments);
+        text.replaceAll((name, value) -> value instanceof Rope ? value.toString() : value);
+        Map<String, Object> call = new HashMap<>((Map<String, Object>) params);
+        call.put("arguments", text);
+        return call;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> argumentsOf(Object params) {
+        Object arguments = params instanceof Map ? ((Map<?, ?>) params).get("arguments") : null;
+        return arguments instanceof Map ? (Map<String, Object>) arguments : null;
+    }
+
+    /**
+     * 실행을 합칠 수 있는 호출이면 도구 이름과 인수로 만든 키, 아니면 null.
+     * 인수를 직렬화하지 않고 파싱된 맵을 그대로 키로 써서 요청마다 할당이 늘지 않도록 합니다.
+     */
+    private static Map.Entry<String, Object> singleFlightKey(Object params) {
+        String name = nameOf(params);
+        if (name == null || !PURE_TOOLS.contains(name)) {
+            return null;
+        }
+        Object arguments = ((Map<?, ?>) params).get("arguments");
+        return Map.entry(name, arguments != null ? arguments : Map.of());
+    }
+
+    /**
+     * 순수 도구를 실행합니다. 결과 캐시가 있으면 먼저 찾아보고, 없으면 실행한 뒤 성공한 결과를 직렬화하여 저장합니다.
+     */
+    private McpMessage callCached(Map.Entry<String, Object> call, Object params) {
+        if (resultCache == null) {
+            return callTool(null, params, ToolContext.NONE);
+        }
+        String key = resultCacheKey(call);
+        Rope cached = key != null ? resultCache.get(key) : null;
+        if (cached != null) {
+            return McpMessage.response(null, new RawJson(cached));
+        }
+
+        McpMessage response = callTool(null, params, ToolContext.NONE);
+        Object result = response.getResult();
+        if (key != null && result instanceof Map && Boolean.FALSE.equals(((Map<?, ?>) result).get("isError"))) {
+            try {
+                Rope.Builder serialized = Rope.builder();
+                objectMapper.writeValue(serialized, result);
+                Rope json = serialized.build();
+                resultCache.put(key, json);
+                return McpMessage.response(null, new RawJson(json));
+            } catch (Exception e) {
+                logger.warn("도구 결과 캐시 저장 실패", e);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 도구 이름과 인수로 만든 결과 캐시 키. 인수는 키 순서대로 직렬화하므로 순서와 상관없이 값과 타입이 같으면 같은 키
+     */
+    private String resultCacheKey(Map.Entry<String, Object> call) {
+        try {
+            byte[] arguments = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsBytes(call.getValue());
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(arguments);
+            StringBuilder key = new StringBuilder(call.getKey().length() + 70).append("tool:").append(call.getKey()).append(':');
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("도구 결과 캐시 키를 만들 수 없습니다", e);
+            return null;
+        }
+    }
+
+    /**
+     * 동시에 온 같은 호출을 합친 지표
+     */
+    public Map<String, Object> getSingleFlightStats() {
+        return calls.stats();
+    }
+
+    private static String nameOf(Object params) {
+        Object name = params instanceof Map ? ((Map<?, ?>) params).get("name") : null;
+        return name instanceof String ? (String) name : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private McpMessage callTool(Object id, Object params, ToolContext context) {
         try {
             Map<String, Object> paramsMap = (Map<String, Object>) params;
             String toolName = (String) paramsMap.get("name");
@@ -116,6 +465,8 @@ public class ToolRegistry {
                     return handleCalculator(id, arguments);
                 case "greeting":
                     return handleGreeting(id, arguments);
+                case BATCH_TOOL:
+                    return handleBatch(id, arguments, context);
                 default:
                     return McpMessage.error(id, new McpError(-1, "알 수 없는 도구: " + toolName));
             }
@@ -135,7 +486,7 @@ public class ToolRegistry {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
             String currentTime = LocalDateTime.now().format(formatter);
 
-            logger.info("현재 시간을 요청했습니다: {}", currentTime);
+            logger.debug("현재 시간을 요청했습니다: {}", currentTime);
 
             Map<String, Object> result = Map.of(
                 "content", List.of(Map.of(
@@ -165,6 +516,13 @@ public class ToolRegistry {
      */
     private McpMessage handleCalculator(Object id, Map<String, Object> arguments) {
         try {
+            if (arguments.get("expression") != null) {
+                return handleExpression(id, arguments);
+            }
+            if (arguments.get("a") == null || arguments.get("b") == null || arguments.get("operation") == null) {
+                throw new IllegalArgumentException("a, b, operation 또는 expression이 필요합니다");
+            }
+
             double a = ((Number) arguments.get("a")).doubleValue();
             double b = ((Number) arguments.get("b")).doubleValue();
             String operation = (String) arguments.get("operation");
@@ -198,7 +556,7 @@ public class ToolRegistry {
 
             String resultText = String.format("%.2f %s %.2f = %.2f", a, operationSymbol, b, result);
 
-            logger.info("계산을 수행했습니다: {}", resultText);
+            logger.debug("계산을 수행했습니다: {}", resultText);
 
             Map<String, Object> resultMap = Map.of(
                 "content", List.of(Map.of(
@@ -238,7 +596,7 @@ public class ToolRegistry {
                 greeting = "안녕하세요, " + name + "님! 만나서 반갑습니다!";
             }
 
-            logger.info("인사를 전송했습니다: {}", name);
+            logger.debug("인사를 전송했습니다: {}", name);
 
             Map<String, Object> result = Map.of(
                 "content", List.of(Map.of(
@@ -262,4 +620,253 @@ public class ToolRegistry {
             return McpMessage.response(id, result);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 계산기 도구의 수식 모드 핸들러
+     *
+     * 수식은 {@link ExpressionCache}를 통해 한 번만 컴파일되며,
+     * 배열 변수가 있으면 모든 행을 한 번의 호출로 평가합니다.
+     */
+    @SuppressWarnings("unchecked")
+    private McpMessage handleExpression(Object id, Map<String, Object> arguments) {
+        String expression = (String) arguments.get("expression");
+        Map<String, Object> variables = (Map<String, Object>) arguments.getOrDefault("variables", Map.of());
+
+        CompiledExpression compiled = expressionCache.get(expression);
+        List<String> names = compiled.getVariables();
+
+        double[][] columns = new double[names.size()][];
+        int rows = -1;
+        for (int i = 0; i < columns.length; i++) {
+            Object value = variables.get(names.get(i));
+            if (value == null) {
+                throw new IllegalArgumentException("정의되지 않은 변수입니다: " + names.get(i));
+            }
+            if (value instanceof List) {
+                columns[i] = toDoubleArray((List<Object>) value, names.get(i));
+                if (rows >= 0 && rows != columns[i].length) {
+                    throw new IllegalArgumentException("배열 변수들의 길이가 서로 다릅니다: " + names.get(i));
+                }
+                rows = columns[i].length;
+            } else if (value instanceof Number) {
+                columns[i] = new double[] { ((Number) value).doubleValue() };
+            } else {
+                throw new IllegalArgumentException("변수 값은 숫자 또는 숫자 배열이어야 합니다: " + names.get(i));
+            }
+        }
+
+        String resultText;
+        if (rows < 0) {
+            double[] values = new double[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = columns[i][0];
+            }
+            resultText = expression + " = " + compiled.evaluate(values);
+            logger.debug("수식을 계산했습니다: {}", resultText);
+        } else {
+            double[] results = compiled.evaluate(columns, rows);
+            resultText = formatResults(results);
+            logger.debug("수식을 일괄 계산했습니다: {} ({}행)", LogPreview.of(expression), rows);
+        }
+
+        Map<String, Object> resultMap = Map.of(
+            "content", List.of(Map.of(
+                "type", "text",
+                "text", resultText
+            )),
+            "isError", false
+        );
+
+        return McpMessage.response(id, resultMap);
+    }
+
+    private static double[] toDoubleArray(List<Object> values, String name) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            Object value = values.get(i);
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("변수 '" + name + "'의 " + i + "번째 값이 숫자가 아닙니다");
+            }
+            array[i] = ((Number) value).doubleValue();
+        }
+        return array;
+    }
+
+    /**
+     * 일괄 계산 결과를 JSON 배열 문자열로 변환합니다. 유한하지 않은 값은 null로 표기합니다.
+     */
+    private static String formatResults(double[] results) {
+        StringBuilder sb = new StringBuilder(results.length * 12 + 2);
+        sb.append('[');
+        for (int i = 0; i < results.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            double value = results[i];
+            if (Double.isFinite(value)) {
+                sb.append(value);
+            } else {
+                sb.append("null");
+            }
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * batch 도구 핸들러
+     *
+     * 각 항목은 일반 tools/call과 같은 {@link #handleToolCall(Object, Object)} 경로로 대상 도구의 격벽에서 실행되며,
+     * 항목별 결과의 텍스트를 "[인덱스] " 접두어와 함께 하나의 응답으로 모읍니다.
+     * progressToken이 있으면 항목이 끝날 때마다 진행 상황과 그 항목의 결과를 부분 결과로 보내고,
+     * 취소되면 남은 항목을 실행하지 않습니다.
+     */
+    @SuppressWarnings("unchecked")
+    private McpMessage handleBatch(Object id, Map<String, Object> arguments, ToolContext context) {
+        try {
+            String toolName = (String) arguments.get("tool");
+            List<Object> argumentsList = (List<Object>) arguments.get("arguments_list");
+            int parallelism = arguments.get("max_parallelism") instanceof Number
+                ? ((Number) arguments.get("max_parallelism")).intValue()
+                : BATCH_PARALLELISM;
+            boolean ordered = !Boolean.FALSE.equals(arguments.get("ordered"));
+
+            if (toolName == null || argumentsList == null) {
+                throw new IllegalArgumentException("tool과 arguments_list가 필요합니다");
+            }
+            if (BATCH_TOOL.equals(toolName)) {
+                RejectionEvent.emit(HandlerCompletedEvent.TOOL, BATCH_TOOL, "nested_batch", 1, 0);
+                throw new IllegalArgumentException("batch 도구는 중첩해서 실행할 수 없습니다");
+            }
+            if (argumentsList.size() > BATCH_MAX_ITEMS) {
+                RejectionEvent.emit(HandlerCompletedEvent.TOOL, BATCH_TOOL, "too_many_items", argumentsList.size(), BATCH_MAX_ITEMS);
+                throw new IllegalArgumentException("항목 수가 최대값(" + BATCH_MAX_ITEMS + ")을 초과했습니다: " + argumentsList.size());
+            }
+
+            int size = argumentsList.size();
+            AtomicInteger done = new AtomicInteger();
+            // 항목도 대상 도구의 격벽에서 실행. batch와 격벽을 함께 쓰면 batch가 이미 그 격벽의 스레드를 차지하고 있으므로 바로 실행
+            Bulkhead bulkhead = bulkheads.forTool(toolName);
+            boolean inline = bulkhead == bulkheads.forTool(BATCH_TOOL);
+            List<BatchExecutor.Item> items = batchExecutor.execute(size, parallelism, ordered,
+                index -> {
+                    Map<String, Object> call = new HashMap<>();
+                    call.put("name", toolName);
+                    call.put("arguments", argumentsList.get(index));
+                    return materialize(inline ? handleToolCall(index, call) : callInBulkhead(bulkhead, index, call));
+                },
+                context::isCancelled,
+                item -> {
+                    if (context.isReporting()) {
+                        context.partial(itemContent(item));
+                        context.progress(done.incrementAndGet(), (double) size, null);
+                    }
+                });
+
+            if (context.isCancelled()) {
+                logger.debug("일괄 실행이 취소되었습니다: {} {}/{}건 완료", toolName, items.size(), size);
+                Map<String, Object> result = Map.of(
+                    "content", List.of(Map.of(
+                        "type", "text",
+                        "text", toolName + " 일괄 실행이 취소되었습니다 (" + items.size() + "/" + size + "건 완료)"
+                    )),
+                    "isError", true
+                );
+                return McpMessage.response(id, result);
+            }
+
+            List<Map<String, Object>> content = new ArrayList<>(items.size() + 1);
+            content.add(null); // 요약 자리
+            int failures = 0;
+            for (BatchExecutor.Item item : items) {
+                StringBuilder text = new StringBuilder().append('[').append(item.index).append("] ");
+                if (!appendItemResult(text, item.response)) {
+                    failures++;
+                }
+                content.add(Map.of("type", "text", "text", text.toString()));
+            }
+            content.set(0, Map.of(
+                "type", "text",
+                "text", toolName + " 일괄 실행: 총 " + items.size() + "건 (성공 " + (items.size() - failures) + ", 실패 " + failures + ")"
+            ));
+
+            logger.debug("일괄 실행을 완료했습니다: {} {}건 (실패 {})", toolName, items.size(), failures);
+
+            Map<String, Object> result = Map.of(
+                "content", content,
+                "isError", !items.isEmpty() && failures == items.size()
+            );
+
+            return McpMessage.response(id, result);
+
+        } catch (Exception e) {
+            logger.error("일괄 실행 중 오류 발생", e);
+            Map<String, Object> result = Map.of(
+                "content", List.of(Map.of(
+                    "type", "text",
+                    "text", "일괄 실행 중 오류가 발생했습니다: " + e.getMessage()
+                )),
+                "isError", true
+            );
+            return McpMessage.response(id, result);
+        }
+    }
+
+    /**
+     * batch 항목 하나를 도구의 격벽에서 실행합니다. 격벽이 가득 차면 그 항목만 오류로 끝납니다.
+     */
+    private McpMessage callInBulkhead(Bulkhead bulkhead, int index, Map<String, Object> call) {
+        try {
+            return bulkhead.call(() -> handleToolCall(index, call));
+        } catch (RejectedExecutionException e) {
+            String toolName = (String) call.get("name");
+            RejectionEvent.emit(HandlerCompletedEvent.TOOL, toolName, "bulkhead_full", bulkhead.queued(), bulkhead.getQueueCapacity());
+            return McpMessage.error(index, McpError.serverBusy(
+                "도구 격벽이 가득 찼습니다. 잠시 뒤 다시 시도하세요", Map.of("bulkhead", bulkhead.getName())));
+        }
+    }
+
+    /**
+     * 결과 캐시에서 온 직렬화된 결과를 항목 결과를 모을 수 있도록 맵으로 되돌립니다. 직렬화된 결과는 응답에 그대로 쓸 때만 유리함
+     */
+    private McpMessage materialize(McpMessage response) {
+        if (!(response.getResult() instanceof RawJson)) {
+            return response;
+        }
+        try (Reader reader = ((RawJson) response.getResult()).getJson().openReader()) {
+            return McpMessage.response(response.getId(), objectMapper.readValue(reader, Map.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("캐시된 도구 결과를 읽을 수 없습니다", e);
+        }
+    }
+
+    /**
+     * 항목 결과를 "[인덱스] " 접두어가 붙은 텍스트 내용 하나로 만듭니다.
+     */
+    private static Map<String, Object> itemContent(BatchExecutor.Item item) {
+        StringBuilder text = new StringBuilder().append('[').append(item.index).append("] ");
+        appendItemResult(text, item.response);
+        return Map.of("type", "text", "text", text.toString());
+    }
+
+    /**
+     * 항목 결과의 텍스트를 이어 붙이고 성공 여부를 반환합니다.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean appendItemResult(StringBuilder text, McpMessage response) {
+        if (response.getError() != null) {
+            text.append("오류: ").append(response.getError().getMessage());
+            return false;
+        }
+
+        Map<String, Object> result = (Map<String, Object>) response.getResult();
+        List<Map<String, Object>> content = (List<Map<String, Object>>) result.get("content");
+        for (int i = 0; i < content.size(); i++) {
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append(content.get(i).get("text"));
+        }
+        return !Boolean.TRUE.equals(result.get("isError"));
+    }
+}
@@ -0,0 +1,295 @@
+package org.devlion.mcp.server.tool.expression;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 컴파일된 산술 수식
+ *
+ * 후위 표기 명령열로 저장되며, 행 단위가 아니라 블록 단위로 평가합니다.
+ * 각 명령은 {@code double[]} 블록 전체에 대해 한 번에 적용되므로
+ * 명령 분기 비용이 행 수가 아닌 블록 수에 비례합니다.
+ * 불변 객체이므로 여러 스레드에서 동시에 평가해도 안전합니다.
+ */
+public final class CompiledExpression {
+
+    /** 한 번에 평가하는 행 수 */
+    static final int BLOCK_SIZE = 1024;
+
+    /** 이 행 수 이상이면 공용 ForkJoinPool에서 병렬로 평가합니다 */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    // 명령 코드
+    static final byte CONST = 0;
+    static final byte VAR = 1;
+    static final byte ADD = 2;
+    static final byte SUB = 3;
+    static final byte MUL = 4;
+    static final byte DIV = 5;
+    static final byte MOD = 6;
+    static final byte POW = 7;
+    static final byte NEG = 8;
+    static final byte ABS = 9;
+    static final byte SQRT = 10;
+    static final byte SIN = 11;
+    static final byte COS = 12;
+    static final byte TAN = 13;
+    static final byte ASIN = 14;
+    static final byte ACOS = 15;
+    static final byte ATAN = 16;
+    static final byte EXP = 17;
+    static final byte LOG = 18;
+    static final byte LOG10 = 19;
+    static final byte FLOOR = 20;
+    static final byte CEIL = 21;
+    static final byte ROUND = 22;
+    static final byte MIN = 23;
+    static final byte MAX = 24;
+    static final byte ATAN2 = 25;
+    static final byte HYPOT = 26;
+
+    private final String source;
+    private final byte[] ops;
+    private final int[] operands;
+    private final double[] constants;
+    private final String[] variables;
+    private final int maxStack;
+
+    CompiledExpression(String source, byte[] ops, int[] operands, double[] constants,
+                       String[] variables, int maxStack) {
+        this.source = source;
+        this.ops = ops;
+        this.operands = operands;
+        this.constants = constants;
+        this.variables = variables;
+        this.maxStack = maxStack;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 수식에 등장하는 변수 이름 (평가 시 값 배열의 순서)
+     */
+    public List<String> getVariables() {
+        return List.of(variables);
+    }
+
+    /**
+     * 단일 값 묶음에 대해 수식을 평가합니다.
+     *
+     * @param values {@link #getVariables()} 순서의 변수 값
+     */
+    public double evaluate(double[] values) {
+        double[] stack = new double[maxStack];
+        int sp = 0;
+        for (int i = 0; i < ops.length; i++) {
+            byte op = ops[i];
+            if (op == CONST) {
+                stack[sp++] = constants[operands[i]];
+            } else if (op == VAR) {
+                stack[sp++] = values[operands[i]];
+            } else if (isUnary(op)) {
+                stack[sp - 1] = apply(op, stack[sp - 1], 0);
+            } else {
+                sp--;
+                stack[sp - 1] = apply(op, stack[sp - 1], stack[sp]);
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * 여러 행의 변수 값에 대해 수식을 평가합니다.
+     *
+     * @param columns {@link #getVariables()} 순서의 열 배열. 길이가 1인 열은 모든 행에 동일하게 적용됩니다.
+     * @param rows    평가할 행 수
+     * @return 행별 결과
+     */
+    public double[] evaluate(double[][] columns, int rows) {
+        if (columns.length != variables.length) {
+            throw new IllegalArgumentException("변수 개수가 일치하지 않습니다: " + columns.length + " != " + variables.length);
+        }
+        for (int v = 0; v < columns.length; v++) {
+            if (columns[v].length != 1 && columns[v].length != rows) {
+                throw new IllegalArgumentException("변수 '" + variables[v] + "'의 길이가 행 수(" + rows + ")와 다릅니다");
+            }
+        }
+
+        double[] out = new double[rows];
+        int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        if (rows < PARALLEL_THRESHOLD) {
+            evaluateBlocks(columns, rows, 0, blocks, out);
+        } else {
+            int tasks = Math.min(blocks, ForkJoinPool.getCommonPoolParallelism() * 4);
+            IntStream.range(0, tasks).parallel().forEach(t ->
+                evaluateBlocks(columns, rows, (int) ((long) t * blocks / tasks), (int) ((long) (t + 1) * blocks / tasks), out));
+        }
+        return out;
+    }
+
+    /**
+     * [fromBlock, toBlock) 범위의 블록을 평가합니다. 스택 버퍼는 범위마다 한 번만 할당합니다.
+     */
+    private void evaluateBlocks(double[][] columns, int rows, int fromBlock, int toBlock, double[] out) {
+        double[][] stack = new double[maxStack][BLOCK_SIZE];
+        for (int block = fromBlock; block < toBlock; block++) {
+            int from = block * BLOCK_SIZE;
+            int len = Math.min(BLOCK_SIZE, rows - from);
+            evaluateBlock(columns, from, len, stack);
+            System.arraycopy(stack[0], 0, out, from, len);
+        }
+    }
+
+    private void evaluateBlock(double[][] columns, int from, int len, double[][] stack) {
+        int sp = 0;
+        for (int i = 0; i < ops.length; i++) {
+            byte op = ops[i];
+            if (op == CONST) {
+                Arrays.fill(stack[sp++], 0, len, constants[operands[i]]);
+            } else if (op == VAR) {
+                double[] column = columns[operands[i]];
+                if (column.length == 1) {
+                    Arrays.fill(stack[sp++], 0, len, column[0]);
+                } else {
+                    System.arraycopy(column, from, stack[sp++], 0, len);
+                }
+            } else if (isUnary(op)) {
+                applyUnary(op, stack[sp - 1], len);
+            } else {
+                sp--;
+                applyBinary(op, stack[sp - 1], stack[sp], len);
+            }
+        }
+    }
+
+    private static void applyUnary(byte op, double[] x, int len) {
+        switch (op) {
+            case NEG:
+                for (int k = 0; k < len; k++) x[k] = -x[k];
+                break;
+            case ABS:
+                for (int k = 0; k < len; k++) x[k] = Math.abs(x[k]);
+                break;
+            case SQRT:
+                for (int k = 0; k < len; k++) x[k] = Math.sqrt(x[k]);
+                break;
+            default:
+                for (int k = 0; k < len; k++) x[k] = apply(op, x[k], 0);
+        }
+    }
+
+    private static void applyBinary(byte op, double[] x, double[] y, int len) {
+        switch (op) {
+            case ADD:
+                for (int k = 0; k < len; k++) x[k] += y[k];
+                break;
+            case SUB:
+                for (int k = 0; k < len; k++) x[k] -= y[k];
+                break;
+            case MUL:
+                for (int k = 0; k < len; k++) x[k] *= y[k];
+                break;
+            case DIV:
+                for (int k = 0; k < len; k++) x[k] /= y[k];
+                break;
+            case MIN:
+                for (int k = 0; k < len; k++) x[k] = Math.min(x[k], y[k]);
+                break;
+            case MAX:
+                for (int k = 0; k < len; k++) x[k] = Math.max(x[k], y[k]);
+                break;
+            default:
+                for (int k = 0; k < len; k++) x[k] = apply(op, x[k], y[k]);
+        }
+    }
+
+    static double apply(byte op, double a, double b) {
+        switch (op) {
+            case ADD: return a + b;
+            case SUB: return a - b;
+            case MUL: return a * b;
+            case DIV: return a / b;
+            case MOD: return a % b;
+            case POW: return Math.pow(a, b);
+            case NEG: return -a;
+            case ABS: return Math.abs(a);
+            case SQRT: return Math.sqrt(a);
+            case SIN: return Math.sin(a);
+            case COS: return Math.cos(a);
+            case TAN: return Math.tan(a);
+            case ASIN: return Math.asin(a);
+            case ACOS: return Math.acos(a);
+            case ATAN: return Math.atan(a);
+            case EXP: return Math.exp(a);
+            case LOG: return Math.log(a);
+            case LOG10: return Math.log10(a);
+            case FLOOR: return Math.floor(a);
+            case CEIL: return Math.ceil(a);
+            case ROUND: return Math.floor(a + 0.5);
+            case MIN: return Math.min(a, b);
+            case MAX: return Math.max(a, b);
+            case ATAN2: return Math.atan2(a, b);
+            case HYPOT: return Math.hypot(a, b);
+            default:
+                throw new IllegalStateException("알 수 없는 명령 코드: " + op);
+        }
+    }
+
+    static boolean isUnary(byte op) {
+        return op >= NEG && op <= ROUND;
+    }
+
+    static int stackEffect(byte op) {
+        if (op == CONST || op == VAR) {
+            return 1;
+        }
+        return isUnary(op) ? 0 : -1;
+    }
+
+    /**
+     * 함수 이름과 인수 개수에 해당하는 명령 코드를 반환합니다. 없으면 -1.
+     */
+    static byte functionOpcode(String name, int arity) {
+        if (arity == 1) {
+            switch (name) {
+                case "abs": return ABS;
+                case "sqrt": return SQRT;
+                case "sin": return SIN;
+                case "cos": return COS;
+                case "tan": return TAN;
+                case "asin": return ASIN;
+                case "acos": return ACOS;
+                case "atan": return ATAN;
+                case "exp": return EXP;
+                case "ln":
+                case "log": return LOG;
+                case "log10": return LOG10;
+                case "floor": return FLOOR;
+                case "ceil": return CEIL;
+                case "round": return ROUND;
+                default: return -1;
+            }
+        }
+        if (arity == 2) {
+            switch (name) {
+                case "min": return MIN;
+                case "max": return MAX;
+                case "pow": return POW;
+                case "atan2": return ATAN2;
+                case "hypot": return HYPOT;
+                default: return -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
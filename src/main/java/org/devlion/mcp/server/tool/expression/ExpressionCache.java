@@ -0,0 +1,65 @@
+package org.devlion.mcp.server.tool.expression;
+
+import org.devlion.mcp.server.jfr.CacheHitEvent;
+import org.devlion.mcp.server.jfr.CacheMissEvent;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 수식 문자열을 키로 컴파일 결과를 보관하는 캐시
+ *
+ * 조회는 잠금 없이 수행되며, 최대 개수를 넘으면 임의의 항목을 제거합니다.
+ * 같은 수식이 반복 호출되는 경우 파싱과 컴파일을 한 번만 수행합니다.
+ */
+public class ExpressionCache {
+
+    /** JFR 이벤트에 기록하는 캐시 이름 */
+    private static final String CACHE_NAME = "expressions";
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CompiledExpression> cache = new ConcurrentHashMap<>();
+
+    public ExpressionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 캐시된 컴파일 결과를 반환하거나, 없으면 컴파일하여 저장합니다.
+     *
+     * @throws IllegalArgumentException 수식 문법이 올바르지 않은 경우 (실패 결과는 캐시하지 않음)
+     */
+    public CompiledExpression get(String expression) {
+        CompiledExpression compiled = cache.get(expression);
+        if (compiled != null) {
+            CacheHitEvent hit = new CacheHitEvent();
+            if (hit.isEnabled()) {
+                hit.cache = CACHE_NAME;
+                hit.entryBytes = expression.length();
+                hit.commit();
+            }
+            return compiled;
+        }
+
+        CacheMissEvent miss = new CacheMissEvent();
+        if (miss.isEnabled()) {
+            miss.cache = CACHE_NAME;
+            miss.commit();
+        }
+
+        compiled = ExpressionCompiler.compile(expression);
+        if (cache.size() >= maxEntries) {
+            Iterator<String> it = cache.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        CompiledExpression existing = cache.putIfAbsent(expression, compiled);
+        return existing != null ? existing : compiled;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
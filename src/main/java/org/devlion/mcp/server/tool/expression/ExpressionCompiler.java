@@ -0,0 +1,351 @@
+package org.devlion.mcp.server.tool.expression;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 산술 수식을 파싱하여 {@link CompiledExpression}으로 컴파일하는 클래스
+ *
+ * 지원 문법: 숫자, 변수, + - * / % ^, 단항 부호, 괄호, 함수 호출, 상수(pi, e).
+ * 상수끼리의 연산은 컴파일 시점에 미리 계산합니다.
+ * 재귀 하강 파서의 스택이 넘치지 않도록 중첩 깊이와 토큰 수를 제한합니다.
+ */
+public final class ExpressionCompiler {
+
+    /** 괄호, 단항 부호, 거듭제곱의 최대 중첩 깊이 */
+    static final int MAX_DEPTH = 256;
+
+    /** 수식 하나의 최대 토큰 수 (숫자, 이름, 연산자, 괄호) */
+    static final int MAX_TOKENS = 4096;
+
+    private final String source;
+    private final Map<String, Integer> variables = new LinkedHashMap<>();
+
+    private final List<Byte> ops = new ArrayList<>();
+    private final List<Integer> operands = new ArrayList<>();
+    private final List<Double> constants = new ArrayList<>();
+
+    private int pos;
+    private int depth;
+    private int tokens;
+
+    private ExpressionCompiler(String source) {
+        this.source = source;
+    }
+
+    /**
+     * 수식을 컴파일합니다.
+     *
+     * @throws IllegalArgumentException 수식 문법이 올바르지 않은 경우
+     */
+    public static CompiledExpression compile(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("수식이 비어 있습니다");
+        }
+        ExpressionCompiler compiler = new ExpressionCompiler(source);
+        Node root = compiler.parseExpression();
+        compiler.skipWhitespace();
+        if (compiler.pos < source.length()) {
+            throw compiler.error("예상하지 못한 문자 '" + source.charAt(compiler.pos) + "'");
+        }
+        compiler.emit(root);
+        return compiler.build();
+    }
+
+    // ---------------------------------------------------------------------
+    // 파서 (재귀 하강)
+    // ---------------------------------------------------------------------
+
+    private Node parseExpression() {
+        Node left = parseTerm();
+        while (true) {
+            if (match('+')) {
+                left = Node.binary(CompiledExpression.ADD, left, parseTerm());
+            } else if (match('-')) {
+                left = Node.binary(CompiledExpression.SUB, left, parseTerm());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Node parseTerm() {
+        Node left = parseUnary();
+        while (true) {
+            if (match('*')) {
+                left = Node.binary(CompiledExpression.MUL, left, parseUnary());
+            } else if (match('/')) {
+                left = Node.binary(CompiledExpression.DIV, left, parseUnary());
+            } else if (match('%')) {
+                left = Node.binary(CompiledExpression.MOD, left, parseUnary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    /**
+     * 중첩된 괄호, 단항 부호, 거듭제곱은 모두 여기를 다시 거치므로 중첩 깊이를 여기서 셉니다.
+     */
+    private Node parseUnary() {
+        if (++depth > MAX_DEPTH) {
+            throw error("수식의 중첩이 너무 깊습니다 (최대 " + MAX_DEPTH + "단계)");
+        }
+        try {
+            if (match('-')) {
+                return Node.unary(CompiledExpression.NEG, parseUnary());
+            }
+            if (match('+')) {
+                return parseUnary();
+            }
+            return parsePower();
+        } finally {
+            depth--;
+        }
+    }
+
+    private Node parsePower() {
+        Node base = parsePrimary();
+        if (match('^')) {
+            // 거듭제곱은 오른쪽 결합
+            return Node.binary(CompiledExpression.POW, base, parseUnary());
+        }
+        return base;
+    }
+
+    private Node parsePrimary() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw error("수식이 예상보다 일찍 끝났습니다");
+        }
+
+        char c = source.charAt(pos);
+        if (c == '(') {
+            pos++;
+            Node inner = parseExpression();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return Node.constant(parseNumber());
+        }
+        if (Character.isLetter(c) || c == '_') {
+            String name = parseIdentifier();
+            if (match('(')) {
+                return parseFunction(name);
+            }
+            switch (name) {
+                case "pi":
+                    return Node.constant(Math.PI);
+                case "e":
+                    return Node.constant(Math.E);
+                default:
+                    int index = variables.computeIfAbsent(name, k -> variables.size());
+                    return Node.variable(index);
+            }
+        }
+        throw error("예상하지 못한 문자 '" + c + "'");
+    }
+
+    private Node parseFunction(String name) {
+        List<Node> args = new ArrayList<>();
+        if (!match(')')) {
+            do {
+                args.add(parseExpression());
+            } while (match(','));
+            expect(')');
+        }
+
+        byte op = CompiledExpression.functionOpcode(name, args.size());
+        if (op < 0) {
+            throw error("지원하지 않는 함수입니다: " + name + "/" + args.size());
+        }
+        return args.size() == 1
+            ? Node.unary(op, args.get(0))
+            : Node.binary(op, args.get(0), args.get(1));
+    }
+
+    private double parseNumber() {
+        countToken();
+        int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            pos++;
+        }
+        if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+            int mark = pos++;
+            if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+                while (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                // 지수가 아니라 상수 e 등이 뒤따르는 경우
+                pos = mark;
+            }
+        }
+        try {
+            return Double.parseDouble(source.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("잘못된 숫자 형식입니다: " + source.substring(start, pos));
+        }
+    }
+
+    private String parseIdentifier() {
+        countToken();
+        int start = pos;
+        while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        return source.substring(start, pos);
+    }
+
+    private boolean match(char expected) {
+        skipWhitespace();
+        if (pos < source.length() && source.charAt(pos) == expected) {
+            countToken();
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void countToken() {
+        if (++tokens > MAX_TOKENS) {
+            throw error("수식이 너무 깁니다 (최대 토큰 " + MAX_TOKENS + "개)");
+        }
+    }
+
+    private void expect(char expected) {
+        if (!match(expected)) {
+            throw error("'" + expected + "'이(가) 필요합니다");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (위치: " + pos + ")");
+    }
+
+    // ---------------------------------------------------------------------
+    // 코드 생성
+    // ---------------------------------------------------------------------
+
+    /**
+     * 트리를 후위 순서로 내보냅니다. "x+x+...+x"처럼 왼쪽으로 깊은 트리도 있으므로 재귀 대신 스택을 씁니다.
+     * (노드, 오른쪽, 왼쪽) 순서로 방문한 목록을 거꾸로 읽으면 후위 순서가 됩니다.
+     */
+    private void emit(Node root) {
+        List<Node> visited = new ArrayList<>();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            visited.add(node);
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+        }
+
+        for (int i = visited.size() - 1; i >= 0; i--) {
+            Node node = visited.get(i);
+            switch (node.kind) {
+                case Node.CONSTANT:
+                    constants.add(node.value);
+                    add(CompiledExpression.CONST, constants.size() - 1);
+                    break;
+                case Node.VARIABLE:
+                    add(CompiledExpression.VAR, node.index);
+                    break;
+                default:
+                    add(node.op, 0);
+            }
+        }
+    }
+
+    private void add(byte op, int operand) {
+        ops.add(op);
+        operands.add(operand);
+    }
+
+    private CompiledExpression build() {
+        byte[] opArray = new byte[ops.size()];
+        int[] operandArray = new int[operands.size()];
+        int depth = 0;
+        int maxDepth = 0;
+        for (int i = 0; i < opArray.length; i++) {
+            opArray[i] = ops.get(i);
+            operandArray[i] = operands.get(i);
+            depth += CompiledExpression.stackEffect(opArray[i]);
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        double[] constantArray = new double[constants.size()];
+        for (int i = 0; i < constantArray.length; i++) {
+            constantArray[i] = constants.get(i);
+        }
+
+        return new CompiledExpression(source, opArray, operandArray, constantArray,
+            variables.keySet().toArray(new String[0]), maxDepth);
+    }
+
+    /**
+     * 구문 트리 노드 (상수 접기를 생성 시점에 수행)
+     */
+    private static final class Node {
+        static final int CONSTANT = 0;
+        static final int VARIABLE = 1;
+        static final int UNARY = 2;
+        static final int BINARY = 3;
+
+        final int kind;
+        final byte op;
+        final double value;
+        final int index;
+        final Node left;
+        final Node right;
+
+        private Node(int kind, byte op, double value, int index, Node left, Node right) {
+            this.kind = kind;
+            this.op = op;
+            this.value = value;
+            this.index = index;
+            this.left = left;
+            this.right = right;
+        }
+
+        static Node constant(double value) {
+            return new Node(CONSTANT, (byte) 0, value, 0, null, null);
+        }
+
+        static Node variable(int index) {
+            return new Node(VARIABLE, (byte) 0, 0, index, null, null);
+        }
+
+        static Node unary(byte op, Node operand) {
+            if (operand.kind == CONSTANT) {
+                return constant(CompiledExpression.apply(op, operand.value, 0));
+            }
+            return new Node(UNARY, op, 0, 0, operand, null);
+        }
+
+        static Node binary(byte op, Node left, Node right) {
+            if (left.kind == CONSTANT && right.kind == CONSTANT) {
+                return constant(CompiledExpression.apply(op, left.value, right.value));
+            }
+            return new Node(BINARY, op, 0, 0, left, right);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.devlion.mcp.server.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 단계별 시간을 메모리 맵 파일에 고정 크기 이진 레코드로 기록하는 추적기
+ *
+ * {@code -Dmcp.trace.file=경로}를 지정하면 활성화됩니다. 파일은 {@code mcp.trace.maxRecords}개 레코드를 담는
+ * 원형 버퍼로, 가득 차면 가장 오래된 레코드부터 덮어씁니다. 기록은 맵 버퍼에 대한 절대 위치 쓰기뿐이며
+ * 디스크 반영은 운영체제에 맡기므로 요청 처리 스레드가 I/O를 기다리지 않습니다.
+ *
+ * 파일 형식은 {@link TraceFormat}을 참고하고, 요약은 {@link TraceSummary}로 확인합니다.
+ */
+public class RequestTracer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTracer.class);
+
+    private static final RequestTracer DISABLED = new RequestTracer();
+
+    /** 파일 하나를 한 번에 매핑할 수 있는 최대 레코드 수 (2GB) */
+    private static final long MAX_CAPACITY = (Integer.MAX_VALUE - TraceFormat.HEADER_SIZE) / TraceFormat.RECORD_SIZE;
+
+    private final Path path;
+    private final long capacity;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private RequestTracer() {
+        this.path = null;
+        this.capacity = 0;
+        this.buffer = null;
+    }
+
+    private RequestTracer(Path path, long capacity) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+
+        Files.deleteIfExists(path);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            long size = TraceFormat.HEADER_SIZE + capacity * TraceFormat.RECORD_SIZE;
+            file.setLength(size);
+            // 매핑은 파일을 닫은 뒤에도 유효
+            this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        buffer.putLong(TraceFormat.HEADER_MAGIC_OFFSET, TraceFormat.MAGIC);
+        buffer.putInt(TraceFormat.HEADER_VERSION_OFFSET, TraceFormat.VERSION);
+        buffer.putInt(TraceFormat.HEADER_RECORD_SIZE_OFFSET, TraceFormat.RECORD_SIZE);
+        buffer.putLong(TraceFormat.HEADER_CAPACITY_OFFSET, capacity);
+    }
+
+    /**
+     * 시스템 속성에 따라 추적기를 만듭니다. 경로가 없거나 파일을 만들 수 없으면 비활성 추적기를 반환합니다.
+     */
+    public static RequestTracer fromSystemProperties() {
+        String file = System.getProperty("mcp.trace.file");
+        if (file == null || file.isBlank()) {
+            return DISABLED;
+        }
+        long capacity = Math.max(1, Math.min(MAX_CAPACITY, Long.getLong("mcp.trace.maxRecords", 1_000_000L)));
+        try {
+            RequestTracer tracer = new RequestTracer(Paths.get(file), capacity);
+            logger.info("요청 추적을 시작합니다: {} (최대 {}건)", file, capacity);
+            return tracer;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("추적 파일을 만들 수 없어 요청 추적을 비활성화합니다: {}", file, e);
+            return DISABLED;
+        }
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    /**
+     * 새 추적 구간 객체를 만듭니다. 비활성 상태면 null을 반환합니다.
+     */
+    public TraceSpan newSpan() {
+        return isEnabled() ? new TraceSpan() : null;
+    }
+
+    /**
+     * 완료된 요청을 기록합니다.
+     */
+    public void record(TraceSpan span) {
+        if (!isEnabled()) {
+            return;
+        }
+        long seq = sequence.getAndIncrement();
+        int offset = (int) (TraceFormat.HEADER_SIZE + (seq % capacity) * TraceFormat.RECORD_SIZE);
+
+        // 쓰는 도중 읽히지 않도록 순번은 마지막에 기록 (0은 빈 슬롯)
+        buffer.putLong(offset + TraceFormat.SEQUENCE_OFFSET, 0L);
+        buffer.putLong(offset + TraceFormat.START_MILLIS_OFFSET, span.startMillis);
+        buffer.putInt(offset + TraceFormat.PARSE_OFFSET, micros(span.parsed - span.received));
+        buffer.putInt(offset + TraceFormat.QUEUE_OFFSET, micros(span.dispatched - span.parsed));
+        buffer.putInt(offset + TraceFormat.HANDLER_OFFSET, micros(span.handled - span.dispatched));
+        buffer.putInt(offset + TraceFormat.SERIALIZE_OFFSET, micros(span.serialized - span.handled));
+        buffer.putInt(offset + TraceFormat.WRITE_OFFSET, micros(span.written - span.serialized));
+        buffer.putInt(offset + TraceFormat.REQUEST_CHARS_OFFSET, span.requestChars);
+        buffer.put(offset + TraceFormat.STATUS_OFFSET, span.status);
+        writeLabel(offset, span.method, span.tool);
+        buffer.putLong(offset + TraceFormat.SEQUENCE_OFFSET, seq + 1);
+    }
+
+    /**
+     * "메서드" 또는 "메서드:도구"를 문자열을 만들지 않고 레코드에 씁니다. 길면 잘립니다.
+     */
+    private void writeLabel(int offset, String method, String tool) {
+        int position = offset + TraceFormat.LABEL_OFFSET;
+        int length = 0;
+        length = putAscii(position, length, method == null ? "?" : method);
+        if (tool != null) {
+            length = putAscii(position, length, ":");
+            length = putAscii(position, length, tool);
+        }
+        buffer.put(offset + TraceFormat.LABEL_LENGTH_OFFSET, (byte) length);
+    }
+
+    private int putAscii(int position, int length, String text) {
+        for (int i = 0; i < text.length() && length < TraceFormat.LABEL_MAX_BYTES; i++) {
+            char c = text.charAt(i);
+            buffer.put(position + length++, c < 0x80 ? (byte) c : (byte) '?');
+        }
+        return length;
+    }
+
+    /**
+     * 나노초 구간을 마이크로초로 반올림합니다. int 범위를 넘으면 최대값으로 고정
+     */
+    private static int micros(long nanos) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, (nanos + 500) / 1000));
+    }
+
+    @Override
+    public void close() {
+        if (isEnabled()) {
+            buffer.force();
+            logger.info("요청 추적을 종료합니다: {} ({}건)", path, sequence.get());
+        }
+    }
+}
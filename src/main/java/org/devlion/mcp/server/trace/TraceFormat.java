@@ -0,0 +1,60 @@
+package org.devlion.mcp.server.trace;
+
+/**
+ * 추적 파일 형식 (빅 엔디언)
+ *
+ * <pre>
+ * 헤더 (64바이트)
+ *   0  long  매직 "MCPTRC01"
+ *   8  int   버전
+ *   12 int   레코드 크기 (64)
+ *   16 long  레코드 수 (원형 버퍼 용량)
+ *
+ * 레코드 (64바이트)
+ *   0  long  순번 + 1 (0이면 빈 슬롯)
+ *   8  long  수신 시각 (epoch ms)
+ *   16 int   파싱 (us)
+ *   20 int   대기: 파싱 완료 ~ 핸들러 시작 (us)
+ *   24 int   핸들러 실행 (us)
+ *   28 int   직렬화 (us)
+ *   32 int   출력 및 플러시 (us)
+ *   36 int   요청 길이 (문자 수)
+ *   40 byte  상태 (0 정상, 1 오류, 2 알림, 3 파싱 실패)
+ *   41 byte  레이블 길이
+ *   42 22바이트 레이블 ("메서드" 또는 "메서드:도구", ASCII)
+ * </pre>
+ *
+ * 단계별 시간은 가장 가까운 마이크로초로 반올림해 기록하며, int 범위(약 35분)를 넘으면 최대값으로 기록됩니다.
+ * 버전 1은 나노초 단위였고 약 2.1초에서 잘렸습니다.
+ */
+final class TraceFormat {
+
+    static final long MAGIC = 0x4D43505452433031L; // "MCPTRC01"
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 64;
+    static final int HEADER_MAGIC_OFFSET = 0;
+    static final int HEADER_VERSION_OFFSET = 8;
+    static final int HEADER_RECORD_SIZE_OFFSET = 12;
+    static final int HEADER_CAPACITY_OFFSET = 16;
+
+    static final int RECORD_SIZE = 64;
+    static final int SEQUENCE_OFFSET = 0;
+    static final int START_MILLIS_OFFSET = 8;
+    static final int PARSE_OFFSET = 16;
+    static final int QUEUE_OFFSET = 20;
+    static final int HANDLER_OFFSET = 24;
+    static final int SERIALIZE_OFFSET = 28;
+    static final int WRITE_OFFSET = 32;
+    static final int REQUEST_CHARS_OFFSET = 36;
+    static final int STATUS_OFFSET = 40;
+    static final int LABEL_LENGTH_OFFSET = 41;
+    static final int LABEL_OFFSET = 42;
+    static final int LABEL_MAX_BYTES = RECORD_SIZE - LABEL_OFFSET;
+
+    /** 단계 이름 (레코드의 int 필드 순서) */
+    static final String[] PHASES = {"parse", "queue", "handler", "serialize", "write"};
+
+    private TraceFormat() {
+    }
+}
@@ -0,0 +1,115 @@
+package org.devlion.mcp.server.trace;
+
+/**
+ * 요청 하나의 단계별 시각
+ *
+ * 연결마다 하나를 만들어 요청마다 재사용하므로 추적 중에도 요청당 객체를 할당하지 않습니다.
+ * 단계: 수신 → 파싱 → (대기) → 핸들러 실행 → 직렬화 → 출력
+ */
+public final class TraceSpan {
+
+    /** 응답을 보낸 정상 요청 */
+    public static final byte STATUS_OK = 0;
+    /** 오류 응답 */
+    public static final byte STATUS_ERROR = 1;
+    /** 응답이 없는 알림 */
+    public static final byte STATUS_NOTIFICATION = 2;
+    /** 파싱 실패 */
+    public static final byte STATUS_PARSE_ERROR = 3;
+
+    long startMillis;
+    long received;
+    long parsed;
+    long dispatched;
+    long handled;
+    long serialized;
+    long written;
+    int requestChars;
+    byte status;
+    String method;
+    String tool;
+
+    /**
+     * 요청 한 줄을 받은 시점
+     */
+    public void begin(int requestChars) {
+        this.startMillis = System.currentTimeMillis();
+        this.received = System.nanoTime();
+        this.requestChars = requestChars;
+        this.parsed = received;
+        this.dispatched = received;
+        this.handled = received;
+        this.serialized = received;
+        this.written = received;
+        this.status = STATUS_OK;
+        this.method = null;
+        this.tool = null;
+    }
+
+    public void parsed() {
+        this.parsed = System.nanoTime();
+    }
+
+    public void dispatched() {
+        this.dispatched = System.nanoTime();
+    }
+
+    /**
+     * 핸들러 실행이 끝난 시점
+     *
+     * @param method 메서드 이름
+     * @param tool   tools/call이면 도구 이름, 아니면 null
+     */
+    public void handled(String method, String tool, byte status) {
+        long now = System.nanoTime();
+        this.handled = now;
+        this.serialized = now;
+        this.written = now;
+        this.method = method;
+        this.tool = tool;
+        this.status = status;
+    }
+
+    public void serialized() {
+        this.serialized = System.nanoTime();
+        this.written = serialized;
+    }
+
+    public void written() {
+        this.written = System.nanoTime();
+    }
+
+    /**
+     * 지금까지의 단계를 담은 새 구간. 연결의 구간을 재사용하는 동안 요청 하나를 다른 스레드로 넘길 때 사용합니다.
+     */
+    public TraceSpan copy() {
+        TraceSpan copy = new TraceSpan();
+        copy.startMillis = startMillis;
+        copy.received = received;
+        copy.requestChars = requestChars;
+        copy.parsed = parsed;
+        copy.dispatched = dispatched;
+        copy.handled = handled;
+        copy.serialized = serialized;
+        copy.written = written;
+        copy.status = status;
+        copy.method = method;
+        copy.tool = tool;
+        return copy;
+    }
+
+    /**
+     * 파싱에 실패한 요청으로 표시합니다. 이후 단계는 오류 응답 전송에 쓰입니다.
+     */
+    public void parseFailed() {
+        long now = System.nanoTime();
+        this.parsed = now;
+        this.dispatched = now;
+        this.handled = now;
+        this.serialized = now;
+        this.written = now;
+        this.status = STATUS_PARSE_ERROR;
+        this.method = "(parse_error)";
+        this.tool = null;
+    }
+}
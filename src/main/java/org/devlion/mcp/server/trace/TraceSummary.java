@@ -0,0 +1,215 @@
+package org.devlion.mcp.server.trace;
+
+import org.devlion.mcp.server.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * 추적 파일 요약 도구
+ *
+ * 메서드(도구)별 건수, 오류 수, 단계별 p50/p99와 전체 지연 시간을 출력하고, 가장 느린 요청들의 단계별 시간을 보여 줍니다.
+ *
+ * <pre>
+ * java -cp target/classes org.devlion.mcp.server.trace.TraceSummary logs/mcp-trace.bin [--top 20] [--label tools/call:calculator]
+ * </pre>
+ */
+public class TraceSummary {
+
+    private static final String[] STATUS_NAMES = {"ok", "error", "notification", "parse_error"};
+
+    /**
+     * 읽어 들인 레코드 하나
+     */
+    static final class Record {
+        long sequence;
+        long startMillis;
+        /** 단계별 시간 (마이크로초) */
+        final int[] phases = new int[TraceFormat.PHASES.length];
+        int requestChars;
+        byte status;
+        String label;
+
+        long totalNanos() {
+            long total = 0;
+            for (int phase : phases) {
+                total += phase;
+            }
+            return total * 1000;
+        }
+    }
+
+    /**
+     * 레이블 하나의 집계
+     */
+    private static final class Group {
+        long count;
+        long errors;
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram[] phases = new LatencyHistogram[TraceFormat.PHASES.length];
+
+        Group() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        void add(Record record) {
+            count++;
+            if (record.status == TraceSpan.STATUS_ERROR || record.status == TraceSpan.STATUS_PARSE_ERROR) {
+                errors++;
+            }
+            total.record(record.totalNanos());
+            for (int i = 0; i < phases.length; i++) {
+                phases[i].record(record.phases[i] * 1000L);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("사용법: TraceSummary <추적 파일> [--top N] [--label 레이블]");
+            System.exit(1);
+        }
+
+        Path path = Paths.get(args[0]);
+        int top = 10;
+        String labelFilter = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--top":
+                    top = Integer.parseInt(args[++i]);
+                    break;
+                case "--label":
+                    labelFilter = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+            }
+        }
+
+        List<Record> records = read(path);
+        if (labelFilter != null) {
+            String filter = labelFilter;
+            records.removeIf(record -> !record.label.equals(filter));
+        }
+        print(records, top, System.out);
+    }
+
+    /**
+     * 추적 파일의 유효한 레코드를 순번 순서로 읽습니다.
+     */
+    static List<Record> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < TraceFormat.HEADER_SIZE || buffer.getLong(TraceFormat.HEADER_MAGIC_OFFSET) != TraceFormat.MAGIC) {
+                throw new IOException("추적 파일 형식이 아닙니다: " + path);
+            }
+            int version = buffer.getInt(TraceFormat.HEADER_VERSION_OFFSET);
+            int recordSize = buffer.getInt(TraceFormat.HEADER_RECORD_SIZE_OFFSET);
+            if (version != TraceFormat.VERSION || recordSize != TraceFormat.RECORD_SIZE) {
+                throw new IOException("지원하지 않는 추적 파일 버전입니다: " + version);
+            }
+            long capacity = buffer.getLong(TraceFormat.HEADER_CAPACITY_OFFSET);
+
+            List<Record> records = new ArrayList<>();
+            byte[] label = new byte[TraceFormat.LABEL_MAX_BYTES];
+            for (long slot = 0; slot < capacity; slot++) {
+                int offset = (int) (TraceFormat.HEADER_SIZE + slot * TraceFormat.RECORD_SIZE);
+                long sequence = buffer.getLong(offset + TraceFormat.SEQUENCE_OFFSET);
+                if (sequence == 0) {
+                    continue;
+                }
+
+                Record record = new Record();
+                record.sequence = sequence - 1;
+                record.startMillis = buffer.getLong(offset + TraceFormat.START_MILLIS_OFFSET);
+                for (int i = 0; i < record.phases.length; i++) {
+                    record.phases[i] = buffer.getInt(offset + TraceFormat.PARSE_OFFSET + i * Integer.BYTES);
+                }
+                record.requestChars = buffer.getInt(offset + TraceFormat.REQUEST_CHARS_OFFSET);
+                record.status = buffer.get(offset + TraceFormat.STATUS_OFFSET);
+                int length = Math.min(buffer.get(offset + TraceFormat.LABEL_LENGTH_OFFSET), TraceFormat.LABEL_MAX_BYTES);
+                buffer.get(offset + TraceFormat.LABEL_OFFSET, label, 0, length);
+                record.label = new String(label, 0, length, StandardCharsets.US_ASCII);
+                records.add(record);
+            }
+            records.sort(Comparator.comparingLong(record -> record.sequence));
+            return records;
+        }
+    }
+
+    static void print(List<Record> records, int top, PrintStream out) {
+        if (records.isEmpty()) {
+            out.println("레코드가 없습니다");
+            return;
+        }
+
+        Map<String, Group> groups = new TreeMap<>();
+        Group all = new Group();
+        PriorityQueue<Record> slowest = new PriorityQueue<>(Comparator.comparingLong(Record::totalNanos));
+        for (Record record : records) {
+            groups.computeIfAbsent(record.label, k -> new Group()).add(record);
+            all.add(record);
+            slowest.add(record);
+            if (slowest.size() > top) {
+                slowest.poll();
+            }
+        }
+
+        Record first = records.get(0);
+        Record last = records.get(records.size() - 1);
+        out.printf("레코드 %d건 (순번 %d ~ %d, %s ~ %s)%n%n", records.size(), first.sequence, last.sequence,
+            Instant.ofEpochMilli(first.startMillis), Instant.ofEpochMilli(last.startMillis));
+
+        StringBuilder header = new StringBuilder(String.format("%-32s %8s %6s %10s %10s %10s", "레이블", "건수", "오류", "전체p50", "전체p99", "전체max"));
+        for (String phase : TraceFormat.PHASES) {
+            header.append(String.format(" %18s", phase + " p50/p99"));
+        }
+        out.println(header + "   (단위: us)");
+        groups.forEach((label, group) -> printGroup(label, group, out));
+        printGroup("합계", all, out);
+
+        List<Record> slow = new ArrayList<>(slowest);
+        slow.sort(Comparator.comparingLong(Record::totalNanos).reversed());
+        out.printf("%n가장 느린 요청 %d건%n", slow.size());
+        for (Record record : slow) {
+            StringBuilder line = new StringBuilder(String.format("#%-8d %s %-32s %-12s %8d자 전체 %10.1f",
+                record.sequence, Instant.ofEpochMilli(record.startMillis), record.label,
+                STATUS_NAMES[Math.max(0, Math.min(STATUS_NAMES.length - 1, record.status))],
+                record.requestChars, micros(record.totalNanos())));
+            for (int i = 0; i < TraceFormat.PHASES.length; i++) {
+                line.append(String.format("  %s %d", TraceFormat.PHASES[i], record.phases[i]));
+            }
+            out.println(line);
+        }
+    }
+
+    private static void printGroup(String label, Group group, PrintStream out) {
+        StringBuilder line = new StringBuilder(String.format("%-32s %8d %6d %10.1f %10.1f %10.1f", label, group.count, group.errors,
+            micros(group.total.getValueAtPercentile(50)), micros(group.total.getValueAtPercentile(99)),
+            micros(group.total.getValueAtPercentile(100))));
+        for (LatencyHistogram phase : group.phases) {
+            line.append(String.format(" %18s", String.format("%.1f/%.1f",
+                micros(phase.getValueAtPercentile(50)), micros(phase.getValueAtPercentile(99)))));
+        }
+        out.println(line);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
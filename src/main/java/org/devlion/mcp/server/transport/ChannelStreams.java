@@ -0,0 +1,64 @@
+package org.devlion.mcp.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 소켓 채널 입출력 스트림
+ *
+ * {@link java.nio.channels.Channels}의 스트림은 읽기와 쓰기가 채널의 같은 잠금을 잡기 때문에, 한 스레드가 읽기를
+ * 기다리는 동안 다른 스레드가 쓰지 못합니다. 여기서는 채널의 read/write를 직접 호출하여 양방향을 동시에 씁니다.
+ */
+public final class ChannelStreams {
+
+    private ChannelStreams() {
+    }
+
+    public static InputStream in(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                return channel.read(ByteBuffer.wrap(buffer, offset, length));
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    public static OutputStream out(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer, offset, length);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
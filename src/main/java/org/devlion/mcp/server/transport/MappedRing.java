@@ -0,0 +1,123 @@
+package org.devlion.mcp.server.transport;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+/**
+ * 매핑된 파일 안의 단방향 링 버퍼 (생산자 하나, 소비자 하나)
+ *
+ * 쓰기 위치와 읽기 위치는 계속 증가하는 바이트 수이며, 서로 다른 캐시 라인에 둡니다. 생산자는 데이터를 복사한 뒤
+ * 쓰기 위치를 release로 올리고, 소비자는 acquire로 읽으므로 잠금이나 시스템 호출 없이 주고받습니다.
+ * 응답 한 줄을 한 번에 쓰면 소비자는 그 줄을 한 번에 봅니다.
+ */
+final class MappedRing {
+
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /** 링 헤더: 쓰기 위치, 생산자 종료 표시, (다음 캐시 라인) 읽기 위치 */
+    static final int WRITE_OFFSET = 0;
+    static final int CLOSED_OFFSET = 8;
+    static final int READ_OFFSET = 64;
+
+    private final MappedByteBuffer buffer;
+    private final int header;
+    private final int data;
+    private final int capacity;
+    private final int mask;
+
+    /** 자기 쪽 위치의 지역 사본. 상대 위치만 공유 메모리에서 읽음 */
+    private long localWrite;
+    private long localRead;
+
+    MappedRing(MappedByteBuffer buffer, int header, int data, int capacity) {
+        this.buffer = buffer;
+        this.header = header;
+        this.data = data;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        attach();
+    }
+
+    /**
+     * 공유 메모리의 현재 위치를 다시 읽습니다. 클라이언트가 세션을 차지한 직후에 호출합니다.
+     */
+    void attach() {
+        this.localWrite = (long) LONG.getAcquire(buffer, header + WRITE_OFFSET);
+        this.localRead = (long) LONG.getAcquire(buffer, header + READ_OFFSET);
+    }
+
+    /**
+     * 빈 자리만큼 씁니다. 가득 차 있으면 0을 반환합니다.
+     */
+    int write(byte[] source, int offset, int length) {
+        long read = (long) LONG.getAcquire(buffer, header + READ_OFFSET);
+        int free = (int) (capacity - (localWrite - read));
+        int count = Math.min(free, length);
+        if (count <= 0) {
+            return 0;
+        }
+        copyIn(localWrite, source, offset, count);
+        localWrite += count;
+        LONG.setRelease(buffer, header + WRITE_OFFSET, localWrite);
+        return count;
+    }
+
+    /**
+     * 쌓인 만큼 읽습니다. 비어 있으면 0을 반환합니다.
+     */
+    int read(byte[] target, int offset, int length) {
+        long write = (long) LONG.getAcquire(buffer, header + WRITE_OFFSET);
+        int available = (int) (write - localRead);
+        int count = Math.min(available, length);
+        if (count <= 0) {
+            return 0;
+        }
+        copyOut(localRead, target, offset, count);
+        localRead += count;
+        LONG.setRelease(buffer, header + READ_OFFSET, localRead);
+        return count;
+    }
+
+    private void copyIn(long position, byte[] source, int offset, int length) {
+        int index = (int) (position & mask);
+        int first = Math.min(length, capacity - index);
+        buffer.put(data + index, source, offset, first);
+        if (first < length) {
+            buffer.put(data, source, offset + first, length - first);
+        }
+    }
+
+    private void copyOut(long position, byte[] target, int offset, int length) {
+        int index = (int) (position & mask);
+        int first = Math.min(length, capacity - index);
+        buffer.get(data + index, target, offset, first);
+        if (first < length) {
+            buffer.get(data, target, offset + first, length - first);
+        }
+    }
+
+    /**
+     * 생산자가 더 쓰지 않음을 표시합니다. 소비자는 남은 데이터를 모두 읽은 뒤 입력 끝으로 봅니다.
+     */
+    void close() {
+        INT.setRelease(buffer, header + CLOSED_OFFSET, 1);
+    }
+
+    boolean isClosed() {
+        return (int) INT.getAcquire(buffer, header + CLOSED_OFFSET) != 0;
+    }
+
+    /**
+     * 다음 세션을 위해 비웁니다. 양쪽 모두 이 링을 쓰지 않을 때만 호출합니다.
+     */
+    void reset() {
+        localWrite = 0;
+        localRead = 0;
+        LONG.setRelease(buffer, header + WRITE_OFFSET, 0L);
+        LONG.setRelease(buffer, header + READ_OFFSET, 0L);
+        INT.setRelease(buffer, header + CLOSED_OFFSET, 0);
+    }
+}
@@ -0,0 +1,19 @@
+package org.devlion.mcp.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 연결 하나의 입출력 스트림으로 세션을 처리하는 쪽
+ *
+ * 서버({@code McpServerMain#serve})와 게이트웨이가 같은 리스너를 쓸 수 있도록 분리한 인터페이스입니다.
+ */
+@FunctionalInterface
+public interface SessionHandler {
+
+    /**
+     * 입력이 끝날 때까지 세션을 처리합니다.
+     */
+    void serve(InputStream in, OutputStream out) throws IOException;
+}
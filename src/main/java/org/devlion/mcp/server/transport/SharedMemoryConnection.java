@@ -0,0 +1,78 @@
+package org.devlion.mcp.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * 같은 호스트의 클라이언트가 공유 메모리 전송으로 서버에 연결한 세션
+ *
+ * 요청은 {@link #getOutputStream()}에 한 줄씩 쓰고, 응답은 {@link #getInputStream()}에서 한 줄씩 읽습니다.
+ * 표준입출력과 같은 줄 단위 JSON-RPC이지만 파이프 대신 매핑된 파일의 링 버퍼로 주고받습니다.
+ * 서버는 한 번에 세션 하나를 받으며, 세션이 끝나면 다음 클라이언트가 연결할 수 있습니다.
+ */
+public final class SharedMemoryConnection implements AutoCloseable {
+
+    private final SharedMemoryFile file;
+    private final InputStream in;
+    private final OutputStream out;
+    private boolean closed;
+
+    private SharedMemoryConnection(SharedMemoryFile file, long serverPid) {
+        this.file = file;
+        // 파일을 연 뒤 서버가 이전 세션을 정리했을 수 있으므로 차지한 뒤의 위치를 사용
+        file.requests.attach();
+        file.responses.attach();
+        this.in = SharedMemoryFile.in(file.responses, () -> !SharedMemoryFile.isAlive(serverPid), false);
+        this.out = SharedMemoryFile.out(file.requests, () -> !SharedMemoryFile.isAlive(serverPid));
+    }
+
+    /**
+     * 서버가 다른 세션을 처리하고 있으면 timeoutMillis까지 기다립니다.
+     */
+    public static SharedMemoryConnection connect(Path path, long timeoutMillis) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long self = ProcessHandle.current().pid();
+        while (true) {
+            SharedMemoryFile file = SharedMemoryFile.open(path);
+            long serverPid = file.getPid(SharedMemoryFile.SERVER_PID_OFFSET);
+            if (!SharedMemoryFile.isAlive(serverPid)) {
+                throw new IOException("공유 메모리 서버(pid " + serverPid + ")가 실행 중이 아닙니다: " + path);
+            }
+            if (file.getInt(SharedMemoryFile.STATE_OFFSET) == SharedMemoryFile.STATE_READY && file.claimClient(self)) {
+                return new SharedMemoryConnection(file, serverPid);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("공유 메모리 서버가 다른 세션을 처리하고 있습니다: " + path);
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("공유 메모리 서버 연결을 기다리다 중단되었습니다", e);
+            }
+        }
+    }
+
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * 요청 방향을 닫고 서버에 세션이 끝났음을 알립니다. 남은 응답은 읽지 않습니다.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        file.requests.close();
+        file.setInt(SharedMemoryFile.CLIENT_DONE_OFFSET, 1);
+    }
+}
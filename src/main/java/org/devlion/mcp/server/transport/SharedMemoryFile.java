@@ -0,0 +1,212 @@
+package org.devlion.mcp.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 공유 메모리 전송 파일의 배치
+ *
+ * <pre>
+ *   0  magic (long), 8 version (int), 12 링 용량 (int)
+ *  64  서버 pid (long), 72 클라이언트 pid (long, 0이면 비어 있음), 80 상태 (int), 84 클라이언트 종료 (int)
+ * 128  클라이언트 → 서버 링 헤더, 256 서버 → 클라이언트 링 헤더
+ * 384  클라이언트 → 서버 데이터, 384 + 용량: 서버 → 클라이언트 데이터
+ * </pre>
+ *
+ * 값은 모두 네이티브 바이트 순서입니다. 같은 호스트의 프로세스끼리만 쓰므로 바이트 순서를 맞출 필요가 없습니다.
+ */
+final class SharedMemoryFile {
+
+    static final long MAGIC = 0x4D435053484D3031L; // "MCPSHM01"
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 8;
+    static final int CAPACITY_OFFSET = 12;
+    static final int SERVER_PID_OFFSET = 64;
+    static final int CLIENT_PID_OFFSET = 72;
+    static final int STATE_OFFSET = 80;
+    static final int CLIENT_DONE_OFFSET = 84;
+    static final int REQUEST_RING_OFFSET = 128;
+    static final int RESPONSE_RING_OFFSET = 256;
+    static final int DATA_OFFSET = 384;
+
+    /** 서버가 세션을 정리하는 중이거나 아직 준비되지 않음 */
+    static final int STATE_BUSY = 0;
+    /** 클라이언트 연결을 기다리는 중 */
+    static final int STATE_READY = 1;
+
+    final MappedByteBuffer buffer;
+    final int capacity;
+    final MappedRing requests;
+    final MappedRing responses;
+
+    private SharedMemoryFile(MappedByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.requests = new MappedRing(buffer, REQUEST_RING_OFFSET, DATA_OFFSET, capacity);
+        this.responses = new MappedRing(buffer, RESPONSE_RING_OFFSET, DATA_OFFSET + capacity, capacity);
+    }
+
+    /**
+     * 새 파일을 만들고 헤더를 씁니다 (서버).
+     */
+    static SharedMemoryFile create(Path path, int capacity) throws IOException {
+        MappedByteBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            long size = DATA_OFFSET + 2L * capacity;
+            file.setLength(size);
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        MappedRing.LONG.setRelease(buffer, SERVER_PID_OFFSET, ProcessHandle.current().pid());
+        // magic을 마지막에 써서 클라이언트가 쓰다 만 헤더를 보지 않게 함
+        MappedRing.LONG.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+        return new SharedMemoryFile(buffer, capacity);
+    }
+
+    /**
+     * 서버가 만든 파일을 엽니다 (클라이언트).
+     */
+    static SharedMemoryFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < DATA_OFFSET) {
+                throw new IOException("공유 메모리 파일이 아닙니다: " + path);
+            }
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+        }
+        if ((long) MappedRing.LONG.getAcquire(buffer, MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("공유 메모리 파일이 아니거나 아직 준비되지 않았습니다: " + path);
+        }
+        if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("공유 메모리 파일 버전이 다릅니다: " + buffer.getInt(VERSION_OFFSET));
+        }
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        if (buffer.capacity() < DATA_OFFSET + 2L * capacity) {
+            throw new IOException("공유 메모리 파일 크기가 맞지 않습니다: " + path);
+        }
+        return new SharedMemoryFile(buffer, capacity);
+    }
+
+    /**
+     * 파일에 기록된 서버가 아직 살아 있는지 확인합니다.
+     */
+    static boolean isServed(Path path) {
+        try {
+            SharedMemoryFile existing = open(path);
+            long pid = existing.getPid(SERVER_PID_OFFSET);
+            return pid != ProcessHandle.current().pid() && isAlive(pid);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    long getPid(int offset) {
+        return (long) MappedRing.LONG.getAcquire(buffer, offset);
+    }
+
+    void setPid(int offset, long pid) {
+        MappedRing.LONG.setRelease(buffer, offset, pid);
+    }
+
+    boolean claimClient(long pid) {
+        return MappedRing.LONG.compareAndSet(buffer, CLIENT_PID_OFFSET, 0L, pid);
+    }
+
+    int getInt(int offset) {
+        return (int) MappedRing.INT.getAcquire(buffer, offset);
+    }
+
+    void setInt(int offset, int value) {
+        MappedRing.INT.setRelease(buffer, offset, value);
+    }
+
+    static boolean isAlive(long pid) {
+        return pid != 0 && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * 링에서 읽는 스트림. 생산자가 닫고 남은 데이터를 다 읽으면 입력 끝입니다.
+     * 상대가 사라졌을 때(peerGone) eofOnPeerExit이면 입력 끝으로, 아니면 오류로 처리합니다.
+     */
+    static InputStream in(MappedRing ring, BooleanSupplier peerGone, boolean eofOnPeerExit) {
+        return new InputStream() {
+            private final SpinParkWaiter waiter = new SpinParkWaiter();
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                waiter.reset();
+                while (true) {
+                    int read = ring.read(target, offset, length);
+                    if (read > 0) {
+                        return read;
+                    }
+                    if (ring.isClosed()) {
+                        // 닫기 직전에 쓴 데이터가 남았을 수 있음
+                        read = ring.read(target, offset, length);
+                        return read > 0 ? read : -1;
+                    }
+                    if (waiter.idle() && peerGone.getAsBoolean()) {
+                        if (eofOnPeerExit) {
+                            return -1;
+                        }
+                        throw new IOException("상대 프로세스가 종료되었습니다");
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 링에 쓰는 스트림. 링이 가득 차면 상대가 읽을 때까지 기다립니다. 닫으면 생산자 종료를 표시합니다.
+     */
+    static OutputStream out(MappedRing ring, BooleanSupplier peerGone) {
+        return new OutputStream() {
+            private final SpinParkWaiter waiter = new SpinParkWaiter();
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] source, int offset, int length) throws IOException {
+                waiter.reset();
+                while (length > 0) {
+                    int written = ring.write(source, offset, length);
+                    if (written > 0) {
+                        offset += written;
+                        length -= written;
+                        waiter.reset();
+                        continue;
+                    }
+                    if (waiter.idle() && peerGone.getAsBoolean()) {
+                        throw new IOException("상대 프로세스가 종료되었거나 연결을 닫았습니다");
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+                ring.close();
+            }
+        };
+    }
+}
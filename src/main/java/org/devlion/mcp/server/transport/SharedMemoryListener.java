@@ -0,0 +1,129 @@
+package org.devlion.mcp.server.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * 같은 호스트의 클라이언트와 매핑된 파일의 링 버퍼로 주고받는 리스너
+ *
+ * 파이프나 소켓과 달리 메시지마다 시스템 호출과 커널 복사가 없고, 양쪽이 같은 페이지를 읽고 씁니다.
+ * 파일 하나에 방향별 링 버퍼 두 개를 두며({@code mcp.shm.capacity}, 기본값 1MB, 2의 거듭제곱으로 올림),
+ * 한 번에 세션 하나를 처리합니다. 클라이언트는 {@link SharedMemoryConnection}으로 연결합니다.
+ *
+ * 연결 절차: 서버가 상태를 READY로 두면 클라이언트가 클라이언트 pid 자리를 0에서 자기 pid로 CAS하여 세션을 차지합니다.
+ * 세션이 끝나면(클라이언트가 종료를 표시하거나 클라이언트 프로세스가 죽으면) 서버가 링을 비우고 다시 READY로 둡니다.
+ * 서버가 죽으면 클라이언트는 서버 pid로 이를 알아채고 오류를 받습니다. 서버는 시작할 때 남은 파일을 지우고 새로 만들며,
+ * 파일에 기록된 서버가 아직 살아 있으면 시작하지 않습니다.
+ */
+public class SharedMemoryListener implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SharedMemoryListener.class);
+
+    private final SessionHandler handler;
+    private final Path path;
+    private final SharedMemoryFile file;
+    private volatile boolean open = true;
+
+    public SharedMemoryListener(SessionHandler handler, Path path) throws IOException {
+        this.handler = handler;
+        this.path = path;
+
+        if (Files.exists(path)) {
+            if (SharedMemoryFile.isServed(path)) {
+                throw new IOException("이미 실행 중인 서버가 있습니다: " + path);
+            }
+            // 남은 파일에 매핑한 클라이언트가 새 세션과 섞이지 않도록 새 파일로 바꿈
+            Files.delete(path);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = SharedMemoryFile.create(path, capacity());
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+
+    private static int capacity() {
+        int requested = Math.max(4096, Integer.getInteger("mcp.shm.capacity", 1 << 20));
+        int capacity = Integer.highestOneBit(requested);
+        return capacity == requested ? capacity : capacity << 1;
+    }
+
+    /**
+     * 리스너가 닫힐 때까지 세션을 하나씩 처리합니다.
+     */
+    public void run() throws IOException {
+        SpinParkWaiter waiter = new SpinParkWaiter();
+        while (open) {
+            file.setInt(SharedMemoryFile.STATE_OFFSET, SharedMemoryFile.STATE_READY);
+
+            // 클라이언트를 기다리는 동안은 바쁜 대기 없이 잠듦
+            long client;
+            while ((client = file.getPid(SharedMemoryFile.CLIENT_PID_OFFSET)) == 0 && open) {
+                waiter.idle();
+            }
+            waiter.reset();
+            if (!open) {
+                break;
+            }
+            file.setInt(SharedMemoryFile.STATE_OFFSET, SharedMemoryFile.STATE_BUSY);
+            serve(client);
+            awaitClientDone(client);
+
+            // 다음 세션 준비. 클라이언트 pid를 마지막에 비워야 새 클라이언트가 정리 중인 링을 차지하지 않음
+            file.requests.reset();
+            file.responses.reset();
+            file.setInt(SharedMemoryFile.CLIENT_DONE_OFFSET, 0);
+            file.setPid(SharedMemoryFile.CLIENT_PID_OFFSET, 0);
+        }
+    }
+
+    private void serve(long client) {
+        logger.debug("공유 메모리 세션 시작 (클라이언트 pid {})", client);
+        OutputStream out = SharedMemoryFile.out(file.responses, () -> isClientGone(client));
+        try {
+            handler.serve(SharedMemoryFile.in(file.requests, () -> isClientGone(client), true), out);
+        } catch (IOException e) {
+            logger.debug("공유 메모리 세션 연결이 끊어졌습니다", e);
+        } catch (RuntimeException e) {
+            logger.error("공유 메모리 세션 처리 중 오류가 발생했습니다", e);
+        } finally {
+            file.responses.close();
+        }
+    }
+
+    private boolean isClientGone(long client) {
+        return file.getInt(SharedMemoryFile.CLIENT_DONE_OFFSET) != 0 || !SharedMemoryFile.isAlive(client);
+    }
+
+    /**
+     * 클라이언트가 남은 응답을 읽고 종료를 표시하거나, 클라이언트 프로세스가 끝날 때까지 기다립니다.
+     */
+    private void awaitClientDone(long client) {
+        SpinParkWaiter waiter = new SpinParkWaiter();
+        while (open && file.getInt(SharedMemoryFile.CLIENT_DONE_OFFSET) == 0) {
+            if (waiter.idle() && !SharedMemoryFile.isAlive(client)) {
+                break;
+            }
+        }
+        logger.debug("공유 메모리 세션 종료 (클라이언트 pid {})", client);
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("공유 메모리 파일을 지우는 중 오류가 발생했습니다: {}", path, e);
+        }
+    }
+}
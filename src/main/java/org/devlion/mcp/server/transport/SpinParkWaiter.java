@@ -0,0 +1,48 @@
+package org.devlion.mcp.server.transport;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 공유 메모리 링 버퍼의 대기 전략: 잠깐 바쁜 대기를 하고, 양보한 뒤, 점점 길게 잠듭니다.
+ *
+ * 다른 프로세스는 깨울 수 없으므로 잠드는 시간은 {@code mcp.shm.maxParkMicros}(기본값 1000)까지 두 배씩 늘립니다.
+ * 바쁜 대기 횟수는 {@code mcp.shm.spins}이며, CPU가 하나면 상대 프로세스의 시간을 빼앗으므로 기본값이 0입니다.
+ */
+final class SpinParkWaiter {
+
+    private static final int SPINS = Integer.getInteger("mcp.shm.spins",
+        Runtime.getRuntime().availableProcessors() > 1 ? 20_000 : 0);
+    private static final int YIELDS = 64;
+    private static final long MAX_PARK_NANOS = Math.max(1, Long.getLong("mcp.shm.maxParkMicros", 1000L)) * 1000;
+    /** 상대 프로세스 생존 확인 주기 (잠든 횟수 기준) */
+    private static final int LIVENESS_EVERY = 16;
+
+    private int round;
+
+    void reset() {
+        round = 0;
+    }
+
+    /**
+     * 한 번 기다립니다.
+     *
+     * @return 상대 프로세스가 살아 있는지 확인할 차례면 true
+     */
+    boolean idle() {
+        int current = round;
+        if (round < Integer.MAX_VALUE) {
+            round++;
+        }
+        if (current < SPINS) {
+            Thread.onSpinWait();
+            return false;
+        }
+        if (current < SPINS + YIELDS) {
+            Thread.yield();
+            return false;
+        }
+        int parks = current - SPINS - YIELDS;
+        LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(parks, 20)));
+        return parks % LIVENESS_EVERY == 0;
+    }
+}
@@ -0,0 +1,77 @@
+package org.devlion.mcp.server.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * 표준입출력을 상주 서버의 유닉스 도메인 소켓으로 그대로 전달하는 중계기
+ *
+ * 기존 클라이언트 설정에서 실행 인수에 {@code --connect <소켓 경로>}만 추가하면 세션이 상주 서버에서 처리됩니다.
+ * 메시지를 해석하지 않고 바이트만 옮기며, 중계할 때는 레지스트리를 만들지 않습니다.
+ */
+public final class StdioBridge {
+    private static final Logger logger = LoggerFactory.getLogger(StdioBridge.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private StdioBridge() {
+    }
+
+    /**
+     * 상주 서버에 연결하여 입력이 끝날 때까지 중계합니다.
+     *
+     * @return 연결하지 못했으면 false (호출한 쪽에서 직접 처리)
+     */
+    public static boolean forward(Path socketPath) throws IOException {
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            logger.warn("상주 서버에 연결할 수 없어 직접 처리합니다: {} ({})", socketPath, e.getMessage());
+            return false;
+        }
+        logger.info("상주 서버로 중계합니다: {}", socketPath);
+
+        try (channel) {
+            // 클라이언트 → 서버. 입력이 끝나면 쓰기 방향만 닫아 서버가 세션을 정리하게 함
+            Thread upstream = new Thread(() -> {
+                try {
+                    copy(System.in, ChannelStreams.out(channel));
+                } catch (IOException e) {
+                    logger.debug("요청 중계가 끝났습니다", e);
+                } finally {
+                    try {
+                        channel.shutdownOutput();
+                    } catch (IOException ignored) {
+                        // 이미 닫힌 연결
+                    }
+                }
+            }, "mcp-bridge-upstream");
+            upstream.setDaemon(true);
+            upstream.start();
+
+            // 서버 → 클라이언트
+            copy(ChannelStreams.in(channel), System.out);
+        }
+        return true;
+    }
+
+    /**
+     * 읽은 만큼 바로 쓰고 플러시합니다. 응답이 버퍼에 머물지 않도록 줄 단위 구분 없이 즉시 내보냅니다.
+     */
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.devlion.mcp.server.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 유닉스 도메인 소켓으로 여러 클라이언트 세션을 받는 리스너
+ *
+ * 연결마다 세션 스레드 하나가 {@link SessionHandler}로 요청을 처리합니다. 레지스트리, 캐시, 지표는 모든 세션이
+ * 공유하므로 클라이언트마다 JVM을 띄우는 것보다 메모리를 훨씬 적게 씁니다.
+ * 동시 세션 수는 {@code mcp.listen.maxSessions}(기본값 64)로 제한하며, 넘는 연결은 바로 닫습니다.
+ * 소켓 파일은 소유자만 접근할 수 있도록 만들고, 닫을 때 삭제합니다.
+ */
+public class UnixSocketListener implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UnixSocketListener.class);
+
+    private final SessionHandler handler;
+    private final Path path;
+    private final ServerSocketChannel channel;
+    private final Semaphore sessions;
+    private final AtomicLong accepted = new AtomicLong();
+
+    public UnixSocketListener(SessionHandler handler, Path path) throws IOException {
+        this.handler = handler;
+        this.path = path;
+        this.sessions = new Semaphore(Math.max(1, Integer.getInteger("mcp.listen.maxSessions", 64)));
+
+        removeStaleSocket(path);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(path));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+
+    /**
+     * 이전 프로세스가 남긴 소켓 파일을 지웁니다. 다른 서버가 아직 듣고 있으면 실패합니다.
+     */
+    private static void removeStaleSocket(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        boolean alive;
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(path)).close();
+            alive = true;
+        } catch (IOException e) {
+            alive = false;
+        }
+        if (alive) {
+            throw new IOException("이미 실행 중인 서버가 있습니다: " + path);
+        }
+        Files.delete(path);
+    }
+
+    /**
+     * 리스너가 닫힐 때까지 연결을 받습니다.
+     */
+    public void run() throws IOException {
+        while (channel.isOpen()) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            }
+            if (!sessions.tryAcquire()) {
+                logger.warn("동시 세션 수 한도를 넘어 연결을 닫습니다");
+                client.close();
+                continue;
+            }
+            Thread thread = new Thread(() -> serve(client), "mcp-session-" + accepted.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client) {
+            handler.serve(ChannelStreams.in(client), ChannelStreams.out(client));
+        } catch (IOException e) {
+            logger.debug("세션 연결이 끊어졌습니다", e);
+        } catch (RuntimeException e) {
+            logger.error("세션 처리 중 오류가 발생했습니다", e);
+        } finally {
+            sessions.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("소켓을 닫는 중 오류가 발생했습니다: {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.example.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.devlion.mcp.server.McpServerMain;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * MCP 서버 부하 생성기
+ *
+ * {@link TestClient}와 같은 방식으로 서버 프로세스를 띄우거나, 파이프로 연결한 서버 인스턴스를 같은 JVM에 띄운 뒤
+ * 연결마다 여러 요청을 응답을 기다리지 않고 연속으로 보냅니다 (파이프라이닝).
+ * 요청 종류별 지연 시간을 HdrHistogram에 기록하여 p50/p99/p999, 처리량, 오류율을 출력합니다.
+ *
+ * 사용 예:
+ * <pre>
+ * java -cp target/classes:target/test-classes:... com.example.mcp.LoadGenerator \
+ *     --mode process --connections 4 --pipeline 32 --duration 30 \
+ *     --mix "tools/call:calculator=5,prompts/get:code_review=1" --payload 4096
+ * </pre>
+ *
+ * {@code --rate}를 지정하면 연결당 초당 요청 수를 고정한 개방형 부하로 동작하며,
+ * 지연 시간은 예정된 전송 시각부터 측정하므로 서버가 밀릴 때의 대기 시간도 포함됩니다.
+ */
+public class LoadGenerator {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String DEFAULT_MIX = "initialize=1,tools/list=2,tools/call:current_time=2,"
+        + "tools/call:calculator=4,tools/call:greeting=2,resources/read:server://status=1,prompts/get:code_review=2";
+
+    /** 히스토그램 최대값 (1분, 나노초) */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Options options;
+    private final List<RequestCase> cases;
+    private final int[] weightTable;
+
+    private final Recorder[] recorders;
+    private final LongAdder[] errors;
+    private final LongAdder unmatched = new LongAdder();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private volatile boolean running = true;
+
+    public LoadGenerator(Options options) throws IOException {
+        this.options = options;
+        this.cases = parseMix(options.mix, options.payload);
+
+        List<Integer> table = new ArrayList<>();
+        for (int i = 0; i < cases.size(); i++) {
+            for (int w = 0; w < cases.get(i).weight; w++) {
+                table.add(i);
+            }
+        }
+        this.weightTable = table.stream().mapToInt(Integer::intValue).toArray();
+
+        this.recorders = new Recorder[cases.size()];
+        this.errors = new LongAdder[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            recorders[i] = new Recorder(MAX_LATENCY_NANOS, 3);
+            errors[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        new LoadGenerator(options).run();
+    }
+
+    public void run() throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < options.connections; i++) {
+            connections.add(openConnection(i));
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (Connection connection : connections) {
+            threads.add(startThread("loadgen-reader-" + connection.index, () -> readLoop(connection)));
+            threads.add(startThread("loadgen-sender-" + connection.index, () -> sendLoop(connection)));
+        }
+
+        System.out.printf("워밍업 %d초 ...%n", options.warmupSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        resetStatistics();
+
+        System.out.printf("측정 %d초 (연결 %d, 파이프라인 깊이 %d, 모드 %s)%n",
+            options.durationSeconds, options.connections, options.pipeline, options.mode);
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.durationSeconds));
+        long elapsed = System.nanoTime() - start;
+
+        Histogram[] histograms = new Histogram[cases.size()];
+        long[] errorCounts = new long[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            histograms[i] = recorders[i].getIntervalHistogram();
+            errorCounts[i] = errors[i].sum();
+        }
+
+        running = false;
+        for (Connection connection : connections) {
+            connection.window.release(options.pipeline);
+        }
+        drain(connections);
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        report(histograms, errorCounts, elapsed);
+    }
+
+    private Connection openConnection(int index) throws IOException {
+        if ("process".equals(options.mode)) {
+            ProcessBuilder pb = TestClient.serverProcessBuilder();
+            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+            Process process = pb.start();
+            return new Connection(index, process.getOutputStream(), process.getInputStream(), process, null, options.pipeline);
+        }
+
+        // 같은 JVM 안에서 파이프로 연결한 서버 인스턴스
+        PipedOutputStream clientOut = new PipedOutputStream();
+        PipedInputStream serverIn = new PipedInputStream(clientOut, 1 << 20);
+        PipedOutputStream serverOut = new PipedOutputStream();
+        PipedInputStream clientIn = new PipedInputStream(serverOut, 1 << 20);
+
+        McpServerMain server = new McpServerMain();
+        Thread serverThread = startThread("loadgen-server-" + index, () -> {
+            try {
+                server.serve(serverIn, serverOut);
+            } catch (IOException e) {
+                // 연결 종료
+            }
+        });
+        return new Connection(index, clientOut, clientIn, null, serverThread, options.pipeline);
+    }
+
+    /**
+     * 파이프라인 창이 허용하는 만큼 요청을 연속으로 보냅니다. 창이 가득 차면 버퍼를 비우고 기다립니다.
+     */
+    private void sendLoop(Connection connection) {
+        long intervalNanos = options.rate > 0 ? TimeUnit.SECONDS.toNanos(1) / options.rate : 0;
+        long nextSend = System.nanoTime();
+
+        try {
+            while (running) {
+                if (!connection.window.tryAcquire()) {
+                    connection.out.flush();
+                    connection.window.acquire();
+                }
+                if (!running) {
+                    break;
+                }
+
+                long intended;
+                if (intervalNanos > 0) {
+                    intended = nextSend;
+                    nextSend += intervalNanos;
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        connection.out.flush();
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                }
+
+                int caseIndex = weightTable[ThreadLocalRandom.current().nextInt(weightTable.length)];
+                RequestCase requestCase = cases.get(caseIndex);
+                long id = nextId.getAndIncrement();
+
+                connection.pending.put(id, new Pending(caseIndex, intended));
+                connection.out.write(requestCase.prefix);
+                connection.out.write(Long.toString(id));
+                connection.out.write(requestCase.suffix);
+                connection.out.write('\n');
+            }
+            connection.out.flush();
+        } catch (IOException | InterruptedException e) {
+            if (running) {
+                System.err.println("요청 전송 중 오류: " + e);
+            }
+        }
+    }
+
+    private void readLoop(Connection connection) {
+        try {
+            String line;
+            while ((line = connection.in.readLine()) != null) {
+                long now = System.nanoTime();
+                JsonNode response = objectMapper.readTree(line);
+                JsonNode idNode = response.get("id");
+                Pending pending = idNode == null || idNode.isNull() ? null : connection.pending.remove(idNode.asLong());
+                if (pending == null) {
+                    unmatched.increment();
+                    continue;
+                }
+
+                recorders[pending.caseIndex].recordValue(Math.min(now - pending.startNanos, MAX_LATENCY_NANOS));
+                if (response.has("error") || response.path("result").path("isError").asBoolean(false)) {
+                    errors[pending.caseIndex].increment();
+                }
+                connection.window.release();
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("응답 수신 중 오류: " + e);
+            }
+        }
+    }
+
+    /**
+     * 측정 종료 후 아직 응답을 받지 못한 요청을 잠시 기다립니다.
+     */
+    private void drain(List<Connection> connections) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (Connection connection : connections) {
+            while (!connection.pending.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private void resetStatistics() {
+        for (int i = 0; i < cases.size(); i++) {
+            recorders[i].reset();
+            errors[i].reset();
+        }
+        unmatched.reset();
+    }
+
+    private void report(Histogram[] histograms, long[] errorCounts, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+        long totalErrors = 0;
+
+        System.out.println();
+        System.out.printf("%-36s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+            "요청", "건수", "처리량/s", "오류율", "p50(us)", "p90(us)", "p99(us)", "p999(us)", "max(us)");
+        for (int i = 0; i < cases.size(); i++) {
+            printRow(cases.get(i).name, histograms[i], errorCounts[i], seconds);
+            total.add(histograms[i]);
+            totalErrors += errorCounts[i];
+        }
+        printRow("합계", total, totalErrors, seconds);
+        if (unmatched.sum() > 0) {
+            System.out.printf("id를 매칭할 수 없는 응답: %d%n", unmatched.sum());
+        }
+    }
+
+    private static void printRow(String name, Histogram histogram, long errorCount, double seconds) {
+        long count = histogram.getTotalCount();
+        System.out.printf("%-36s %10d %10.1f %7.2f%% %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+            name, count, count / seconds, count == 0 ? 0.0 : 100.0 * errorCount / count,
+            micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(90)),
+            micros(histogram.getValueAtPercentile(99)), micros(histogram.getValueAtPercentile(99.9)),
+            micros(histogram.getMaxValue()));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static Thread startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // ---------------------------------------------------------------------
+    // 요청 구성
+    // ---------------------------------------------------------------------
+
+    /**
+     * "case=weight,..." 형식의 요청 구성을 파싱합니다.
+     */
+    private static List<RequestCase> parseMix(String mix, int payload) throws IOException {
+        List<RequestCase> cases = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            cases.add(new RequestCase(parts[0].trim(), weight, payload));
+        }
+        return cases;
+    }
+
+    /**
+     * 요청 종류. id만 바꿔 끼울 수 있도록 직렬화된 JSON을 id 앞뒤로 나누어 보관합니다.
+     */
+    private static final class RequestCase {
+        private static final String ID_MARKER = "\"id\":0";
+
+        final String name;
+        final int weight;
+        final String prefix;
+        final String suffix;
+
+        RequestCase(String name, int weight, int payload) throws IOException {
+            this.name = name;
+            this.weight = weight;
+
+            String method = name;
+            String target = null;
+            int colon = name.indexOf(':');
+            if (colon > 0) {
+                method = name.substring(0, colon);
+                target = name.substring(colon + 1);
+            }
+
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("jsonrpc", "2.0");
+            request.put("id", 0);
+            request.put("method", method);
+            Map<String, Object> params = params(method, target, payload);
+            if (params != null) {
+                request.put("params", params);
+            }
+
+            String json = objectMapper.writeValueAsString(request);
+            int marker = json.indexOf(ID_MARKER);
+            this.prefix = json.substring(0, marker + ID_MARKER.length() - 1);
+            this.suffix = json.substring(marker + ID_MARKER.length());
+        }
+
+        private static Map<String, Object> params(String method, String target, int payload) {
+            switch (method) {
+                case "initialize":
+                    return Map.of(
+                        "protocolVersion", "2024-11-05",
+                        "capabilities", Map.of(),
+                        "clientInfo", Map.of("name", "load-generator", "version", "1.0.0")
+                    );
+                case "tools/call":
+                    return Map.of("name", target, "arguments", toolArguments(target, payload));
+                case "resources/read":
+                    return Map.of("uri", target);
+                case "prompts/get":
+                    return Map.of("name", target, "arguments", promptArguments(target, payload));
+                default:
+                    return null;
+            }
+        }
+
+        private static Map<String, Object> toolArguments(String tool, int payload) {
+            switch (tool) {
+                case "current_time":
+                    return Map.of();
+                case "calculator":
+                    return Map.of("a", 12.5, "b", 3, "operation", "multiply");
+                case "greeting":
+                    return Map.of("name", text(payload), "language", "english");
+                case "batch":
+                    List<Map<String, Object>> items = new ArrayList<>();
+                    for (int i = 0; i < Math.max(1, payload / 64); i++) {
+                        items.add(Map.of("a", i, "b", 2, "operation", "add"));
+                    }
+                    return Map.of("tool", "calculator", "arguments_list", items);
+                default:
+                    return new HashMap<>();
+            }
+        }
+
+        private static Map<String, Object> promptArguments(String prompt, int payload) {
+            switch (prompt) {
+                case "code_review":
+                    return Map.of("code", text(payload), "language", "java");
+                case "document_summary":
+                    return Map.of("document", text(payload));
+                case "tech_question":
+                    return Map.of("question", text(payload), "domain", "backend");
+                default:
+                    return new HashMap<>();
+            }
+        }
+
+        private static String text(int length) {
+            StringBuilder sb = new StringBuilder(length);
+            while (sb.length() < length) {
+                sb.append("load test 부하 테스트 ");
+            }
+            return sb.substring(0, length);
+        }
+    }
+
+    /**
+     * 응답을 기다리는 요청
+     */
+    private static final class Pending {
+        final int caseIndex;
+        final long startNanos;
+
+        Pending(int caseIndex, long startNanos) {
+            this.caseIndex = caseIndex;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * 서버 하나와의 연결 (프로세스 또는 파이프)
+     */
+    private static final class Connection implements Closeable {
+        final int index;
+        final Writer out;
+        final BufferedReader in;
+        final Process process;
+        final Thread serverThread;
+        final Semaphore window;
+        final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+        Connection(int index, OutputStream out, InputStream in, Process process, Thread serverThread, int pipeline) {
+            this.index = index;
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+            this.process = process;
+            this.serverThread = serverThread;
+            this.window = new Semaphore(pipeline);
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // 이미 닫힘
+            }
+            if (process != null) {
+                try {
+                    process.waitFor(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                process.destroyForcibly();
+            }
+            if (serverThread != null) {
+                serverThread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * 명령행 옵션
+     */
+    public static final class Options {
+        String mode = "inprocess";
+        int connections = 1;
+        int pipeline = 16;
+        int durationSeconds = 10;
+        int warmupSeconds = 3;
+        int rate = 0;
+        int payload = 256;
+        String mix = DEFAULT_MIX;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--mode": options.mode = value; i++; break;
+                    case "--connections": options.connections = Integer.parseInt(value); i++; break;
+                    case "--pipeline": options.pipeline = Integer.parseInt(value); i++; break;
+                    case "--duration": options.durationSeconds = Integer.parseInt(value); i++; break;
+                    case "--warmup": options.warmupSeconds = Integer.parseInt(value); i++; break;
+                    case "--rate": options.rate = Integer.parseInt(value); i++; break;
+                    case "--payload": options.payload = Integer.parseInt(value); i++; break;
+                    case "--mix": options.mix = value; i++; break;
+                    default:
+                        throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]
+                            + " (--mode process|inprocess, --connections, --pipeline, --duration, --warmup, --rate, --payload, --mix)");
+                }
+            }
+            if (!"process".equals(options.mode) && !"inprocess".equals(options.mode)) {
+                throw new IllegalArgumentException("--mode는 process 또는 inprocess여야 합니다: " + options.mode);
+            }
+            return options;
+        }
+    }
+}
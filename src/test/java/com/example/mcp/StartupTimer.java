@@ -0,0 +1,188 @@
+package com.example.mcp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 기동 시간 측정기
+ *
+ * 클라이언트처럼 세션마다 새 JVM을 띄우고, 프로세스 시작부터 첫 initialize 응답을 받을 때까지의 시간과
+ * 이어서 보낸 tools/list 응답(레지스트리 준비 완료)까지의 시간을 잽니다.
+ * {@code --cds}로 AppCDS 아카이브를 지정하면 아카이브 없이 띄운 경우와 번갈아 실행하여 비교합니다.
+ *
+ * 사용 예:
+ * <pre>
+ * mvn -Pcds package
+ * java -cp target/test-classes com.example.mcp.StartupTimer \
+ *     --jar target/mcp-server-example-1.0.0.jar --cds target/mcp-server-example-1.0.0.jsa --runs 20
+ * </pre>
+ *
+ * {@code --jar}를 지정하지 않으면 {@link TestClient}와 같이 현재 클래스패스로 서버를 띄웁니다.
+ */
+public class StartupTimer {
+
+    private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":"
+        + "{\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},\"clientInfo\":{\"name\":\"startup-timer\",\"version\":\"1.0.0\"}}}";
+    private static final String TOOLS_LIST = "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/list\"}";
+
+    /**
+     * 실행 옵션
+     */
+    static final class Options {
+        int runs = 10;
+        int warmup = 2;
+        String jar;
+        String cds;
+        final List<String> jvmArgs = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--runs":
+                        options.runs = Integer.parseInt(args[++i]);
+                        break;
+                    case "--warmup":
+                        options.warmup = Integer.parseInt(args[++i]);
+                        break;
+                    case "--jar":
+                        options.jar = args[++i];
+                        break;
+                    case "--cds":
+                        options.cds = args[++i];
+                        break;
+                    case "--jvm-arg":
+                        options.jvmArgs.add(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+                }
+            }
+            if (options.cds != null && !Files.exists(Paths.get(options.cds))) {
+                throw new IllegalArgumentException("CDS 아카이브가 없습니다: " + options.cds);
+            }
+            return options;
+        }
+    }
+
+    /**
+     * 실행 한 번의 결과 (나노초)
+     */
+    static final class Sample {
+        final long initializeNanos;
+        final long readyNanos;
+
+        Sample(long initializeNanos, long readyNanos) {
+            this.initializeNanos = initializeNanos;
+            this.readyNanos = readyNanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("기본", List.of());
+        if (options.cds != null) {
+            configurations.put("CDS", List.of("-XX:SharedArchiveFile=" + options.cds, "-Xshare:auto"));
+        }
+
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        configurations.keySet().forEach(name -> samples.put(name, new ArrayList<>()));
+
+        // 디스크 캐시 등의 영향을 줄이기 위해 설정을 번갈아 실행
+        for (int run = 0; run < options.warmup + options.runs; run++) {
+            for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+                Sample sample = measure(options, configuration.getValue());
+                if (run >= options.warmup) {
+                    samples.get(configuration.getKey()).add(sample);
+                }
+            }
+        }
+
+        System.out.printf("실행 %d회 (워밍업 %d회 제외, 단위: ms)%n", options.runs, options.warmup);
+        System.out.printf("%-8s %28s %28s%n", "설정", "첫 initialize min/p50/max", "첫 tools/list min/p50/max");
+        samples.forEach((name, list) -> System.out.printf("%-8s %28s %28s%n", name,
+            summary(list.stream().mapToLong(sample -> sample.initializeNanos).toArray()),
+            summary(list.stream().mapToLong(sample -> sample.readyNanos).toArray())));
+    }
+
+    /**
+     * 서버를 한 번 띄워 initialize, tools/list 응답 시각을 잽니다.
+     */
+    static Sample measure(Options options, List<String> extraArgs) throws IOException, InterruptedException {
+        ProcessBuilder pb = processBuilder(options, extraArgs);
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+
+        long start = System.nanoTime();
+        Process process = pb.start();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            writer.write(INITIALIZE);
+            writer.newLine();
+            writer.flush();
+            expectResponse(reader.readLine(), "\"id\":1");
+            long initialized = System.nanoTime();
+
+            writer.write(TOOLS_LIST);
+            writer.newLine();
+            writer.flush();
+            expectResponse(reader.readLine(), "\"id\":2");
+            long ready = System.nanoTime();
+
+            return new Sample(initialized - start, ready - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static ProcessBuilder processBuilder(Options options, List<String> extraArgs) {
+        if (options.jar == null && options.jvmArgs.isEmpty() && extraArgs.isEmpty()) {
+            return TestClient.serverProcessBuilder();
+        }
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        command.add(javaBin);
+        command.addAll(options.jvmArgs);
+        command.addAll(extraArgs);
+        if (options.jar != null) {
+            command.add("-jar");
+            command.add(Path.of(options.jar).toString());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("org.devlion.mcp.server.McpServerMain");
+        }
+        return new ProcessBuilder(command);
+    }
+
+    private static void expectResponse(String line, String id) throws IOException {
+        if (line == null || !line.contains(id)) {
+            throw new IOException("예상하지 못한 응답: " + line);
+        }
+    }
+
+    private static String summary(long[] nanos) {
+        if (nanos.length == 0) {
+            return "-";
+        }
+        Arrays.sort(nanos);
+        return String.format("%.1f/%.1f/%.1f", millis(nanos[0]), millis(nanos[nanos.length / 2]), millis(nanos[nanos.length - 1]));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
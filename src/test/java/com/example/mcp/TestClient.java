@@ -40,9 +40,7 @@ public class TestClient {
     public void startServer() throws IOException {
         logger.info("MCP 서버를 시작합니다...");
         
-        ProcessBuilder pb = new ProcessBuilder(
-            "java", "-cp", "target/classes", "com.example.mcp.McpServerMain"
-        );
+        ProcessBuilder pb = serverProcessBuilder();
         pb.redirectErrorStream(false);
         
         serverProcess = pb.start();
@@ -60,6 +58,16 @@ public class TestClient {
         logger.info("서버가 시작되었습니다.");
     }
 
+    /**
+     * 현재 클래스패스로 MCP 서버를 실행하는 ProcessBuilder를 생성합니다.
+     */
+    public static ProcessBuilder serverProcessBuilder() {
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(
+            javaBin, "-cp", System.getProperty("java.class.path"), "org.devlion.mcp.server.McpServerMain"
+        );
+    }
+
     /**
      * 서버 프로세스를 종료합니다.
      */
@@ -0,0 +1,160 @@
+package org.devlion.mcp.server;
+
+import org.devlion.mcp.server.schema.McpMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 메서드/도구별 요청당 할당량 회귀 테스트
+ *
+ * 요청 한 줄을 파싱, 디스패치하고 세션의 출력 스트림에 응답을 쓰는 전체 경로를 워밍업 후 반복 실행하고, 처리 스레드의 할당 바이트
+ * 카운터({@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()})로 요청당 평균 할당량을 잽니다.
+ * {@code allocation-budgets.properties}의 예산을 넘으면 실패합니다.
+ *
+ * batch는 항목을 다른 스레드(batch 풀과 도구 격벽)에서 실행하므로, 처리 스레드만 재면 항목 실행 몫이 빠집니다.
+ * 그런 케이스는 측정 구간 동안 살아 있는 모든 스레드의 할당량 합계로 재며, 그만큼 다른 스레드의 잡음이 섞일 수 있습니다.
+ *
+ * 할당을 줄였다면 예산도 함께 낮춰 개선이 유지되도록 합니다. {@code -Dallocation.report=true}로 실행하면
+ * 측정값을 출력합니다.
+ */
+class AllocationBudgetTest {
+
+    private static final String BUDGET_FILE = "/allocation-budgets.properties";
+
+    private static final int WARMUP = Integer.getInteger("allocation.warmup", 5_000);
+    private static final int ITERATIONS = Integer.getInteger("allocation.iterations", 1_000);
+    private static final boolean REPORT = Boolean.getBoolean("allocation.report");
+
+    /** 요청을 받은 스레드 밖에서도 일하는 케이스. 모든 스레드의 할당량으로 잼 */
+    private static final Set<String> MULTI_THREADED = Set.of("tools/call:batch");
+
+    private static McpServerMain server;
+    private static McpSession session;
+    private static Properties budgets;
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "스레드별 할당 카운터를 지원하지 않는 JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "스레드별 할당 카운터를 지원하지 않는 JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream(BUDGET_FILE)) {
+            assertNotNull(in, BUDGET_FILE + " 파일이 없습니다");
+            budgets.load(in);
+        }
+        server = new McpServerMain();
+        session = new McpSession(OutputStream.nullOutputStream(), null);
+    }
+
+    static Stream<Arguments> cases() {
+        return Stream.of(
+            Arguments.of("initialize", request("initialize",
+                "{\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},\"clientInfo\":{\"name\":\"test\",\"version\":\"1.0.0\"}}")),
+            Arguments.of("tools/list", request("tools/list", null)),
+            Arguments.of("resources/list", request("resources/list", null)),
+            Arguments.of("prompts/list", request("prompts/list", null)),
+            Arguments.of("tools/call:current_time", tool("current_time", "{}")),
+            Arguments.of("tools/call:calculator", tool("calculator", "{\"a\":12.5,\"b\":3,\"operation\":\"multiply\"}")),
+            Arguments.of("tools/call:calculator_expression", tool("calculator",
+                "{\"expression\":\"a * x^2 + sqrt(b)\",\"variables\":{\"a\":2,\"x\":3,\"b\":16}}")),
+            Arguments.of("tools/call:greeting", tool("greeting", "{\"name\":\"홍길동\",\"language\":\"korean\"}")),
+            Arguments.of("tools/call:batch", tool("batch",
+                "{\"tool\":\"calculator\",\"arguments_list\":[{\"a\":1,\"b\":2,\"operation\":\"add\"},{\"a\":3,\"b\":4,\"operation\":\"multiply\"}]}")),
+            Arguments.of("resources/read:system://info", resource("system://info")),
+            Arguments.of("resources/read:server://status", resource("server://status")),
+            Arguments.of("resources/read:config://settings", resource("config://settings")),
+            Arguments.of("resources/read:cache://prompts", resource("cache://prompts")),
+            Arguments.of("prompts/get:code_review", prompt("code_review",
+                "{\"code\":\"public int add(int a, int b) { return a + b; }\",\"language\":\"java\"}")),
+            Arguments.of("prompts/get:document_summary", prompt("document_summary",
+                "{\"document\":\"MCP는 모델과 도구를 연결하는 프로토콜입니다.\"}")),
+            Arguments.of("prompts/get:tech_question", prompt("tech_question",
+                "{\"question\":\"JIT 컴파일러는 어떻게 동작하나요?\",\"domain\":\"jvm\"}"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void staysWithinAllocationBudget(String name, String line) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            roundTrip(line);
+        }
+
+        boolean allThreads = MULTI_THREADED.contains(name);
+        long before = allThreads ? allThreadsAllocatedBytes() : threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            roundTrip(line);
+        }
+        long after = allThreads ? allThreadsAllocatedBytes() : threads.getCurrentThreadAllocatedBytes();
+        long perRequest = (after - before) / ITERATIONS;
+
+        if (REPORT) {
+            System.out.printf("%s=%d%n", name, perRequest);
+        }
+
+        String budget = budgets.getProperty(name);
+        assertNotNull(budget, String.format("%s의 예산이 없습니다 (측정값 %d bytes/request)", name, perRequest));
+        assertTrue(perRequest <= Long.parseLong(budget.trim()),
+            String.format("%s: 요청당 %d bytes 할당, 예산 %s bytes 초과", name, perRequest, budget.trim()));
+    }
+
+    /**
+     * 살아 있는 모든 스레드의 누적 할당량. 측정 중에 끝난 스레드의 몫은 빠집니다.
+     */
+    private static long allThreadsAllocatedBytes() {
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 실제 연결과 같이 세션의 출력 스트림으로 응답을 씁니다. handleRequest는 도구 호출을 격벽 스레드에 넘기므로,
+     * 처리 스레드의 카운터로 잴 수 있도록 디스패치는 이 스레드에서 합니다.
+     */
+    private static void roundTrip(String line) throws IOException {
+        McpMessage request = server.parseRequest(line);
+        McpMessage response = server.dispatch(request);
+        if (response != null) {
+            server.sendResponse(response, session, null, request.getMethod());
+        }
+    }
+
+    private static String request(String method, String params) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"" + method + "\""
+            + (params != null ? ",\"params\":" + params : "") + "}";
+    }
+
+    private static String tool(String name, String arguments) {
+        return request("tools/call", "{\"name\":\"" + name + "\",\"arguments\":" + arguments + "}");
+    }
+
+    private static String resource(String uri) {
+        return request("resources/read", "{\"uri\":\"" + uri + "\"}");
+    }
+
+    private static String prompt(String name, String arguments) {
+        return request("prompts/get", "{\"name\":\"" + name + "\",\"arguments\":" + arguments + "}");
+    }
+}
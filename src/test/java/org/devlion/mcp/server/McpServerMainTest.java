@@ -0,0 +1,154 @@
+package org.devlion.mcp.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.metrics.ServerMetrics;
+import org.devlion.mcp.server.schema.McpError;
+import org.devlion.mcp.server.schema.McpMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 요청 한 줄을 파싱, 디스패치, 직렬화하는 전체 경로 회귀 테스트
+ */
+class McpServerMainTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static McpServerMain server;
+
+    @BeforeAll
+    static void setUp() {
+        server = new McpServerMain();
+    }
+
+    @Test
+    void largeToolArgumentIsPassedAsText() throws IOException {
+        String name = "가".repeat(70_000);
+        Map<?, ?> result = toolResult("greeting", "{\"name\":\"" + name + "\",\"language\":\"korean\"}");
+        assertEquals(false, result.get("isError"));
+        assertTrue(text(result).contains(name));
+    }
+
+    @Test
+    void largeCalculatorExpressionIsPassedAsText() throws IOException {
+        String expression = "2 + 3" + " ".repeat(70_000);
+        Map<?, ?> result = toolResult("calculator", "{\"expression\":\"" + expression + "\"}");
+        assertEquals(false, result.get("isError"), String.valueOf(result));
+        assertTrue(text(result).endsWith(" = 5.0"), text(result).strip());
+    }
+
+    @Test
+    void metricsStayValidJsonForUnknownToolNames() throws IOException {
+        roundTrip(request("tools/call", "{\"name\":\"we\\\"ird\",\"arguments\":{}}"));
+
+        Map<?, ?> metrics = resourceJson("metrics://server");
+        Map<?, ?> tools = (Map<?, ?>) metrics.get("tools");
+        assertFalse(tools.containsKey("we\"ird"), String.valueOf(tools.keySet()));
+        assertTrue(tools.containsKey(ServerMetrics.OTHER), String.valueOf(tools.keySet()));
+    }
+
+    @Test
+    void startupMetricsBeforeAndAfterInitialize() throws IOException {
+        McpServerMain fresh = new McpServerMain();
+        Map<?, ?> before = (Map<?, ?>) resourceJson(fresh, "metrics://server").get("startup");
+        assertFalse(before.containsKey("jvm_to_first_initialize_ms"), String.valueOf(before));
+
+        fresh.dispatch(fresh.parseRequest(request("initialize",
+            "{\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},\"clientInfo\":{\"name\":\"test\",\"version\":\"1\"}}")));
+        Map<?, ?> after = (Map<?, ?>) resourceJson(fresh, "metrics://server").get("startup");
+        assertTrue(after.get("jvm_to_first_initialize_ms") instanceof Number, String.valueOf(after));
+    }
+
+    @Test
+    void unserializableResponseBecomesInternalErrorLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        McpSession session = new McpSession(out, null);
+        // 빈 객체는 Jackson이 직렬화하지 못함. 그 앞까지 쓴 내용이 나가면 안 됨
+        server.sendResponse(McpMessage.response(7, Map.of("text", "앞부분", "bad", new Object())), session, null, "test");
+        server.sendResponse(McpMessage.notification("notifications/test", Map.of("bad", new Object())), session, null, "test");
+        server.sendResponse(McpMessage.response(8, Map.of("text", "다음 응답")), session, null, "test");
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length, out.toString(StandardCharsets.UTF_8));
+        assertEquals("", lines[2]);
+
+        Map<?, ?> error = JSON.readValue(lines[0], Map.class);
+        assertEquals(7, error.get("id"));
+        assertEquals(McpError.INTERNAL_ERROR, ((Map<?, ?>) error.get("error")).get("code"));
+        assertFalse(lines[0].contains("text"), lines[0]);
+
+        Map<?, ?> next = JSON.readValue(lines[1], Map.class);
+        assertEquals(8, next.get("id"));
+        assertEquals("다음 응답", ((Map<?, ?>) next.get("result")).get("text"));
+        assertEquals(out.size(), session.getBytesOut());
+    }
+
+    @Test
+    void largeResponseFailingAfterStreamingEndsBrokenLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        McpSession session = new McpSession(out, null);
+        // 응답 버퍼보다 큰 앞부분은 이미 나갔으므로 그 줄을 끝내고 다음 줄에 오류 응답을 씀
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("text", "x".repeat(200_000));
+        result.put("bad", new Object());
+        server.sendResponse(McpMessage.response(9, result), session, null, "test");
+        server.sendResponse(McpMessage.response(10, Map.of("text", "다음 응답")), session, null, "test");
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].length() >= 64 * 1024, String.valueOf(lines[0].length()));
+        Map<?, ?> error = JSON.readValue(lines[1], Map.class);
+        assertEquals(9, error.get("id"));
+        assertEquals(McpError.INTERNAL_ERROR, ((Map<?, ?>) error.get("error")).get("code"));
+        assertEquals(10, JSON.readValue(lines[2], Map.class).get("id"));
+        assertEquals(out.size(), session.getBytesOut());
+    }
+
+    static Map<?, ?> resourceJson(String uri) throws IOException {
+        return resourceJson(server, uri);
+    }
+
+    /**
+     * 리소스 내용(JSON 텍스트)을 파싱합니다. 올바른 JSON이 아니면 실패
+     */
+    static Map<?, ?> resourceJson(McpServerMain target, String uri) throws IOException {
+        McpMessage response = target.dispatch(target.parseRequest(request("resources/read", "{\"uri\":\"" + uri + "\"}")));
+        assertNull(response.getError());
+        Map<?, ?> content = (Map<?, ?>) ((List<?>) ((Map<?, ?>) response.getResult()).get("contents")).get(0);
+        return JSON.readValue((String) content.get("text"), Map.class);
+    }
+
+    private static Map<?, ?> toolResult(String tool, String arguments) throws IOException {
+        McpMessage response = roundTrip(request("tools/call", "{\"name\":\"" + tool + "\",\"arguments\":" + arguments + "}"));
+        assertNull(response.getError());
+        return (Map<?, ?>) response.getResult();
+    }
+
+    static McpMessage roundTrip(String line) throws IOException {
+        McpMessage response = server.dispatch(server.parseRequest(line));
+        // 직렬화까지 거쳐 응답이 실제로 쓸 수 있는지 확인
+        server.serializeResponse(response, new ByteArrayOutputStream());
+        return response;
+    }
+
+    static String request(String method, String params) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"" + method + "\""
+            + (params != null ? ",\"params\":" + params : "") + "}";
+    }
+
+    private static String text(Map<?, ?> result) {
+        return (String) ((Map<?, ?>) ((List<?>) result.get("content")).get(0)).get("text");
+    }
+}
@@ -0,0 +1,123 @@
+package org.devlion.mcp.server.cache;
+
+import org.devlion.mcp.server.text.Rope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 디스크 결과 캐시의 복구, 끊긴 기록 처리, 압축 테스트
+ */
+class PersistentCacheTest {
+
+    private static final long MAX_BYTES = 1 << 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveReopen() throws IOException {
+        try (PersistentCache cache = open()) {
+            cache.put("a", rope("첫 값"));
+            cache.put("b", rope("둘"));
+            cache.put("a", rope("덮어쓴 값"));
+        }
+        try (PersistentCache cache = open()) {
+            Map<String, Object> stats = cache.stats();
+            assertEquals(2, stats.get("recovered_entries"));
+            assertEquals(0L, stats.get("discarded_torn_records"));
+            assertEquals("덮어쓴 값", cache.get("a").toString());
+            assertEquals("둘", cache.get("b").toString());
+            assertNull(cache.get("c"));
+        }
+    }
+
+    @Test
+    void tornRecordIsDiscardedAndOverwritten() throws IOException {
+        int logBytes;
+        try (PersistentCache cache = open()) {
+            cache.put("k0", rope("zero"));
+            cache.put("k1", rope("one"));
+            cache.put("k2", rope("two"));
+            logBytes = (int) cache.stats().get("log_bytes");
+        }
+        // 마지막 기록의 값 한 바이트를 망가뜨림
+        try (FileChannel channel = FileChannel.open(dir.resolve("results.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), logBytes - 1);
+        }
+
+        try (PersistentCache cache = open()) {
+            Map<String, Object> stats = cache.stats();
+            assertEquals(2, stats.get("recovered_entries"));
+            assertEquals(1L, stats.get("discarded_torn_records"));
+            assertEquals("one", cache.get("k1").toString());
+            assertNull(cache.get("k2"));
+            cache.put("k3", rope("three"));
+        }
+        try (PersistentCache cache = open()) {
+            assertEquals(0L, cache.stats().get("discarded_torn_records"));
+            assertEquals("zero", cache.get("k0").toString());
+            assertEquals("three", cache.get("k3").toString());
+        }
+    }
+
+    @Test
+    void compactionKeepsRecentlyUsedEntries() throws IOException {
+        String filler = "x".repeat(1000);
+        try (PersistentCache cache = open()) {
+            cache.put("k0", rope("keep-" + filler));
+            Rope early = cache.get("k0");
+            for (int i = 1; i < 3000; i++) {
+                cache.put("k" + i, rope(i + "-" + filler));
+                if (i % 10 == 0) {
+                    assertNotNull(cache.get("k0"), "k" + i);
+                }
+            }
+
+            Map<String, Object> stats = cache.stats();
+            assertTrue((long) stats.get("compactions") > 0, String.valueOf(stats));
+            assertTrue((long) stats.get("evictions") > 0, String.valueOf(stats));
+            assertTrue((long) stats.get("live_bytes") <= MAX_BYTES, String.valueOf(stats));
+            assertEquals(true, stats.get("writable"));
+            assertEquals("keep-" + filler, cache.get("k0").toString());
+            assertEquals("2999-" + filler, cache.get("k2999").toString());
+            assertNull(cache.get("k1"));
+            // 압축 전에 읽은 값은 예전 매핑을 그대로 가리킴
+            assertEquals("keep-" + filler, early.toString());
+        }
+        try (PersistentCache cache = open()) {
+            assertEquals("keep-" + filler, cache.get("k0").toString());
+            assertEquals("2999-" + filler, cache.get("k2999").toString());
+        }
+    }
+
+    @Test
+    void oversizedValuesAreNotStored() throws IOException {
+        try (PersistentCache cache = open()) {
+            cache.put("big", rope("y".repeat((int) MAX_BYTES / 4)));
+            assertNull(cache.get("big"));
+            assertEquals(1L, cache.stats().get("rejected_oversized"));
+        }
+    }
+
+    private PersistentCache open() throws IOException {
+        PersistentCache cache = PersistentCache.open(dir, MAX_BYTES);
+        assertNotNull(cache);
+        return cache;
+    }
+
+    private static Rope rope(String text) {
+        return Rope.builder().append(text).build();
+    }
+}
@@ -0,0 +1,108 @@
+package org.devlion.mcp.server.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 동시에 온 같은 계산을 합치는 SingleFlight 테스트
+ */
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object result = new Object();
+
+        Future<Object> leader = pool.submit(() -> flights.run("k", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return result;
+        }));
+        awaitStat("in_flight", 1);
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(pool.submit(() -> flights.run("k", () -> {
+                executions.incrementAndGet();
+                return new Object();
+            })));
+        }
+        awaitStat("shared", FOLLOWERS);
+        // 다른 키는 기다리지 않음
+        assertEquals("other", flights.run("other", () -> "other"));
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(2L, flights.stats().get("executions"));
+        assertEquals(0, flights.stats().get("in_flight"));
+
+        // 끝난 계산은 기억하지 않음
+        assertEquals("again", flights.run("k", () -> "again"));
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = pool.submit(() -> flights.run("k", () -> {
+            await(release);
+            throw new IllegalStateException("실패");
+        }));
+        awaitStat("in_flight", 1);
+        Future<Object> follower = pool.submit(() -> flights.run("k", Object::new));
+        awaitStat("shared", 1);
+        release.countDown();
+
+        for (Future<Object> future : List.of(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+        }
+        assertEquals(0, flights.stats().get("in_flight"));
+        assertEquals("ok", flights.run("k", () -> "ok"));
+    }
+
+    private void awaitStat(String name, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (((Number) flights.stats().get(name)).longValue() < expected) {
+            assertTrue(System.nanoTime() < deadline, name + " 대기 시간 초과: " + flights.stats());
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
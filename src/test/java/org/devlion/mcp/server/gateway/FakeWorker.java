@@ -0,0 +1,96 @@
+package org.devlion.mcp.server.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.devlion.mcp.server.transport.UnixSocketListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 게이트웨이 테스트용 작업 프로세스
+ *
+ * 소켓 파일 이름(worker-N)을 자기 이름으로 씁니다. tools/list에는 모든 프로세스가 같은 {@code common}과
+ * 프로세스마다 다른 {@code only-worker-N}을 돌려줍니다. tools/call은 도구 이름에 따라
+ * {@code whoami}면 프로세스 이름과 이 연결에서 받은 initialize의 클라이언트 이름을 돌려주고,
+ * {@code sleep}은 {@code millis}만큼 기다린 뒤 같은 응답을, {@code crash}는 응답 없이 프로세스를 끝냅니다.
+ */
+final class FakeWorker {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String name;
+
+    private FakeWorker(String name) {
+        this.name = name;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socket = Paths.get(args[0]);
+        FakeWorker worker = new FakeWorker(socket.getFileName().toString().replace(".sock", ""));
+        try (UnixSocketListener listener = new UnixSocketListener(worker::serve, socket)) {
+            listener.run();
+        }
+    }
+
+    private void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String client = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            JsonNode request = JSON.readTree(line);
+            JsonNode id = request.get("id");
+            if (id == null) {
+                continue;
+            }
+            String method = request.path("method").textValue();
+            JsonNode params = request.path("params");
+            ObjectNode result = JSON.createObjectNode();
+            if ("initialize".equals(method)) {
+                client = params.path("clientInfo").path("name").textValue();
+                result.put("protocolVersion", "2024-11-05");
+                result.putObject("serverInfo").put("name", name);
+            } else if ("tools/list".equals(method)) {
+                result.putArray("tools").add(tool("common")).add(tool("only-" + name));
+            } else if ("resources/list".equals(method)) {
+                result.putArray("resources");
+            } else if ("tools/call".equals(method)) {
+                String tool = params.path("name").textValue();
+                if ("crash".equals(tool)) {
+                    Runtime.getRuntime().halt(1);
+                }
+                if ("sleep".equals(tool)) {
+                    sleep(params.path("arguments").path("millis").asLong());
+                }
+                result.put("worker", name);
+                result.put("client", client);
+            }
+            ObjectNode response = JSON.createObjectNode();
+            response.put("jsonrpc", "2.0");
+            response.set("id", id);
+            response.set("result", result);
+            out.write((response + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private static ObjectNode tool(String name) {
+        ObjectNode tool = JSON.createObjectNode();
+        tool.put("name", name);
+        return tool;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.devlion.mcp.server.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.schema.McpError;
+import org.devlion.mcp.server.transport.ChannelStreams;
+import org.devlion.mcp.server.transport.UnixSocketListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 가짜 작업 프로세스 두 개를 띄운 게이트웨이의 목록 합치기, 호출 분배, initialize 재전송, 프로세스 종료 처리 테스트
+ */
+@Timeout(60)
+class GatewayTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @TempDir
+    Path temp;
+
+    private Gateway gateway;
+    private UnixSocketListener listener;
+    private SocketChannel client;
+    private BufferedReader responses;
+    private OutputStream requests;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        gateway = new Gateway(2, socket -> List.of(java, "-cp", classPath, FakeWorker.class.getName(), socket.toString()));
+
+        Path socket = temp.resolve("gateway.sock");
+        listener = new UnixSocketListener(gateway::serve, socket);
+        Thread accept = new Thread(() -> {
+            try {
+                listener.run();
+            } catch (IOException e) {
+                // 테스트가 끝나 리스너를 닫음
+            }
+        }, "gateway-test-listener");
+        accept.setDaemon(true);
+        accept.start();
+
+        client = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        responses = new BufferedReader(new InputStreamReader(ChannelStreams.in(client), StandardCharsets.UTF_8));
+        requests = ChannelStreams.out(client);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        listener.close();
+        gateway.close();
+    }
+
+    @Test
+    void listFanOutMergesAndDeduplicates() throws IOException {
+        initialize();
+
+        send("{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/list\"}");
+        JsonNode tools = read();
+        assertEquals(2, tools.get("id").asInt());
+        List<String> names = new ArrayList<>();
+        for (JsonNode tool : tools.path("result").path("tools")) {
+            names.add(tool.path("name").textValue());
+        }
+        assertEquals(List.of("common", "only-worker-1", "only-worker-2"), names);
+
+        // 게이트웨이 상태 리소스를 한 번만 덧붙임
+        send("{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"resources/list\"}");
+        JsonNode resources = read().path("result").path("resources");
+        assertEquals(1, resources.size());
+        assertEquals("gateway://workers", resources.get(0).path("uri").textValue());
+    }
+
+    @Test
+    void callsGoToLeastLoadedWorker() throws IOException {
+        initialize();
+
+        // 첫 호출은 세션이 없는 작업 프로세스 2로, 그 호출이 끝나기 전의 두 번째 호출은 처리 중인 요청이 없는 1로 감
+        send(call(2, "sleep", "{\"millis\":500}"));
+        send(call(3, "whoami", "{}"));
+        Map<Integer, String> workers = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            JsonNode response = read();
+            workers.put(response.get("id").asInt(), response.path("result").path("worker").textValue());
+        }
+        assertEquals("worker-2", workers.get(2));
+        assertEquals("worker-1", workers.get(3));
+    }
+
+    @Test
+    void initializeIsReplayedToNewUpstream() throws IOException {
+        initialize();
+
+        // 기본 프로세스는 1이고, 호출은 아직 연결하지 않은 2로 감
+        send(call(2, "whoami", "{}"));
+        JsonNode result = read().path("result");
+        assertEquals("worker-2", result.path("worker").textValue());
+        assertEquals("gateway-test", result.path("client").textValue());
+
+        // 재전송한 initialize의 응답은 클라이언트에 전달하지 않음
+        send("{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"ping\"}");
+        assertEquals(3, read().get("id").asInt());
+    }
+
+    @Test
+    void inFlightRequestFailsWhenWorkerDies() throws IOException {
+        initialize();
+
+        send(call(2, "crash", "{}"));
+        JsonNode failed = read();
+        assertEquals(2, failed.get("id").asInt());
+        assertEquals(McpError.INTERNAL_ERROR, failed.path("error").path("code").asInt());
+        assertTrue(failed.path("error").path("message").textValue().contains("작업 프로세스 2"),
+            failed.toString());
+
+        // 감시 스레드가 종료를 알아챈 뒤의 호출은 살아 있는 프로세스나 다시 띄운 프로세스가 처리함
+        awaitExitNoticed(2);
+        send(call(3, "whoami", "{}"));
+        JsonNode result = read().path("result");
+        assertNotNull(result.path("worker").textValue(), result.toString());
+        assertEquals("gateway-test", result.path("client").textValue());
+    }
+
+    private void initialize() throws IOException {
+        send("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\","
+            + "\"params\":{\"protocolVersion\":\"2024-11-05\",\"clientInfo\":{\"name\":\"gateway-test\"}}}");
+        JsonNode response = read();
+        assertEquals(1, response.get("id").asInt());
+        assertEquals("worker-1", response.path("result").path("serverInfo").path("name").textValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void awaitExitNoticed(int index) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<Map<String, Object>> workers = (List<Map<String, Object>>) gateway.stats().get("workers");
+            Map<String, Object> worker = workers.get(index - 1);
+            if (!(boolean) worker.get("live") || (long) worker.get("restarts") > 0) {
+                return;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        fail("작업 프로세스 " + index + "의 종료를 알아채지 못함");
+    }
+
+    private static String call(int id, String tool, String arguments) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"tools/call\","
+            + "\"params\":{\"name\":\"" + tool + "\",\"arguments\":" + arguments + "}}";
+    }
+
+    private void send(String line) throws IOException {
+        requests.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        requests.flush();
+    }
+
+    private JsonNode read() throws IOException {
+        String line = responses.readLine();
+        assertNotNull(line, "게이트웨이가 연결을 닫음");
+        return JSON.readTree(line);
+    }
+}
@@ -0,0 +1,78 @@
+package org.devlion.mcp.server.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * logback.xml에 설정된 샘플링 필터 목록을 차례로 거친 결과 테스트
+ */
+class SamplingTurboFilterTest {
+
+    private static final int EVENTS = 1_000;
+
+    private LoggerContext context;
+
+    @BeforeEach
+    void setUp() throws JoranException {
+        URL config = SamplingTurboFilterTest.class.getResource("/logback.xml");
+        assertNotNull(config);
+        context = new LoggerContext();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    void serverMainInfoAndWarnAreSampledOnce() {
+        Logger main = context.getLogger("org.devlion.mcp.server.McpServerMain");
+        // 두 필터의 로거 범위가 겹쳐도 INFO는 1/100로만 샘플링됨
+        assertEquals(EVENTS / 100, passed(main, Level.INFO, "요청 처리: {}"));
+        assertEquals(EVENTS / 100, passed(main, Level.WARN, "알 수 없는 메서드: {}"));
+        assertEquals(EVENTS, passed(main, Level.ERROR, "요청 처리 중 오류 발생: {}"));
+    }
+
+    @Test
+    void otherServerLoggersSampleInfoOnly() {
+        Logger registry = context.getLogger("org.devlion.mcp.server.tool.ToolRegistry");
+        assertEquals(EVENTS / 100, passed(registry, Level.INFO, "도구 호출: {}"));
+        assertEquals(EVENTS, passed(registry, Level.WARN, "도구 경고: {}"));
+        // 꺼진 레벨은 세지 않음
+        assertEquals(EVENTS, passed(registry, Level.DEBUG, "도구 디버그: {}"));
+    }
+
+    @Test
+    void loggersOutsideTheServerAreNotSampled() {
+        Logger other = context.getLogger("com.example.Other");
+        assertEquals(EVENTS, passed(other, Level.INFO, "다른 로그: {}"));
+    }
+
+    /**
+     * 같은 메시지를 EVENTS번 남길 때 필터 목록이 거부하지 않은 횟수
+     */
+    private int passed(Logger logger, Level level, String format) {
+        int passed = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            if (context.getTurboFilterList().getTurboFilterChainDecision(null, logger, level, format, new Object[] {i}, null) != FilterReply.DENY) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
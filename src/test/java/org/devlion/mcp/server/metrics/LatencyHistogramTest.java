@@ -0,0 +1,117 @@
+package org.devlion.mcp.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로그-선형 히스토그램의 버킷 경계와 백분위 테스트
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundsStayWithinRelativeError() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(Long.MAX_VALUE) >>> random.nextInt(63);
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+            assertTrue(upper >= value, value + " > " + upper);
+            assertTrue(upper - value <= value / 16, value + " → " + upper);
+        }
+        // 16 미만은 값 그대로, 가장 큰 값도 마지막 버킷 안에 들어감
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value)));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void bucketIndexIsMonotonicAcrossPowersOfTwo() {
+        int previous = -1;
+        long last = -1;
+        for (int exponent = 0; exponent < 63; exponent++) {
+            long base = 1L << exponent;
+            for (long value : new long[] {base - 1, base, base + 1}) {
+                if (value <= last) {
+                    continue;
+                }
+                last = value;
+                int index = LatencyHistogram.indexOf(value);
+                assertTrue(index >= previous, "값 " + value);
+                previous = index;
+            }
+        }
+    }
+
+    @Test
+    void percentilesOfUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1µs ~ 10ms를 고르게 기록
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertWithin(5_000_000, histogram.getValueAtPercentile(50));
+        assertWithin(9_000_000, histogram.getValueAtPercentile(90));
+        assertWithin(9_900_000, histogram.getValueAtPercentile(99));
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        assertWithin(1_000, histogram.getValueAtPercentile(0));
+
+        Map<String, Object> summary = histogram.summary();
+        assertEquals(10_000L, summary.get("count"));
+        assertEquals(5000.5, summary.get("mean_us"));
+        assertEquals(10000.0, summary.get("max_us"));
+        double p50 = (double) summary.get("p50_us");
+        assertTrue(p50 >= 5000 && p50 <= 5000 * 17 / 16.0, String.valueOf(p50));
+    }
+
+    @Test
+    void percentileNeverExceedsMaxAndNegativesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getValueAtPercentile(99.9));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    void emptySummaryIsZero() {
+        Map<String, Object> summary = new LatencyHistogram().summary();
+        assertEquals(0L, summary.get("count"));
+        assertEquals(0.0, summary.get("mean_us"));
+        assertEquals(0.0, summary.get("p99_us"));
+        assertEquals(0.0, summary.get("max_us"));
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CompletableFuture<?>[] writers = new CompletableFuture<?>[4];
+        for (int t = 0; t < writers.length; t++) {
+            long offset = t;
+            writers[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    histogram.record(1_000 + offset);
+                }
+            });
+        }
+        CompletableFuture.allOf(writers).join();
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000L, histogram.summary().get("count"));
+        assertEquals(1_003, histogram.getValueAtPercentile(100));
+    }
+
+    /**
+     * 버킷 상한을 반환하므로 실제 값 이상, 1/16 이내
+     */
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16, expected + " → " + actual);
+    }
+}
@@ -0,0 +1,116 @@
+package org.devlion.mcp.server.prompt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.schema.RawJson;
+import org.devlion.mcp.server.text.Rope;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 프롬프트 결과 캐시의 키와 용량 제한 테스트
+ */
+class PromptResultCacheTest {
+
+    @Test
+    void keyIgnoresArgumentOrderAndStringRepresentation() {
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        ordered.put("a", "1");
+        ordered.put("b", "둘");
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("b", Rope.builder().append("둘").build());
+        reversed.put("a", "1");
+
+        assertEquals(PromptResultCache.key("p", ordered), PromptResultCache.key("p", reversed));
+        assertNotEquals(PromptResultCache.key("p", ordered), PromptResultCache.key("q", ordered));
+    }
+
+    @Test
+    void keySeparatesValueTypes() {
+        // 문자열로 바꾸면 같아지는 값도 종류가 다르면 다른 키
+        assertNotEquals(PromptResultCache.key("p", Map.of("a", 3)), PromptResultCache.key("p", Map.of("a", "3")));
+        assertNotEquals(PromptResultCache.key("p", Map.of("a", true)), PromptResultCache.key("p", Map.of("a", "true")));
+        Map<String, Object> missing = new HashMap<>();
+        missing.put("a", null);
+        assertNotEquals(PromptResultCache.key("p", missing), PromptResultCache.key("p", Map.of("a", "null")));
+        assertEquals(PromptResultCache.key("p", Map.of("a", 3)), PromptResultCache.key("p", Map.of("a", 3L)));
+    }
+
+    @Test
+    void keySeparatesArgumentBoundaries() {
+        // 구분 바이트만 쓰면 두 인수와, 그 구분 바이트를 값에 담은 인수 하나가 같은 키가 됨
+        assertNotEquals(
+            PromptResultCache.key("p", Map.of("a", "x", "b", "y")),
+            PromptResultCache.key("p", Map.of("a", "x\0b\0y")));
+        assertNotEquals(
+            PromptResultCache.key("p", Map.of("a", "", "b", "")),
+            PromptResultCache.key("p", Map.of("a", "\0b\0")));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByWeight() {
+        // 항목 무게는 값 300바이트 + 키 2자 + 부가 비용 128바이트 = 430
+        PromptResultCache cache = new PromptResultCache(2000);
+        for (int i = 1; i <= 4; i++) {
+            cache.put("k" + i, value(300));
+        }
+        assertEquals(4 * 430L, cache.stats().get("weight_bytes"));
+
+        assertNotNull(cache.get("k1"));
+        cache.put("k5", value(300));
+
+        assertNull(cache.get("k2"));
+        assertNotNull(cache.get("k1"));
+        assertNotNull(cache.get("k5"));
+        Map<String, Object> stats = cache.stats();
+        assertEquals(4, stats.get("entries"));
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(4 * 430L, stats.get("weight_bytes"));
+
+        // 같은 키를 다시 넣으면 무게를 바꿔 셈
+        cache.put("k1", value(100));
+        assertEquals(3 * 430L + 230, cache.stats().get("weight_bytes"));
+    }
+
+    @Test
+    void rejectsEntriesOverQuarterOfCapacity() {
+        PromptResultCache cache = new PromptResultCache(2000);
+        cache.put("big", value(400));
+        assertNull(cache.get("big"));
+        assertEquals(1L, cache.stats().get("rejected_oversized"));
+        assertEquals(0, cache.stats().get("entries"));
+    }
+
+    @Test
+    void missingArgumentIsReportedAndNotCached() {
+        PromptRegistry registry = new PromptRegistry(new ObjectMapper());
+        Map<String, Object> params = Map.of("name", "code_review", "arguments", Map.of("language", "java"));
+
+        for (int round = 0; round < 2; round++) {
+            McpMessage response = registry.handlePromptGet(1, params);
+            Map<?, ?> result = (Map<?, ?>) response.getResult();
+            assertEquals("오류가 발생했습니다", result.get("description"));
+            String text = String.valueOf(((Map<?, ?>) ((Map<?, ?>) ((List<?>) result.get("messages")).get(0)).get("content")).get("text"));
+            assertTrue(text.contains("code"), text);
+        }
+        assertEquals(0, registry.getResultCache().stats().get("entries"));
+
+        McpMessage ok = registry.handlePromptGet(1, Map.of("name", "code_review", "arguments", Map.of("code", "int x;", "language", "java")));
+        assertTrue(ok.getResult() instanceof RawJson);
+        assertEquals(1, registry.getResultCache().stats().get("entries"));
+    }
+
+    private static Rope value(int bytes) {
+        return Rope.builder().append("v".repeat(bytes)).build();
+    }
+}
@@ -0,0 +1,58 @@
+package org.devlion.mcp.server.prompt.template;
+
+import org.devlion.mcp.server.text.Rope;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 프롬프트 템플릿 파싱과 렌더링 테스트
+ */
+class PromptTemplateTest {
+
+    private final PromptTemplate template = PromptTemplate.compile(
+        "언어: {{ language }}\n코드:\n{{code}}\n중점: {{focus}}", Map.of("focus", "전반"));
+
+    @Test
+    void rendersLiteralsAndPlaceholders() {
+        assertEquals(List.of("language", "code", "focus"), template.getPlaceholders());
+        assertEquals("언어: java\n코드:\nint x = 1;\n중점: 성능",
+            template.render(Map.of("language", "java", "code", "int x = 1;", "focus", "성능")));
+        // 값 안의 자리표시자 모양은 다시 치환하지 않음
+        assertEquals("{{a}}-{{a}}", PromptTemplate.compile("{{a}}-{{a}}").render(Map.of("a", "{{a}}")));
+    }
+
+    @Test
+    void usesDefaultsAndConvertsValues() {
+        assertEquals("언어: 7\n코드:\ntrue\n중점: 전반", template.render(Map.of("language", 7, "code", true)));
+    }
+
+    @Test
+    void ropeRenderingMatchesStringRendering() {
+        String code = "가나다 {{not a placeholder}} ".repeat(1000);
+        Rope rope = Rope.builder().append(code).build();
+        Map<String, Object> arguments = Map.of("language", "kotlin", "code", rope);
+
+        String expected = template.render(Map.of("language", "kotlin", "code", code));
+        assertEquals(expected, template.render(arguments));
+        assertEquals(expected, template.renderRope(arguments).toString());
+    }
+
+    @Test
+    void missingArgumentIsNamed() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> template.render(Map.of("language", "java")));
+        assertTrue(e.getMessage().contains("code"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> template.renderRope(Map.of("code", "x")));
+    }
+
+    @Test
+    void rejectsUnclosedPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("앞 {{name 뒤"));
+    }
+}
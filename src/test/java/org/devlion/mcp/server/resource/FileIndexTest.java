@@ -0,0 +1,166 @@
+package org.devlion.mcp.server.resource;
+
+import org.devlion.mcp.server.schema.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 파일 색인의 처음 훑기와 감시 이벤트 반영 테스트
+ */
+class FileIndexTest {
+
+    private static final long DEADLINE_MILLIS = 10_000;
+
+    @TempDir
+    Path temp;
+
+    private Path root;
+    private FileIndex index;
+    private final AtomicInteger published = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createDirectory(temp.resolve("docs")).toRealPath();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private void start(int maxFiles) throws IOException {
+        index = new FileIndex(List.of(root), maxFiles, 20, 2);
+        index.addListener(published::incrementAndGet);
+        index.start();
+    }
+
+    @Test
+    void initialScanIndexesNestedFilesInUriOrder() throws IOException {
+        Files.writeString(root.resolve("b.txt"), "b");
+        Files.createDirectories(root.resolve("sub/deeper"));
+        Files.writeString(root.resolve("sub/deeper/c.txt"), "ccc");
+        Files.writeString(root.resolve("a.txt"), "aa");
+        start(100);
+
+        List<Resource> resources = await(list -> list.size() == 3);
+        assertEquals(List.of("docs/a.txt", "docs/b.txt", "docs/sub/deeper/c.txt"), names(resources));
+        assertEquals(2L, resources.get(0).getSize());
+        assertEquals(root.resolve("a.txt").toUri().toString(), resources.get(0).getUri());
+        assertTrue(published.get() >= 1);
+        assertEquals(3, index.stats().get("watched_directories"));
+    }
+
+    @Test
+    void createModifyAndDeleteAreReflected() throws IOException {
+        Files.writeString(root.resolve("keep.txt"), "keep");
+        start(100);
+        await(list -> list.size() == 1);
+
+        Path added = root.resolve("added.txt");
+        Files.writeString(added, "1");
+        await(list -> names(list).contains("docs/added.txt"));
+
+        Files.writeString(added, "12345");
+        await(list -> size(list, "docs/added.txt") == 5L);
+
+        Files.delete(added);
+        List<Resource> resources = await(list -> !names(list).contains("docs/added.txt"));
+        assertEquals(List.of("docs/keep.txt"), names(resources));
+        assertTrue((long) index.stats().get("events") > 0);
+    }
+
+    @Test
+    void newDirectoryIsScannedAndDeletedDirectoryIsDropped() throws IOException {
+        start(100);
+        await(List::isEmpty);
+
+        Path directory = Files.createDirectories(root.resolve("new/inner"));
+        Files.writeString(directory.resolve("x.txt"), "x");
+        await(list -> names(list).contains("docs/new/inner/x.txt"));
+
+        // 새 디렉터리도 감시하므로 나중에 넣은 파일도 반영됨
+        Files.writeString(directory.resolve("y.txt"), "y");
+        await(list -> names(list).contains("docs/new/inner/y.txt"));
+
+        deleteTree(root.resolve("new"));
+        await(List::isEmpty);
+    }
+
+    @Test
+    void stopsIndexingAtMaxFiles() throws IOException, InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(root.resolve("f" + i + ".txt"), "x");
+        }
+        start(3);
+        await(list -> list.size() == 3);
+
+        assertEquals(true, index.stats().get("full"));
+
+        // 감시 이벤트로 들어온 파일도 한도를 넘으면 색인하지 않음
+        long events = (long) index.stats().get("events");
+        Files.writeString(root.resolve("late.txt"), "x");
+        long deadline = System.currentTimeMillis() + DEADLINE_MILLIS;
+        while ((long) index.stats().get("events") == events && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue((long) index.stats().get("events") > events);
+        assertEquals(3, index.getResources().size());
+        assertFalse(names(index.getResources()).contains("docs/late.txt"));
+    }
+
+    /**
+     * 감시 스레드가 반영할 때까지 기다립니다. 기한 안에 조건을 만족하지 않으면 실패
+     */
+    private List<Resource> await(Predicate<List<Resource>> condition) {
+        long deadline = System.currentTimeMillis() + DEADLINE_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            // 처음 훑기가 끝나기 전의 빈 목록은 결과로 보지 않음
+            List<Resource> resources = index.getResources();
+            if (published.get() > 0 && condition.test(resources)) {
+                return resources;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("색인이 기한 안에 바뀌지 않음: " + names(index.getResources()));
+    }
+
+    private static List<String> names(List<Resource> resources) {
+        return resources.stream().map(Resource::getName).collect(Collectors.toList());
+    }
+
+    private static Long size(List<Resource> resources, String name) {
+        return resources.stream().filter(r -> r.getName().equals(name)).findFirst().map(Resource::getSize).orElse(null);
+    }
+
+    private static void deleteTree(Path path) throws IOException {
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path each : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(each);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.devlion.mcp.server.schedule;
+
+import org.devlion.mcp.server.tool.Bulkhead;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션 간 결손 라운드 로빈 순서와 세션별 한도 테스트
+ */
+class SessionSchedulerTest {
+
+    private SessionScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void parsesWeights() {
+        assertEquals(Map.of("ide", 3, "batch job", 1), SessionScheduler.parseWeights(" ide = 3 ,batch job=1,"));
+        assertEquals(Map.of(), SessionScheduler.parseWeights(""));
+        assertThrows(IllegalArgumentException.class, () -> SessionScheduler.parseWeights("ide"));
+        assertThrows(IllegalArgumentException.class, () -> SessionScheduler.parseWeights("ide=0"));
+    }
+
+    @Test
+    void weightedSessionsTakeTurnsInProportion() throws Exception {
+        // 작업 스레드 하나로 실행 순서를 결정적으로 만듦
+        scheduler = new SessionScheduler(1, 4, 64, 0, 0, Map.of("heavy", 3));
+        CountDownLatch gate = blockWorker();
+
+        StringBuffer order = new StringBuffer();
+        SessionQueue heavy = scheduler.open(1);
+        scheduler.identify(heavy, "heavy");
+        SessionQueue light = scheduler.open(2);
+        scheduler.identify(light, "light");
+        for (int i = 0; i < 6; i++) {
+            scheduler.submit(heavy, () -> order.append('H'));
+        }
+        for (int i = 0; i < 6; i++) {
+            scheduler.submit(light, () -> order.append('L'));
+        }
+        gate.countDown();
+        scheduler.close(heavy);
+        scheduler.close(light);
+
+        assertEquals("HHHLHHHLLLLL", order.toString());
+    }
+
+    @Test
+    void equalWeightsAlternate() throws Exception {
+        scheduler = new SessionScheduler(1, 4, 64, 0, 0, Map.of());
+        CountDownLatch gate = blockWorker();
+
+        StringBuffer order = new StringBuffer();
+        SessionQueue a = scheduler.open(1);
+        SessionQueue b = scheduler.open(2);
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(a, () -> order.append('a'));
+        }
+        for (int i = 0; i < 2; i++) {
+            scheduler.submit(b, () -> order.append('b'));
+        }
+        gate.countDown();
+        scheduler.close(a);
+        scheduler.close(b);
+
+        assertEquals("ababaa", order.toString());
+    }
+
+    @Test
+    void concurrencyLimitLeavesWorkersForOtherSessions() throws Exception {
+        scheduler = new SessionScheduler(3, 1, 64, 0, 0, Map.of());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        SessionQueue greedy = scheduler.open(1);
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(greedy, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(release);
+                running.decrementAndGet();
+            });
+        }
+        SessionQueue other = scheduler.open(2);
+        CountDownLatch otherDone = new CountDownLatch(1);
+        scheduler.submit(other, otherDone::countDown);
+
+        // 첫 세션이 막혀 있어도 다른 세션의 요청은 실행됨
+        assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        scheduler.close(greedy);
+        scheduler.close(other);
+        assertEquals(1, peak.get());
+    }
+
+    @Test
+    void heldSlotsLimitSessionFloodingSlowTool() throws Exception {
+        // 요청은 격벽에 넘기고 바로 반환하지만, 격벽의 호출이 끝나 자리를 반납할 때까지 세션의 몫으로 셈
+        scheduler = new SessionScheduler(2, 2, 64, 0, 0, Map.of());
+        Bulkhead bulkhead = new Bulkhead("slow", 8, 16);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        SessionQueue flood = scheduler.open(1);
+        for (int i = 0; i < 6; i++) {
+            scheduler.submitHeld(flood, slot -> bulkhead.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(release);
+                sleep(20);
+                running.decrementAndGet();
+                slot.run();
+            }));
+        }
+        SessionQueue other = scheduler.open(2);
+        CountDownLatch otherDone = new CountDownLatch(1);
+        scheduler.submitHeld(other, slot -> bulkhead.execute(() -> {
+            otherDone.countDown();
+            slot.run();
+        }));
+
+        assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Map<?, ?> blocked = session(1);
+        while ((Integer) blocked.get("in_flight") < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            blocked = session(1);
+        }
+        // 격벽에는 스레드가 남아 있어도 세션의 동시 실행 한도에서 멈춤
+        assertEquals(2, blocked.get("in_flight"));
+        assertEquals(4, blocked.get("queued"));
+        release.countDown();
+        Map<?, ?> done = closeAndReport(flood);
+        scheduler.close(other);
+
+        assertEquals(2, peak.get());
+        assertEquals(6L, done.get("completed"));
+        // 호출 여섯 개를 둘씩 20ms 넘게 실행했으므로 세 차례분 이상
+        assertTrue((long) done.get("busy_ms") >= 6 * 20, String.valueOf(done));
+    }
+
+    @Test
+    void throwingHeldTaskReleasesItsSlot() throws Exception {
+        scheduler = new SessionScheduler(1, 1, 64, 0, 0, Map.of());
+        SessionQueue queue = scheduler.open(1);
+        scheduler.submitHeld(queue, slot -> {
+            throw new IllegalStateException("의도한 실패");
+        });
+        // 두 번 반납해도 한 번만 셈
+        scheduler.submitHeld(queue, slot -> {
+            slot.run();
+            slot.run();
+        });
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit(queue, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Map<?, ?> usage = closeAndReport(queue);
+        assertEquals(3L, usage.get("completed"));
+        assertEquals(1L, usage.get("failed"));
+        assertEquals(0, usage.get("in_flight"));
+    }
+
+    @Test
+    void rateLimitedSessionWaitsForTokens() throws Exception {
+        scheduler = new SessionScheduler(2, 4, 64, 20, 1, Map.of());
+        SessionQueue queue = scheduler.open(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(queue, () -> { });
+        }
+        scheduler.close(queue);
+
+        // 초당 20개, 순간 허용량 1이면 세 번째 요청은 100ms 뒤에 실행됨
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+        Map<?, ?> usage = scheduler.usage();
+        assertEquals(1L, usage.get("closed_sessions"));
+        assertEquals(3L, usage.get("closed_sessions_completed"));
+        assertEquals(0, usage.get("active_sessions"));
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWorker() throws Exception {
+        scheduler = new SessionScheduler(1, 4, 64, 0, 0, Map.of());
+        SessionQueue queue = scheduler.open(1);
+        AtomicInteger ran = new AtomicInteger();
+        scheduler.submit(queue, () -> {
+            throw new IllegalStateException("의도한 실패");
+        });
+        scheduler.submit(queue, ran::incrementAndGet);
+
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit(queue, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Map<?, ?> session = (Map<?, ?>) ((List<?>) scheduler.usage().get("sessions")).get(0);
+        scheduler.close(queue);
+        assertEquals(1, ran.get());
+        assertEquals(1L, session.get("failed"));
+    }
+
+    /**
+     * 유일한 작업 스레드를 막아 두고, 그동안 넣은 요청이 모두 큐에 쌓이게 합니다.
+     */
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        SessionQueue blocker = scheduler.open(0);
+        scheduler.submit(blocker, () -> {
+            started.countDown();
+            await(gate);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return gate;
+    }
+
+    private Map<?, ?> session(long id) {
+        for (Object each : (List<?>) scheduler.usage().get("sessions")) {
+            Map<?, ?> session = (Map<?, ?>) each;
+            if (((Long) session.get("id")) == id) {
+                return session;
+            }
+        }
+        throw new AssertionError("세션 없음: " + id);
+    }
+
+    /**
+     * 남은 요청을 모두 마친 세션의 사용량. 큐를 닫으면 목록에서 빠지므로 마지막 요청이 끝난 뒤 닫기 전에 읽음
+     */
+    private Map<?, ?> closeAndReport(SessionQueue queue) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Map<?, ?> usage = session(queue.getId());
+        while ((((Integer) usage.get("queued")) > 0 || ((Integer) usage.get("in_flight")) > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            usage = session(queue.getId());
+        }
+        scheduler.close(queue);
+        return usage;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
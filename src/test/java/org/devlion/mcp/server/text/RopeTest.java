@@ -0,0 +1,113 @@
+package org.devlion.mcp.server.text;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rope 인코딩, 조각 경계, 크기 제한 테스트
+ */
+class RopeTest {
+
+    /** 1, 2, 3, 4바이트 문자가 섞여 조각 경계가 코드 포인트 중간에 걸리도록 만든 텍스트 */
+    private static final String MIXED = "a é 가 😀 ".repeat(Rope.CHUNK_SIZE / 4);
+
+    @Test
+    void keepsTextAcrossChunkBoundaries() throws IOException {
+        Rope rope = Rope.builder().append(MIXED).build();
+        byte[] utf8 = MIXED.getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(utf8.length > 2 * Rope.CHUNK_SIZE);
+        assertEquals(utf8.length, rope.byteLength());
+        assertFalse(rope.isOverLimit());
+        assertEquals(MIXED, rope.toString());
+        assertEquals(MIXED, readAll(rope, 1));
+        assertEquals(MIXED, readAll(rope, 8191));
+
+        ByteBuffer copy = ByteBuffer.allocate(utf8.length);
+        rope.copyTo(copy);
+        assertArrayEquals(utf8, copy.array());
+    }
+
+    @Test
+    void writerInputMatchesAppend() {
+        Rope.Builder builder = Rope.builder();
+        char[] chars = MIXED.toCharArray();
+        // 서로게이트 쌍이 write 호출 사이에 나뉘어도 같은 결과
+        for (int i = 0; i < chars.length; i += 7) {
+            builder.write(chars, i, Math.min(7, chars.length - i));
+        }
+        assertEquals(MIXED, builder.build().toString());
+    }
+
+    @Test
+    void replacesUnpairedSurrogates() {
+        assertEquals("x�y", Rope.builder().append("x\uD83Dy").build().toString());
+        assertEquals("x�", Rope.builder().append("x\uDE00").build().toString());
+        assertEquals("x�", Rope.builder().append("x\uD83D").build().toString());
+    }
+
+    @Test
+    void overLimitKeepsOnlyLength() {
+        Rope rope = Rope.builder(10).append("0123456789가").build();
+        assertTrue(rope.isOverLimit());
+        assertEquals(13, rope.byteLength());
+        assertEquals("", rope.toString());
+
+        Rope exact = Rope.builder(10).append("0123456789").build();
+        assertFalse(exact.isOverLimit());
+        assertEquals("0123456789", exact.toString());
+    }
+
+    @Test
+    void appendsRopesAndEncodedBuffersWithoutCopying() {
+        Rope first = Rope.builder().append("앞 ").build();
+        ByteBuffer encoded = ByteBuffer.wrap("가운데".getBytes(StandardCharsets.UTF_8));
+        Rope joined = Rope.builder().append(first).appendEncoded(encoded).append(" 뒤").build();
+
+        assertEquals("앞 가운데 뒤", joined.toString());
+        assertEquals("앞 가운데 뒤".getBytes(StandardCharsets.UTF_8).length, joined.byteLength());
+        // 원래 버퍼의 위치는 바뀌지 않음
+        assertEquals(0, encoded.position());
+        assertTrue(Rope.containsRope(Map.of("a", "x", "b", joined)));
+        assertFalse(Rope.containsRope(Map.of("a", "x")));
+    }
+
+    @Test
+    void serializesAndDigestsLikeTheString() throws IOException, NoSuchAlgorithmException {
+        String text = "\"인용\" \\ 줄바꿈\n탭\t " + MIXED;
+        Rope rope = Rope.builder().append(text).build();
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.writeValueAsString(Map.of("v", text)), mapper.writeValueAsString(Map.of("v", rope)));
+
+        MessageDigest expected = MessageDigest.getInstance("SHA-256");
+        expected.update(text.getBytes(StandardCharsets.UTF_8));
+        MessageDigest actual = MessageDigest.getInstance("SHA-256");
+        rope.updateDigest(actual);
+        assertArrayEquals(expected.digest(), actual.digest());
+    }
+
+    private static String readAll(Rope rope, int bufferSize) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        try (Reader reader = rope.openReader()) {
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+                text.append(buffer, 0, read);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package org.devlion.mcp.server.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 격벽이 가득 찼을 때의 거부와 대기 테스트
+ */
+class BulkheadTest {
+
+    @Test
+    void fullBulkheadRejectsOrBlocks() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("slow", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        Runnable slow = () -> {
+            await(release);
+            ran.incrementAndGet();
+        };
+        bulkhead.execute(slow);
+        bulkhead.execute(slow);
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.execute(slow));
+
+        // 거부하지 않는 쪽은 앞선 호출이 끝나 대기열에 자리가 날 때까지 돌아오지 않음
+        CompletableFuture<Void> submitter = CompletableFuture.runAsync(() -> {
+            try {
+                bulkhead.executeBlocking(slow);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThrows(TimeoutException.class, () -> submitter.get(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        submitter.get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ran.get() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(3, ran.get());
+        Map<String, Object> stats = bulkhead.stats();
+        assertEquals(3L, stats.get("submitted"));
+        assertEquals(1L, stats.get("rejected"));
+        assertEquals(1L, stats.get("blocked"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.devlion.mcp.server.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 도구별, 세션별 호출 한도 테스트. 초당 1회처럼 느린 한도를 써서 테스트 도중의 충전이 결과를 바꾸지 않게 합니다.
+ */
+class RateLimitsTest {
+
+    private static final List<String> TOOLS = List.of("a", "b");
+
+    @Test
+    void parsesLimitSpecs() {
+        assertArrayEquals(new double[] {5, 5}, RateLimits.parseLimit("5"));
+        assertArrayEquals(new double[] {0.5, 1}, RateLimits.parseLimit("0.5"));
+        assertArrayEquals(new double[] {10, 2}, RateLimits.parseLimit(" 10 : 2 "));
+        assertThrows(IllegalArgumentException.class, () -> RateLimits.parseLimit("fast"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RateLimits(TOOLS, Map.of("a", new double[] {0, 1}), Map.of(), 0));
+    }
+
+    @Test
+    void toolLimitIsSharedAcrossSessions() {
+        RateLimits limits = new RateLimits(TOOLS, Map.of("a", new double[] {1, 2}), Map.of(), 0);
+        assertTrue(limits.isLimited("a"));
+        assertFalse(limits.isLimited("b"));
+
+        assertNull(limits.acquire("a", 1, session(), new long[1]));
+        assertNull(limits.acquire("a", 1, session(), new long[1]));
+        RateLimits.Rejection rejection = limits.acquire("a", 1, session(), new long[1]);
+        assertNotNull(rejection);
+        assertEquals("tool", rejection.scope);
+        assertTrue(rejection.retryAfterNanos > 0 && rejection.retryAfterNanos <= 1_000_000_000L,
+            String.valueOf(rejection.retryAfterNanos));
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(limits.acquire("b", 1, session(), new long[1]));
+        }
+        Map<?, ?> stats = (Map<?, ?>) limits.stats().get("a");
+        assertEquals(2L, stats.get("admitted"));
+        assertEquals(1L, stats.get("rejected"));
+        assertFalse(limits.stats().containsKey("b"));
+    }
+
+    @Test
+    void sessionLimitAppliesPerSessionAndWildcard() {
+        RateLimits limits = new RateLimits(TOOLS, Map.of(), Map.of(RateLimits.ALL, new double[] {1, 1}), 0);
+        Map<String, TokenBucket> first = session();
+        Map<String, TokenBucket> second = session();
+
+        assertNull(limits.acquire("a", 1, first, new long[1]));
+        assertEquals("session", limits.acquire("a", 1, first, new long[1]).scope);
+        assertNull(limits.acquire("b", 1, first, new long[1]));
+        assertNull(limits.acquire("a", 1, second, new long[1]));
+        assertEquals(-1, limits.acquire("a", 2, second, new long[1]).retryAfterNanos);
+    }
+
+    @Test
+    void sharedRejectionReturnsSessionToken() {
+        RateLimits limits = new RateLimits(TOOLS, Map.of("a", new double[] {1, 1}), Map.of("a", new double[] {1, 2}), 0);
+        Map<String, TokenBucket> first = session();
+        Map<String, TokenBucket> second = session();
+
+        assertNull(limits.acquire("a", 1, first, new long[1]));
+        assertEquals("tool", limits.acquire("a", 1, second, new long[1]).scope);
+        assertEquals("tool", limits.acquire("a", 1, second, new long[1]).scope);
+        // 공유 버킷에서 거부된 호출은 세션 토큰을 쓰지 않음
+        assertTrue(second.get("a").available(System.nanoTime()) > 1.99, String.valueOf(second.get("a").available(System.nanoTime())));
+
+        // 실행하지 않게 된 호출은 양쪽 버킷에 돌려놓음
+        limits.release("a", 1, first);
+        assertNull(limits.acquire("a", 1, second, new long[1]));
+    }
+
+    @Test
+    void delaysWhenRefillIsWithinMaxWait() {
+        RateLimits limits = new RateLimits(TOOLS, Map.of("a", new double[] {100, 1}), Map.of(), 1_000);
+        Map<String, TokenBucket> session = session();
+
+        long[] wait = {0};
+        assertNull(limits.acquire("a", 1, session, wait));
+        assertEquals(0, wait[0]);
+        // 기다리지 않고 반환하며, 실행할 스레드가 기다릴 시간을 알려 줌
+        long start = System.nanoTime();
+        assertNull(limits.acquire("a", 1, session, wait));
+        assertTrue(System.nanoTime() - start < 9_000_000L);
+        assertTrue(wait[0] > 9_000_000L && wait[0] <= 10_000_000L, String.valueOf(wait[0]));
+        RateLimits.awaitAdmission(start, wait[0]);
+        assertTrue(System.nanoTime() - start >= wait[0]);
+
+        Map<?, ?> stats = (Map<?, ?>) limits.stats().get("a");
+        assertEquals(2L, stats.get("admitted"));
+        assertEquals(1L, stats.get("delayed"));
+    }
+
+    private static Map<String, TokenBucket> session() {
+        return new ConcurrentHashMap<>();
+    }
+}
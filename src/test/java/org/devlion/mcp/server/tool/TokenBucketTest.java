@@ -0,0 +1,125 @@
+package org.devlion.mcp.server.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA 토큰 버킷의 시각 계산 테스트. 현재 시각을 직접 넘겨 결과가 실행 속도에 좌우되지 않게 합니다.
+ */
+class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void admitsBurstThenReportsRetryTime() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long t0 = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.acquire(1, t0, 0));
+        }
+        assertEquals(-INTERVAL, bucket.acquire(1, t0, 0));
+        // 거부는 상태를 바꾸지 않음
+        assertEquals(-INTERVAL, bucket.acquire(1, t0, 0));
+        assertEquals(-INTERVAL / 2, bucket.acquire(1, t0 + INTERVAL / 2, 0));
+
+        // 토큰 하나가 채워지면 하나만 더
+        assertEquals(0, bucket.acquire(1, t0 + INTERVAL, 0));
+        assertEquals(-INTERVAL, bucket.acquire(1, t0 + INTERVAL, 0));
+        // 한참 지나도 burst개까지만 쌓임
+        long later = t0 + 100 * INTERVAL;
+        assertEquals(3.0, bucket.available(later));
+        assertEquals(0, bucket.acquire(3, later, 0));
+        assertEquals(-INTERVAL, bucket.acquire(1, later, 0));
+    }
+
+    @Test
+    void waitsWhenRefillIsWithinMaxWait() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long t0 = System.nanoTime();
+        assertEquals(0, bucket.acquire(1, t0, INTERVAL));
+        assertEquals(INTERVAL, bucket.acquire(1, t0, INTERVAL));
+        // 앞의 대기분까지 예약되어 있으므로 다음은 두 칸 뒤
+        assertEquals(-2 * INTERVAL, bucket.acquire(1, t0, INTERVAL));
+        assertEquals(2 * INTERVAL, bucket.acquire(1, t0, 2 * INTERVAL));
+    }
+
+    @Test
+    void costOverBurstIsNever() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long t0 = System.nanoTime();
+        assertEquals(TokenBucket.NEVER, bucket.acquire(4, t0, Long.MAX_VALUE));
+        assertEquals(0, bucket.acquire(3, t0, 0));
+    }
+
+    @Test
+    void releaseReturnsTokens() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long t0 = System.nanoTime();
+        assertEquals(0, bucket.acquire(2, t0, 0));
+        assertEquals(0.0, bucket.available(t0));
+        bucket.release(1);
+        assertEquals(1.0, bucket.available(t0));
+        assertEquals(0, bucket.acquire(1, t0, 0));
+        assertEquals(-INTERVAL, bucket.acquire(1, t0, 0));
+
+        // 가득 찬 버킷에 돌려놓아도 burst를 넘지 않음
+        long later = t0 + 100 * INTERVAL;
+        bucket.release(2);
+        assertEquals(2.0, bucket.available(later));
+        assertEquals(0, bucket.acquire(2, later, 0));
+        assertEquals(-INTERVAL, bucket.acquire(1, later, 0));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 50);
+        long t0 = System.nanoTime();
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (bucket.acquire(1, t0, 0) >= 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+        assertEquals(50, admitted.get());
+    }
+
+    @Test
+    void startsFullForClockReadBeforeCreation() {
+        long before = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertEquals(1.0, bucket.available(before));
+        assertEquals(0, bucket.acquire(1, before, 0));
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0.5));
+        assertTrue(new TokenBucket(0.5, 1).acquire(1, System.nanoTime(), 0) >= 0);
+    }
+}
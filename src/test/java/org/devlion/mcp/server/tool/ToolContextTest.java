@@ -0,0 +1,116 @@
+package org.devlion.mcp.server.tool;
+
+import org.devlion.mcp.server.schema.McpMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 진행 알림 모으기와 취소 표시 테스트
+ *
+ * 알림 간격은 기본값 {@code mcp.tool.progressIntervalMillis}=100ms를 가정합니다.
+ */
+class ToolContextTest {
+
+    private final List<McpMessage> sent = new ArrayList<>();
+    private final ToolContext context = new ToolContext("token", sent::add);
+
+    @Test
+    void firstUpdateIsSentAndLaterOnesAreCoalesced() {
+        context.progress(1, 100.0, "시작");
+        assertEquals(1, sent.size());
+
+        // 간격 안에 온 진행 상황과 부분 결과는 모았다가 flush에 한 번에 보냄
+        for (int i = 2; i <= 50; i++) {
+            context.progress(i, 100.0, null);
+        }
+        context.partial(Map.of("type", "text", "text", "a"));
+        context.partial(Map.of("type", "text", "text", "b"));
+        assertEquals(1, sent.size());
+
+        context.flush();
+        assertEquals(2, sent.size());
+        Map<?, ?> params = params(1);
+        assertEquals("token", params.get("progressToken"));
+        assertEquals(50.0, params.get("progress"));
+        assertEquals(100.0, params.get("total"));
+        assertEquals(2, ((List<?>) params.get("content")).size());
+
+        // 보낼 것이 없으면 flush해도 보내지 않음
+        context.flush();
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void updateAfterIntervalIsSent() throws InterruptedException {
+        context.progress(1, null, null);
+        context.progress(2, null, null);
+        assertEquals(1, sent.size());
+
+        Thread.sleep(150);
+        context.progress(3, null, null);
+        assertEquals(2, sent.size());
+        assertEquals(3.0, params(1).get("progress"));
+        assertFalse(params(1).containsKey("total"));
+    }
+
+    @Test
+    void finishedProgressIsSentImmediately() {
+        context.progress(1, 3.0, null);
+        context.progress(2, 3.0, null);
+        assertEquals(1, sent.size());
+        context.progress(3, 3.0, "완료");
+        assertEquals(2, sent.size());
+        assertEquals(3.0, params(1).get("progress"));
+        assertEquals("완료", params(1).get("message"));
+    }
+
+    @Test
+    void progressNeverDecreases() {
+        context.progress(5, 10.0, null);
+        context.progress(3, 10.0, null);
+        context.flush();
+        assertEquals(5.0, params(1).get("progress"));
+
+        // 더 작은 값으로 완료를 알려도 이미 보낸 값보다 줄지 않음
+        context.progress(4, 4.0, null);
+        assertEquals(5.0, params(2).get("progress"));
+    }
+
+    @Test
+    void withoutProgressTokenNothingIsSent() {
+        ToolContext silent = new ToolContext(null, sent::add);
+        assertFalse(silent.isReporting());
+        silent.progress(1, 1.0, null);
+        silent.partial(Map.of("type", "text", "text", "a"));
+        silent.flush();
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void cancelIsVisible() {
+        assertFalse(context.isCancelled());
+        context.cancel();
+        assertTrue(context.isCancelled());
+    }
+
+    @Test
+    void readsProgressTokenFromMeta() {
+        assertEquals(7, ToolContext.progressToken(Map.of("_meta", Map.of("progressToken", 7))));
+        assertNull(ToolContext.progressToken(Map.of("name", "x")));
+        assertNull(ToolContext.progressToken(null));
+    }
+
+    private Map<?, ?> params(int index) {
+        McpMessage notification = sent.get(index);
+        assertEquals("notifications/progress", notification.getMethod());
+        return (Map<?, ?>) notification.getParams();
+    }
+}
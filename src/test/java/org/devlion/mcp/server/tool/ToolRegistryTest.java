@@ -0,0 +1,125 @@
+package org.devlion.mcp.server.tool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devlion.mcp.server.cache.PersistentCache;
+import org.devlion.mcp.server.schema.McpError;
+import org.devlion.mcp.server.schema.McpMessage;
+import org.devlion.mcp.server.text.Rope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 도구 호출 경로 회귀 테스트
+ */
+class ToolRegistryTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void batchItemsRunInTargetToolBulkhead() {
+        ToolRegistry registry = new ToolRegistry();
+        McpMessage response = registry.handleToolCall(1, Map.of("name", ToolRegistry.BATCH_TOOL, "arguments", Map.of(
+            "tool", "greeting",
+            "arguments_list", List.of(Map.of("name", "a"), Map.of("name", "b"), Map.of("name", "c")))));
+        assertEquals(false, ((Map<?, ?>) response.getResult()).get("isError"));
+
+        Map<?, ?> greeting = (Map<?, ?>) registry.getBulkheadStats().get("greeting");
+        assertEquals(3L, greeting.get("submitted"));
+    }
+
+    @Test
+    void cancelledBatchStopsEarly() {
+        ToolRegistry registry = new ToolRegistry();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(Map.of("name", "n" + i));
+        }
+        // 첫 진행 알림을 받으면 클라이언트가 notifications/cancelled를 보낸 것처럼 취소
+        AtomicInteger notifications = new AtomicInteger();
+        ToolContext[] context = new ToolContext[1];
+        context[0] = new ToolContext("token", notification -> {
+            notifications.incrementAndGet();
+            context[0].cancel();
+        });
+
+        McpMessage response = registry.handleToolCall(1, Map.of("name", ToolRegistry.BATCH_TOOL, "arguments", Map.of(
+            "tool", "greeting", "arguments_list", items, "max_parallelism", 1)), context[0]);
+
+        Map<?, ?> result = (Map<?, ?>) response.getResult();
+        assertEquals(true, result.get("isError"));
+        String text = (String) ((Map<?, ?>) ((List<?>) result.get("content")).get(0)).get("text");
+        assertTrue(text.contains("취소"), text);
+        long submitted = (long) ((Map<?, ?>) registry.getBulkheadStats().get("greeting")).get("submitted");
+        assertTrue(submitted < items.size(), String.valueOf(submitted));
+        assertTrue(notifications.get() >= 1);
+    }
+
+    @Test
+    void deeplyNestedExpressionIsToolError() {
+        ToolRegistry registry = new ToolRegistry();
+        McpMessage response = registry.handleToolCall(1, Map.of("name", "calculator",
+            "arguments", Map.of("expression", "(".repeat(20_000) + "1" + ")".repeat(20_000))));
+        assertNull(response.getError());
+        assertEquals(true, ((Map<?, ?>) response.getResult()).get("isError"));
+    }
+
+    @Test
+    void ropeArgumentsArePassedAsText() {
+        ToolRegistry registry = new ToolRegistry();
+        String name = "가".repeat(70_000);
+        McpMessage response = registry.handleToolCall(1, Map.of("name", "greeting",
+            "arguments", Map.of("name", Rope.builder().append(name).build(), "language", "korean")));
+        assertNull(response.getError());
+        Map<?, ?> result = (Map<?, ?>) response.getResult();
+        assertEquals(false, result.get("isError"));
+        assertTrue(((String) ((Map<?, ?>) ((List<?>) result.get("content")).get(0)).get("text")).contains(name));
+    }
+
+    @Test
+    void oversizedRopeArgumentIsInvalidParams() {
+        ToolRegistry registry = new ToolRegistry();
+        Rope rope = Rope.builder(16).append("x".repeat(64)).build();
+        McpMessage response = registry.handleToolCall(1, Map.of("name", "greeting",
+            "arguments", Map.of("name", rope)));
+        assertEquals(McpError.INVALID_PARAMS, response.getError().getCode());
+    }
+
+    @Test
+    void batchOverPureToolWorksWithResultCache() throws IOException {
+        try (PersistentCache cache = PersistentCache.open(cacheDir, 1 << 20)) {
+            assertNotNull(cache);
+            ToolRegistry registry = new ToolRegistry(new ObjectMapper(), cache);
+            Map<String, Object> params = Map.of("name", ToolRegistry.BATCH_TOOL, "arguments", Map.of(
+                "tool", "calculator",
+                "arguments_list", List.of(
+                    Map.of("a", 1, "b", 2, "operation", "add"),
+                    Map.of("a", 3, "b", 4, "operation", "multiply"))));
+
+            // 처음에는 실행한 뒤 저장하고, 두 번째는 캐시에서 읽음
+            for (int round = 0; round < 2; round++) {
+                McpMessage response = registry.handleToolCall(1, params);
+                assertNull(response.getError());
+                Map<?, ?> result = (Map<?, ?>) response.getResult();
+                assertEquals(false, result.get("isError"), String.valueOf(result));
+                List<?> content = (List<?>) result.get("content");
+                assertEquals(3, content.size());
+                assertEquals("[0] 1.00 + 2.00 = 3.00", ((Map<?, ?>) content.get(1)).get("text"));
+                assertEquals("[1] 3.00 * 4.00 = 12.00", ((Map<?, ?>) content.get(2)).get("text"));
+            }
+            assertEquals(2L, cache.stats().get("hits"));
+        }
+    }
+}
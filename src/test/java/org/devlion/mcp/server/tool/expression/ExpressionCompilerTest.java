@@ -0,0 +1,97 @@
+package org.devlion.mcp.server.tool.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 수식 컴파일과 평가 테스트
+ */
+class ExpressionCompilerTest {
+
+    private static double eval(String source) {
+        return ExpressionCompiler.compile(source).evaluate(new double[0]);
+    }
+
+    @Test
+    void operatorPrecedence() {
+        assertEquals(14, eval("2 + 3 * 4"));
+        assertEquals(20, eval("(2 + 3) * 4"));
+        assertEquals(1, eval("7 - 4 - 2"));
+        assertEquals(2, eval("16 / 4 / 2"));
+        assertEquals(1, eval("10 % 3"));
+        // 거듭제곱은 오른쪽 결합이고 단항 부호보다 먼저 계산
+        assertEquals(512, eval("2 ^ 3 ^ 2"));
+        assertEquals(-4, eval("-2 ^ 2"));
+        assertEquals(0.25, eval("2 ^ -2"));
+        assertEquals(Math.PI * 2, eval("2 * pi"));
+        assertEquals(1.5e3, eval("1.5e3"));
+    }
+
+    @Test
+    void roundsHalfUpIncludingNegatives() {
+        assertEquals(3, eval("round(2.5)"));
+        assertEquals(-2, eval("round(-2.5)"));
+        assertEquals(-2, eval("round(-2.4)"));
+        assertEquals(-3, eval("round(-2.6)"));
+        // 컴파일 시점에 접히지 않는 경로도 같은 결과
+        assertEquals(-3, ExpressionCompiler.compile("round(-x)").evaluate(new double[] {2.6}));
+        assertEquals(-2, ExpressionCompiler.compile("round(-x)").evaluate(new double[] {2.5}));
+    }
+
+    @Test
+    void variablesInOrderOfFirstUse() {
+        CompiledExpression expression = ExpressionCompiler.compile("a * x^2 + b * x + c");
+        assertEquals(List.of("a", "x", "b", "c"), expression.getVariables());
+        assertEquals(2 * 9 + 4 * 3 + 1, expression.evaluate(new double[] {2, 3, 4, 1}));
+    }
+
+    @Test
+    void evaluatesColumns() {
+        CompiledExpression expression = ExpressionCompiler.compile("max(x, y) - min(x, y)");
+        double[] result = expression.evaluate(new double[][] {{1, 5, 3}, {4, 2, 3}}, 3);
+        assertArrayEquals(new double[] {3, 3, 0}, result);
+    }
+
+    @Test
+    void longFlatChainCompilesWithoutRecursion() {
+        // 왼쪽으로 깊은 트리도 스택 없이 내보냄
+        String source = "x" + "+x".repeat(ExpressionCompiler.MAX_TOKENS / 2 - 1);
+        assertEquals(ExpressionCompiler.MAX_TOKENS / 2, ExpressionCompiler.compile(source).evaluate(new double[] {1}));
+    }
+
+    @Test
+    void rejectsDeepNesting() {
+        assertEquals(1, eval("(".repeat(ExpressionCompiler.MAX_DEPTH - 1) + "1" + ")".repeat(ExpressionCompiler.MAX_DEPTH - 1)));
+
+        assertDepthError("(".repeat(20_000) + "1" + ")".repeat(20_000));
+        assertDepthError("-".repeat(30_000) + "1");
+        assertDepthError("2^".repeat(30_000) + "2");
+    }
+
+    @Test
+    void rejectsTooManyTokens() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> ExpressionCompiler.compile("x" + "+x".repeat(30_000)));
+        assertTrue(e.getMessage().contains("토큰"), e.getMessage());
+    }
+
+    @Test
+    void rejectsSyntaxErrors() {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("1 +"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("(1 + 2"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("1 2"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("unknown(1)"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(" "));
+    }
+
+    private static void assertDepthError(String source) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(source));
+        assertTrue(e.getMessage().contains("중첩"), e.getMessage());
+    }
+}
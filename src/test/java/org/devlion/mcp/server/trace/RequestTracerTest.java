@@ -0,0 +1,59 @@
+package org.devlion.mcp.server.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 추적 레코드 기록과 읽기 테스트
+ */
+class RequestTracerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void phasesLongerThanIntNanosAreKept() throws IOException {
+        Path file = dir.resolve("trace.bin");
+        System.setProperty("mcp.trace.file", file.toString());
+        System.setProperty("mcp.trace.maxRecords", "4");
+        try (RequestTracer tracer = RequestTracer.fromSystemProperties()) {
+            assertTrue(tracer.isEnabled());
+            for (int i = 0; i < 6; i++) {
+                TraceSpan span = tracer.newSpan();
+                span.begin(10 + i);
+                span.parsed = span.received + 1_499;
+                span.dispatched = span.parsed + 2_000;
+                // 핸들러 1분: 나노초 int 범위(약 2.1초)를 넘는 구간
+                span.handled = span.dispatched + 60_000_000_000L;
+                span.serialized = span.handled + 500;
+                span.written = span.serialized + 7_000;
+                span.method = "tools/call";
+                span.tool = "calculator";
+                span.status = TraceSpan.STATUS_OK;
+                tracer.record(span);
+            }
+        } finally {
+            System.clearProperty("mcp.trace.file");
+            System.clearProperty("mcp.trace.maxRecords");
+        }
+
+        // 원형 버퍼라 마지막 4건만 남음
+        List<TraceSummary.Record> records = TraceSummary.read(file);
+        assertEquals(4, records.size());
+        assertEquals(2, records.get(0).sequence);
+        TraceSummary.Record last = records.get(3);
+        assertEquals(5, last.sequence);
+        assertEquals(15, last.requestChars);
+        assertEquals("tools/call:calculator", last.label);
+        assertArrayEquals(new int[] {1, 2, 60_000_000, 1, 7}, last.phases);
+        assertEquals(60_000_011_000L, last.totalNanos());
+    }
+}
@@ -0,0 +1,175 @@
+package org.devlion.mcp.server.transport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 공유 메모리 링 버퍼의 경계 넘김과 대기 전략 테스트
+ */
+class MappedRingTest {
+
+    private static final int HEADER = 0;
+    private static final int DATA = 128;
+    private static final int CAPACITY = 64;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 생산자와 소비자는 서로 다른 프로세스이므로 같은 매핑 위에 링 객체를 하나씩 둡니다.
+     */
+    private MappedByteBuffer map() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("ring").toFile(), "rw")) {
+            file.setLength(DATA + CAPACITY);
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, DATA + CAPACITY);
+        }
+    }
+
+    @Test
+    void writeAndReadAcrossRingEnd() throws IOException {
+        MappedByteBuffer buffer = map();
+        MappedRing producer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        MappedRing consumer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+
+        // 끝에서 10바이트 앞까지 채우고 비운 뒤, 끝을 넘는 24바이트를 씀
+        assertEquals(CAPACITY - 10, producer.write(new byte[CAPACITY - 10], 0, CAPACITY - 10));
+        assertEquals(CAPACITY - 10, consumer.read(new byte[CAPACITY], 0, CAPACITY));
+
+        byte[] message = sequence(24, 1);
+        assertEquals(24, producer.write(message, 0, message.length));
+        byte[] received = new byte[24];
+        assertEquals(24, consumer.read(received, 0, received.length));
+        assertArrayEquals(message, received);
+        assertEquals(0, consumer.read(received, 0, received.length));
+    }
+
+    @Test
+    void writeStopsWhenFullAndResumesAfterRead() throws IOException {
+        MappedByteBuffer buffer = map();
+        MappedRing producer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        MappedRing consumer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+
+        byte[] message = sequence(CAPACITY + 20, 7);
+        assertEquals(CAPACITY, producer.write(message, 0, message.length));
+        assertEquals(0, producer.write(message, CAPACITY, 20));
+
+        byte[] received = new byte[message.length];
+        assertEquals(30, consumer.read(received, 0, 30));
+        // 읽은 만큼만 다시 쓸 수 있고, 남은 20바이트는 링 끝을 넘어 처음으로 감
+        assertEquals(20, producer.write(message, CAPACITY, 20));
+        assertEquals(CAPACITY - 10, consumer.read(received, 30, received.length - 30));
+        assertArrayEquals(message, received);
+    }
+
+    @Test
+    void attachPicksUpPositionsAndResetClears() throws IOException {
+        MappedByteBuffer buffer = map();
+        MappedRing producer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        producer.write(sequence(40, 3), 0, 40);
+        producer.close();
+
+        // 나중에 붙은 소비자는 아직 읽지 않은 데이터를 그대로 봄
+        MappedRing consumer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        assertTrue(consumer.isClosed());
+        byte[] received = new byte[40];
+        assertEquals(40, consumer.read(received, 0, 40));
+        assertArrayEquals(sequence(40, 3), received);
+
+        producer.reset();
+        consumer.attach();
+        assertFalse(consumer.isClosed());
+        assertEquals(0, consumer.read(received, 0, 40));
+        assertEquals(CAPACITY, producer.write(new byte[CAPACITY], 0, CAPACITY));
+    }
+
+    @Test
+    void producerAndConsumerThreadsWrapManyTimes() throws Exception {
+        MappedByteBuffer buffer = map();
+        MappedRing producer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        MappedRing consumer = new MappedRing(buffer, HEADER, DATA, CAPACITY);
+        byte[] message = sequence(CAPACITY * 500 + 13, 11);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            SpinParkWaiter waiter = new SpinParkWaiter();
+            int offset = 0;
+            int chunk = 1;
+            while (offset < message.length) {
+                // 1부터 37바이트까지 길이를 바꿔 가며 써서 경계를 여러 위치에서 넘김
+                int written = producer.write(message, offset, Math.min(chunk, message.length - offset));
+                if (written == 0) {
+                    waiter.idle();
+                    continue;
+                }
+                waiter.reset();
+                offset += written;
+                chunk = chunk % 37 + 1;
+            }
+            producer.close();
+        });
+
+        byte[] received = new byte[message.length];
+        SpinParkWaiter waiter = new SpinParkWaiter();
+        int offset = 0;
+        while (true) {
+            // 종료 표시를 먼저 읽어야 그 뒤의 빈 읽기가 정말 끝임을 뜻함
+            boolean closed = consumer.isClosed();
+            int count = consumer.read(received, offset, Math.min(29, received.length - offset));
+            if (count > 0) {
+                offset += count;
+                waiter.reset();
+            } else if (closed) {
+                break;
+            } else {
+                waiter.idle();
+            }
+        }
+        writer.get(30, TimeUnit.SECONDS);
+        assertEquals(message.length, offset);
+        assertArrayEquals(message, received);
+    }
+
+    @Test
+    void waiterReportsLivenessCheckEverySixteenParks() {
+        SpinParkWaiter waiter = new SpinParkWaiter();
+        int calls = 0;
+        while (!waiter.idle()) {
+            calls++;
+            assertTrue(calls < 1_000_000, "잠들기 전 대기가 끝나지 않음");
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 15; i++) {
+                assertFalse(waiter.idle());
+            }
+            assertTrue(waiter.idle());
+        }
+
+        // 다시 처음부터 바쁜 대기와 양보를 거침
+        waiter.reset();
+        int again = 0;
+        while (!waiter.idle()) {
+            again++;
+        }
+        assertEquals(calls, again);
+    }
+
+    private static byte[] sequence(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+}